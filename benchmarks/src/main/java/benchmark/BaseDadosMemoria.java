@@ -0,0 +1,257 @@
+package benchmark;
+
+import dao.CacheReferencia;
+import model.Cidade;
+import model.Estado;
+import model.FormatoMatricula;
+import model.Utilizador;
+import model.Veiculo;
+import org.mindrot.jbcrypt.BCrypt;
+import util.ConexaoBD;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Base de dados H2 em memória (modo MySQL) com o esquema gsa_db, usada pelos benchmarks de DAO.
+ * A ConexaoBD é redirecionada para esta base através das propriedades gsa.db.*,
+ * pelo que os DAO são medidos sem alterações e sem precisar de um servidor MySQL.
+ */
+public final class BaseDadosMemoria {
+
+    // INIT cria o esquema gsa_db e torna-o o esquema por omissão (o PerfilDAO usa nomes sem esquema)
+    public static final String URL = "jdbc:h2:mem:gsa_db;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;"
+            + "INIT=CREATE SCHEMA IF NOT EXISTS gsa_db\\;SET SCHEMA gsa_db";
+    public static final String USER = "sa";
+    public static final String PASSWORD = "";
+
+    // Credenciais do utilizador criado para o benchmark de login
+    public static final String UTILIZADOR_LOGIN = "admin@gsa.pt";
+    public static final String PALAVRA_PASSE_LOGIN = "benchmark-123";
+
+    private static final int NUMERO_RESPONSAVEIS = 20;
+    private static final int TAMANHO_LOTE = 1_000;
+    private static final LocalDate INICIO_VENDAS = LocalDate.of(2024, 1, 1);
+
+    private static final String[] MARCAS = {"Renault", "Peugeot", "Citroën", "SEAT", "Volkswagen", "Toyota", "BMW", "Fiat"};
+    private static final String[][] MODELOS = {
+            {"Clio", "Mégane", "Captur"}, {"208", "308", "3008"}, {"C3", "C4", "Berlingo"}, {"Ibiza", "Leon", "Arona"},
+            {"Golf", "Polo", "Passat"}, {"Yaris", "Corolla", "C-HR"}, {"Série 1", "Série 3", "X1"}, {"500", "Panda", "Tipo"}
+    };
+
+    // Formatos gerados e cidades (ids de esquema-h2.sql) coerentes com o país de cada formato
+    private static final FormatoMatricula[] FORMATOS = {
+            FormatoMatricula.PT_ATUAL, FormatoMatricula.PT_ANTIGO, FormatoMatricula.PT_MUITO_ANTIGO,
+            FormatoMatricula.FR_ATUAL, FormatoMatricula.FR_ANTIGO, FormatoMatricula.ES_ATUAL, FormatoMatricula.ES_ANTIGO
+    };
+    private static final String[] MOLDES = {"LL-DD-LL", "DD-LL-DD", "LL-DDDD", "LL-DDD-LL", "DDDD LLL DD", "DDDD LLL", "LL-DDDD-LL"};
+    private static final int[][] CIDADES_POR_FORMATO = {{1, 2}, {1, 2}, {1, 2}, {3, 4}, {3, 4}, {5, 6}, {5, 6}};
+    private static final String[] NOMES_CIDADES = {null, "Lisboa", "Porto", "Paris", "Lyon", "Madrid", "Barcelona"};
+    private static final String[] NOMES_ESTADOS = {null, "Disponível", "Vendido", "Em manutenção"};
+
+    // Estado atual da base, para não voltar a semear quando os parâmetros não mudam
+    private static int frotaAtual = -1;
+    private static int custoAtual = -1;
+
+    static {
+        System.setProperty(ConexaoBD.PROPRIEDADE_URL, URL);
+        System.setProperty(ConexaoBD.PROPRIEDADE_USER, USER);
+        System.setProperty(ConexaoBD.PROPRIEDADE_PASSWORD, PASSWORD);
+        // O H2 não tem índices FULLTEXT ngram: a pesquisa "contém" do VeiculoDAO usa LIKE
+        System.setProperty(ConexaoBD.PROPRIEDADE_FULLTEXT, "false");
+    }
+
+    private BaseDadosMemoria() {
+    }
+
+    /**
+     * Cria o esquema e semeia a base com a frota pedida.
+     *
+     * @param tamanhoFrota Número de veículos a inserir.
+     * @param custoBCrypt  Custo (log2 de rondas) do hash da palavra-passe do utilizador de login.
+     */
+    public static synchronized void preparar(int tamanhoFrota, int custoBCrypt) throws SQLException {
+        if (tamanhoFrota == frotaAtual && custoBCrypt == custoAtual) {
+            return;
+        }
+        // Ligação direta (fora do pool) para criar o esquema
+        try (Connection connection = DriverManager.getConnection(URL, USER, PASSWORD)) {
+            executarScript(connection, lerRecurso("/esquema-h2.sql"));
+            inserirUtilizadores(connection, custoBCrypt);
+            inserirFrota(connection, tamanhoFrota);
+        }
+        CacheReferencia.invalidarTodas();
+        frotaAtual = tamanhoFrota;
+        custoAtual = custoBCrypt;
+        System.out.println("BaseDadosMemoria: " + tamanhoFrota + " veículos, BCrypt custo " + custoBCrypt + ".");
+    }
+
+    /**
+     * Gera a frota em memória (mesmos dados que preparar insere), sem passar pela base de dados.
+     */
+    public static List<Veiculo> gerarFrota(int tamanhoFrota) {
+        List<Veiculo> veiculos = new ArrayList<>(tamanhoFrota);
+        for (int i = 0; i < tamanhoFrota; i++) {
+            int cidadeId = cidadeDe(i);
+            int estadoId = estadoDe(i);
+            Utilizador responsavel = new Utilizador(responsavelDe(i), "Responsável " + responsavelDe(i));
+            Veiculo veiculo = new Veiculo(tamanhoFrota - i, marcaDe(i), modeloDe(i), gerarMatricula(i),
+                    new Estado(estadoId, NOMES_ESTADOS[estadoId]), precoDe(i),
+                    new Cidade(cidadeId, NOMES_CIDADES[cidadeId]), responsavel, null, null);
+            veiculos.add(veiculo);
+        }
+        return veiculos;
+    }
+
+    /**
+     * Gera uma matrícula válida e única para o índice dado (o formato roda pelos sete formatos).
+     */
+    public static String gerarMatricula(int indice) {
+        String molde = MOLDES[indice % MOLDES.length];
+        int valor = indice / MOLDES.length;
+        char[] matricula = molde.toCharArray();
+        // Preenche da direita para a esquerda, como um número em base mista
+        for (int i = matricula.length - 1; i >= 0; i--) {
+            if (matricula[i] == 'D') {
+                matricula[i] = (char) ('0' + valor % 10);
+                valor /= 10;
+            } else if (matricula[i] == 'L') {
+                matricula[i] = (char) ('A' + valor % 26);
+                valor /= 26;
+            }
+        }
+        return new String(matricula);
+    }
+
+    /**
+     * Formato gerado por gerarMatricula para o índice dado.
+     */
+    public static FormatoMatricula formatoDe(int indice) {
+        return FORMATOS[indice % FORMATOS.length];
+    }
+
+    // --- Métodos auxiliares ---
+
+    private static void inserirUtilizadores(Connection connection, int custoBCrypt) throws SQLException {
+        String sql = "INSERT INTO gsa_db.utilizador (nome, utilizador, palavra_passe, id_perfil) VALUES (?, ?, ?, ?)";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, "Administrador");
+            ps.setString(2, UTILIZADOR_LOGIN);
+            ps.setString(3, BCrypt.hashpw(PALAVRA_PASSE_LOGIN, BCrypt.gensalt(custoBCrypt)));
+            ps.setInt(4, 1);
+            ps.addBatch();
+            // Os restantes utilizadores só servem de responsáveis; o hash não é verificado
+            String hashResponsaveis = BCrypt.hashpw("responsavel", BCrypt.gensalt(4));
+            for (int i = 2; i <= NUMERO_RESPONSAVEIS; i++) {
+                ps.setString(1, "Responsável " + i);
+                ps.setString(2, "responsavel" + i + "@gsa.pt");
+                ps.setString(3, hashResponsaveis);
+                ps.setInt(4, 2);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private static void inserirFrota(Connection connection, int tamanhoFrota) throws SQLException {
+        String sql = "INSERT INTO gsa_db.veiculo (marca, modelo, matricula, id_estado, preco, id_cidade, id_responsavel, id_comprador, data_venda, pais_matricula) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        connection.setAutoCommit(false);
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            for (int i = 0; i < tamanhoFrota; i++) {
+                int estadoId = estadoDe(i);
+                ps.setString(1, marcaDe(i));
+                ps.setString(2, modeloDe(i));
+                ps.setString(3, gerarMatricula(i));
+                ps.setInt(4, estadoId);
+                ps.setDouble(5, precoDe(i));
+                ps.setInt(6, cidadeDe(i));
+                ps.setInt(7, responsavelDe(i));
+                if (estadoId == 2) {
+                    ps.setInt(8, 1 + i % 3);
+                    ps.setDate(9, Date.valueOf(INICIO_VENDAS.plusDays(i % 365)));
+                } else {
+                    ps.setNull(8, Types.INTEGER);
+                    ps.setNull(9, Types.DATE);
+                }
+                ps.setString(10, formatoDe(i).getPais().name());
+                ps.addBatch();
+                if ((i + 1) % TAMANHO_LOTE == 0) {
+                    ps.executeBatch();
+                }
+            }
+            ps.executeBatch();
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private static String marcaDe(int i) {
+        return MARCAS[i % MARCAS.length];
+    }
+
+    private static String modeloDe(int i) {
+        return MODELOS[i % MARCAS.length][(i / MARCAS.length) % 3];
+    }
+
+    private static int estadoDe(int i) {
+        return 1 + (i % 10 == 0 ? 1 : i % 17 == 0 ? 2 : 0);
+    }
+
+    private static double precoDe(int i) {
+        return 25.0 + (i % 150);
+    }
+
+    private static int cidadeDe(int i) {
+        int[] cidades = CIDADES_POR_FORMATO[i % CIDADES_POR_FORMATO.length];
+        return cidades[(i / CIDADES_POR_FORMATO.length) % cidades.length];
+    }
+
+    private static int responsavelDe(int i) {
+        return 1 + i % NUMERO_RESPONSAVEIS;
+    }
+
+    private static void executarScript(Connection connection, String script) throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            for (String instrucao : script.split(";")) {
+                String sql = removerComentarios(instrucao).trim();
+                if (!sql.isEmpty()) {
+                    st.execute(sql);
+                }
+            }
+        }
+    }
+
+    private static String removerComentarios(String instrucao) {
+        StringBuilder sb = new StringBuilder();
+        for (String linha : instrucao.split("\n")) {
+            if (!linha.trim().startsWith("--")) {
+                sb.append(linha).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String lerRecurso(String nome) {
+        try (InputStream in = BaseDadosMemoria.class.getResourceAsStream(nome)) {
+            if (in == null) {
+                throw new IllegalStateException("Recurso não encontrado: " + nome);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Erro ao ler " + nome, e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package benchmark;
+
+import dao.PerfilDAO;
+import model.Utilizador;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login com BCrypt (PerfilDAO.buscarPorCredenciais) contra a base H2 em memória,
+ * para vários custos do hash guardado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginBenchmark {
+
+    @Param({"10", "12"})
+    public int custoBCrypt;
+
+    private PerfilDAO perfilDAO;
+
+    @Setup(Level.Trial)
+    public void preparar() throws SQLException {
+        BaseDadosMemoria.preparar(100, custoBCrypt);
+        perfilDAO = new PerfilDAO();
+        if (perfilDAO.buscarPorCredenciais(BaseDadosMemoria.UTILIZADOR_LOGIN, BaseDadosMemoria.PALAVRA_PASSE_LOGIN) == null) {
+            throw new IllegalStateException("O utilizador de login não foi criado corretamente.");
+        }
+    }
+
+    @Benchmark
+    public Utilizador loginValido() {
+        return perfilDAO.buscarPorCredenciais(BaseDadosMemoria.UTILIZADOR_LOGIN, BaseDadosMemoria.PALAVRA_PASSE_LOGIN);
+    }
+
+    @Benchmark
+    public Utilizador palavraPasseErrada() {
+        return perfilDAO.buscarPorCredenciais(BaseDadosMemoria.UTILIZADOR_LOGIN, "errada");
+    }
+
+    // Sem hash para verificar: mede só a query
+    @Benchmark
+    public Utilizador utilizadorInexistente() {
+        return perfilDAO.buscarPorCredenciais("ninguem@gsa.pt", "errada");
+    }
+}
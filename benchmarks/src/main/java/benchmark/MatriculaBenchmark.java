@@ -0,0 +1,96 @@
+package benchmark;
+
+import dao.VeiculoDAO.MatriculaValidator;
+import model.FormatoMatricula;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validação de matrículas: classificador de passagem única contra as regexes originais,
+ * com conjuntos de matrículas válidas, inválidas e misturadas.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatriculaBenchmark {
+
+    private static final int TAMANHO_CONJUNTO = 1024; // Potência de 2, para rodar com uma máscara
+
+    // Matrículas que não correspondem a nenhum formato (quase válidas, para não sair logo no 1.º carácter)
+    private static final String[] INVALIDAS = {
+            "AB12CD", "AB-12-C", "ABC-12-CD", "1234", "", "   ", "AB-12-CD-", "-AB-12-CD", "12-AB-3X",
+            "AB-1234-CDE", "12345 ABC", "1234 ABCD", "AB 12 CD", "1234 ABC 123", "A1-23-BC", "AB--12-CD"
+    };
+
+    @Param({"VALIDAS", "INVALIDAS", "MISTAS"})
+    public String conjunto;
+
+    private String[] matriculas;
+    private int indice;
+
+    @Setup
+    public void preparar() {
+        Random random = new Random(42);
+        matriculas = new String[TAMANHO_CONJUNTO];
+        for (int i = 0; i < TAMANHO_CONJUNTO; i++) {
+            boolean valida = "VALIDAS".equals(conjunto) || ("MISTAS".equals(conjunto) && random.nextBoolean());
+            if (valida) {
+                String matricula = BaseDadosMemoria.gerarMatricula(random.nextInt(1_000_000));
+                // Algumas em minúsculas ou com espaços, como chegam do formulário
+                matriculas[i] = random.nextInt(4) == 0 ? " " + matricula.toLowerCase() + " " : matricula;
+            } else {
+                matriculas[i] = INVALIDAS[random.nextInt(INVALIDAS.length)];
+            }
+        }
+        // Garante que as duas implementações comparadas dão o mesmo resultado
+        for (String matricula : matriculas) {
+            FormatoMatricula esperado = MatriculaValidator.identificarFormatoPorRegex(matricula);
+            FormatoMatricula obtido = MatriculaValidator.identificarFormato(matricula);
+            if (esperado != obtido) {
+                throw new IllegalStateException("Divergência para \"" + matricula + "\": " + obtido + " != " + esperado);
+            }
+        }
+    }
+
+    private String proxima() {
+        String matricula = matriculas[indice];
+        indice = (indice + 1) & (TAMANHO_CONJUNTO - 1);
+        return matricula;
+    }
+
+    @Benchmark
+    public boolean isMatriculaValida() {
+        return MatriculaValidator.isMatriculaValida(proxima());
+    }
+
+    @Benchmark
+    public String identificarPais() {
+        return MatriculaValidator.identificarPais(proxima());
+    }
+
+    @Benchmark
+    public FormatoMatricula classificador() {
+        return MatriculaValidator.identificarFormato(proxima());
+    }
+
+    // Referência: a cadeia de regexes que o classificador substituiu
+    @Benchmark
+    public FormatoMatricula regexOriginal() {
+        return MatriculaValidator.identificarFormatoPorRegex(proxima());
+    }
+}
@@ -0,0 +1,103 @@
+package benchmark;
+
+import model.Veiculo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import view.VeiculoTableModel;
+
+import javax.swing.JTable;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Preenchimento da tabela do ListarVeiculoView: o VeiculoTableModel ligado a uma JTable,
+ * para incluir o tratamento dos eventos do modelo pela tabela.
+ * A janela em si não é criada, para o benchmark correr em modo headless.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class TabelaVeiculosBenchmark {
+
+    private static final int TAMANHO_PAGINA = 200; // O mesmo do ListarController
+
+    @Param({"1000", "10000", "100000"})
+    public int tamanhoFrota;
+
+    private List<Veiculo> veiculos;
+    private List<Veiculo> pagina;
+    private VeiculoTableModel tableModel;
+    private JTable tabela;
+    private String[] teclasMatricula; // Fragmentos sucessivos de uma matrícula, como se fosse escrita
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        veiculos = BaseDadosMemoria.gerarFrota(tamanhoFrota);
+        pagina = veiculos.subList(0, Math.min(TAMANHO_PAGINA, veiculos.size()));
+        tableModel = new VeiculoTableModel();
+        tabela = new JTable(tableModel);
+
+        String matricula = BaseDadosMemoria.gerarMatricula(tamanhoFrota / 2);
+        teclasMatricula = new String[matricula.length()];
+        for (int i = 0; i < teclasMatricula.length; i++) {
+            teclasMatricula[i] = matricula.substring(0, i + 1);
+        }
+    }
+
+    // Substituição completa (novo filtro / recarregar lista)
+    @Benchmark
+    public int substituirTodos() {
+        tableModel.substituir(veiculos);
+        return tabela.getRowCount();
+    }
+
+    // Primeira página + página seguinte (scroll), como o ListarController faz
+    @Benchmark
+    public int primeiraESegundaPagina() {
+        tableModel.substituir(pagina);
+        tableModel.acrescentar(pagina);
+        return tabela.getRowCount();
+    }
+
+    // Filtro local (índice de trigramas) a cada tecla de uma matrícula, sobre a frota toda carregada,
+    // incluindo os eventos de linhas removidas/inseridas tratados pela JTable
+    @Benchmark
+    public int escreverMatriculaNoFiltro() {
+        if (tableModel.getTotalCarregado() != veiculos.size()) {
+            tableModel.substituir(veiculos);
+        }
+        int linhas = 0;
+        for (String fragmento : teclasMatricula) {
+            tableModel.filtrar(null, null, fragmento);
+            linhas += tabela.getRowCount();
+        }
+        tableModel.filtrar(null, null, null);
+        return linhas;
+    }
+
+    // Leitura de todas as células, como o renderer faz ao pintar
+    @Benchmark
+    public int lerCelulas() {
+        tableModel.substituir(pagina);
+        int hash = 0;
+        for (int linha = 0; linha < tableModel.getRowCount(); linha++) {
+            for (int coluna = 0; coluna < tableModel.getColumnCount(); coluna++) {
+                hash += tableModel.getValueAt(linha, coluna).hashCode();
+            }
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,86 @@
+package benchmark;
+
+import dao.EstatisticasMatriculas;
+import dao.Pagina;
+import dao.VeiculoDAO;
+import model.PaisMatricula;
+import model.Veiculo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listagem de veículos (query com quatro JOIN + mapeamento das linhas) contra a base H2 em memória.
+ * O tamanho da frota é configurável: -p tamanhoFrota=50000
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VeiculoDAOBenchmark {
+
+    private static final int TAMANHO_PAGINA = 200; // O mesmo do ListarController
+
+    @Param({"1000", "10000"})
+    public int tamanhoFrota;
+
+    private VeiculoDAO veiculoDAO;
+    private String matriculaCompleta; // Pesquisa exata pela chave normalizada
+
+    @Setup(Level.Trial)
+    public void preparar() throws SQLException {
+        BaseDadosMemoria.preparar(tamanhoFrota, 4);
+        veiculoDAO = new VeiculoDAO();
+        matriculaCompleta = BaseDadosMemoria.gerarMatricula(tamanhoFrota / 2);
+    }
+
+    @Benchmark
+    public List<Veiculo> filtrarTodos() {
+        return veiculoDAO.filtrarVeiculos(null, null, null);
+    }
+
+    @Benchmark
+    public List<Veiculo> filtrarPorMarca() {
+        return veiculoDAO.filtrarVeiculos("Peugeot", null, null);
+    }
+
+    @Benchmark
+    public List<Veiculo> filtrarPorMatricula() {
+        return veiculoDAO.filtrarVeiculos(null, null, "AB");
+    }
+
+    @Benchmark
+    public List<Veiculo> filtrarPorMatriculaCompleta() {
+        return veiculoDAO.filtrarVeiculos(null, null, matriculaCompleta);
+    }
+
+    @Benchmark
+    public Pagina<Veiculo> primeiraPagina() {
+        return veiculoDAO.buscarTodosPaginado(null, TAMANHO_PAGINA);
+    }
+
+    @Benchmark
+    public EstatisticasMatriculas estatisticasMatriculas() {
+        return veiculoDAO.obterEstatisticasMatriculas();
+    }
+
+    @Benchmark
+    public Pagina<Veiculo> primeiraPaginaPorPais() {
+        return veiculoDAO.buscarPorPaisMatriculaPaginado(PaisMatricula.FRANCA, null, TAMANHO_PAGINA);
+    }
+}
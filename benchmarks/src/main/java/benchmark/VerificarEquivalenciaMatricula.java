@@ -0,0 +1,91 @@
+package benchmark;
+
+import dao.VeiculoDAO.MatriculaValidator;
+import model.FormatoMatricula;
+
+import java.util.Random;
+
+/**
+ * Verifica que o ClassificadorMatricula dá exatamente o mesmo resultado que as regexes originais:
+ * de forma exaustiva para todas as cadeias curtas sobre um alfabeto reduzido, e com cadeias
+ * aleatórias e matrículas válidas com mutações.
+ * Termina com código 1 se encontrar alguma divergência.
+ *
+ * Utilização: java -cp benchmarks.jar benchmark.VerificarEquivalenciaMatricula [casosAleatorios]
+ */
+public final class VerificarEquivalenciaMatricula {
+
+    // Um representante de cada classe de carácter relevante (letra, minúscula, dígito, separadores, \s, outros)
+    private static final char[] ALFABETO_EXAUSTIVO = {'A', 'b', '1', '-', ' ', '\t', '.'};
+    private static final int COMPRIMENTO_EXAUSTIVO = 8;
+
+    // Inclui caracteres não-ASCII que toUpperCase() converte em letras A-Z ('ı' -> 'I', 'ſ' -> 'S')
+    private static final char[] ALFABETO_ALEATORIO =
+            "AZaz09 -\t\n\u000B\f\r\u0001_.ßıſéÇ".toCharArray();
+
+    private static final String[] EXEMPLOS = {
+            "AB-12-CD", "12-AB-34", "AB-1234", "AB-123-CD", "1234 ABC 12", "1 A 12",
+            "1234 ABC", "1234-FGH", "B 1234 CD", "GR-5678-C", " ab-12-cd ", "1234\tABC\t12"
+    };
+
+    private VerificarEquivalenciaMatricula() {
+    }
+
+    public static void main(String[] args) {
+        long casosAleatorios = args.length > 0 ? Long.parseLong(args[0]) : 5_000_000L;
+        long casos = 0;
+        long divergencias = 0;
+
+        // Exaustivo: todas as cadeias até COMPRIMENTO_EXAUSTIVO sobre o alfabeto reduzido
+        char[] buffer = new char[COMPRIMENTO_EXAUSTIVO];
+        for (int comprimento = 0; comprimento <= COMPRIMENTO_EXAUSTIVO; comprimento++) {
+            long total = (long) Math.pow(ALFABETO_EXAUSTIVO.length, comprimento);
+            for (long n = 0; n < total; n++) {
+                long resto = n;
+                for (int i = 0; i < comprimento; i++) {
+                    buffer[i] = ALFABETO_EXAUSTIVO[(int) (resto % ALFABETO_EXAUSTIVO.length)];
+                    resto /= ALFABETO_EXAUSTIVO.length;
+                }
+                casos++;
+                divergencias += comparar(new String(buffer, 0, comprimento));
+            }
+        }
+
+        // Aleatório: metade mutações de matrículas válidas, metade cadeias arbitrárias
+        Random random = new Random(20240501L);
+        for (long n = 0; n < casosAleatorios; n++) {
+            char[] matricula;
+            if (random.nextBoolean()) {
+                matricula = EXEMPLOS[random.nextInt(EXEMPLOS.length)].toCharArray();
+                int mutacoes = random.nextInt(3);
+                for (int i = 0; i < mutacoes; i++) {
+                    matricula[random.nextInt(matricula.length)] = ALFABETO_ALEATORIO[random.nextInt(ALFABETO_ALEATORIO.length)];
+                }
+            } else {
+                matricula = new char[random.nextInt(14)];
+                for (int i = 0; i < matricula.length; i++) {
+                    matricula[i] = ALFABETO_ALEATORIO[random.nextInt(ALFABETO_ALEATORIO.length)];
+                }
+            }
+            casos++;
+            divergencias += comparar(new String(matricula));
+        }
+        casos++;
+        divergencias += comparar(null);
+
+        System.out.println("Casos verificados: " + casos + ", divergências: " + divergencias);
+        if (divergencias > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static int comparar(String matricula) {
+        FormatoMatricula esperado = MatriculaValidator.identificarFormatoPorRegex(matricula);
+        FormatoMatricula obtido = MatriculaValidator.identificarFormato(matricula);
+        if (esperado == obtido) {
+            return 0;
+        }
+        System.err.println("Divergência para \"" + matricula + "\": classificador=" + obtido + ", regex=" + esperado);
+        return 1;
+    }
+}
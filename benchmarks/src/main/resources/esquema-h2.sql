@@ -0,0 +1,92 @@
+-- Esquema gsa_db para a base de dados H2 em memória usada pelos benchmarks (modo MySQL).
+-- Reproduz as tabelas e colunas usadas pelos DAO; os dados de referência são fixos,
+-- a frota de veículos é gerada por BaseDadosMemoria.
+
+DROP TABLE IF EXISTS veiculo;
+DROP TABLE IF EXISTS comprador;
+DROP TABLE IF EXISTS utilizador;
+DROP TABLE IF EXISTS perfil;
+DROP TABLE IF EXISTS cidade;
+DROP TABLE IF EXISTS pais;
+DROP TABLE IF EXISTS estado;
+
+CREATE TABLE pais (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    nome VARCHAR(100) NOT NULL
+);
+
+CREATE TABLE cidade (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    descricao VARCHAR(100) NOT NULL,
+    id_pais INT,
+    FOREIGN KEY (id_pais) REFERENCES pais (id)
+);
+
+CREATE TABLE estado (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    descricao VARCHAR(50) NOT NULL
+);
+
+CREATE TABLE perfil (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    descricao VARCHAR(50) NOT NULL
+);
+
+CREATE TABLE utilizador (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    nome VARCHAR(100) NOT NULL,
+    utilizador VARCHAR(100) NOT NULL UNIQUE,
+    palavra_passe VARCHAR(100) NOT NULL,
+    id_perfil INT NOT NULL,
+    FOREIGN KEY (id_perfil) REFERENCES perfil (id)
+);
+
+CREATE TABLE comprador (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    nome_completo VARCHAR(150) NOT NULL,
+    telefone VARCHAR(20),
+    email VARCHAR(150) UNIQUE
+);
+
+CREATE TABLE veiculo (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    marca VARCHAR(50) NOT NULL,
+    modelo VARCHAR(50) NOT NULL,
+    matricula VARCHAR(20) NOT NULL UNIQUE,
+    id_estado INT NOT NULL,
+    preco DECIMAL(10, 2) NOT NULL,
+    id_cidade INT NOT NULL,
+    id_responsavel INT,
+    id_comprador INT,
+    data_venda DATE,
+    pais_matricula VARCHAR(10),
+    matricula_chave VARCHAR(20) GENERATED ALWAYS AS (UPPER(REPLACE(REPLACE(matricula, '-', ''), ' ', ''))),
+    FOREIGN KEY (id_estado) REFERENCES estado (id),
+    FOREIGN KEY (id_cidade) REFERENCES cidade (id),
+    FOREIGN KEY (id_responsavel) REFERENCES utilizador (id),
+    FOREIGN KEY (id_comprador) REFERENCES comprador (id)
+);
+
+CREATE INDEX idx_veiculo_pais_matricula ON veiculo (pais_matricula, id);
+-- Sem FULLTEXT ngram no H2: a pesquisa "contém" recorre a LIKE (ver gsa.db.fulltext em BaseDadosMemoria)
+CREATE INDEX idx_veiculo_matricula_chave ON veiculo (matricula_chave);
+CREATE INDEX idx_veiculo_marca ON veiculo (marca);
+CREATE INDEX idx_veiculo_modelo ON veiculo (modelo);
+CREATE INDEX idx_utilizador_nome ON utilizador (nome);
+CREATE INDEX idx_comprador_nome_completo ON comprador (nome_completo);
+
+INSERT INTO pais (id, nome) VALUES (1, 'Portugal'), (2, 'França'), (3, 'Espanha');
+
+INSERT INTO cidade (id, descricao, id_pais) VALUES
+    (1, 'Lisboa', 1), (2, 'Porto', 1),
+    (3, 'Paris', 2), (4, 'Lyon', 2),
+    (5, 'Madrid', 3), (6, 'Barcelona', 3);
+
+INSERT INTO estado (id, descricao) VALUES (1, 'Disponível'), (2, 'Vendido'), (3, 'Em manutenção');
+
+INSERT INTO perfil (id, descricao) VALUES (1, 'Administrador'), (2, 'Vendedor');
+
+INSERT INTO comprador (id, nome_completo, telefone, email) VALUES
+    (1, 'Ana Silva', '912345678', 'ana.silva@exemplo.pt'),
+    (2, 'Jean Dupont', '0612345678', 'jean.dupont@exemplo.fr'),
+    (3, 'Lucía García', '612345678', 'lucia.garcia@exemplo.es');
@@ -1,26 +1,32 @@
 package controller;
 
 import view.CriarNovoClienteView;
-import view.MenuView;
 import model.Comprador;
 import dao.CompradorDAO;
+import service.ExecutorTarefas;
 
 import javax.swing.*;
 
-public class CriarNovoClienteController {
+public class CriarNovoClienteController implements Ecra {
     private CriarNovoClienteView view;
-    private MenuView menuView;
     private CompradorDAO compradorDAO;
 
-    public CriarNovoClienteController(MenuView menuView) {
-        this.menuView = menuView;
+    public CriarNovoClienteController() {
         this.view = new CriarNovoClienteView();
         this.compradorDAO = new CompradorDAO();
 
         view.adicionarAcaoCriarCliente(e -> criarCliente());
         view.adicionarAcaoVoltar(e -> voltar());
+    }
+
+    @Override
+    public JFrame getJanela() {
+        return view;
+    }
 
-        view.setVisible(true);
+    @Override
+    public void aoMostrar() {
+        view.limparCampos();
     }
 
     private void criarCliente() {
@@ -33,17 +39,25 @@ public class CriarNovoClienteController {
         comprador.setTelefone(view.getTelefone().trim());
         comprador.setEmail(view.getEmail().trim());
 
-        try {
-            compradorDAO.salvar(comprador);
-            view.exibirMensagem("Cliente criado com sucesso!", "Sucesso", JOptionPane.INFORMATION_MESSAGE);
-        } catch (Exception ex) {
-            view.exibirMensagem("Erro ao criar cliente: " + ex.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
-        }
+        // A inserção corre fora do EDT; o botão fica desativado até terminar (evita clientes duplicados)
+        view.setCarregando(true);
+        ExecutorTarefas.getInstance().executar(
+                contexto -> {
+                    compradorDAO.salvar(comprador);
+                    return comprador;
+                },
+                criado -> {
+                    view.setCarregando(false);
+                    view.exibirMensagem("Cliente criado com sucesso!", "Sucesso", JOptionPane.INFORMATION_MESSAGE);
+                },
+                ex -> {
+                    view.setCarregando(false);
+                    view.exibirMensagem("Erro ao criar cliente: " + ex.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
+                });
     }
 
 
     private void voltar() {
-        view.dispose();
-        menuView.setVisible(true);
+        Navegador.getInstance().mostrarMenu(); // Esconde esta janela (fica guardada) e volta ao menu
     }
 }
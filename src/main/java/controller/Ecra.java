@@ -0,0 +1,27 @@
+package controller;
+
+import javax.swing.JFrame;
+
+/**
+ * Ecrã principal da aplicação (login, menu, listagem, inserção, novo cliente), guardado pelo Navegador
+ * e reutilizado: a janela é escondida e mostrada, nunca reconstruída enquanto a sessão durar.
+ */
+interface Ecra {
+
+    /**
+     * A janela do ecrã, ou null se a construção falhou.
+     */
+    JFrame getJanela();
+
+    /**
+     * Chamado no EDT sempre que o ecrã vai ser mostrado (também na primeira vez), antes de a janela
+     * ficar visível: atualiza só os dados (permissões do perfil, listas, campos a limpar).
+     */
+    void aoMostrar();
+
+    /**
+     * Chamado no EDT quando o ecrã é escondido para dar lugar a outro (ex: cancelar pesquisas em curso).
+     */
+    default void aoEsconder() {
+    }
+}
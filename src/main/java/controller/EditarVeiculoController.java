@@ -10,25 +10,30 @@ import model.Estado;
 import model.Cidade;
 import model.Utilizador;
 import model.Comprador;
+import service.ExecutorTarefas;
+import service.NotificadorVeiculos;
+import util.Log;
 import view.EditarVeiculoView;
-import view.ListarVeiculoView;
 
 import javax.swing.SwingUtilities;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.text.NumberFormat;
 import java.text.ParseException;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 import java.util.ArrayList;
-import java.util.logging.Logger;
-import java.util.logging.Level;
 
 public class EditarVeiculoController {
 
-    private static final Logger LOGGER = Logger.getLogger(EditarVeiculoController.class.getName());
+    private static final Log LOG = Log.de(EditarVeiculoController.class);
     private static final int MATRICULA_MIN_LENGTH = 6;
     private static final int MATRICULA_MAX_LENGTH = 10;
     private static final String ESTADO_VENDIDO = "Vendido";
+    // Canais das pesquisas dos seletores: cada tecla nova substitui a pesquisa anterior
+    private static final String CANAL_PESQUISA_RESPONSAVEL = "pesquisa-responsavel";
+    private static final String CANAL_PESQUISA_COMPRADOR = "pesquisa-comprador";
 
     private EditarVeiculoView editarVeiculoView;
     private final VeiculoDAO veiculoDAO;
@@ -37,10 +42,10 @@ public class EditarVeiculoController {
     private final UtilizadorDAO utilizadorDAO;
     private final CompradorDAO compradorDAO;
     private final Veiculo veiculoOriginal;
+    private final Runnable aoFechar; // Volta à listagem que abriu a edição
 
     public EditarVeiculoController(Veiculo veiculoParaEditar, List<Estado> todosEstados,
-                                   List<Cidade> todasCidades, List<Utilizador> todosResponsaveis,
-                                   List<Comprador> todosCompradores) {
+                                   List<Cidade> todasCidades, Runnable aoFechar) {
 
         // Validar parâmetros de entrada
         if (veiculoParaEditar == null) {
@@ -54,26 +59,42 @@ public class EditarVeiculoController {
         this.utilizadorDAO = new UtilizadorDAO();
         this.compradorDAO = new CompradorDAO();
         this.veiculoOriginal = veiculoParaEditar;
+        this.aoFechar = aoFechar;
 
         // Criar a view no EDT
         SwingUtilities.invokeLater(() -> {
             try {
                 this.editarVeiculoView = new EditarVeiculoView(null);
-                inicializarView(todosEstados, todasCidades, todosResponsaveis, todosCompradores);
+                inicializarView(todosEstados, todasCidades);
                 configurarEventos();
+                // Também quando a janela é fechada no "X"
+                this.editarVeiculoView.addWindowListener(new WindowAdapter() {
+                    @Override
+                    public void windowClosed(WindowEvent e) {
+                        ExecutorTarefas.getInstance().cancelar(CANAL_PESQUISA_RESPONSAVEL);
+                        ExecutorTarefas.getInstance().cancelar(CANAL_PESQUISA_COMPRADOR);
+                        aoFechar.run();
+                    }
+                });
                 this.editarVeiculoView.setVisible(true);
             } catch (Exception e) {
-                LOGGER.log(Level.SEVERE, "Erro ao inicializar a view de edição", e);
+                LOG.erro("Erro ao inicializar a view de edição: {}", e.getMessage(), e);
                 // Poderia mostrar uma mensagem de erro ao usuário aqui
             }
         });
     }
 
-    private void inicializarView(List<Estado> todosEstados, List<Cidade> todasCidades,
-                                 List<Utilizador> todosResponsaveis, List<Comprador> todosCompradores) {
+    private void inicializarView(List<Estado> todosEstados, List<Cidade> todasCidades) {
         // Preencher a vista com os dados do veículo e popula as comboboxes
-        editarVeiculoView.setVeiculoData(veiculoOriginal, todosEstados, todasCidades,
-                todosResponsaveis, todosCompradores);
+        editarVeiculoView.setVeiculoData(veiculoOriginal, todosEstados, todasCidades);
+
+        // Responsável e comprador: só o atual vem com o veículo, os restantes são pesquisados ao escrever
+        editarVeiculoView.configurarPesquisaResponsavel((texto, mostrar) ->
+                ExecutorTarefas.getInstance().executar(CANAL_PESQUISA_RESPONSAVEL, texto,
+                        contexto -> utilizadorDAO.pesquisarParaSelecao(texto), mostrar, null, null));
+        editarVeiculoView.configurarPesquisaComprador((texto, mostrar) ->
+                ExecutorTarefas.getInstance().executar(CANAL_PESQUISA_COMPRADOR, texto,
+                        contexto -> compradorDAO.pesquisarPorPrefixo(texto), mostrar, null, null));
     }
 
     private void configurarEventos() {
@@ -82,50 +103,63 @@ public class EditarVeiculoController {
     }
 
     private void salvarEdicaoVeiculo() {
-        try {
-            // Validar dados
-            ResultadoValidacao validacao = validarDadosFormulario();
-            if (!validacao.isValido()) {
-                editarVeiculoView.mostrarErro(validacao.getMensagemErro());
-                return;
-            }
-
-            // Obter dados validados do formulário
-            DadosVeiculo dados = obterDadosFormulario();
-
-            // Criar uma cópia do veículo para rollback em caso de erro
-            Veiculo veiculoBackup = criarBackupVeiculo();
-
-            try {
-                // Atualizar o objeto Veiculo
-                atualizarVeiculoComDados(dados);
-
-                // Salvar no banco de dados
-                veiculoDAO.atualizarVeiculo(veiculoOriginal);
-
-                // Mostrar sucesso e fechar
-                editarVeiculoView.mostrarSucesso("Veículo atualizado com sucesso!");
-                editarVeiculoView.fecharJanela();
-
-                // Voltar para a lista
-                new ListarController();
-
-            } catch (Exception dbException) {
-                // Restaurar o estado original em caso de erro na base de dados
-                restaurarVeiculoDoBackup(veiculoBackup);
-                throw dbException;
-            }
+        // Validar dados
+        ResultadoValidacao validacao = validarDadosFormulario();
+        if (!validacao.isValido()) {
+            editarVeiculoView.mostrarErro(validacao.getMensagemErro());
+            return;
+        }
 
+        // Obter dados validados do formulário
+        DadosVeiculo dados;
+        try {
+            dados = obterDadosFormulario();
         } catch (ParseException pe) {
             String mensagemErro = "Erro ao processar dados numéricos: " + pe.getMessage();
             editarVeiculoView.mostrarErro(mensagemErro);
-            LOGGER.log(Level.WARNING, "Erro de parsing ao salvar veículo", pe);
-        } catch (Exception ex) {
-            String mensagemErro = "Erro ao atualizar veículo: " +
-                    (ex.getMessage() != null ? ex.getMessage() : "Erro desconhecido");
-            editarVeiculoView.mostrarErro(mensagemErro);
-            LOGGER.log(Level.SEVERE, "Erro ao salvar edição do veículo", ex);
+            LOG.aviso("Erro de parsing ao salvar veículo: {}", pe.getMessage(), pe);
+            return;
+        }
+
+        // Criar uma cópia do veículo para rollback em caso de erro
+        Veiculo veiculoBackup = criarBackupVeiculo();
+
+        // Atualizar o objeto Veiculo
+        atualizarVeiculoComDados(dados);
+
+        if (!VeiculoDAO.temAlteracoes(veiculoBackup, veiculoOriginal)) {
+            // Nada a gravar: nem UPDATE nem atualização da lista
+            editarVeiculoView.mostrarSucesso("Nenhuma alteração para guardar.");
+            editarVeiculoView.fecharJanela();
+            return;
         }
+
+        // Salvar no banco de dados fora do EDT (só as colunas alteradas em relação ao backup)
+        editarVeiculoView.setCarregando(true);
+        ExecutorTarefas.getInstance().executar(
+                contexto -> {
+                    Veiculo gravado = veiculoDAO.atualizarVeiculo(veiculoOriginal, veiculoBackup);
+                    if (gravado == null) {
+                        throw new Exception("A base de dados não aceitou a alteração.");
+                    }
+                    return gravado;
+                },
+                gravado -> {
+                    editarVeiculoView.setCarregando(false);
+                    // Mostrar sucesso e fechar (o fecho da janela volta à lista)
+                    editarVeiculoView.mostrarSucesso("Veículo atualizado com sucesso!");
+                    NotificadorVeiculos.getInstance().notificarAtualizado(gravado); // Atualiza só essa linha
+                    editarVeiculoView.fecharJanela();
+                },
+                ex -> {
+                    // Restaurar o estado original em caso de erro na base de dados
+                    restaurarVeiculoDoBackup(veiculoBackup);
+                    editarVeiculoView.setCarregando(false);
+                    String mensagemErro = "Erro ao atualizar veículo: " +
+                            (ex.getMessage() != null ? ex.getMessage() : "Erro desconhecido");
+                    editarVeiculoView.mostrarErro(mensagemErro);
+                    LOG.erro("Erro ao salvar edição do veículo: {}", ex.getMessage(), ex);
+                });
     }
 
     private Veiculo criarBackupVeiculo() {
@@ -185,7 +219,7 @@ public class EditarVeiculoController {
 
         } catch (Exception e) {
             erros.add("Erro interno ao validar formulário: " + e.getMessage());
-            LOGGER.log(Level.WARNING, "Erro durante validação do formulário", e);
+            LOG.aviso("Erro durante validação do formulário: {}", e.getMessage(), e);
         }
 
         return erros.isEmpty() ? ResultadoValidacao.sucesso() :
@@ -309,10 +343,9 @@ public class EditarVeiculoController {
 
     private void cancelarEdicao() {
         try {
-            editarVeiculoView.fecharJanela();
-            new ListarController(); // Volta para a lista de veículos sem salvar
+            editarVeiculoView.fecharJanela(); // Volta para a lista de veículos sem salvar (windowClosed)
         } catch (Exception e) {
-            LOGGER.log(Level.WARNING, "Erro ao cancelar edição", e);
+            LOG.aviso("Erro ao cancelar edição: {}", e.getMessage(), e);
         }
     }
 
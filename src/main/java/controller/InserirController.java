@@ -8,15 +8,18 @@ import model.Veiculo;
 import model.Estado;
 import model.Cidade;
 import model.Utilizador;
+import service.ExecutorTarefas;
+import service.NotificadorVeiculos;
 import view.InserirVeiculoView;
 import view.MenuView; // Para voltar ao menu
+import javax.swing.JFrame;
 import javax.swing.JOptionPane;
 import java.text.NumberFormat;
 import java.text.ParseException;
 import java.util.List;
 import java.util.Locale; // Para formatação de números
 
-public class InserirController {
+public class InserirController implements Ecra {
 
     private final InserirVeiculoView inserirVeiculoView;
     private final VeiculoDAO veiculoDAO;
@@ -24,6 +27,9 @@ public class InserirController {
     private final CidadeDAO cidadeDAO;
     private final UtilizadorDAO utilizadorDAO;
 
+    // Canal da pesquisa do seletor de responsável: cada tecla nova substitui a pesquisa anterior
+    private static final String CANAL_PESQUISA_RESPONSAVEL = "pesquisa-responsavel";
+
     public InserirController() {
         this.inserirVeiculoView = new InserirVeiculoView();
         this.veiculoDAO = new VeiculoDAO();
@@ -33,12 +39,31 @@ public class InserirController {
 
         setupView();
         setupButtonActions();
+        // As listas são carregadas em aoMostrar, quando o Navegador mostra a janela
+    }
+
+    @Override
+    public JFrame getJanela() {
+        return inserirVeiculoView;
+    }
+
+    @Override
+    public void aoMostrar() {
+        // Mesma janela em todas as visitas: formulário vazio e estados/cidades atuais (vêm da cache)
+        inserirVeiculoView.limparCampos();
         populateComboBoxes();
-        inserirVeiculoView.setVisible(true);
+    }
+
+    @Override
+    public void aoEsconder() {
+        ExecutorTarefas.getInstance().cancelar(CANAL_PESQUISA_RESPONSAVEL);
     }
 
     private void setupView() {
-        // Nenhuma lógica específica de visibilidade de botões aqui, pois é uma vista de inserção
+        // Os utilizadores não são carregados por inteiro: são pesquisados pelo nome enquanto se escreve
+        inserirVeiculoView.configurarPesquisaResponsavel((texto, mostrar) ->
+                ExecutorTarefas.getInstance().executar(CANAL_PESQUISA_RESPONSAVEL, texto,
+                        contexto -> utilizadorDAO.pesquisarParaSelecao(texto), mostrar, null, null));
     }
 
     private void setupButtonActions() {
@@ -47,21 +72,20 @@ public class InserirController {
     }
 
     private void populateComboBoxes() {
-        // Popula o JComboBox de Estados
-        List<Estado> estados = estadoDAO.buscarTodos();
-        // Mapeia para String para a JComboBox da View
-        List<String> descricoesEstados = estados.stream().map(Estado::getDescricao).toList();
-        inserirVeiculoView.popularEstados(descricoesEstados);
-
-        // Popula o JComboBox de Cidades
-        List<Cidade> cidades = cidadeDAO.buscarTodos();
-        // Mapeia para String para a JComboBox da View
-        List<String> descricoesCidades = cidades.stream().map(Cidade::getDescricao).toList();
-        inserirVeiculoView.popularCidades(descricoesCidades);
-
-        // Popula o JComboBox de Responsáveis
-        List<Utilizador> responsaveis = utilizadorDAO.listarTodos(); // Assumindo que listarTodos() retorna todos os utilizadores
-        inserirVeiculoView.popularResponsaveis(responsaveis);
+        // As consultas correm fora do EDT; as JComboBox são preenchidas quando os dados chegarem
+        inserirVeiculoView.setCarregando(true);
+        ExecutorTarefas.getInstance().executar(
+                contexto -> new DadosFormulario(estadoDAO.buscarTodos(), cidadeDAO.buscarTodos()),
+                dados -> {
+                    // Mapeia para String para as JComboBox da View
+                    inserirVeiculoView.popularEstados(dados.estados.stream().map(Estado::getDescricao).toList());
+                    inserirVeiculoView.popularCidades(dados.cidades.stream().map(Cidade::getDescricao).toList());
+                    inserirVeiculoView.setCarregando(false);
+                },
+                e -> {
+                    inserirVeiculoView.setCarregando(false);
+                    inserirVeiculoView.exibirMensagem("Erro ao carregar dados do formulário: " + e.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
+                });
     }
 
     private void inserirVeiculo() {
@@ -79,7 +103,7 @@ public class InserirController {
             return;
         }
 
-        double preco;
+        final double preco;
         try {
             // Usar NumberFormat para lidar com vírgulas ou pontos como separadores decimais
             NumberFormat format = NumberFormat.getInstance(Locale.getDefault()); // Ou Locale.forLanguageTag("pt-PT")
@@ -89,42 +113,64 @@ public class InserirController {
             return;
         }
 
-        // Obter objetos completos para Estado e Cidade a partir das descrições
-        Estado estado = estadoDAO.buscarPorDescricao(estadoDescricao);
-        Cidade cidade = cidadeDAO.buscarPorDescricao(cidadeDescricao);
-
-        if (estado == null) {
-            inserirVeiculoView.exibirMensagem("Estado selecionado inválido.", "Erro", JOptionPane.ERROR_MESSAGE);
-            return;
-        }
-        if (cidade == null) {
-            inserirVeiculoView.exibirMensagem("Cidade selecionada inválida.", "Erro", JOptionPane.ERROR_MESSAGE);
-            return;
-        }
-
-        // Criar o objeto Veiculo
-        Veiculo novoVeiculo = new Veiculo();
-        novoVeiculo.setMarca(marca);
-        novoVeiculo.setModelo(modelo);
-        novoVeiculo.setMatricula(matricula);
-        novoVeiculo.setEstado(estado);
-        novoVeiculo.setPreco(preco);
-        novoVeiculo.setCidade(cidade);
-        novoVeiculo.setResponsavel(responsavel); // Pode ser nulo
-        // dataVenda e comprador são nulos na inserção inicial, a menos que seja um veículo já vendido
-
-        if (veiculoDAO.inserirVeiculo(novoVeiculo)) {
-            inserirVeiculoView.exibirMensagem("Veículo inserido com sucesso!", "Sucesso", JOptionPane.INFORMATION_MESSAGE);
-            // Limpar campos ou fechar a janela
-            inserirVeiculoView.dispose();
-            new MenuController(); // Volta para o Menu Principal
-        } else {
-            inserirVeiculoView.exibirMensagem("Erro ao inserir veículo. Verifique os dados e tente novamente.", "Erro", JOptionPane.ERROR_MESSAGE);
-        }
+        // Resolução de Estado/Cidade e inserção correm fora do EDT
+        inserirVeiculoView.setCarregando(true);
+        ExecutorTarefas.getInstance().executar(
+                contexto -> {
+                    // Obter objetos completos para Estado e Cidade a partir das descrições
+                    Estado estado = estadoDAO.buscarPorDescricao(estadoDescricao);
+                    if (estado == null) {
+                        throw new Exception("Estado selecionado inválido.");
+                    }
+                    Cidade cidade = cidadeDAO.buscarPorDescricao(cidadeDescricao);
+                    if (cidade == null) {
+                        throw new Exception("Cidade selecionada inválida.");
+                    }
+
+                    // Criar o objeto Veiculo
+                    Veiculo novoVeiculo = new Veiculo();
+                    novoVeiculo.setMarca(marca);
+                    novoVeiculo.setModelo(modelo);
+                    novoVeiculo.setMatricula(matricula);
+                    novoVeiculo.setEstado(estado);
+                    novoVeiculo.setPreco(preco);
+                    novoVeiculo.setCidade(cidade);
+                    novoVeiculo.setResponsavel(responsavel); // Pode ser nulo
+                    // dataVenda e comprador são nulos na inserção inicial, a menos que seja um veículo já vendido
+
+                    // Devolve a linha gravada, já com o ID gerado
+                    Veiculo inserido = veiculoDAO.inserirVeiculo(novoVeiculo);
+                    if (inserido == null) {
+                        throw new Exception("Verifique os dados e tente novamente.");
+                    }
+                    return inserido;
+                },
+                inserido -> {
+                    inserirVeiculoView.setCarregando(false);
+                    // Uma listagem aberta mostra o novo veículo sem recarregar
+                    NotificadorVeiculos.getInstance().notificarInserido(inserido);
+                    inserirVeiculoView.exibirMensagem("Veículo inserido com sucesso!", "Sucesso", JOptionPane.INFORMATION_MESSAGE);
+                    // Volta para o Menu Principal; o formulário é limpo na próxima visita
+                    Navegador.getInstance().mostrarMenu();
+                },
+                e -> {
+                    inserirVeiculoView.setCarregando(false);
+                    inserirVeiculoView.exibirMensagem("Erro ao inserir veículo: " + e.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
+                });
     }
 
     private void voltarAoMenu() {
-        inserirVeiculoView.dispose();
-        new MenuController(); // Volta para o Menu Principal
+        Navegador.getInstance().mostrarMenu(); // Volta para o Menu Principal
+    }
+
+    // Dados de referência carregados em segundo plano para as JComboBox
+    private static class DadosFormulario {
+        private final List<Estado> estados;
+        private final List<Cidade> cidades;
+
+        private DadosFormulario(List<Estado> estados, List<Cidade> cidades) {
+            this.estados = estados;
+            this.cidades = cidades;
+        }
     }
 }
@@ -3,32 +3,69 @@ package controller;
 import dao.VeiculoDAO;
 import dao.EstadoDAO;
 import dao.CidadeDAO;
-import dao.UtilizadorDAO;
-import dao.CompradorDAO;
+import dao.Pagina;
 import model.Veiculo;
 import model.Estado;
 import model.Cidade;
-import model.Utilizador;
-import model.Comprador;
 import model.Perfil; // Importar a classe Perfil
 import service.UserSession; // Importar UserSession
+import service.Arranque;
+import service.ExecutorTarefas;
+import service.NotificadorVeiculos;
+import util.Log;
 import view.ListarVeiculoView;
 import view.MenuView; // Para voltar ao menu
+import javax.swing.JFrame;
 import javax.swing.JOptionPane;
+import java.util.Arrays;
 import java.util.List;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 
-public class ListarController {
+public class ListarController implements Ecra {
+
+    private static final Log LOG = Log.de(ListarController.class);
+
+    private static final int TAMANHO_PAGINA = 200; // Veículos pedidos à base de dados por página
+    private static final String CANAL_VEICULOS = "listar-veiculos"; // Canal das pesquisas em segundo plano
 
     private final ListarVeiculoView listarVeiculoView;
     private final VeiculoDAO veiculoDAO;
     private final EstadoDAO estadoDAO;
     private final CidadeDAO cidadeDAO;
-    private final UtilizadorDAO utilizadorDAO;
-    private final CompradorDAO compradorDAO;
     private boolean isSelectionMode; // Indica se o controlador está no modo de seleção para edição
 
+    // Estado da paginação keyset: filtros ativos, cursor e se ainda há páginas por carregar
+    private String filtroMarca;
+    private String filtroModelo;
+    private String filtroMatricula;
+    private Integer cursorPagina;
+    private boolean temMaisPaginas;
+    private boolean aCarregar; // Evita pedir a página seguinte antes de chegar a anterior
+
+    // Gravações feitas noutros ecrãs (ou nesta listagem) aplicadas só à linha afetada
+    private final NotificadorVeiculos.Ouvinte ouvinteVeiculos = new NotificadorVeiculos.Ouvinte() {
+        @Override
+        public void veiculoInserido(Veiculo veiculo) {
+            // Com filtros da base de dados ativos não se sabe se o novo veículo pertence à página: aparece no próximo "Filtrar"
+            if (isVazio(filtroMarca) && isVazio(filtroModelo) && isVazio(filtroMatricula)) {
+                listarVeiculoView.inserirVeiculoNaTabela(veiculo);
+            }
+        }
+
+        @Override
+        public void veiculoAtualizado(Veiculo veiculo) {
+            listarVeiculoView.atualizarVeiculoNaTabela(veiculo);
+        }
+
+        @Override
+        public void veiculoRemovido(int id) {
+            listarVeiculoView.removerVeiculoDaTabela(id);
+        }
+    };
+
     // Construtor padrão (para listagem geral)
     public ListarController() {
         this(false); // Chama o construtor com isSelectionMode = false
@@ -40,17 +77,39 @@ public class ListarController {
         this.veiculoDAO = new VeiculoDAO();
         this.estadoDAO = new EstadoDAO();
         this.cidadeDAO = new CidadeDAO();
-        this.utilizadorDAO = new UtilizadorDAO();
-        this.compradorDAO = new CompradorDAO();
         this.isSelectionMode = isSelectionMode;
 
-        System.out.println("ListarController: A inicializar...");
+        LOG.debug("A inicializar...");
 
         setupView(); // Configura a vista, incluindo visibilidade dos botões
         setupButtonActions();
-        loadVeiculos(); // Carrega os veículos inicialmente
-        listarVeiculoView.mostrar();
-        System.out.println("ListarController: ListarVeiculoView exibida.");
+        NotificadorVeiculos.getInstance().registar(ouvinteVeiculos);
+        listarVeiculoView.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                NotificadorVeiculos.getInstance().remover(ouvinteVeiculos);
+                ExecutorTarefas.getInstance().cancelar(CANAL_VEICULOS);
+            }
+        });
+        // Os veículos são carregados em aoMostrar, quando o Navegador mostra a janela
+    }
+
+    @Override
+    public JFrame getJanela() {
+        return listarVeiculoView;
+    }
+
+    @Override
+    public void aoMostrar() {
+        // A mesma janela e a mesma tabela em todas as visitas: só os dados são pedidos de novo,
+        // com os filtros que ficaram escritos (outros postos podem ter gravado entretanto)
+        carregarPrimeiraPagina();
+    }
+
+    @Override
+    public void aoEsconder() {
+        ExecutorTarefas.getInstance().cancelar(CANAL_VEICULOS);
+        aCarregar = false;
     }
 
     private void setupView() {
@@ -59,7 +118,7 @@ public class ListarController {
             // Esconder botões de Editar e Remover quando no modo de seleção direta por clique na tabela
             listarVeiculoView.setEditarButtonVisible(false);
             listarVeiculoView.setRemoverButtonVisible(false);
-            System.out.println("ListarController: Modo de seleção ativo. Botões Editar/Remover escondidos.");
+            LOG.debug("Modo de seleção ativo. Botões Editar/Remover escondidos.");
 
             // Adicionar listener para clique na tabela no modo de seleção
             listarVeiculoView.getTabela().addMouseListener(new MouseAdapter() {
@@ -75,7 +134,7 @@ public class ListarController {
             Perfil perfil = UserSession.getInstance().getPerfil();
             if (perfil != null) {
                 String descricaoPerfil = perfil.getDescricao();
-                System.out.println("ListarController: Perfil do utilizador logado: " + descricaoPerfil);
+                LOG.debug("Perfil do utilizador logado: {}", descricaoPerfil);
 
                 // Por padrão, esconde ambos os botões de edição/remoção
                 listarVeiculoView.setEditarButtonVisible(false);
@@ -84,22 +143,22 @@ public class ListarController {
                 if (descricaoPerfil.equalsIgnoreCase("Administrador")) {
                     listarVeiculoView.setEditarButtonVisible(true);
                     listarVeiculoView.setRemoverButtonVisible(true);
-                    System.out.println("ListarController: Visibilidade: 'Administrador' pode Editar e Remover.");
+                    LOG.debug("Visibilidade: 'Administrador' pode Editar e Remover.");
                 } else if (descricaoPerfil.equalsIgnoreCase("Vendedor")) {
                     listarVeiculoView.setEditarButtonVisible(true); // Vendedor pode editar
-                    System.out.println("ListarController: Visibilidade: 'Vendedor' pode Editar (não pode Remover).");
+                    LOG.debug("Visibilidade: 'Vendedor' pode Editar (não pode Remover).");
                 } else if (descricaoPerfil.equalsIgnoreCase("Responsavel de Frota")) {
                     // Responsável de Frota não pode editar nem remover (já estão escondidos por padrão)
-                    System.out.println("ListarController: Visibilidade: 'Responsavel de Frota' não pode Editar nem Remover.");
+                    LOG.debug("Visibilidade: 'Responsavel de Frota' não pode Editar nem Remover.");
                 } else {
                     // Outros perfis (se houver) também não podem editar nem remover
-                    System.out.println("ListarController: Visibilidade: Perfil desconhecido ou não autorizado. Botões de edição/remoção escondidos.");
+                    LOG.debug("Visibilidade: Perfil desconhecido ou não autorizado. Botões de edição/remoção escondidos.");
                 }
             } else {
                 // Se não há perfil na sessão (erro), esconde tudo por segurança
                 listarVeiculoView.setEditarButtonVisible(false);
                 listarVeiculoView.setRemoverButtonVisible(false);
-                System.err.println("ListarController: Erro: Perfil do utilizador não encontrado na sessão. Botões de edição/remoção escondidos.");
+                LOG.aviso("Perfil do utilizador não encontrado na sessão. Botões de edição/remoção escondidos.");
             }
         }
     }
@@ -108,6 +167,9 @@ public class ListarController {
         listarVeiculoView.adicionarAcaoVoltar(e -> voltarAoMenu());
         listarVeiculoView.adicionarAcaoFiltrar(e -> filtrarVeiculos());
         listarVeiculoView.adicionarAcaoLimparFiltro(e -> limparFiltro());
+        listarVeiculoView.adicionarAcaoFimDaLista(this::carregarPaginaSeguinte);
+        // Enquanto se escreve, filtra as linhas já carregadas; "Filtrar" continua a pesquisar na base de dados
+        listarVeiculoView.adicionarAcaoPesquisaInstantanea(this::filtrarLocalmente);
 
         // Ações para os botões Editar e Remover (apenas no modo normal)
         if (!isSelectionMode) {
@@ -117,39 +179,91 @@ public class ListarController {
     }
 
     private void loadVeiculos() {
-        System.out.println("ListarController: A carregar veículos na tabela...");
-        listarVeiculoView.limparTabela();
-        List<Veiculo> veiculos = veiculoDAO.buscarTodos();
-        if (veiculos.isEmpty()) {
-            System.out.println("ListarController: Nenhuns veículos encontrados na base de dados.");
-        } else {
-            System.out.println("ListarController: " + veiculos.size() + " veículos carregados.");
-        }
-        for (Veiculo veiculo : veiculos) {
-            listarVeiculoView.adicionarVeiculoNaTabela(veiculo);
-        }
+        LOG.debug("A carregar veículos na tabela...");
+        definirFiltros(null, null, null);
+        carregarPrimeiraPagina();
     }
 
     private void filtrarVeiculos() {
-        System.out.println("ListarController: A filtrar veículos...");
-        String marca = listarVeiculoView.getFiltroMarca();
-        String modelo = listarVeiculoView.getFiltroModelo();
-        String matricula = listarVeiculoView.getFiltroMatricula();
-
-        listarVeiculoView.limparTabela();
-        List<Veiculo> veiculosFiltrados = veiculoDAO.filtrarVeiculos(marca, modelo, matricula);
-        if (veiculosFiltrados.isEmpty()) {
-            System.out.println("ListarController: Nenhuns veículos encontrados com os filtros: Marca='" + marca + "', Modelo='" + modelo + "', Matrícula='" + matricula + "'.");
+        LOG.debug("A filtrar veículos...");
+        definirFiltros(listarVeiculoView.getFiltroMarca(),
+                listarVeiculoView.getFiltroModelo(),
+                listarVeiculoView.getFiltroMatricula());
+        carregarPrimeiraPagina();
+    }
+
+    // Filtro instantâneo sobre as linhas em memória (índice de trigramas do modelo da tabela)
+    private void filtrarLocalmente() {
+        listarVeiculoView.filtrarTabelaLocalmente(listarVeiculoView.getFiltroMarca(),
+                listarVeiculoView.getFiltroModelo(),
+                listarVeiculoView.getFiltroMatricula());
+    }
+
+    private static boolean isVazio(String texto) {
+        return texto == null || texto.trim().isEmpty();
+    }
+
+    private void definirFiltros(String marca, String modelo, String matricula) {
+        this.filtroMarca = marca;
+        this.filtroModelo = modelo;
+        this.filtroMatricula = matricula;
+    }
+
+    // Carrega em segundo plano a primeira página para os filtros atuais.
+    // Um novo pedido (ex: outro clique em "Filtrar") cancela a pesquisa anterior ainda em curso.
+    private void carregarPrimeiraPagina() {
+        pedirPagina(null);
+    }
+
+    // Acrescenta à tabela a página seguinte (chamado também quando o scroll chega ao fim)
+    private void carregarPaginaSeguinte() {
+        if (!temMaisPaginas || aCarregar) {
+            return;
+        }
+        pedirPagina(cursorPagina);
+    }
+
+    private void pedirPagina(Integer aposId) {
+        String marca = filtroMarca;
+        String modelo = filtroModelo;
+        String matricula = filtroMatricula;
+        aCarregar = true;
+
+        ExecutorTarefas.getInstance().executar(CANAL_VEICULOS,
+                Arrays.asList(marca, modelo, matricula, aposId),
+                contexto -> veiculoDAO.filtrarVeiculosPaginado(marca, modelo, matricula, aposId, TAMANHO_PAGINA),
+                pagina -> mostrarPagina(pagina, aposId == null),
+                this::mostrarErroCarregamento,
+                listarVeiculoView::setCarregando);
+    }
+
+    private void mostrarPagina(Pagina<Veiculo> pagina, boolean primeiraPagina) {
+        aCarregar = false;
+        if (primeiraPagina) {
+            listarVeiculoView.substituirVeiculosNaTabela(pagina.getItens());
+            Arranque.getInstance().marcar(Arranque.Marco.PRIMEIRA_LISTAGEM);
+            if (pagina.isVazia()) {
+                LOG.debug("Nenhuns veículos encontrados com os filtros: Marca='{}', Modelo='{}', Matrícula='{}'.",
+                        filtroMarca, filtroModelo, filtroMatricula);
+            }
         } else {
-            System.out.println("ListarController: " + veiculosFiltrados.size() + " veículos encontrados com os filtros.");
+            listarVeiculoView.adicionarVeiculosNaTabela(pagina.getItens());
         }
-        for (Veiculo veiculo : veiculosFiltrados) {
-            listarVeiculoView.adicionarVeiculoNaTabela(veiculo);
+        if (!pagina.isVazia()) {
+            cursorPagina = pagina.getUltimoId();
         }
+        temMaisPaginas = pagina.isTemMais();
+        LOG.debug("{} veículos carregados (mais páginas: {}).", pagina.getItens().size(), temMaisPaginas);
+    }
+
+    private void mostrarErroCarregamento(Exception e) {
+        aCarregar = false;
+        LOG.erro("Erro ao carregar veículos: {}", e.getMessage());
+        JOptionPane.showMessageDialog(listarVeiculoView, "Erro ao carregar veículos: " + e.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
     }
 
     private void limparFiltro() {
-        System.out.println("ListarController: A limpar filtros e recarregar veículos.");
+        LOG.debug("A limpar filtros e recarregar veículos.");
         listarVeiculoView.setFiltroMarcaField("");
         listarVeiculoView.setFiltroModeloField("");
         listarVeiculoView.setFiltroMatriculaField("");
@@ -157,79 +271,103 @@ public class ListarController {
     }
 
     private void voltarAoMenu() {
-        System.out.println("ListarController: Botão 'Voltar' clicado. A fechar ListarVeiculoView.");
-        listarVeiculoView.dispose();
-        new MenuController(); // Volta para o Menu Principal
-        System.out.println("ListarController: MenuController iniciado.");
+        LOG.debug("Botão 'Voltar' clicado.");
+        Navegador.getInstance().mostrarMenu(); // Esconde a listagem (fica guardada) e volta ao Menu Principal
     }
 
     private void handleTableSelectionForEdit() {
-        int selectedRow = listarVeiculoView.getTabela().getSelectedRow();
-        if (selectedRow >= 0) {
-            int veiculoId = (int) listarVeiculoView.getTabela().getModel().getValueAt(selectedRow, 0); // ID está na primeira coluna
-            System.out.println("ListarController: Duplo clique na tabela. A abrir edição para Veículo ID: " + veiculoId);
+        int veiculoId = listarVeiculoView.getIdVeiculoSelecionado();
+        if (veiculoId >= 0) {
+            LOG.debug("Duplo clique na tabela. A abrir edição para Veículo ID: {}", veiculoId);
             abrirEditarVeiculo(veiculoId);
         } else {
             JOptionPane.showMessageDialog(listarVeiculoView, "Por favor, selecione um veículo na tabela para editar.", "Nenhum Veículo Selecionado", JOptionPane.WARNING_MESSAGE);
-            System.out.println("ListarController: Nenhuma linha selecionada na tabela para edição por duplo clique.");
+            LOG.debug("Nenhuma linha selecionada na tabela para edição por duplo clique.");
         }
     }
 
     private void handleEditButtonClick() {
-        int selectedRow = listarVeiculoView.getTabela().getSelectedRow();
-        if (selectedRow >= 0) {
-            int veiculoId = (int) listarVeiculoView.getTabela().getModel().getValueAt(selectedRow, 0);
-            System.out.println("ListarController: Botão 'Editar' clicado. A abrir edição para Veículo ID: " + veiculoId);
+        int veiculoId = listarVeiculoView.getIdVeiculoSelecionado();
+        if (veiculoId >= 0) {
+            LOG.debug("Botão 'Editar' clicado. A abrir edição para Veículo ID: {}", veiculoId);
             abrirEditarVeiculo(veiculoId);
         } else {
             JOptionPane.showMessageDialog(listarVeiculoView, "Por favor, selecione um veículo na tabela para editar.", "Nenhum Veículo Selecionado", JOptionPane.WARNING_MESSAGE);
-            System.out.println("ListarController: Nenhuma linha selecionada para edição via botão.");
+            LOG.debug("Nenhuma linha selecionada para edição via botão.");
         }
     }
 
     private void abrirEditarVeiculo(int veiculoId) {
-        Veiculo veiculoParaEditar = veiculoDAO.buscarPorId(veiculoId);
-        if (veiculoParaEditar != null) {
-            System.out.println("ListarController: Veículo ID " + veiculoId + " encontrado para edição. A carregar dados para EditarVeiculoView.");
-            List<Estado> todosEstados = estadoDAO.buscarTodos();
-            List<Cidade> todasCidades = cidadeDAO.buscarTodos();
-            List<Utilizador> todosResponsaveis = utilizadorDAO.listarTodos();
-            List<Comprador> todosCompradores = compradorDAO.buscarTodos();
-
-            listarVeiculoView.dispose(); // Fecha a janela de listagem
-            new EditarVeiculoController(veiculoParaEditar, todosEstados, todasCidades, todosResponsaveis, todosCompradores);
-            System.out.println("ListarController: EditarVeiculoController iniciado.");
-        } else {
-            JOptionPane.showMessageDialog(listarVeiculoView, "Erro: Veículo não encontrado para edição.", "Erro", JOptionPane.ERROR_MESSAGE);
-            System.err.println("ListarController: Erro: Veículo com ID " + veiculoId + " não encontrado para edição.");
-        }
+        // As consultas necessárias para o ecrã de edição correm fora do EDT; responsável e comprador
+        // não são carregados por inteiro (o veículo já traz os atuais, o resto é pesquisado no próprio ecrã)
+        ExecutorTarefas.getInstance().executar("abrir-edicao", veiculoId,
+                contexto -> {
+                    Veiculo veiculo = veiculoDAO.buscarPorId(veiculoId);
+                    if (veiculo == null) {
+                        return null;
+                    }
+                    return new DadosEdicao(veiculo, estadoDAO.buscarTodos(), cidadeDAO.buscarTodos());
+                },
+                dados -> {
+                    if (dados != null) {
+                        LOG.debug("Veículo ID {} encontrado para edição. A carregar dados para EditarVeiculoView.", veiculoId);
+                        // A listagem fica escondida (não é descartada) e volta a aparecer tal como estava;
+                        // a linha editada é atualizada pelo NotificadorVeiculos
+                        listarVeiculoView.setVisible(false);
+                        new EditarVeiculoController(dados.veiculo, dados.estados, dados.cidades,
+                                () -> listarVeiculoView.setVisible(true));
+                        LOG.debug("EditarVeiculoController iniciado.");
+                    } else {
+                        JOptionPane.showMessageDialog(listarVeiculoView, "Erro: Veículo não encontrado para edição.", "Erro", JOptionPane.ERROR_MESSAGE);
+                        LOG.aviso("Veículo com ID {} não encontrado para edição.", veiculoId);
+                    }
+                },
+                this::mostrarErroCarregamento,
+                listarVeiculoView::setCarregando);
     }
 
     private void handleRemoverButtonClick() {
-        int selectedRow = listarVeiculoView.getTabela().getSelectedRow();
-        if (selectedRow >= 0) {
-            int veiculoId = (int) listarVeiculoView.getTabela().getModel().getValueAt(selectedRow, 0);
-            System.out.println("ListarController: Botão 'Remover' clicado. A tentar remover Veículo ID: " + veiculoId);
+        int veiculoId = listarVeiculoView.getIdVeiculoSelecionado();
+        if (veiculoId >= 0) {
+            LOG.debug("Botão 'Remover' clicado. A tentar remover Veículo ID: {}", veiculoId);
 
             int confirmResult = JOptionPane.showConfirmDialog(listarVeiculoView,
                     "Tem certeza que deseja remover o veículo selecionado?", "Confirmar Remoção",
                     JOptionPane.YES_NO_OPTION, JOptionPane.QUESTION_MESSAGE);
 
             if (confirmResult == JOptionPane.YES_OPTION) {
-                if (veiculoDAO.removerVeiculoPorId(veiculoId)) {
-                    JOptionPane.showMessageDialog(listarVeiculoView, "Veículo removido com sucesso!", "Sucesso", JOptionPane.INFORMATION_MESSAGE);
-                    System.out.println("ListarController: Veículo ID " + veiculoId + " removido com sucesso.");
-                    loadVeiculos(); // Recarrega a tabela após a remoção
-                } else {
-                    JOptionPane.showMessageDialog(listarVeiculoView, "Erro ao remover o veículo.", "Erro", JOptionPane.ERROR_MESSAGE);
-                    System.err.println("ListarController: Falha ao remover veículo ID " + veiculoId + ".");
-                }
+                ExecutorTarefas.getInstance().executar(
+                        contexto -> veiculoDAO.removerVeiculoPorId(veiculoId),
+                        removido -> {
+                            if (removido) {
+                                JOptionPane.showMessageDialog(listarVeiculoView, "Veículo removido com sucesso!", "Sucesso", JOptionPane.INFORMATION_MESSAGE);
+                                LOG.info("Veículo ID {} removido com sucesso.", veiculoId);
+                                NotificadorVeiculos.getInstance().notificarRemovido(veiculoId); // Retira só essa linha
+                            } else {
+                                JOptionPane.showMessageDialog(listarVeiculoView, "Erro ao remover o veículo.", "Erro", JOptionPane.ERROR_MESSAGE);
+                                LOG.erro("Falha ao remover veículo ID {}.", veiculoId);
+                            }
+                        },
+                        this::mostrarErroCarregamento);
             } else {
-                System.out.println("ListarController: Remoção cancelada pelo utilizador.");
+                LOG.debug("Remoção cancelada pelo utilizador.");
             }
         } else {
             JOptionPane.showMessageDialog(listarVeiculoView, "Por favor, selecione um veículo na tabela para remover.", "Nenhum Veículo Selecionado", JOptionPane.WARNING_MESSAGE);
-            System.out.println("ListarController: Nenhuma linha selecionada para remoção.");
+            LOG.debug("Nenhuma linha selecionada para remoção.");
+        }
+    }
+
+    // Dados carregados em segundo plano para abrir o ecrã de edição
+    private static class DadosEdicao {
+        private final Veiculo veiculo;
+        private final List<Estado> estados;
+        private final List<Cidade> cidades;
+
+        private DadosEdicao(Veiculo veiculo, List<Estado> estados, List<Cidade> cidades) {
+            this.veiculo = veiculo;
+            this.estados = estados;
+            this.cidades = cidades;
         }
     }
 }
@@ -5,20 +5,22 @@ import java.awt.Insets;
 import javax.swing.border.EmptyBorder;
 import model.Utilizador;
 import dao.UtilizadorDAO; // Manter se UtilizadorDAO ainda for usado para outras operações
-import dao.PerfilDAO;    // Importar PerfilDAO para a autenticação
+import service.Arranque;
+import service.ServicoAutenticacao;
+import util.Log;
 import view.LoginView;
 import view.MenuView; // Alterado para MenuView, a próxima vista principal do frontoffice
 // Se houver uma MainView ou FrontOfficeMainView, ajuste o import e a criação
 
-public class LoginController {
+public class LoginController implements Ecra {
+
+    private static final Log LOG = Log.de(LoginController.class);
 
     private final LoginView loginView;
-    private final PerfilDAO perfilDAO; // Alterado para PerfilDAO para autenticação
     // private final UtilizadorDAO utilizadorDAO; // Removido se não for mais necessário para outras operações aqui
 
     public LoginController() {
         loginView = new LoginView();
-        perfilDAO = new PerfilDAO(); // Instanciar PerfilDAO para usar buscarPorCredenciais
         // utilizadorDAO = new UtilizadorDAO(); // Remover ou manter se necessário para outras finalidades
 
         loginView.getBtnEntrar().addActionListener(e -> {
@@ -27,29 +29,53 @@ public class LoginController {
 
             //System.out.println("Tentando login com email: " + email + " e senha: " + senha);
 
-            // Chamar o método buscarPorCredenciais do PerfilDAO
-            Utilizador utilizador = perfilDAO.buscarPorCredenciais(email, senha);
-
-            if (utilizador != null) {
-                System.out.println("Login aceite para: " + email);
-
-                JOptionPane.showMessageDialog(loginView,
-                        "Login bem-sucedido!",
-                        "Sucesso",
-                        JOptionPane.INFORMATION_MESSAGE);
-
-                loginView.dispose();
-                // Abre a próxima janela principal do frontoffice, que é a MenuView
-                new MenuController();
-            } else {
-                JOptionPane.showMessageDialog(loginView,
-                        "Credenciais inválidas. Verifique seu email e senha.",
-                        "Erro de Autenticação",
-                        JOptionPane.ERROR_MESSAGE);
-            }
+            // Verificar as credenciais fora do EDT, no executor limitado de autenticação
+            // (a consulta JDBC e o BCrypt.checkpw congelavam a janela durante a verificação)
+            loginView.setFieldsEnabled(false);
+            ServicoAutenticacao.getInstance().autenticar(email, senha,
+                    utilizador -> {
+                        loginView.setFieldsEnabled(true);
+                        if (utilizador != null) {
+                            LOG.info("Login aceite para: {}", email);
+
+                            JOptionPane.showMessageDialog(loginView,
+                                    "Login bem-sucedido!",
+                                    "Sucesso",
+                                    JOptionPane.INFORMATION_MESSAGE);
+
+                            // Abre a próxima janela principal do frontoffice, que é a MenuView (o login fica escondido)
+                            Navegador.getInstance().mostrarMenu();
+                        } else {
+                            JOptionPane.showMessageDialog(loginView,
+                                    "Credenciais inválidas. Verifique seu email e senha.",
+                                    "Erro de Autenticação",
+                                    JOptionPane.ERROR_MESSAGE);
+                        }
+                    },
+                    ex -> {
+                        loginView.setFieldsEnabled(true);
+                        JOptionPane.showMessageDialog(loginView,
+                                "Erro ao verificar credenciais: " + ex.getMessage(),
+                                "Erro de Autenticação",
+                                JOptionPane.ERROR_MESSAGE);
+                    });
         });
 
-        loginView.setVisible(true);
+    }
+
+    @Override
+    public JFrame getJanela() {
+        return loginView;
+    }
+
+    @Override
+    public void aoMostrar() {
+        // A janela é reutilizada depois do logout: não deve mostrar as credenciais anteriores
+        loginView.limparCampos();
+        loginView.setFieldsEnabled(true);
+        loginView.focarCampoUtilizador();
+        // Corre no EDT logo a seguir a a janela ficar visível: é quando o login fica utilizável (só o primeiro conta)
+        SwingUtilities.invokeLater(() -> Arranque.getInstance().marcar(Arranque.Marco.LOGIN_VISIVEL));
     }
 
     // O método applyGlobalUITheme() deve ser chamado no Main.java antes de criar o LoginController
@@ -1,29 +1,43 @@
 package controller;
 
 import service.UserSession;
+import util.Log;
 import view.MenuView;
 import model.Perfil;
+import service.ExecutorTarefas;
+import service.ImportadorVeiculosCsv;
+
+import javax.swing.JFileChooser;
+import javax.swing.JFrame;
 import javax.swing.JOptionPane;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import java.awt.Cursor;
+import java.nio.file.Path;
+
+public class MenuController implements Ecra {
+
+    private static final Log LOG = Log.de(MenuController.class);
 
-public class MenuController {
+    private static final String CANAL_IMPORTACAO = "importar-veiculos";
 
     private MenuView menuView; // Removido o 'final' para permitir inicialização segura no try-catch
 
     public MenuController() {
-        System.out.println("MenuController: A inicializar...");
+        LOG.debug("A inicializar...");
         try {
             this.menuView = new MenuView(); // Tenta criar a MenuView
-            System.out.println("MenuController: MenuView criada com sucesso.");
+            LOG.debug("MenuView criada com sucesso.");
 
             // --- Lógica de Permissões ---
-            System.out.println("MenuController: A configurar visibilidade dos botões com base no perfil.");
+            LOG.debug("A configurar visibilidade dos botões com base no perfil.");
             Perfil perfil = UserSession.getInstance().getPerfil();
             if (perfil != null) {
                 String descricaoPerfil = perfil.getDescricao();
-                System.out.println("MenuController: Perfil do utilizador logado: " + descricaoPerfil);
+                LOG.debug("Perfil do utilizador logado: {}", descricaoPerfil);
 
                 // Por padrão, esconde o botão Inserir e depois mostra os permitidos
                 menuView.setInserirButtonVisible(false); // Esconde por padrão
+                menuView.setImportarButtonVisible(false);
                 menuView.setCriarClienteButtonVisible(false);
 
                 menuView.setListarButtonVisible(true); // Listar é sempre visível
@@ -31,82 +45,80 @@ public class MenuController {
 
                 if (descricaoPerfil.equalsIgnoreCase("Administrador")) {
                     menuView.setInserirButtonVisible(true); // Administrador pode inserir
+                    menuView.setImportarButtonVisible(true); // e importar em massa
                     menuView.setCriarClienteButtonVisible(true);
                     menuView.setListarButtonVisible(true);      // <-- Ativa o botão
                     menuView.setLogoutButtonVisible(true);
 
-                    System.out.println("MenuController: Visibilidade: 'Administrador' pode Inserir, Listar e Criar Cliente");
+                    LOG.debug("Visibilidade: 'Administrador' pode Inserir, Listar e Criar Cliente");
                 } else if (descricaoPerfil.equalsIgnoreCase("Vendedor")) {
                     // O botão Inserir já está escondido por padrão (setInserirButtonVisible(false) acima)
                     // Não precisamos fazer nada aqui para o Vendedor, apenas confirmar que não pode inserir.
                     menuView.setCriarClienteButtonVisible(true);
-                    System.out.println("MenuController: Visibilidade: 'Vendedor' pode apenas Listar (não pode Inserir).");
+                    LOG.debug("Visibilidade: 'Vendedor' pode apenas Listar (não pode Inserir).");
                 } else if (descricaoPerfil.equalsIgnoreCase("Responsavel de Frota")) {
                     // O botão Inserir já está escondido por padrão
-                    System.out.println("MenuController: Visibilidade: 'Responsavel de Frota' pode apenas Listar (não pode Inserir).");
+                    LOG.debug("Visibilidade: 'Responsavel de Frota' pode apenas Listar (não pode Inserir).");
                 } else {
                     menuView.setInserirButtonVisible(false);
+                    menuView.setImportarButtonVisible(false);
                     menuView.setCriarClienteButtonVisible(false);
                     menuView.setListarButtonVisible(false);
-                    System.out.println("MenuController: Visibilidade: Perfil desconhecido ou não autorizado. Botões de gestão escondidos.");
+                    LOG.debug("Visibilidade: Perfil desconhecido ou não autorizado. Botões de gestão escondidos.");
                 }
             } else {
                 // Caso não haja sessão ativa ou perfil nulo (situação de erro, mas para segurança)
                 menuView.setInserirButtonVisible(false);
+                menuView.setImportarButtonVisible(false);
                 menuView.setListarButtonVisible(false);
                 menuView.setLogoutButtonVisible(false);
                 JOptionPane.showMessageDialog(menuView,
                         "Erro: Perfil do utilizador não encontrado na sessão. Acesso restrito.",
                         "Erro de Sessão",
                         JOptionPane.ERROR_MESSAGE);
-                System.err.println("MenuController: Erro: Perfil do utilizador não encontrado na sessão. Todos os botões do menu escondidos.");
+                LOG.aviso("Perfil do utilizador não encontrado na sessão. Todos os botões do menu escondidos.");
             }
             // --- Fim da Lógica de Permissões ---
 
-            this.menuView.mostrar(); // Torna a janela visível
-            System.out.println("MenuController: MenuView exibida.");
+            // A janela é mostrada pelo Navegador; é a mesma durante toda a sessão (o perfil não muda)
 
             // --- Adicionar ActionListeners para os botões ---
-            System.out.println("MenuController: A configurar ações dos botões.");
+            LOG.debug("A configurar ações dos botões.");
 
             // Ação para o botão "Inserir Veículo"
             menuView.getBtnInserir().addActionListener(e -> {
-                System.out.println("MenuController: Botão 'Inserir Veículo' clicado. A tentar abrir InserirController.");
-                menuView.dispose(); // Fecha a janela do menu
-                new InserirController(); // Abre o controlador para inserir veículo
-                System.out.println("MenuController: InserirController provavelmente aberto (ou erro ocorreu).");
+                LOG.debug("Botão 'Inserir Veículo' clicado.");
+                Navegador.getInstance().mostrarInserir(); // Esconde o menu e mostra o formulário de inserção
+            });
+
+            // Ação para o botão "Importar Veículos (CSV)": o menu continua aberto durante a importação
+            menuView.getBtnImportar().addActionListener(e -> {
+                LOG.debug("Botão 'Importar Veículos (CSV)' clicado.");
+                importarVeiculos();
             });
 
             // Ação para o botão "Listar Veículos"
             menuView.getBtnListar().addActionListener(e -> {
-                System.out.println("MenuController: Botão 'Listar Veículos' clicado. A tentar abrir ListarController.");
-                menuView.dispose(); // Fecha a janela do menu
-                new ListarController(false); // Passa false para indicar modo de listagem normal
-                System.out.println("MenuController: ListarController provavelmente aberto (ou erro ocorreu).");
+                LOG.debug("Botão 'Listar Veículos' clicado.");
+                Navegador.getInstance().mostrarListagem(); // Esconde o menu e mostra a listagem (modo normal)
             });
 
             // Ação para o botão "Voltar" (Logout)
             menuView.getBtnLogout().addActionListener(e -> {
-                System.out.println("MenuController: Botão 'Voltar' (Logout) clicado. A tentar efetuar logout.");
+                LOG.debug("Botão 'Voltar' (Logout) clicado.");
                 UserSession.getInstance().cleanUserSession(); // Limpa a sessão do utilizador
-                menuView.dispose(); // Fecha a janela do menu
-                new LoginController(); // Reabre a janela de login
-                System.out.println("MenuController: Logout efetuado e LoginController provavelmente aberto.");
+                Navegador.getInstance().terminarSessao(); // Descarta os ecrãs da sessão e reabre o login
             });
 
             menuView.getBtnCriarCliente().addActionListener(e -> {
-                System.out.println("MenuController: Botão 'Criar Novo Cliente' clicado. A tentar abrir CriarNovoClienteController.");
-                menuView.dispose(); // Fecha esta janela
-                new CriarNovoClienteController(menuView); // Passa a MenuView atual
-                System.out.println("MenuController: CriarNovoClienteController provavelmente aberto.");
+                LOG.debug("Botão 'Criar Novo Cliente' clicado.");
+                Navegador.getInstance().mostrarCriarCliente();
             });
 
 
 
         } catch (Exception e) {
-            System.err.println("MenuController: ERRO CRÍTICO na inicialização do MenuController!");
-            System.err.println("Mensagem: " + e.getMessage());
-            e.printStackTrace(); // Imprime a stack trace completa
+            LOG.erro("ERRO CRÍTICO na inicialização do MenuController: {}", e.getMessage(), e);
             JOptionPane.showMessageDialog(null,
                     "Ocorreu um erro crítico ao carregar o menu. Por favor, contacte o suporte.",
                     "Erro Crítico",
@@ -114,9 +126,57 @@ public class MenuController {
             // Se a view foi criada, tentar descartá-la
             if (this.menuView != null) { // Verifica se menuView foi inicializada antes de tentar dispose
                 this.menuView.dispose();
+                this.menuView = null; // O Navegador não guarda um menu que falhou
             }
             // Tentar voltar para a tela de login como fallback
-            new LoginController();
+            Navegador.getInstance().mostrarLogin();
+        }
+    }
+
+    @Override
+    public JFrame getJanela() {
+        return menuView;
+    }
+
+    @Override
+    public void aoMostrar() {
+        // Nada a atualizar: as permissões foram aplicadas na construção e o ecrã é descartado no logout
+    }
+
+    // Pede o ficheiro CSV e importa-o em segundo plano; as rejeições ficam em <ficheiro>.rejeicoes.csv
+    private void importarVeiculos() {
+        JFileChooser seletor = new JFileChooser();
+        seletor.setDialogTitle("Importar veículos (CSV: marca, modelo, matricula, estado, preco, cidade)");
+        seletor.setFileFilter(new FileNameExtensionFilter("Ficheiros CSV", "csv"));
+        if (seletor.showOpenDialog(menuView) != JFileChooser.APPROVE_OPTION) {
+            return;
         }
+        Path ficheiro = seletor.getSelectedFile().toPath();
+        Path relatorio = ficheiro.resolveSibling(ficheiro.getFileName() + ".rejeicoes.csv");
+
+        ExecutorTarefas.getInstance().executar(CANAL_IMPORTACAO, ficheiro,
+                contexto -> new ImportadorVeiculosCsv().importar(ficheiro, relatorio),
+                resultado -> {
+                    StringBuilder mensagem = new StringBuilder();
+                    mensagem.append("Linhas lidas: ").append(resultado.getLinhasLidas()).append('\n');
+                    mensagem.append("Veículos inseridos: ").append(resultado.getInseridas()).append('\n');
+                    mensagem.append("Linhas rejeitadas: ").append(resultado.getRejeitadas()).append('\n');
+                    mensagem.append(String.format("Duração: %.1f s (%.0f linhas/s)",
+                            resultado.getDuracaoMs() / 1000.0, resultado.getLinhasPorSegundo()));
+                    if (resultado.getRejeitadas() > 0) {
+                        mensagem.append("\n\nRelatório de rejeições: ").append(relatorio);
+                    }
+                    JOptionPane.showMessageDialog(menuView, mensagem.toString(), "Importação concluída",
+                            resultado.getRejeitadas() > 0 ? JOptionPane.WARNING_MESSAGE : JOptionPane.INFORMATION_MESSAGE);
+                },
+                erro -> {
+                    LOG.erro("Erro na importação: {}", erro.getMessage(), erro);
+                    JOptionPane.showMessageDialog(menuView, "Erro ao importar o ficheiro: " + erro.getMessage(),
+                            "Erro de Importação", JOptionPane.ERROR_MESSAGE);
+                },
+                ocupado -> {
+                    menuView.getBtnImportar().setEnabled(!ocupado);
+                    menuView.setCursor(ocupado ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : Cursor.getDefaultCursor());
+                });
     }
 }
@@ -0,0 +1,114 @@
+package controller;
+
+import util.Log;
+
+import javax.swing.JFrame;
+import javax.swing.WindowConstants;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Classe singleton que gere a navegação entre os ecrãs principais. Cada ecrã (controlador e a sua vista)
+ * é construído uma única vez e guardado: navegar esconde a janela atual e mostra a de destino, chamando
+ * antes Ecra.aoMostrar para atualizar só os dados. Não há nova JFrame, nem initializeComponents, nem
+ * leitura das Preferences, nem tema reaplicado a cada navegação.
+ *
+ * Ao terminar a sessão, os ecrãs da sessão são descartados (outro utilizador pode ter outro perfil);
+ * só o login fica guardado.
+ *
+ * Usado apenas no EDT.
+ */
+public final class Navegador {
+
+    private static final Log LOG = Log.de(Navegador.class);
+
+    private static final Navegador instance = new Navegador();
+
+    private final Map<Class<? extends Ecra>, Ecra> ecras = new LinkedHashMap<>();
+    private Ecra atual;
+
+    private Navegador() {
+    }
+
+    public static Navegador getInstance() {
+        return instance;
+    }
+
+    public void mostrarLogin() {
+        mostrar(LoginController.class, LoginController::new);
+    }
+
+    public void mostrarMenu() {
+        mostrar(MenuController.class, MenuController::new);
+    }
+
+    public void mostrarListagem() {
+        mostrar(ListarController.class, ListarController::new);
+    }
+
+    public void mostrarInserir() {
+        mostrar(InserirController.class, InserirController::new);
+    }
+
+    public void mostrarCriarCliente() {
+        mostrar(CriarNovoClienteController.class, CriarNovoClienteController::new);
+    }
+
+    /**
+     * Descarta os ecrãs da sessão e volta ao login.
+     */
+    public void terminarSessao() {
+        Ecra login = ecras.remove(LoginController.class);
+        for (Ecra ecra : ecras.values()) {
+            ecra.aoEsconder();
+            ecra.getJanela().dispose();
+        }
+        ecras.clear();
+        if (login != null) {
+            ecras.put(LoginController.class, login);
+        }
+        atual = null;
+        mostrarLogin();
+    }
+
+    // --- Métodos auxiliares ---
+
+    private <E extends Ecra> void mostrar(Class<E> tipo, Supplier<E> criar) {
+        Ecra ecra = ecras.get(tipo);
+        if (ecra == null) {
+            ecra = criar.get();
+            if (ecra.getJanela() == null) {
+                return; // A construção falhou e o próprio ecrã já tratou do erro
+            }
+            ecras.put(tipo, ecra);
+            prepararJanela(ecra.getJanela());
+            LOG.debug("Ecrã {} criado", tipo.getSimpleName());
+        }
+        if (atual != null && atual != ecra) {
+            atual.aoEsconder();
+            atual.getJanela().setVisible(false);
+        }
+        atual = ecra;
+        JFrame janela = ecra.getJanela(); // Uma ThemedView aplica o tema ativo, se tiver mudado, ao ser mostrada
+        ecra.aoMostrar();
+        janela.setVisible(true);
+        janela.toFront();
+    }
+
+    // Fechar uma janela guardada (exceto login e menu, que terminam a aplicação) volta ao menu em vez de a destruir
+    private void prepararJanela(JFrame janela) {
+        if (janela.getDefaultCloseOperation() == WindowConstants.EXIT_ON_CLOSE) {
+            return;
+        }
+        janela.setDefaultCloseOperation(WindowConstants.DO_NOTHING_ON_CLOSE);
+        janela.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                mostrarMenu();
+            }
+        });
+    }
+}
@@ -0,0 +1,165 @@
+package dao;
+
+import java.sql.SQLException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Cache LRU, partilhada por todo o processo, dos resultados recentes das pesquisas por prefixo
+ * dos seletores (responsável, comprador). Guarda poucas entradas e por pouco tempo: serve para que
+ * apagar e voltar a escrever, ou abrir outro veículo com o mesmo comprador, não volte à base de dados.
+ *
+ * Se um prefixo mais curto tiver sido pesquisado com resultado completo (menos linhas do que o limite),
+ * o resultado de um prefixo mais longo é obtido filtrando essa lista em memória ("ana" -> "ana s").
+ * A comparação ignora maiúsculas e acentos, como a collation das colunas pesquisadas.
+ *
+ * @param <T> Tipo das entidades pesquisadas.
+ */
+final class CachePesquisas<T> {
+
+    /**
+     * Pesquisa na base de dados as entidades com o prefixo dado (já sem espaços nas pontas).
+     */
+    @FunctionalInterface
+    interface Pesquisa<T> {
+        List<T> pesquisar(String prefixo, int limite) throws SQLException;
+    }
+
+    private static final Pattern MARCAS_ACENTO = Pattern.compile("\\p{M}+");
+
+    private final String nome;
+    private final int capacidade;
+    private final long ttlMs;
+    private final List<Function<T, String>> campos; // Campos comparados com o prefixo (ex: nome, email)
+    private final LinkedHashMap<String, Entrada<T>> entradas;
+
+    private final AtomicLong acertos = new AtomicLong();
+    private final AtomicLong refinamentos = new AtomicLong();
+    private final AtomicLong falhas = new AtomicLong();
+
+    @SafeVarargs
+    CachePesquisas(String nome, int capacidade, long ttlMs, Function<T, String>... campos) {
+        this.nome = nome;
+        this.capacidade = capacidade;
+        this.ttlMs = ttlMs;
+        List<Function<T, String>> copia = new ArrayList<>(campos.length);
+        for (Function<T, String> campo : campos) {
+            copia.add(campo);
+        }
+        this.campos = Collections.unmodifiableList(copia);
+        this.entradas = new LinkedHashMap<>(capacidade * 2, 0.75f, true) { // Ordem de acesso
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entrada<T>> maisAntiga) {
+                return size() > CachePesquisas.this.capacidade;
+            }
+        };
+    }
+
+    /**
+     * Obtém as entidades com o prefixo dado: da cache, filtrando um prefixo mais curto, ou da base de dados.
+     *
+     * @return Lista imutável, pela ordem devolvida pela pesquisa, com no máximo limite entidades.
+     */
+    List<T> obter(String prefixo, int limite, Pesquisa<T> pesquisa) throws SQLException {
+        String chave = normalizar(prefixo);
+        synchronized (this) {
+            Entrada<T> entrada = entradas.get(chave);
+            if (entrada != null && !entrada.expirou(ttlMs) && (entrada.completa || entrada.limite >= limite)) {
+                acertos.incrementAndGet();
+                return limitar(entrada.resultado, limite);
+            }
+            // Prefixo mais curto com resultado completo: os resultados deste estão todos lá
+            for (int fim = chave.length() - 1; fim > 0; fim--) {
+                Entrada<T> curta = entradas.get(chave.substring(0, fim));
+                if (curta != null && curta.completa && !curta.expirou(ttlMs)) {
+                    List<T> filtrado = new ArrayList<>();
+                    for (T item : curta.resultado) {
+                        if (comecaPor(item, chave)) {
+                            filtrado.add(item);
+                        }
+                    }
+                    refinamentos.incrementAndGet();
+                    // Os dados são os da entrada curta: expiram com ela, não ganham um novo TTL
+                    entradas.put(chave, new Entrada<>(filtrado, curta.limite, true, curta.criadaEm));
+                    return limitar(Collections.unmodifiableList(filtrado), limite);
+                }
+            }
+        }
+
+        // Consulta fora do lock: pesquisas de prefixos diferentes não esperam umas pelas outras
+        falhas.incrementAndGet();
+        List<T> resultado = Collections.unmodifiableList(new ArrayList<>(pesquisa.pesquisar(prefixo, limite)));
+        synchronized (this) {
+            entradas.put(chave, new Entrada<>(resultado, limite, resultado.size() < limite));
+        }
+        return resultado;
+    }
+
+    /**
+     * Descarta os resultados guardados (ex: depois de inserir ou alterar uma entidade).
+     */
+    synchronized void invalidar() {
+        entradas.clear();
+    }
+
+    @Override
+    public String toString() {
+        long a = acertos.get();
+        long r = refinamentos.get();
+        long f = falhas.get();
+        long total = a + r + f;
+        return String.format("CachePesquisas[%s: acertos=%d, refinamentos=%d, falhas=%d, taxa=%.1f%%]",
+                nome, a, r, f, total == 0 ? 0.0 : 100.0 * (a + r) / total);
+    }
+
+    // --- Métodos auxiliares ---
+
+    private boolean comecaPor(T item, String prefixoNormalizado) {
+        for (Function<T, String> campo : campos) {
+            String valor = campo.apply(item);
+            if (valor != null && normalizar(valor).startsWith(prefixoNormalizado)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static <T> List<T> limitar(List<T> lista, int limite) {
+        return lista.size() <= limite ? lista : lista.subList(0, limite);
+    }
+
+    private static String normalizar(String texto) {
+        String semAcentos = MARCAS_ACENTO.matcher(Normalizer.normalize(texto.trim(), Normalizer.Form.NFD)).replaceAll("");
+        return semAcentos.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Entrada<T> {
+        private final List<T> resultado;
+        private final int limite;
+        private final boolean completa; // Menos linhas do que o limite: não há mais nenhuma com este prefixo
+        private final long criadaEm; // Para um refinamento, a da entrada de onde foi filtrado
+
+        private Entrada(List<T> resultado, int limite, boolean completa) {
+            this(resultado, limite, completa, System.currentTimeMillis());
+        }
+
+        private Entrada(List<T> resultado, int limite, boolean completa, long criadaEm) {
+            this.resultado = resultado;
+            this.limite = limite;
+            this.completa = completa;
+            this.criadaEm = criadaEm;
+        }
+
+        private boolean expirou(long ttlMs) {
+            return System.currentTimeMillis() - criadaEm > ttlMs;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package dao;
+
+import util.MetricaMetodo;
+import util.Metricas;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Cache read-through, partilhada por todo o processo, para tabelas de referência pequenas
+ * que quase nunca mudam (estado, cidade, país, perfil).
+ * A tabela inteira é carregada de uma só vez e indexada por ID e por descrição;
+ * a cópia expira ao fim do TTL ou quando é invalidada explicitamente.
+ *
+ * @param <T> Tipo da entidade de referência.
+ */
+public class CacheReferencia<T> {
+
+    /**
+     * Carrega todas as linhas da tabela de referência.
+     */
+    @FunctionalInterface
+    public interface Carregador<T> {
+        List<T> carregar() throws SQLException;
+    }
+
+    public static final long TTL_PADRAO_MS = 10 * 60_000; // 10 minutos
+
+    // Registo de todas as caches, para invalidação e estatísticas globais
+    private static final List<CacheReferencia<?>> TODAS = new CopyOnWriteArrayList<>();
+
+    private final String nome;
+    private final Carregador<T> carregador;
+    private final ToIntFunction<T> extratorId;
+    private final Function<T, String> extratorDescricao;
+    private final long ttlMs;
+    private final MetricaMetodo metricaCarregar; // Leituras da tabela completa (as falhas da cache)
+
+    private volatile Snapshot<T> snapshot; // null se nunca carregada ou invalidada
+
+    private final AtomicLong acertos = new AtomicLong();
+    private final AtomicLong falhas = new AtomicLong();
+
+    public CacheReferencia(String nome, Carregador<T> carregador, ToIntFunction<T> extratorId,
+                           Function<T, String> extratorDescricao, long ttlMs) {
+        this.nome = nome;
+        this.carregador = carregador;
+        this.extratorId = extratorId;
+        this.extratorDescricao = extratorDescricao;
+        this.ttlMs = ttlMs;
+        this.metricaCarregar = Metricas.metodo("CacheReferencia." + nome);
+        TODAS.add(this);
+    }
+
+    /**
+     * Obtém todas as entidades (lista imutável, pela ordem devolvida pela base de dados).
+     */
+    public List<T> todos() throws SQLException {
+        return obterSnapshot().lista;
+    }
+
+    /**
+     * Obtém uma entidade pelo ID, ou null se não existir.
+     */
+    public T porId(int id) throws SQLException {
+        return obterSnapshot().porId.get(id);
+    }
+
+    /**
+     * Obtém uma entidade pela descrição (sem distinguir maiúsculas/minúsculas), ou null se não existir.
+     */
+    public T porDescricao(String descricao) throws SQLException {
+        if (descricao == null) {
+            return null;
+        }
+        return obterSnapshot().porDescricao.get(normalizar(descricao));
+    }
+
+    /**
+     * Descarta a cópia em memória; o próximo acesso volta a ler a tabela.
+     */
+    public void invalidar() {
+        snapshot = null;
+    }
+
+    /**
+     * Invalida todas as caches de referência do processo.
+     */
+    public static void invalidarTodas() {
+        TODAS.forEach(CacheReferencia::invalidar);
+    }
+
+    /**
+     * Resumo de acertos/falhas de todas as caches, uma por linha.
+     */
+    public static String resumoTodas() {
+        StringBuilder sb = new StringBuilder();
+        for (CacheReferencia<?> cache : TODAS) {
+            sb.append(cache).append('\n');
+        }
+        return sb.toString();
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public long getAcertos() {
+        return acertos.get();
+    }
+
+    public long getFalhas() {
+        return falhas.get();
+    }
+
+    @Override
+    public String toString() {
+        long a = acertos.get();
+        long f = falhas.get();
+        Snapshot<T> atual = snapshot;
+        return String.format("Cache[%s: %d linhas, acertos=%d, falhas=%d, taxa=%.1f%%]",
+                nome, atual != null ? atual.lista.size() : 0, a, f, a + f == 0 ? 0.0 : 100.0 * a / (a + f));
+    }
+
+    // --- Métodos auxiliares ---
+
+    private Snapshot<T> obterSnapshot() throws SQLException {
+        Snapshot<T> atual = snapshot;
+        if (atual != null && !atual.expirou(ttlMs)) {
+            acertos.incrementAndGet();
+            return atual;
+        }
+        synchronized (this) {
+            // Outra thread pode ter carregado enquanto esperávamos
+            atual = snapshot;
+            if (atual != null && !atual.expirou(ttlMs)) {
+                acertos.incrementAndGet();
+                return atual;
+            }
+            falhas.incrementAndGet();
+            List<T> itens;
+            try (MetricaMetodo.Medicao medicao = metricaCarregar.medir()) {
+                itens = carregador.carregar();
+                medicao.linhas(itens.size());
+            } catch (SQLException | RuntimeException e) {
+                metricaCarregar.erro();
+                throw e;
+            }
+            atual = new Snapshot<>(itens, extratorId, extratorDescricao);
+            snapshot = atual;
+            return atual;
+        }
+    }
+
+    private static String normalizar(String descricao) {
+        return descricao.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Cópia imutável da tabela com os respetivos índices.
+     */
+    private static final class Snapshot<T> {
+        private final List<T> lista;
+        private final Map<Integer, T> porId;
+        private final Map<String, T> porDescricao;
+        private final long carregadaEm = System.currentTimeMillis();
+
+        private Snapshot(List<T> itens, ToIntFunction<T> extratorId, Function<T, String> extratorDescricao) {
+            this.lista = Collections.unmodifiableList(new ArrayList<>(itens));
+            Map<Integer, T> ids = new HashMap<>();
+            Map<String, T> descricoes = new HashMap<>();
+            for (T item : itens) {
+                ids.put(extratorId.applyAsInt(item), item);
+                String descricao = extratorDescricao.apply(item);
+                if (descricao != null) {
+                    descricoes.putIfAbsent(normalizar(descricao), item);
+                }
+            }
+            this.porId = ids;
+            this.porDescricao = descricoes;
+        }
+
+        private boolean expirou(long ttlMs) {
+            return System.currentTimeMillis() - carregadaEm > ttlMs;
+        }
+    }
+}
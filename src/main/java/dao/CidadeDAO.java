@@ -3,6 +3,7 @@ package dao;
 import model.Cidade;
 import model.Pais;
 import util.ConexaoBD;
+import util.Log;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -13,102 +14,92 @@ import java.util.List;
 
 public class CidadeDAO {
 
+    private static final Log LOG = Log.de(CidadeDAO.class);
+
+    // Cidades (com o respetivo país) servidas a partir de uma cache partilhada pelo processo
+    private static final CacheReferencia<Cidade> CACHE = new CacheReferencia<>("cidade",
+            CidadeDAO::carregarTodas, Cidade::getId, Cidade::getDescricao, CacheReferencia.TTL_PADRAO_MS);
+
     public CidadeDAO() {
         // Construtor padrão
     }
 
     /**
-     * Busca todas as cidades na base de dados, sem JOIN.
-     * Evita problemas se alguma cidade não tiver país associado.
+     * Busca todas as cidades na base de dados.
      */
     public List<Cidade> buscarTodos() {
-        List<Cidade> cidades = new ArrayList<>();
-        String sql = "SELECT id, descricao FROM gsa_db.cidade";
-
-        System.out.println("CidadeDAO: Executando SQL para buscar todas as cidades.");
-
-        try (Connection connection = ConexaoBD.getConnection();
-             PreparedStatement ps = connection.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-
-            int count = 0;
-            while (rs.next()) {
-                Cidade cidade = new Cidade(rs.getInt("id"), rs.getString("descricao"));
-                cidades.add(cidade);
-                count++;
-                System.out.println("CidadeDAO: Cidade carregada: " + cidade.getDescricao());
-            }
-
-            System.out.println("CidadeDAO: Total de cidades encontradas = " + count);
-
+        try {
+            List<Cidade> cidades = new ArrayList<>(CACHE.todos());
+            LOG.debug("Total de cidades encontradas = {}", cidades.size());
+            return cidades;
         } catch (SQLException e) {
-            System.err.println("CidadeDAO: Erro SQL ao buscar todas as cidades: " + e.getMessage());
-            e.printStackTrace();
+            LOG.erro("Erro SQL ao buscar todas as cidades: {}", e.getMessage(), e);
+            return new ArrayList<>();
         }
-
-        return cidades;
     }
 
     /**
-     * Busca uma cidade pela sua descrição (com JOIN ao país).
+     * Busca uma cidade pela sua descrição (com o país associado).
      */
     public Cidade buscarPorDescricao(String descricao) {
-        Cidade cidade = null;
-        String sql = "SELECT c.id, c.descricao, p.id AS pais_id, p.descricao AS pais_nome " +
-                "FROM cidade c " +
-                "JOIN pais p ON c.id_pais = p.id " +
-                "WHERE c.descricao = ?";
-
-        System.out.println("CidadeDAO: A tentar buscar cidade por descrição: " + descricao);
-
-        try (Connection connection = ConexaoBD.getConnection();
-             PreparedStatement ps = connection.prepareStatement(sql)) {
-
-            ps.setString(1, descricao);
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    Pais pais = new Pais(rs.getInt("pais_id"), rs.getString("pais_nome"));
-                    cidade = new Cidade(rs.getInt("id"), rs.getString("descricao"), pais);
-                    System.out.println("CidadeDAO: Cidade encontrada: " + cidade.getDescricao());
-                } else {
-                    System.out.println("CidadeDAO: Nenhuma cidade encontrada para: " + descricao);
-                }
+        try {
+            Cidade cidade = CACHE.porDescricao(descricao);
+            if (cidade == null) {
+                LOG.debug("Nenhuma cidade encontrada para: {}", descricao);
             }
-
+            return cidade;
         } catch (SQLException e) {
-            System.err.println("CidadeDAO: Erro SQL ao buscar cidade por descrição: " + e.getMessage());
-            e.printStackTrace();
+            LOG.erro("Erro SQL ao buscar cidade por descrição: {}", e.getMessage(), e);
+            return null;
         }
-
-        return cidade;
     }
 
     /**
      * Busca uma cidade pelo seu ID.
      */
     public Cidade buscarPorId(int id) {
-        Cidade cidade = null;
+        try {
+            return CACHE.porId(id);
+        } catch (SQLException e) {
+            LOG.erro("Erro SQL ao buscar cidade por ID: {}", e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Descarta as cidades em cache (ex: depois de alterar a tabela cidade).
+     */
+    public static void invalidarCache() {
+        CACHE.invalidar();
+    }
+
+    public static CacheReferencia<Cidade> getCache() {
+        return CACHE;
+    }
+
+    /**
+     * Leitura da tabela completa, usada pela cache.
+     * LEFT JOIN ao país: evita perder cidades que não tenham país associado.
+     */
+    private static List<Cidade> carregarTodas() throws SQLException {
+        List<Cidade> cidades = new ArrayList<>();
         String sql = "SELECT c.id, c.descricao, p.id AS pais_id, p.nome AS pais_nome " +
                 "FROM gsa_db.cidade c " +
-                "JOIN gsa_db.pais p ON c.id_pais = p.id " +
-                "WHERE c.id = ?";
+                "LEFT JOIN gsa_db.pais p ON c.id_pais = p.id";
+
+        LOG.debug("Executando SQL para carregar todas as cidades.");
 
         try (Connection connection = ConexaoBD.getConnection();
-             PreparedStatement ps = connection.prepareStatement(sql)) {
+             PreparedStatement ps = connection.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
 
-            ps.setInt(1, id);
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    Pais pais = new Pais(rs.getInt("pais_id"), rs.getString("pais_nome"));
-                    cidade = new Cidade(rs.getInt("id"), rs.getString("descricao"), pais);
-                }
+            while (rs.next()) {
+                Pais pais = rs.getObject("pais_id") != null
+                        ? new Pais(rs.getInt("pais_id"), rs.getString("pais_nome"))
+                        : null;
+                cidades.add(new Cidade(rs.getInt("id"), rs.getString("descricao"), pais));
             }
-
-        } catch (SQLException e) {
-            System.err.println("CidadeDAO: Erro SQL ao buscar cidade por ID: " + e.getMessage());
-            e.printStackTrace();
         }
-
-        return cidade;
+        return cidades;
     }
 }
@@ -2,16 +2,42 @@ package dao;
 
 import model.Comprador;
 import util.ConexaoBD;
+import util.Log;
+import util.MetricaMetodo;
+import util.Metricas;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class CompradorDAO {
 
+    private static final Log LOG = Log.de(CompradorDAO.class);
+
+    // Sugestões devolvidas por pesquisa do seletor de comprador
+    public static final int LIMITE_SUGESTOES = 20;
+
+    // Cada ramo usa o seu índice (nome_completo, email); um OR entre as duas colunas leria a tabela toda
+    private static final String SQL_PESQUISA_PREFIXO =
+            "(SELECT id, nome_completo, telefone, email FROM gsa_db.comprador WHERE nome_completo LIKE ? ORDER BY nome_completo LIMIT ?) " +
+            "UNION " +
+            "(SELECT id, nome_completo, telefone, email FROM gsa_db.comprador WHERE email LIKE ? ORDER BY nome_completo LIMIT ?) " +
+            "ORDER BY nome_completo LIMIT ?";
+
+    private static final CachePesquisas<Comprador> PESQUISAS = new CachePesquisas<>("comprador", 32, 60_000,
+            Comprador::getNomeCompleto, Comprador::getEmail);
+
+    // Métricas dos métodos que vão à base de dados, ver util.Metricas (as pesquisas só contam as que não vêm da cache)
+    private static final MetricaMetodo METRICA_BUSCAR_TODOS = Metricas.metodo("CompradorDAO.buscarTodos");
+    private static final MetricaMetodo METRICA_PESQUISAR = Metricas.metodo("CompradorDAO.pesquisarPorPrefixo");
+    private static final MetricaMetodo METRICA_BUSCAR_POR_ID = Metricas.metodo("CompradorDAO.buscarPorId");
+    private static final MetricaMetodo METRICA_BUSCAR_POR_EMAIL = Metricas.metodo("CompradorDAO.buscarPorEmail");
+    private static final MetricaMetodo METRICA_SALVAR = Metricas.metodo("CompradorDAO.salvar");
+
     public CompradorDAO() {
         // Construtor simples
     }
@@ -20,7 +46,8 @@ public class CompradorDAO {
         List<Comprador> compradores = new ArrayList<>();
         String sql = "SELECT id, nome_completo, telefone, email FROM gsa_db.comprador";
 
-        try (Connection connection = ConexaoBD.getConnection();
+        try (MetricaMetodo.Medicao medicao = METRICA_BUSCAR_TODOS.medir();
+             Connection connection = ConexaoBD.getConnection();
              PreparedStatement ps = connection.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
 
@@ -32,20 +59,68 @@ public class CompradorDAO {
                 comprador.setEmail(rs.getString("email"));
                 compradores.add(comprador);
             }
+            medicao.linhas(compradores.size());
 
         } catch (SQLException e) {
-            System.err.println("Erro ao buscar todos os compradores: " + e.getMessage());
-            e.printStackTrace();
+            METRICA_BUSCAR_TODOS.erro();
+            LOG.erro("Erro ao buscar todos os compradores: {}", e.getMessage(), e);
         }
 
         return compradores;
     }
 
+    /**
+     * Pesquisa compradores cujo nome ou email começa pelo texto dado, para o seletor com pesquisa.
+     * Usa os índices de comprador.nome_completo e comprador.email (LIKE 'x%') e guarda os resultados
+     * recentes numa cache LRU.
+     *
+     * @param prefixo O texto escrito no seletor.
+     * @return No máximo LIMITE_SUGESTOES compradores, ordenados por nome (lista vazia se o texto for vazio).
+     */
+    public List<Comprador> pesquisarPorPrefixo(String prefixo) {
+        String texto = prefixo == null ? "" : prefixo.trim();
+        if (texto.isEmpty()) {
+            return Collections.emptyList();
+        }
+        try {
+            return PESQUISAS.obter(texto, LIMITE_SUGESTOES, CompradorDAO::consultarPorPrefixo);
+        } catch (SQLException e) {
+            METRICA_PESQUISAR.erro();
+            LOG.erro("Erro ao pesquisar compradores por prefixo: {}", e.getMessage(), e);
+            return new ArrayList<>();
+        }
+    }
+
+    private static List<Comprador> consultarPorPrefixo(String prefixo, int limite) throws SQLException {
+        List<Comprador> compradores = new ArrayList<>();
+        String padrao = PesquisaTexto.parametro(PesquisaTexto.Modo.PREFIXO, prefixo);
+
+        try (MetricaMetodo.Medicao medicao = METRICA_PESQUISAR.medir();
+             Connection connection = ConexaoBD.getConnection();
+             PreparedStatement ps = connection.prepareStatement(SQL_PESQUISA_PREFIXO)) {
+
+            ps.setString(1, padrao);
+            ps.setInt(2, limite);
+            ps.setString(3, padrao);
+            ps.setInt(4, limite);
+            ps.setInt(5, limite);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    compradores.add(new Comprador(rs.getInt("id"), rs.getString("nome_completo"),
+                            rs.getString("telefone"), rs.getString("email")));
+                }
+            }
+            medicao.linhas(compradores.size());
+        }
+        return compradores;
+    }
+
     public Comprador buscarPorId(int id) {
         Comprador comprador = null;
         String sql = "SELECT id, nome_completo, telefone, email FROM gsa_db.comprador WHERE id = ?";
 
-        try (Connection connection = ConexaoBD.getConnection();
+        try (MetricaMetodo.Medicao medicao = METRICA_BUSCAR_POR_ID.medir();
+             Connection connection = ConexaoBD.getConnection();
              PreparedStatement ps = connection.prepareStatement(sql)) {
 
             ps.setInt(1, id);
@@ -56,12 +131,13 @@ public class CompradorDAO {
                     comprador.setNomeCompleto(rs.getString("nome_completo"));
                     comprador.setTelefone(rs.getString("telefone"));
                     comprador.setEmail(rs.getString("email"));
+                    medicao.linhas(1);
                 }
             }
 
         } catch (SQLException e) {
-            System.err.println("Erro ao buscar comprador por ID: " + e.getMessage());
-            e.printStackTrace();
+            METRICA_BUSCAR_POR_ID.erro();
+            LOG.erro("Erro ao buscar comprador por ID: {}", e.getMessage(), e);
         }
 
         return comprador;
@@ -71,7 +147,8 @@ public class CompradorDAO {
         Comprador comprador = null;
         String sql = "SELECT id, nome_completo, telefone, email FROM gsa_db.comprador WHERE email = ?";
 
-        try (Connection connection = ConexaoBD.getConnection();
+        try (MetricaMetodo.Medicao medicao = METRICA_BUSCAR_POR_EMAIL.medir();
+             Connection connection = ConexaoBD.getConnection();
              PreparedStatement ps = connection.prepareStatement(sql)) {
 
             ps.setString(1, email);
@@ -82,12 +159,13 @@ public class CompradorDAO {
                     comprador.setNomeCompleto(rs.getString("nome_completo"));
                     comprador.setTelefone(rs.getString("telefone"));
                     comprador.setEmail(rs.getString("email"));
+                    medicao.linhas(1);
                 }
             }
 
         } catch (SQLException e) {
-            System.err.println("Erro ao buscar comprador por email: " + e.getMessage());
-            e.printStackTrace();
+            METRICA_BUSCAR_POR_EMAIL.erro();
+            LOG.erro("Erro ao buscar comprador por email: {}", e.getMessage(), e);
         }
 
         return comprador;
@@ -96,14 +174,19 @@ public class CompradorDAO {
     public void salvar(Comprador comprador) throws SQLException {
         String sql = "INSERT INTO gsa_db.comprador (nome_completo, telefone, email) VALUES (?, ?, ?)";
 
-        try (Connection connection = ConexaoBD.getConnection();
+        try (MetricaMetodo.Medicao medicao = METRICA_SALVAR.medir();
+             Connection connection = ConexaoBD.getConnection();
              PreparedStatement ps = connection.prepareStatement(sql)) {
 
             ps.setString(1, comprador.getNomeCompleto());
             ps.setString(2, comprador.getTelefone());
             ps.setString(3, comprador.getEmail());
 
-            ps.executeUpdate();
+            medicao.linhas(ps.executeUpdate());
+        } catch (SQLException e) {
+            METRICA_SALVAR.erro();
+            throw e;
         }
+        PESQUISAS.invalidar(); // O novo comprador tem de aparecer nas próximas pesquisas
     }
 }
@@ -2,6 +2,7 @@ package dao;
 
 import model.Estado;
 import util.ConexaoBD;
+import util.Log;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -13,9 +14,15 @@ import java.util.List;
 /**
  * DAO (Data Access Object) para operações relacionadas com a entidade Estado.
  * Gere a persistência e recuperação de dados de estados na base de dados.
+ * Os estados são servidos a partir de uma cache de referência partilhada pelo processo.
  */
 public class EstadoDAO {
 
+    private static final Log LOG = Log.de(EstadoDAO.class);
+
+    private static final CacheReferencia<Estado> CACHE = new CacheReferencia<>("estado",
+            EstadoDAO::carregarTodos, Estado::getId, Estado::getDescricao, CacheReferencia.TTL_PADRAO_MS);
+
     public EstadoDAO() {
         // O construtor não precisa inicializar a conexão aqui.
         // A conexão será obtida dentro de cada método usando try-with-resources.
@@ -27,23 +34,12 @@ public class EstadoDAO {
      * @return Uma lista de objetos Estado.
      */
     public List<Estado> buscarTodos() {
-        List<Estado> estados = new ArrayList<>();
-        String sql = "SELECT id, descricao FROM gsa_db.estado";
-
-        try (Connection connection = ConexaoBD.getConnection();
-             PreparedStatement ps = connection.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-
-            while (rs.next()) {
-                Estado estado = new Estado(rs.getInt("id"), rs.getString("descricao"));
-                estados.add(estado);
-            }
-
+        try {
+            return new ArrayList<>(CACHE.todos());
         } catch (SQLException e) {
-            System.err.println("Erro ao buscar todos os estados: " + e.getMessage());
-            e.printStackTrace();
+            LOG.erro("Erro ao buscar todos os estados: {}", e.getMessage(), e);
+            return new ArrayList<>();
         }
-        return estados;
     }
 
     /**
@@ -53,24 +49,12 @@ public class EstadoDAO {
      * @return O objeto Estado correspondente, ou null se não for encontrado.
      */
     public Estado buscarPorId(int id) {
-        Estado estado = null;
-        String sql = "SELECT id, descricao FROM gsa_db.estado WHERE id = ?";
-
-        try (Connection connection = ConexaoBD.getConnection();
-             PreparedStatement ps = connection.prepareStatement(sql)) {
-
-            ps.setInt(1, id);
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    estado = new Estado(rs.getInt("id"), rs.getString("descricao"));
-                }
-            }
-
+        try {
+            return CACHE.porId(id);
         } catch (SQLException e) {
-            System.err.println("Erro ao buscar estado por ID: " + e.getMessage());
-            e.printStackTrace();
+            LOG.erro("Erro ao buscar estado por ID: {}", e.getMessage(), e);
+            return null;
         }
-        return estado;
     }
 
     /**
@@ -80,23 +64,39 @@ public class EstadoDAO {
      * @return O objeto Estado correspondente, ou null se não for encontrado.
      */
     public Estado buscarPorDescricao(String descricao) {
-        Estado estado = null;
-        String sql = "SELECT id, descricao FROM gsa_db.estado WHERE descricao = ?";
+        try {
+            return CACHE.porDescricao(descricao);
+        } catch (SQLException e) {
+            LOG.erro("Erro ao buscar estado por descrição: {}", e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Descarta os estados em cache (ex: depois de alterar a tabela estado).
+     */
+    public static void invalidarCache() {
+        CACHE.invalidar();
+    }
+
+    public static CacheReferencia<Estado> getCache() {
+        return CACHE;
+    }
+
+    // Leitura da tabela completa, usada pela cache
+    private static List<Estado> carregarTodos() throws SQLException {
+        List<Estado> estados = new ArrayList<>();
+        String sql = "SELECT id, descricao FROM gsa_db.estado";
 
         try (Connection connection = ConexaoBD.getConnection();
-             PreparedStatement ps = connection.prepareStatement(sql)) {
+             PreparedStatement ps = connection.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
 
-            ps.setString(1, descricao);
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    estado = new Estado(rs.getInt("id"), rs.getString("descricao"));
-                }
+            while (rs.next()) {
+                Estado estado = new Estado(rs.getInt("id"), rs.getString("descricao"));
+                estados.add(estado);
             }
-
-        } catch (SQLException e) {
-            System.err.println("Erro ao buscar estado por descrição: " + e.getMessage());
-            e.printStackTrace();
         }
-        return estado;
+        return estados;
     }
 }
@@ -0,0 +1,54 @@
+package dao;
+
+import model.PaisMatricula;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Fotografia imutável da contagem de veículos por país da matrícula.
+ */
+public class EstatisticasMatriculas {
+
+    private final Map<PaisMatricula, Long> porPais;
+    private final long invalidas;
+    private final long porClassificar;
+
+    public EstatisticasMatriculas(Map<PaisMatricula, Long> porPais, long invalidas, long porClassificar) {
+        this.porPais = new EnumMap<>(PaisMatricula.class);
+        for (PaisMatricula pais : PaisMatricula.values()) {
+            this.porPais.put(pais, porPais.getOrDefault(pais, 0L));
+        }
+        this.invalidas = invalidas;
+        this.porClassificar = porClassificar;
+    }
+
+    // Número de veículos com matrícula do país indicado
+    public long getContagem(PaisMatricula pais) {
+        return porPais.get(pais);
+    }
+
+    public long getPortugal() { return getContagem(PaisMatricula.PORTUGAL); }
+    public long getFranca() { return getContagem(PaisMatricula.FRANCA); }
+    public long getEspanha() { return getContagem(PaisMatricula.ESPANHA); }
+
+    // Matrículas que não correspondem a nenhum formato conhecido
+    public long getInvalidas() { return invalidas; }
+
+    // Linhas ainda sem país calculado (anteriores à coluna pais_matricula)
+    public long getPorClassificar() { return porClassificar; }
+
+    public long getTotal() {
+        long total = invalidas + porClassificar;
+        for (long contagem : porPais.values()) {
+            total += contagem;
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Matrículas[total=%d, Portugal=%d, França=%d, Espanha=%d, inválidas=%d, por classificar=%d]",
+                getTotal(), getPortugal(), getFranca(), getEspanha(), invalidas, porClassificar);
+    }
+}
@@ -0,0 +1,39 @@
+package dao;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Página de resultados obtida por paginação keyset (seek) sobre o ID.
+ * O cursor é o ID do último item da página; passa-se a apos(...) para obter a página seguinte.
+ *
+ * @param <T> Tipo dos itens da página.
+ */
+public class Pagina<T> {
+
+    private final List<T> itens;
+    private final Integer ultimoId; // Cursor para a próxima página (null se a página estiver vazia)
+    private final boolean temMais;
+
+    public Pagina(List<T> itens, Integer ultimoId, boolean temMais) {
+        this.itens = Collections.unmodifiableList(itens);
+        this.ultimoId = ultimoId;
+        this.temMais = temMais;
+    }
+
+    public List<T> getItens() {
+        return itens;
+    }
+
+    public Integer getUltimoId() {
+        return ultimoId;
+    }
+
+    public boolean isTemMais() {
+        return temMais;
+    }
+
+    public boolean isVazia() {
+        return itens.isEmpty();
+    }
+}
@@ -2,6 +2,7 @@ package dao;
 
 import model.Pais;
 import util.ConexaoBD;
+import util.Log;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -13,9 +14,15 @@ import java.util.List;
 /**
  * DAO (Data Access Object) para operações relacionadas com a entidade País.
  * Gere a persistência e recuperação de dados de países na base de dados.
+ * Os países são servidos a partir de uma cache de referência partilhada pelo processo.
  */
 public class PaisDAO {
 
+    private static final Log LOG = Log.de(PaisDAO.class);
+
+    private static final CacheReferencia<Pais> CACHE = new CacheReferencia<>("pais",
+            PaisDAO::carregarTodos, Pais::getId, Pais::getNome, CacheReferencia.TTL_PADRAO_MS);
+
     public PaisDAO() {
         // O construtor não precisa inicializar a conexão aqui.
         // A conexão será obtida dentro de cada método usando try-with-resources.
@@ -27,23 +34,12 @@ public class PaisDAO {
      * @return Uma lista de objetos Pais.
      */
     public List<Pais> buscarTodos() {
-        List<Pais> paises = new ArrayList<>();
-        String sql = "SELECT id, nome FROM gsa_db.pais";
-
-        try (Connection connection = ConexaoBD.getConnection();
-             PreparedStatement ps = connection.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-
-            while (rs.next()) {
-                Pais pais = new Pais(rs.getInt("id"), rs.getString("nome"));
-                paises.add(pais);
-            }
-
+        try {
+            return new ArrayList<>(CACHE.todos());
         } catch (SQLException e) {
-            System.err.println("Erro ao buscar todos os países: " + e.getMessage());
-            e.printStackTrace();
+            LOG.erro("Erro ao buscar todos os países: {}", e.getMessage(), e);
+            return new ArrayList<>();
         }
-        return paises;
     }
 
     /**
@@ -53,24 +49,12 @@ public class PaisDAO {
      * @return O objeto Pais correspondente, ou null se não for encontrado.
      */
     public Pais buscarPorId(int id) {
-        Pais pais = null;
-        String sql = "SELECT id, nome FROM gsa_db.pais WHERE id = ?";
-
-        try (Connection connection = ConexaoBD.getConnection();
-             PreparedStatement ps = connection.prepareStatement(sql)) {
-
-            ps.setInt(1, id);
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    pais = new Pais(rs.getInt("id"), rs.getString("nome"));
-                }
-            }
-
+        try {
+            return CACHE.porId(id);
         } catch (SQLException e) {
-            System.err.println("Erro ao buscar país por ID: " + e.getMessage());
-            e.printStackTrace();
+            LOG.erro("Erro ao buscar país por ID: {}", e.getMessage(), e);
+            return null;
         }
-        return pais;
     }
 
     /**
@@ -80,23 +64,39 @@ public class PaisDAO {
      * @return O objeto Pais correspondente, ou null se não for encontrado.
      */
     public Pais buscarPorNome(String nome) {
-        Pais pais = null;
-        String sql = "SELECT id, nome FROM gsa_db.pais WHERE nome = ?";
+        try {
+            return CACHE.porDescricao(nome);
+        } catch (SQLException e) {
+            LOG.erro("Erro ao buscar país por nome: {}", e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Descarta os países em cache (ex: depois de alterar a tabela pais).
+     */
+    public static void invalidarCache() {
+        CACHE.invalidar();
+    }
+
+    public static CacheReferencia<Pais> getCache() {
+        return CACHE;
+    }
+
+    // Leitura da tabela completa, usada pela cache
+    private static List<Pais> carregarTodos() throws SQLException {
+        List<Pais> paises = new ArrayList<>();
+        String sql = "SELECT id, nome FROM gsa_db.pais";
 
         try (Connection connection = ConexaoBD.getConnection();
-             PreparedStatement ps = connection.prepareStatement(sql)) {
+             PreparedStatement ps = connection.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
 
-            ps.setString(1, nome);
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    pais = new Pais(rs.getInt("id"), rs.getString("nome"));
-                }
+            while (rs.next()) {
+                Pais pais = new Pais(rs.getInt("id"), rs.getString("nome"));
+                paises.add(pais);
             }
-
-        } catch (SQLException e) {
-            System.err.println("Erro ao buscar país por nome: " + e.getMessage());
-            e.printStackTrace();
         }
-        return pais;
+        return paises;
     }
 }
@@ -2,9 +2,12 @@ package dao;
 
 import model.Perfil;
 import model.Utilizador;
-import org.mindrot.jbcrypt.BCrypt;
 import service.UserSession;
 import util.ConexaoBD;
+import util.Log;
+import util.MetricaMetodo;
+import util.Metricas;
+import util.PalavraPasse;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -21,6 +24,15 @@ import java.util.List;
  */
 public class PerfilDAO {
 
+    private static final Log LOG = Log.de(PerfilDAO.class);
+
+    // Perfis servidos a partir de uma cache de referência partilhada pelo processo
+    private static final CacheReferencia<Perfil> CACHE = new CacheReferencia<>("perfil",
+            PerfilDAO::carregarTodos, Perfil::getId, Perfil::getDescricao, CacheReferencia.TTL_PADRAO_MS);
+
+    // Métricas do login (ver util.Metricas); a verificação do hash conta na latência
+    private static final MetricaMetodo METRICA_CREDENCIAIS = Metricas.metodo("PerfilDAO.buscarPorCredenciais");
+
     public PerfilDAO() {
         // O construtor não precisa de inicializar a conexão aqui.
         // A conexão será obtida dentro de cada método usando try-with-resources.
@@ -42,36 +54,38 @@ public class PerfilDAO {
                 "JOIN perfil p ON u.id_perfil = p.id " +
                 "WHERE u.utilizador = ?";
 
-        try (Connection connection = ConexaoBD.getConnection(); // Obter a conexão dentro do try-with-resources
+        try (MetricaMetodo.Medicao medicao = METRICA_CREDENCIAIS.medir();
+             Connection connection = ConexaoBD.getConnection(); // Obter a conexão dentro do try-with-resources
              PreparedStatement ps = connection.prepareStatement(sql)) {
 
             ps.setString(1, email);
-            ResultSet rs = ps.executeQuery();
-
-            if (rs.next()) {
-                String storedHash = rs.getString("palavra_passe"); // Nome da coluna corrigido
-
-                // Verifica a palavra-passe fornecida contra o hash armazenado
-                if (BCrypt.checkpw(senha, storedHash)) {
-                    // Crie o objeto Utilizador completo usando os setters
-                    utilizador = new Utilizador(); // Agora o construtor padrão existe em model.Utilizador
-                    utilizador.setId(rs.getInt("id"));
-                    utilizador.setNome(rs.getString("nome"));
-                    utilizador.setUtilizador(rs.getString("utilizador"));
-                    utilizador.setPalavraChave(storedHash); // Armazenar o hash no modelo
-                    utilizador.setPerfilId(rs.getInt("id_perfil")); // Nome da coluna corrigido
-
-                    // Crie o objeto Perfil associado
-                    Perfil perfil = new Perfil(rs.getInt("id_perfil"), rs.getString("perfil_descricao")); // Construtor com argumentos
-                    utilizador.setPerfil(perfil); // Definir o objeto Perfil no Utilizador
-
-                    // Define o utilizador e o perfil na sessão do utilizador
-                    UserSession.getInstance().setLoggedInUser(utilizador, perfil);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    medicao.linhas(1);
+                    String storedHash = rs.getString("palavra_passe"); // Nome da coluna corrigido
+
+                    // Verifica a palavra-passe fornecida contra o hash armazenado
+                    if (PalavraPasse.verificar(senha, storedHash)) {
+                        // Crie o objeto Utilizador completo usando os setters
+                        utilizador = new Utilizador(); // Agora o construtor padrão existe em model.Utilizador
+                        utilizador.setId(rs.getInt("id"));
+                        utilizador.setNome(rs.getString("nome"));
+                        utilizador.setUtilizador(rs.getString("utilizador"));
+                        utilizador.setPalavraChave(storedHash); // Armazenar o hash no modelo
+                        utilizador.setPerfilId(rs.getInt("id_perfil")); // Nome da coluna corrigido
+
+                        // Crie o objeto Perfil associado
+                        Perfil perfil = new Perfil(rs.getInt("id_perfil"), rs.getString("perfil_descricao")); // Construtor com argumentos
+                        utilizador.setPerfil(perfil); // Definir o objeto Perfil no Utilizador
+
+                        // Define o utilizador e o perfil na sessão do utilizador
+                        UserSession.getInstance().setLoggedInUser(utilizador, perfil);
+                    }
                 }
             }
         } catch (SQLException e) {
-            System.err.println("Erro ao buscar por credenciais: " + e.getMessage());
-            e.printStackTrace();
+            METRICA_CREDENCIAIS.erro();
+            LOG.erro("Erro ao buscar por credenciais: {}", e.getMessage(), e);
         }
         return utilizador;
     }
@@ -83,22 +97,12 @@ public class PerfilDAO {
      * @return objeto Perfil preenchido ou null se não existir
      */
     public Perfil obterPorId(int id) {
-        Perfil p = null;
-        try (Connection con = ConexaoBD.getConnection()) {
-            String sql = "SELECT id, descricao FROM perfil WHERE id=?";
-            PreparedStatement ps = con.prepareStatement(sql);
-            ps.setInt(1, id);
-            ResultSet rs = ps.executeQuery();
-
-            if (rs.next()) {
-                p = new Perfil(); // Agora o construtor padrão existe em model.Perfil
-                p.setId(rs.getInt("id"));
-                p.setDescricao(rs.getString("descricao"));
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
+        try {
+            return CACHE.porId(id);
+        } catch (SQLException e) {
+            LOG.erro("Erro ao buscar perfil por ID: {}", e.getMessage(), e);
+            return null;
         }
-        return p;
     }
 
     /**
@@ -107,22 +111,12 @@ public class PerfilDAO {
      * @return lista de objetos Perfil
      */
     public List<Perfil> listarTodos() {
-        List<Perfil> lista = new ArrayList<>(); // Usar ArrayList
-        try (Connection con = ConexaoBD.getConnection()) {
-            String sql = "SELECT id, descricao FROM perfil";
-            PreparedStatement ps = con.prepareStatement(sql);
-            ResultSet rs = ps.executeQuery();
-
-            while (rs.next()) {
-                Perfil p = new Perfil(); // Agora o construtor padrão existe em model.Perfil
-                p.setId(rs.getInt("id"));
-                p.setDescricao(rs.getString("descricao"));
-                lista.add(p);
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
+        try {
+            return new ArrayList<>(CACHE.todos());
+        } catch (SQLException e) {
+            LOG.erro("Erro ao buscar todos os perfis: {}", e.getMessage(), e);
+            return new ArrayList<>();
         }
-        return lista;
     }
 
     /**
@@ -132,21 +126,37 @@ public class PerfilDAO {
      * @return objeto Perfil preenchido ou null se não existir
      */
     public Perfil obterPorDescricao(String descricao) {
-        Perfil p = null;
-        try (Connection con = ConexaoBD.getConnection()) {
-            String sql = "SELECT id, descricao FROM perfil WHERE descricao=?";
-            PreparedStatement ps = con.prepareStatement(sql);
-            ps.setString(1, descricao);
-            ResultSet rs = ps.executeQuery();
-
-            if (rs.next()) {
-                p = new Perfil(); // Agora o construtor padrão existe em model.Perfil
-                p.setId(rs.getInt("id"));
-                p.setDescricao(rs.getString("descricao"));
+        try {
+            return CACHE.porDescricao(descricao);
+        } catch (SQLException e) {
+            LOG.erro("Erro ao buscar perfil por descrição: {}", e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Descarta os perfis em cache (ex: depois de alterar a tabela perfil).
+     */
+    public static void invalidarCache() {
+        CACHE.invalidar();
+    }
+
+    public static CacheReferencia<Perfil> getCache() {
+        return CACHE;
+    }
+
+    // Leitura da tabela completa, usada pela cache
+    private static List<Perfil> carregarTodos() throws SQLException {
+        List<Perfil> lista = new ArrayList<>();
+        String sql = "SELECT id, descricao FROM perfil";
+        try (Connection con = ConexaoBD.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            while (rs.next()) {
+                lista.add(new Perfil(rs.getInt("id"), rs.getString("descricao")));
             }
-        } catch (Exception e) {
-            e.printStackTrace();
         }
-        return p;
+        return lista;
     }
 }
@@ -0,0 +1,94 @@
+package dao;
+
+import model.FormatoMatricula;
+import util.ClassificadorMatricula;
+import util.ConexaoBD;
+
+/**
+ * Escolha do predicado mais barato para os filtros de texto das listagens de veículos.
+ *
+ * - EXATO: matrícula completa e válida, comparada pela chave normalizada (índice em matricula_chave);
+ * - CURTO: texto mais curto do que um n-grama (uma letra), sem índice que sirva: LIKE '%x%';
+ * - NGRAMA: restantes casos, com MATCH ... AGAINST sobre o índice FULLTEXT (parser ngram) da coluna.
+ *
+ * Todos dão o resultado de "contém", como o filtro local da tabela (VeiculoTableModel.filtrar).
+ * PREFIXO (LIKE 'x%' sobre o índice da coluna) é só para as pesquisas por prefixo dos seletores.
+ *
+ * Sem FULLTEXT (ex: a base H2 dos benchmarks, ver ConexaoBD.PROPRIEDADE_FULLTEXT) o modo NGRAMA recorre a LIKE '%x%'.
+ */
+final class PesquisaTexto {
+
+    /**
+     * Predicado escolhido para um filtro.
+     */
+    enum Modo { EXATO, CURTO, PREFIXO, NGRAMA }
+
+    // Tem de corresponder ao ngram_token_size do MySQL (2 por omissão)
+    static final int TAMANHO_NGRAMA = 2;
+
+    static final boolean FULLTEXT = Boolean.parseBoolean(System.getProperty(ConexaoBD.PROPRIEDADE_FULLTEXT, "true"));
+
+    private PesquisaTexto() {
+    }
+
+    /**
+     * Modo de pesquisa para marca/modelo (texto já sem espaços nas pontas, não vazio).
+     */
+    static Modo modoTexto(String texto) {
+        return texto.length() < TAMANHO_NGRAMA ? Modo.CURTO : Modo.NGRAMA;
+    }
+
+    /**
+     * Modo de pesquisa para a matrícula, dada a matrícula escrita e a respetiva chave normalizada (não vazia).
+     */
+    static Modo modoMatricula(String matricula, String chave) {
+        if (ClassificadorMatricula.classificar(matricula) != FormatoMatricula.INVALIDA) {
+            return Modo.EXATO;
+        }
+        return chave.length() < TAMANHO_NGRAMA ? Modo.CURTO : Modo.NGRAMA;
+    }
+
+    /**
+     * Chave de pesquisa da matrícula ("AB-12-CD" -> "AB12CD"), igual à coluna gerada veiculo.matricula_chave.
+     */
+    static String chaveMatricula(String matricula) {
+        return ClassificadorMatricula.chavePesquisa(matricula);
+    }
+
+    /**
+     * Parâmetro do predicado para o modo dado.
+     */
+    static String parametro(Modo modo, String texto) {
+        switch (modo) {
+            case EXATO:
+                return texto;
+            case CURTO:
+                return "%" + escaparLike(texto) + "%";
+            case PREFIXO:
+                return escaparLike(texto) + "%";
+            default:
+                // Frase entre aspas: os n-gramas têm de aparecer seguidos, o que equivale a "contém"
+                return FULLTEXT ? "\"" + texto.replace("\"", "") + "\"" : "%" + escaparLike(texto) + "%";
+        }
+    }
+
+    /**
+     * Condição SQL do modo NGRAMA para a coluna dada.
+     */
+    static String condicaoNgrama(String coluna) {
+        return FULLTEXT ? "MATCH(" + coluna + ") AGAINST (? IN BOOLEAN MODE)" : coluna + " LIKE ?";
+    }
+
+    // Os carateres especiais do LIKE escritos pelo utilizador são procurados literalmente
+    private static String escaparLike(String texto) {
+        StringBuilder escapado = new StringBuilder(texto.length() + 4);
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == '%' || c == '_' || c == '\\') {
+                escapado.append('\\');
+            }
+            escapado.append(c);
+        }
+        return escapado.toString();
+    }
+}
@@ -0,0 +1,82 @@
+package dao;
+
+/**
+ * Conjunto pré-compilado das variantes de uma consulta com filtros opcionais.
+ * Cada filtro presente corresponde a um bit da máscara; cada combinação é montada uma única vez,
+ * na primeira vez que é pedida, e os pedidos seguintes reutilizam a mesma String (e, através da
+ * cache de statements do pool, o mesmo PreparedStatement já preparado no servidor).
+ *
+ * Exemplo: com as condições {"a = ?", "b = ?"}, a máscara 0b10 dá "base WHERE b = ? sufixo".
+ * Também serve para UPDATEs só das colunas alteradas (ver atribuicoes): {"a = ?", "b = ?"} com a
+ * máscara 0b11 dá "base SET a = ?, b = ? sufixo".
+ */
+final class RegistoSql {
+
+    private final String base;
+    private final String inicio;
+    private final String separador;
+    private final String sufixo;
+    private final String[] condicoes;
+    // Variantes já montadas, por máscara; montadas na primeira utilização (corrida benigna: Strings iguais)
+    private final String[] variantes;
+
+    /**
+     * @param base      SQL até ao WHERE (exclusive).
+     * @param sufixo    SQL depois das condições (ex: ORDER BY/LIMIT), pode ser vazio.
+     * @param condicoes Condições opcionais, pela ordem dos bits da máscara (e dos parâmetros).
+     */
+    RegistoSql(String base, String sufixo, String... condicoes) {
+        this(base, " WHERE ", " AND ", sufixo, condicoes);
+    }
+
+    private RegistoSql(String base, String inicio, String separador, String sufixo, String[] condicoes) {
+        if (condicoes.length > 12) {
+            throw new IllegalArgumentException("Demasiadas condições opcionais: " + condicoes.length);
+        }
+        this.base = base;
+        this.inicio = inicio;
+        this.separador = separador;
+        this.sufixo = sufixo;
+        this.condicoes = condicoes.clone();
+        this.variantes = new String[1 << condicoes.length];
+    }
+
+    /**
+     * Variantes de um UPDATE que só escreve as colunas indicadas na máscara (a máscara 0 não é um SQL válido).
+     *
+     * @param base        SQL até ao SET (exclusive), ex: "UPDATE tabela".
+     * @param sufixo      SQL depois das atribuições, ex: " WHERE id = ?".
+     * @param atribuicoes Atribuições ("coluna = ?"), pela ordem dos bits da máscara (e dos parâmetros).
+     */
+    static RegistoSql atribuicoes(String base, String sufixo, String... atribuicoes) {
+        return new RegistoSql(base, " SET ", ", ", sufixo, atribuicoes);
+    }
+
+    /**
+     * SQL da variante com os filtros indicados na máscara.
+     */
+    String sql(int mascara) {
+        String sql = variantes[mascara];
+        if (sql == null) {
+            sql = montar(mascara);
+            variantes[mascara] = sql;
+        }
+        return sql;
+    }
+
+    int getNumeroVariantes() {
+        return variantes.length;
+    }
+
+    private String montar(int mascara) {
+        StringBuilder sql = new StringBuilder(base);
+        String ligacao = inicio;
+        for (int i = 0; i < condicoes.length; i++) {
+            if ((mascara & (1 << i)) != 0) {
+                sql.append(ligacao).append(condicoes[i]);
+                ligacao = separador;
+            }
+        }
+        return sql.append(sufixo).toString();
+    }
+}
@@ -0,0 +1,114 @@
+package dao;
+
+import model.Veiculo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado de uma gravação em lote (VeiculoDAO.inserirVeiculos / atualizarVeiculos),
+ * com o desfecho de cada linha pela ordem em que foi submetida.
+ */
+public class ResultadoLote {
+
+    /**
+     * Desfecho da gravação de uma linha.
+     */
+    public enum Estado {
+        GRAVADO,          // Inserida ou atualizada com sucesso
+        INVALIDO,         // Rejeitada pela validação (campos obrigatórios, formato da matrícula)
+        DUPLICADO,        // Rejeitada pela base de dados: matrícula já existente (erro 1062)
+        NAO_ENCONTRADO,   // Atualização de um ID que não existe
+        ERRO              // Outro erro SQL
+    }
+
+    /**
+     * Resultado de uma linha do lote.
+     */
+    public static class Linha {
+        private final int indice;
+        private final Veiculo veiculo;
+        private final Estado estado;
+        private final String mensagem;
+
+        public Linha(int indice, Veiculo veiculo, Estado estado, String mensagem) {
+            this.indice = indice;
+            this.veiculo = veiculo;
+            this.estado = estado;
+            this.mensagem = mensagem;
+        }
+
+        // Posição da linha na coleção submetida (a começar em 0)
+        public int getIndice() { return indice; }
+        public Veiculo getVeiculo() { return veiculo; }
+        public Estado getEstado() { return estado; }
+        public String getMensagem() { return mensagem; }
+
+        public boolean isGravado() {
+            return estado == Estado.GRAVADO;
+        }
+
+        @Override
+        public String toString() {
+            return "#" + indice + " " + estado + (mensagem != null ? ": " + mensagem : "");
+        }
+    }
+
+    private final List<Linha> linhas;
+    private final long duracaoMs;
+
+    public ResultadoLote(List<Linha> linhas, long duracaoMs) {
+        this.linhas = Collections.unmodifiableList(linhas);
+        this.duracaoMs = duracaoMs;
+    }
+
+    // Todas as linhas, pela ordem de submissão
+    public List<Linha> getLinhas() {
+        return linhas;
+    }
+
+    // Linhas que não foram gravadas
+    public List<Linha> getRejeitadas() {
+        List<Linha> rejeitadas = new ArrayList<>();
+        for (Linha linha : linhas) {
+            if (!linha.isGravado()) {
+                rejeitadas.add(linha);
+            }
+        }
+        return rejeitadas;
+    }
+
+    public int getTotal() {
+        return linhas.size();
+    }
+
+    public int getGravados() {
+        return contar(Estado.GRAVADO);
+    }
+
+    public int getDuplicados() {
+        return contar(Estado.DUPLICADO);
+    }
+
+    public int contar(Estado estado) {
+        int total = 0;
+        for (Linha linha : linhas) {
+            if (linha.getEstado() == estado) {
+                total++;
+            }
+        }
+        return total;
+    }
+
+    public long getDuracaoMs() {
+        return duracaoMs;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Lote[total=%d, gravados=%d, inválidos=%d, duplicados=%d, não encontrados=%d, erros=%d, %d ms]",
+                getTotal(), getGravados(), contar(Estado.INVALIDO), getDuplicados(),
+                contar(Estado.NAO_ENCONTRADO), contar(Estado.ERRO), duracaoMs);
+    }
+}
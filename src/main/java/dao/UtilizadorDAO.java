@@ -3,6 +3,9 @@ package dao;
 import model.Utilizador;
 import model.Perfil; // Importar a classe Perfil
 import util.ConexaoBD;
+import util.Log;
+import util.MetricaMetodo;
+import util.Metricas;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -10,7 +13,10 @@ import java.sql.ResultSet;
 import java.sql.SQLException; // Importar SQLException
 import java.sql.Statement; // Importar Statement se usado
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.swing.JOptionPane; // Para mensagens de erro, se necessário
 
@@ -20,45 +26,100 @@ import javax.swing.JOptionPane; // Para mensagens de erro, se necessário
  */
 public class UtilizadorDAO {
 
-    // A conexão é inicializada uma vez no construtor, conforme o seu padrão de trabalho.
-    private final Connection connection;
-    private final PerfilDAO perfilDAO; // Dependência para PerfilDAO para carregar objetos Perfil
+    private static final Log LOG = Log.de(UtilizadorDAO.class);
+
+    // Colunas comuns às leituras de um utilizador com o respetivo perfil (uma só consulta, sem N+1)
+    private static final String SELECT_COM_PERFIL =
+            "SELECT u.id, u.nome, u.utilizador, u.id_perfil, p.descricao AS perfil_descricao";
+    private static final String FROM_COM_PERFIL =
+            " FROM gsa_db.utilizador u LEFT JOIN gsa_db.perfil p ON u.id_perfil = p.id";
+
+    // Sugestões devolvidas por pesquisa do seletor de responsável
+    public static final int LIMITE_SUGESTOES = 20;
+
+    private static final CachePesquisas<Utilizador> PESQUISAS = new CachePesquisas<>("utilizador", 32, 60_000,
+            Utilizador::getNome);
+
+    // Métricas dos métodos que vão à base de dados, ver util.Metricas (as pesquisas só contam as que não vêm da cache)
+    private static final MetricaMetodo METRICA_LISTAR_TODOS = Metricas.metodo("UtilizadorDAO.listarTodos");
+    private static final MetricaMetodo METRICA_PESQUISAR = Metricas.metodo("UtilizadorDAO.pesquisarParaSelecao");
+    private static final MetricaMetodo METRICA_INSERIR = Metricas.metodo("UtilizadorDAO.inserir");
+    private static final MetricaMetodo METRICA_ATUALIZAR = Metricas.metodo("UtilizadorDAO.atualizar");
+    private static final MetricaMetodo METRICA_ATUALIZAR_HASH = Metricas.metodo("UtilizadorDAO.atualizarHashPalavraPasse");
+    private static final MetricaMetodo METRICA_APAGAR = Metricas.metodo("UtilizadorDAO.apagar");
+    private static final MetricaMetodo METRICA_OBTER_POR_ID = Metricas.metodo("UtilizadorDAO.obterPorId");
+    private static final MetricaMetodo METRICA_OBTER_POR_EMAIL = Metricas.metodo("UtilizadorDAO.obterPorEmail");
+    private static final MetricaMetodo METRICA_EXISTE_EMAIL = Metricas.metodo("UtilizadorDAO.existeEmail");
 
     public UtilizadorDAO() {
-        this.connection = ConexaoBD.getConnection(); // Estabelece a conexão com o banco de dados
-        this.perfilDAO = new PerfilDAO(); // Inicializa PerfilDAO
+        // A conexão é obtida do pool dentro de cada método usando try-with-resources,
+        // em vez de ficar presa a esta instância durante toda a vida do controlador.
     }
 
     /**
-     * Lista todos os utilizadores na base de dados.
-     * Carrega também o objeto Perfil associado a cada utilizador.
+     * Lista todos os utilizadores com o respetivo perfil, para ecrãs de administração.
+     * Utilizadores e perfis são lidos numa só consulta (JOIN); cada perfil é criado uma única vez
+     * e partilhado pelos utilizadores que o têm. O hash da palavra-passe não é carregado.
      *
      * @return Uma lista de objetos Utilizador.
      */
     public List<Utilizador> listarTodos() { // Renomeado de buscarTodos para listarTodos
         List<Utilizador> utilizadores = new ArrayList<>();
-        String sql = "SELECT id, nome, utilizador, palavra_passe, id_perfil FROM gsa_db.utilizador";
+        String sql = SELECT_COM_PERFIL + FROM_COM_PERFIL + " ORDER BY u.nome";
+        Map<Integer, Perfil> perfis = new HashMap<>();
 
-        try (Statement stmt = connection.createStatement();
+        try (MetricaMetodo.Medicao medicao = METRICA_LISTAR_TODOS.medir();
+             Connection connection = ConexaoBD.getConnection();
+             Statement stmt = connection.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
             while (rs.next()) {
-                Utilizador u = new Utilizador();
-                u.setId(rs.getInt("id"));
-                u.setNome(rs.getString("nome"));
-                u.setUtilizador(rs.getString("utilizador"));
-                u.setPalavraChave(rs.getString("palavra_passe")); // Apenas o hash
-                u.setPerfilId(rs.getInt("id_perfil"));
-
-                // Carregar o objeto Perfil completo e associá-lo
-                Perfil perfil = perfilDAO.obterPorId(rs.getInt("id_perfil"));
-                u.setPerfil(perfil);
-
-                utilizadores.add(u);
+                utilizadores.add(mapearUtilizador(rs, perfis, false));
             }
+            medicao.linhas(utilizadores.size());
+        } catch (SQLException e) {
+            METRICA_LISTAR_TODOS.erro();
+            LOG.erro("Erro SQL ao listar todos os utilizadores: {}", e.getMessage(), e);
+        }
+        return utilizadores;
+    }
+
+    /**
+     * Pesquisa utilizadores cujo nome começa pelo texto dado, apenas com ID e nome, para o seletor de
+     * responsável. Usa o índice de utilizador.nome (LIKE 'x%') e guarda os resultados recentes numa cache LRU.
+     *
+     * @param prefixo O texto escrito no seletor.
+     * @return No máximo LIMITE_SUGESTOES utilizadores, ordenados por nome (lista vazia se o texto for vazio).
+     */
+    public List<Utilizador> pesquisarParaSelecao(String prefixo) {
+        String texto = prefixo == null ? "" : prefixo.trim();
+        if (texto.isEmpty()) {
+            return Collections.emptyList();
+        }
+        try {
+            return PESQUISAS.obter(texto, LIMITE_SUGESTOES, UtilizadorDAO::consultarPorPrefixo);
         } catch (SQLException e) {
-            System.err.println("Erro SQL ao listar todos os utilizadores: " + e.getMessage());
-            e.printStackTrace();
+            METRICA_PESQUISAR.erro();
+            LOG.erro("Erro SQL ao pesquisar utilizadores por prefixo: {}", e.getMessage(), e);
+            return new ArrayList<>();
+        }
+    }
+
+    private static List<Utilizador> consultarPorPrefixo(String prefixo, int limite) throws SQLException {
+        List<Utilizador> utilizadores = new ArrayList<>();
+        String sql = "SELECT id, nome FROM gsa_db.utilizador WHERE nome LIKE ? ORDER BY nome LIMIT ?";
+
+        try (MetricaMetodo.Medicao medicao = METRICA_PESQUISAR.medir();
+             Connection connection = ConexaoBD.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, PesquisaTexto.parametro(PesquisaTexto.Modo.PREFIXO, prefixo));
+            ps.setInt(2, limite);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    utilizadores.add(new Utilizador(rs.getInt("id"), rs.getString("nome")));
+                }
+            }
+            medicao.linhas(utilizadores.size());
         }
         return utilizadores;
     }
@@ -71,18 +132,21 @@ public class UtilizadorDAO {
      */
     public boolean inserir(Utilizador u) {
         String sql = "INSERT INTO gsa_db.utilizador (nome, utilizador, palavra_passe, id_perfil) VALUES (?,?,?,?)";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (MetricaMetodo.Medicao medicao = METRICA_INSERIR.medir();
+             Connection connection = ConexaoBD.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, u.getNome());
             ps.setString(2, u.getUtilizador());
             ps.setString(3, u.getPalavraChave());
             ps.setInt(4, u.getPerfilId());
-            ps.executeUpdate();
+            medicao.linhas(ps.executeUpdate());
+            PESQUISAS.invalidar();
             return true;
         } catch (SQLException e) {
-            System.err.println("Erro SQL ao inserir utilizador: " + e.getMessage());
+            METRICA_INSERIR.erro();
             // Pode adicionar uma verificação de SQLIntegrityConstraintViolationException aqui
             // para mensagens mais específicas, se necessário.
-            e.printStackTrace();
+            LOG.erro("Erro SQL ao inserir utilizador: {}", e.getMessage(), e);
             return false;
         }
     }
@@ -94,15 +158,45 @@ public class UtilizadorDAO {
      */
     public void atualizar(Utilizador u) {
         String sql = "UPDATE gsa_db.utilizador SET nome=?, utilizador=?, id_perfil=? WHERE id=?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (MetricaMetodo.Medicao medicao = METRICA_ATUALIZAR.medir();
+             Connection connection = ConexaoBD.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, u.getNome());
             ps.setString(2, u.getUtilizador());
             ps.setInt(3, u.getPerfilId());
             ps.setInt(4, u.getId());
-            ps.executeUpdate();
+            medicao.linhas(ps.executeUpdate());
+            PESQUISAS.invalidar();
+        } catch (SQLException e) {
+            METRICA_ATUALIZAR.erro();
+            LOG.erro("Erro SQL ao atualizar utilizador: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Substitui o hash da palavra-passe de um utilizador, só se o hash guardado ainda for o esperado
+     * (se outra sessão o alterou entretanto, não é sobreposto).
+     *
+     * @param id        O ID do utilizador.
+     * @param hashAtual O hash que se espera estar guardado.
+     * @param hashNovo  O novo hash.
+     * @return true se o hash foi substituído, false caso contrário.
+     */
+    public boolean atualizarHashPalavraPasse(int id, String hashAtual, String hashNovo) {
+        String sql = "UPDATE gsa_db.utilizador SET palavra_passe=? WHERE id=? AND palavra_passe=?";
+        try (MetricaMetodo.Medicao medicao = METRICA_ATUALIZAR_HASH.medir();
+             Connection connection = ConexaoBD.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, hashNovo);
+            ps.setInt(2, id);
+            ps.setString(3, hashAtual);
+            int atualizadas = ps.executeUpdate();
+            medicao.linhas(atualizadas);
+            return atualizadas == 1;
         } catch (SQLException e) {
-            System.err.println("Erro SQL ao atualizar utilizador: " + e.getMessage());
-            e.printStackTrace();
+            METRICA_ATUALIZAR_HASH.erro();
+            LOG.erro("Erro SQL ao atualizar a palavra-passe do utilizador: {}", e.getMessage(), e);
+            return false;
         }
     }
 
@@ -113,77 +207,91 @@ public class UtilizadorDAO {
      */
     public void apagar(int id) {
         String sql = "DELETE FROM gsa_db.utilizador WHERE id=?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (MetricaMetodo.Medicao medicao = METRICA_APAGAR.medir();
+             Connection connection = ConexaoBD.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setInt(1, id);
-            ps.executeUpdate();
+            medicao.linhas(ps.executeUpdate());
+            PESQUISAS.invalidar();
         } catch (SQLException e) {
-            System.err.println("Erro SQL ao apagar utilizador: " + e.getMessage());
-            e.printStackTrace();
+            METRICA_APAGAR.erro();
+            LOG.erro("Erro SQL ao apagar utilizador: {}", e.getMessage(), e);
         }
     }
 
     /**
      * Busca um utilizador pelo seu ID.
-     * Carrega também o objeto Perfil associado.
+     * Carrega também o objeto Perfil associado, na mesma consulta.
      *
      * @param id O ID do utilizador a ser buscado.
      * @return O objeto Utilizador correspondente, ou null se não for encontrado.
      */
     public Utilizador obterPorId(int id) {
         Utilizador u = null;
-        String sql = "SELECT id, nome, utilizador, palavra_passe, id_perfil FROM gsa_db.utilizador WHERE id = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        String sql = SELECT_COM_PERFIL + ", u.palavra_passe" + FROM_COM_PERFIL + " WHERE u.id = ?";
+        try (MetricaMetodo.Medicao medicao = METRICA_OBTER_POR_ID.medir();
+             Connection connection = ConexaoBD.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setInt(1, id);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    u = new Utilizador();
-                    u.setId(rs.getInt("id"));
-                    u.setNome(rs.getString("nome"));
-                    u.setUtilizador(rs.getString("utilizador"));
-                    u.setPalavraChave(rs.getString("palavra_passe"));
-                    u.setPerfilId(rs.getInt("id_perfil"));
-
-                    // Carregar o objeto Perfil completo e associá-lo
-                    Perfil perfil = perfilDAO.obterPorId(rs.getInt("id_perfil"));
-                    u.setPerfil(perfil);
+                    u = mapearUtilizador(rs, new HashMap<>(), true);
+                    medicao.linhas(1);
                 }
             }
         } catch (SQLException e) {
-            System.err.println("Erro SQL ao obter utilizador por ID: " + e.getMessage());
-            e.printStackTrace();
+            METRICA_OBTER_POR_ID.erro();
+            LOG.erro("Erro SQL ao obter utilizador por ID: {}", e.getMessage(), e);
         }
         return u;
     }
 
     /**
      * Busca um utilizador pelo seu email (campo 'utilizador' na BD).
-     * Carrega também o objeto Perfil associado.
+     * Carrega também o objeto Perfil associado, na mesma consulta.
      *
      * @param email O email do utilizador a ser buscado.
      * @return O objeto Utilizador correspondente, ou null se não for encontrado.
      */
     public Utilizador obterPorEmail(String email) {
         Utilizador u = null;
-        String sql = "SELECT id, nome, utilizador, palavra_passe, id_perfil FROM gsa_db.utilizador WHERE utilizador=?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        String sql = SELECT_COM_PERFIL + ", u.palavra_passe" + FROM_COM_PERFIL + " WHERE u.utilizador = ?";
+        try (MetricaMetodo.Medicao medicao = METRICA_OBTER_POR_EMAIL.medir();
+             Connection connection = ConexaoBD.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, email);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    u = new Utilizador();
-                    u.setId(rs.getInt("id"));
-                    u.setNome(rs.getString("nome"));
-                    u.setUtilizador(rs.getString("utilizador"));
-                    u.setPalavraChave(rs.getString("palavra_passe"));
-                    u.setPerfilId(rs.getInt("id_perfil"));
-
-                    // Carregar o objeto Perfil completo e associá-lo
-                    Perfil perfil = perfilDAO.obterPorId(rs.getInt("id_perfil"));
-                    u.setPerfil(perfil);
+                    u = mapearUtilizador(rs, new HashMap<>(), true);
+                    medicao.linhas(1);
                 }
             }
         } catch (SQLException e) {
-            System.err.println("Erro SQL ao obter utilizador por email: " + e.getMessage());
-            e.printStackTrace();
+            METRICA_OBTER_POR_EMAIL.erro();
+            LOG.erro("Erro SQL ao obter utilizador por email: {}", e.getMessage(), e);
+        }
+        return u;
+    }
+
+    /**
+     * Constrói um Utilizador a partir da linha atual de uma consulta com SELECT_COM_PERFIL.
+     * Os perfis já vistos são reutilizados a partir do mapa, para não repetir instâncias iguais.
+     */
+    private Utilizador mapearUtilizador(ResultSet rs, Map<Integer, Perfil> perfis, boolean comPalavraPasse)
+            throws SQLException {
+        Utilizador u = new Utilizador();
+        u.setId(rs.getInt("id"));
+        u.setNome(rs.getString("nome"));
+        u.setUtilizador(rs.getString("utilizador"));
+        if (comPalavraPasse) {
+            u.setPalavraChave(rs.getString("palavra_passe")); // Apenas o hash
+        }
+        u.setPerfilId(rs.getInt("id_perfil"));
+
+        String descricao = rs.getString("perfil_descricao");
+        if (descricao != null) {
+            int idPerfil = rs.getInt("id_perfil");
+            u.setPerfil(perfis.computeIfAbsent(idPerfil, id -> new Perfil(id, descricao)));
         }
         return u;
     }
@@ -196,15 +304,19 @@ public class UtilizadorDAO {
      */
     public boolean existeEmail(String email) {
         String sql = "SELECT COUNT(*) FROM gsa_db.utilizador WHERE utilizador=?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (MetricaMetodo.Medicao medicao = METRICA_EXISTE_EMAIL.medir();
+             Connection connection = ConexaoBD.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, email);
-            ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                return rs.getInt(1) > 0;
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next() && rs.getInt(1) > 0) {
+                    medicao.linhas(1);
+                    return true;
+                }
             }
         } catch (SQLException e) {
-            System.err.println("Erro SQL ao verificar existência de email: " + e.getMessage());
-            e.printStackTrace();
+            METRICA_EXISTE_EMAIL.erro();
+            LOG.erro("Erro SQL ao verificar existência de email: {}", e.getMessage(), e);
         }
         return false;
     }
@@ -232,8 +344,7 @@ public class UtilizadorDAO {
                 }
             }
         } catch (SQLException e) {
-            System.err.println("Erro SQL ao obter utilizador por nome: " + e.getMessage());
-            e.printStackTrace();
+            LOG.erro("Erro SQL ao obter utilizador por nome: {}", e.getMessage(), e);
         }
         return u;
     }
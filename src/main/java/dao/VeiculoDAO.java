@@ -4,9 +4,16 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Types;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.regex.Pattern;
 
 import model.Veiculo;
@@ -14,10 +21,55 @@ import model.Estado;
 import model.Utilizador;
 import model.Cidade;
 import model.Comprador;
+import model.FormatoMatricula;
+import model.PaisMatricula;
+import service.ContextoTarefa;
+import util.ClassificadorMatricula;
 import util.ConexaoBD;
+import util.Log;
+import util.MetricaMetodo;
+import util.Metricas;
 
 public class VeiculoDAO {
 
+    private static final Log LOG = Log.de(VeiculoDAO.class);
+
+    // Linhas por executeBatch/commit nas gravações em lote
+    public static final int TAMANHO_LOTE_PADRAO = 500;
+
+    private static final String SQL_INSERT_VEICULO = "INSERT INTO gsa_db.veiculo (marca, modelo, matricula, id_estado, preco, id_cidade, id_responsavel, id_comprador, data_venda, pais_matricula) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SQL_UPDATE_VEICULO = "UPDATE gsa_db.veiculo SET marca = ?, modelo = ?, matricula = ?, id_estado = ?, preco = ?, id_cidade = ?, id_responsavel = ?, id_comprador = ?, data_venda = ?, pais_matricula = ? WHERE id = ?";
+
+    // Colunas de atualizarVeiculo(Veiculo, Veiculo), um bit cada; a matrícula leva consigo pais_matricula
+    private static final int COLUNA_MARCA = 1;
+    private static final int COLUNA_MODELO = 1 << 1;
+    private static final int COLUNA_MATRICULA = 1 << 2;
+    private static final int COLUNA_ESTADO = 1 << 3;
+    private static final int COLUNA_PRECO = 1 << 4;
+    private static final int COLUNA_CIDADE = 1 << 5;
+    private static final int COLUNA_RESPONSAVEL = 1 << 6;
+    private static final int COLUNA_COMPRADOR = 1 << 7;
+    private static final int COLUNA_DATA_VENDA = 1 << 8;
+    private static final int TODAS_AS_COLUNAS = (1 << 9) - 1;
+    // UPDATE só das colunas alteradas: uma variante por combinação, montada na primeira utilização
+    private static final RegistoSql CONSULTAS_UPDATE = RegistoSql.atribuicoes("UPDATE gsa_db.veiculo", " WHERE id = ?",
+            "marca = ?", "modelo = ?", "matricula = ?, pais_matricula = ?", "id_estado = ?", "preco = ?",
+            "id_cidade = ?", "id_responsavel = ?", "id_comprador = ?", "data_venda = ?");
+
+    // Métricas (chamadas, erros, linhas, latência) dos métodos que vão à base de dados, ver util.Metricas
+    private static final MetricaMetodo METRICA_INSERIR = Metricas.metodo("VeiculoDAO.inserirVeiculo");
+    private static final MetricaMetodo METRICA_ATUALIZAR = Metricas.metodo("VeiculoDAO.atualizarVeiculo");
+    private static final MetricaMetodo METRICA_INSERIR_LOTE = Metricas.metodo("VeiculoDAO.inserirVeiculos");
+    private static final MetricaMetodo METRICA_ATUALIZAR_LOTE = Metricas.metodo("VeiculoDAO.atualizarVeiculos");
+    private static final MetricaMetodo METRICA_BUSCAR_POR_ID = Metricas.metodo("VeiculoDAO.buscarPorId");
+    private static final MetricaMetodo METRICA_REMOVER = Metricas.metodo("VeiculoDAO.removerVeiculoPorId");
+    private static final MetricaMetodo METRICA_FILTRAR = Metricas.metodo("VeiculoDAO.filtrarVeiculos");
+    private static final MetricaMetodo METRICA_FILTRAR_PAGINADO = Metricas.metodo("VeiculoDAO.filtrarVeiculosPaginado");
+    private static final MetricaMetodo METRICA_POR_PAIS = Metricas.metodo("VeiculoDAO.buscarPorPaisMatricula");
+    private static final MetricaMetodo METRICA_POR_PAIS_PAGINADO = Metricas.metodo("VeiculoDAO.buscarPorPaisMatriculaPaginado");
+    private static final MetricaMetodo METRICA_ESTATISTICAS = Metricas.metodo("VeiculoDAO.obterEstatisticasMatriculas");
+    private static final MetricaMetodo METRICA_SINCRONIZAR = Metricas.metodo("VeiculoDAO.sincronizarPaisMatricula");
+
     public VeiculoDAO() {
         // O construtor não precisa mais de inicializar a conexão aqui.
         // A conexão será obtida dentro de cada método usando try-with-resources.
@@ -26,6 +78,9 @@ public class VeiculoDAO {
     // Classe interna para validação de matrícula
     public static class MatriculaValidator {
 
+        // Regexes originais, mantidas apenas como referência (ver identificarFormatoPorRegex).
+        // A validação usa o ClassificadorMatricula, que reconhece os mesmos formatos numa única passagem.
+
         // Padrões de matrícula portuguesa
         private static final Pattern FORMATO_ATUAL_PT = Pattern.compile("^[A-Z]{2}-\\d{2}-[A-Z]{2}$");      // AA-00-AA
         private static final Pattern FORMATO_ANTIGO_PT = Pattern.compile("^\\d{2}-[A-Z]{2}-\\d{2}$");      // 00-AA-00
@@ -49,32 +104,7 @@ public class VeiculoDAO {
          * @return true se válida, false caso contrário
          */
         public static boolean isMatriculaValida(String matricula) {
-            if (matricula == null || matricula.trim().isEmpty()) {
-                return false;
-            }
-
-            String matriculaUpper = matricula.trim().toUpperCase();
-
-            // Verificar formatos portugueses
-            if (FORMATO_ATUAL_PT.matcher(matriculaUpper).matches() ||
-                    FORMATO_ANTIGO_PT.matcher(matriculaUpper).matches() ||
-                    FORMATO_MUITO_ANTIGO_PT.matcher(matriculaUpper).matches()) {
-                return true;
-            }
-
-            // Verificar formatos franceses
-            if (FORMATO_ATUAL_FR.matcher(matriculaUpper).matches() ||
-                    FORMATO_ANTIGO_FR.matcher(matriculaUpper).matches()) {
-                return true;
-            }
-
-            // Verificar formatos espanhóis
-            if (FORMATO_ATUAL_ES.matcher(matriculaUpper).matches() ||
-                    FORMATO_ANTIGO_ES.matcher(matriculaUpper).matches()) {
-                return true;
-            }
-
-            return false;
+            return ClassificadorMatricula.classificar(matricula).isValida();
         }
 
         /**
@@ -86,65 +116,80 @@ public class VeiculoDAO {
          */
         // --- INÍCIO DAS EDIÇÕES AQUI (MatriculaValidator - isMatriculaValidaPorPais) ---
         public static boolean isMatriculaValidaPorPais(String matricula, Cidade cidade) {
-            if (cidade == null || cidade.getDescricao() == null || matricula == null || matricula.trim().isEmpty()) {
-                return false;
+            PaisMatricula paisCidade = identificarPaisDaCidade(cidade);
+            // Se o país da cidade não for reconhecido, consideramos inválido para evitar dados incorretos.
+            return paisCidade != null && ClassificadorMatricula.classificar(matricula).getPais() == paisCidade;
+        }
+
+        /**
+         * Determina o país de uma cidade pela sua descrição.
+         * @param cidade A cidade do veículo.
+         * @return O país correspondente, ou null se a cidade não for reconhecida.
+         */
+        public static PaisMatricula identificarPaisDaCidade(Cidade cidade) {
+            if (cidade == null || cidade.getDescricao() == null) {
+                return null;
             }
 
-            String matriculaUpper = matricula.trim().toUpperCase();
             String cidadeNomeUpper = cidade.getDescricao().trim().toUpperCase();
 
             // Identifica o país com base na descrição da cidade
             if (cidadeNomeUpper.contains("LISBOA") || cidadeNomeUpper.contains("PORTO") || cidadeNomeUpper.contains("PORTUGAL")) {
-                return FORMATO_ATUAL_PT.matcher(matriculaUpper).matches() ||
-                        FORMATO_ANTIGO_PT.matcher(matriculaUpper).matches() ||
-                        FORMATO_MUITO_ANTIGO_PT.matcher(matriculaUpper).matches();
+                return PaisMatricula.PORTUGAL;
             } else if (cidadeNomeUpper.contains("MADRID") || cidadeNomeUpper.contains("BARCELONA") || cidadeNomeUpper.contains("SEVILHA") || cidadeNomeUpper.contains("VALENCIA") || cidadeNomeUpper.contains("ESPANHA")) {
-                return FORMATO_ATUAL_ES.matcher(matriculaUpper).matches() ||
-                        FORMATO_ANTIGO_ES.matcher(matriculaUpper).matches();
+                return PaisMatricula.ESPANHA;
             } else if (cidadeNomeUpper.contains("PARIS") || cidadeNomeUpper.contains("MARSELHA") || cidadeNomeUpper.contains("LYON") || cidadeNomeUpper.contains("FRANCA") || cidadeNomeUpper.contains("FRANÇA")) {
-                return FORMATO_ATUAL_FR.matcher(matriculaUpper).matches() ||
-                        FORMATO_ANTIGO_FR.matcher(matriculaUpper).matches();
+                return PaisMatricula.FRANCA;
             }
-
-            // Se o país da cidade não for reconhecido, consideramos inválido para evitar dados incorretos.
-            return false;
+            return null;
         }
         // --- FIM DAS EDIÇÕES AQUI (MatriculaValidator - isMatriculaValidaPorPais) ---
 
+        /**
+         * Identifica o formato (e o país) da matrícula numa única passagem.
+         * @param matricula A matrícula a identificar
+         * @return O formato reconhecido, ou FormatoMatricula.INVALIDA
+         */
+        public static FormatoMatricula identificarFormato(String matricula) {
+            return ClassificadorMatricula.classificar(matricula);
+        }
+
         /**
          * Identifica o país da matrícula
          * @param matricula A matrícula a identificar
          * @return String com o país (PORTUGAL, FRANÇA, ESPANHA) ou INVÁLIDA
          */
         public static String identificarPais(String matricula) {
-            if (matricula == null || matricula.trim().isEmpty()) {
+            if (ClassificadorMatricula.isVazia(matricula)) {
                 return "INVÁLIDA";
             }
 
-            String matriculaUpper = matricula.trim().toUpperCase();
-
-            // Verificar formatos portugueses
-            if (FORMATO_ATUAL_PT.matcher(matriculaUpper).matches() ||
-                    FORMATO_ANTIGO_PT.matcher(matriculaUpper).matches() ||
-                    FORMATO_MUITO_ANTIGO_PT.matcher(matriculaUpper).matches()) {
-                return "PORTUGAL";
-            }
+            PaisMatricula pais = ClassificadorMatricula.classificar(matricula).getPais();
+            return pais != null ? pais.getNome() : "FORMATO NÃO RECONHECIDO";
+        }
 
-            // Verificar formatos franceses
-            if (FORMATO_ATUAL_FR.matcher(matriculaUpper).matches() ||
-                    FORMATO_ANTIGO_FR.matcher(matriculaUpper).matches()) {
-                return "FRANÇA";
+        /**
+         * Implementação de referência com as regexes originais (trim + toUpperCase + até sete matches).
+         * Já não é usada pela aplicação; serve apenas para verificar a equivalência do
+         * ClassificadorMatricula e para comparar o desempenho dos dois.
+         * @param matricula A matrícula a identificar
+         * @return O formato reconhecido pelas regexes, ou FormatoMatricula.INVALIDA
+         */
+        public static FormatoMatricula identificarFormatoPorRegex(String matricula) {
+            if (matricula == null || matricula.trim().isEmpty()) {
+                return FormatoMatricula.INVALIDA;
             }
 
-            // --- INÍCIO DAS EDIÇÕES AQUI (MatriculaValidator - identificarPais) ---
-            // Verificar formatos espanhóis (com as novas regexes)
-            if (FORMATO_ATUAL_ES.matcher(matriculaUpper).matches() ||
-                    FORMATO_ANTIGO_ES.matcher(matriculaUpper).matches()) {
-                return "ESPANHA";
-            }
-            // --- FIM DAS EDIÇÕES AQUI (MatriculaValidator - identificarPais) ---
+            String matriculaUpper = matricula.trim().toUpperCase();
 
-            return "FORMATO NÃO RECONHECIDO";
+            if (FORMATO_ATUAL_PT.matcher(matriculaUpper).matches()) return FormatoMatricula.PT_ATUAL;
+            if (FORMATO_ANTIGO_PT.matcher(matriculaUpper).matches()) return FormatoMatricula.PT_ANTIGO;
+            if (FORMATO_MUITO_ANTIGO_PT.matcher(matriculaUpper).matches()) return FormatoMatricula.PT_MUITO_ANTIGO;
+            if (FORMATO_ATUAL_FR.matcher(matriculaUpper).matches()) return FormatoMatricula.FR_ATUAL;
+            if (FORMATO_ANTIGO_FR.matcher(matriculaUpper).matches()) return FormatoMatricula.FR_ANTIGO;
+            if (FORMATO_ATUAL_ES.matcher(matriculaUpper).matches()) return FormatoMatricula.ES_ATUAL;
+            if (FORMATO_ANTIGO_ES.matcher(matriculaUpper).matches()) return FormatoMatricula.ES_ANTIGO;
+            return FormatoMatricula.INVALIDA;
         }
 
         /**
@@ -237,7 +282,7 @@ public class VeiculoDAO {
             }
 
             String pais = identificarPais(matricula);
-            boolean valida = isMatriculaValida(matricula); // Este método agora usa as novas regexes
+            boolean valida = isMatriculaValida(matricula);
 
             StringBuilder info = new StringBuilder();
             info.append("Matrícula: ").append(matricula).append("\n");
@@ -261,386 +306,843 @@ public class VeiculoDAO {
         return filtrarVeiculos(null, null, null);
     }
 
-    // Método corrigido para inserir um veiculo
-    public boolean inserirVeiculo(Veiculo veiculo) {
-        String sql = "INSERT INTO gsa_db.veiculo (marca, modelo, matricula, id_estado, preco, id_cidade, id_responsavel, id_comprador, data_venda) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    /**
+     * Insere um veículo e atribui-lhe o ID gerado pela base de dados.
+     *
+     * @param veiculo O veículo a inserir.
+     * @return O próprio veículo, já com o ID gerado (a linha a mostrar na listagem), ou null se falhar.
+     */
+    public Veiculo inserirVeiculo(Veiculo veiculo) {
+        String sql = SQL_INSERT_VEICULO;
 
-        try (Connection connection = ConexaoBD.getConnection();
-             PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (MetricaMetodo.Medicao medicao = METRICA_INSERIR.medir();
+             Connection connection = ConexaoBD.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
             // Validações básicas antes de inserir
             if (veiculo == null) {
-                System.err.println("Erro: Veiculo não pode ser nulo");
-                return false;
+                LOG.aviso("Veiculo não pode ser nulo");
+                return null;
             }
 
             if (veiculo.getMarca() == null || veiculo.getMarca().trim().isEmpty()) {
-                System.err.println("Erro: Marca é obrigatória");
-                return false;
+                LOG.aviso("Marca é obrigatória");
+                return null;
             }
 
             if (veiculo.getModelo() == null || veiculo.getModelo().trim().isEmpty()) {
-                System.err.println("Erro: Modelo é obrigatório");
-                return false;
+                LOG.aviso("Modelo é obrigatório");
+                return null;
             }
 
             if (veiculo.getMatricula() == null || veiculo.getMatricula().trim().isEmpty()) {
-                System.err.println("Erro: Matrícula é obrigatória");
-                return false;
+                LOG.aviso("Matrícula é obrigatória");
+                return null;
             }
 
             // --- INÍCIO DAS EDIÇÕES AQUI (inserirVeiculo - Validação por país) ---
             // Validar formato da matrícula especificamente pelo país da cidade
             if (!MatriculaValidator.isMatriculaValidaPorPais(veiculo.getMatricula(), veiculo.getCidade())) {
-                System.err.println("Erro: Formato de matrícula inválido para o país da cidade selecionada.");
-                System.err.println(MatriculaValidator.getMensagemFormatos(veiculo.getCidade())); // Mensagem específica do país
-                System.err.println("\nMatrícula fornecida: " + veiculo.getMatricula());
-                System.err.println("País identificado (pela matrícula): " + MatriculaValidator.identificarPais(veiculo.getMatricula()));
-                System.err.println("Cidade do veículo: " + (veiculo.getCidade() != null ? veiculo.getCidade().getDescricao() : "NULA"));
-                return false;
+                LOG.aviso("Formato de matrícula inválido para o país da cidade selecionada. Matrícula fornecida: {}, "
+                                + "país identificado (pela matrícula): {}, cidade do veículo: {}. {}",
+                        veiculo.getMatricula(), MatriculaValidator.identificarPais(veiculo.getMatricula()),
+                        veiculo.getCidade() != null ? veiculo.getCidade().getDescricao() : "NULA",
+                        MatriculaValidator.getMensagemFormatos(veiculo.getCidade())); // Mensagem específica do país
+                return null;
             }
             // --- FIM DAS EDIÇÕES AQUI (inserirVeiculo - Validação por país) ---
 
             if (veiculo.getEstado() == null) {
-                System.err.println("Erro: Estado é obrigatório");
-                return false;
+                LOG.aviso("Estado é obrigatório");
+                return null;
             }
 
             if (veiculo.getCidade() == null) {
-                System.err.println("Erro: Cidade é obrigatória");
-                return false;
+                LOG.aviso("Cidade é obrigatória");
+                return null;
             }
 
-            // Definir os parâmetros
-            ps.setString(1, veiculo.getMarca().trim());
-            ps.setString(2, veiculo.getModelo().trim());
-            ps.setString(3, MatriculaValidator.formatarMatricula(veiculo.getMatricula()));
-            ps.setInt(4, veiculo.getEstado().getId());
-            ps.setDouble(5, veiculo.getPreco());
-            ps.setInt(6, veiculo.getCidade().getId());
-
-            // Tratar id_responsavel que pode ser nulo
-            if (veiculo.getResponsavel() != null && veiculo.getResponsavel().getId() > 0) {
-                ps.setInt(7, veiculo.getResponsavel().getId());
-            } else {
-                ps.setNull(7, Types.INTEGER);
-            }
-
-            // Tratar id_comprador que pode ser nulo
-            if (veiculo.getComprador() != null && veiculo.getComprador().getId() > 0) {
-                ps.setInt(8, veiculo.getComprador().getId());
-            } else {
-                ps.setNull(8, Types.INTEGER);
-            }
-
-            // Tratar data_venda que pode ser nulo
-            if (veiculo.getDataVenda() != null) {
-                ps.setDate(9, new java.sql.Date(veiculo.getDataVenda().getTime()));
-            } else {
-                ps.setNull(9, Types.DATE);
-            }
+            // Definir os parâmetros (inclui o país da matrícula, persistido para estatísticas)
+            preencherParametros(ps, veiculo);
 
             // Log com informações da matrícula
             String paisMatricula = MatriculaValidator.identificarPais(veiculo.getMatricula());
-            System.out.println("Executando SQL: " + sql);
-            System.out.println("Parâmetros: marca=" + veiculo.getMarca() +
-                    ", modelo=" + veiculo.getModelo() +
-                    ", matricula=" + MatriculaValidator.formatarMatricula(veiculo.getMatricula()) +
-                    " (" + paisMatricula + ")" +
-                    ", estado_id=" + veiculo.getEstado().getId() +
-                    ", cidade_id=" + veiculo.getCidade().getId());
+            LOG.debug("Executando SQL: {}", sql);
+            if (LOG.isAtivo(Log.Nivel.DEBUG)) { // formatarMatricula só é chamado se a mensagem for escrita
+                LOG.debug("Parâmetros: marca={}, modelo={}, matricula={} ({}), estado_id={}, cidade_id={}",
+                        veiculo.getMarca(), veiculo.getModelo(), MatriculaValidator.formatarMatricula(veiculo.getMatricula()),
+                        paisMatricula, veiculo.getEstado().getId(), veiculo.getCidade().getId());
+            }
 
             int rowsAffected = ps.executeUpdate();
+            medicao.linhas(rowsAffected);
 
             if (rowsAffected > 0) {
-                System.out.println("Veiculo inserido com sucesso!");
-                System.out.println("Matrícula " + veiculo.getMatricula() + " (" + paisMatricula + ") registada com sucesso!");
-                return true;
+                atribuirIdsGerados(ps, Collections.singletonList(veiculo));
+                LOG.info("Veiculo inserido com sucesso! ID: {}, matrícula {} ({})", veiculo.getId(), veiculo.getMatricula(), paisMatricula);
+                return veiculo;
             } else {
-                System.err.println("Nenhuma linha foi afetada na inserção");
-                return false;
+                LOG.aviso("Nenhuma linha foi afetada na inserção");
+                return null;
             }
 
         } catch (SQLException e) {
-            System.err.println("Erro SQL ao inserir veiculo: " + e.getMessage());
-            System.err.println("SQL State: " + e.getSQLState());
-            System.err.println("Error Code: " + e.getErrorCode());
-
+            METRICA_INSERIR.erro();
             // Se for erro de matrícula duplicada, mostrar informação específica
             if (e.getErrorCode() == 1062 && e.getMessage().contains("matricula")) {
-                System.err.println("ATENÇÃO: Já existe um veículo com a matrícula: " + veiculo.getMatricula());
-                System.err.println(MatriculaValidator.getInfoMatricula(veiculo.getMatricula()));
+                LOG.aviso("ATENÇÃO: Já existe um veículo com a matrícula: {}. {}", veiculo.getMatricula(),
+                        MatriculaValidator.getInfoMatricula(veiculo.getMatricula()));
             }
 
-            e.printStackTrace();
-            return false;
+            LOG.erro("Erro SQL ao inserir veiculo: {} (SQL State: {}, Error Code: {})", e.getMessage(), e.getSQLState(), e.getErrorCode(), e);
+            return null;
         } catch (Exception e) {
-            System.err.println("Erro geral ao inserir veiculo: " + e.getMessage());
-            e.printStackTrace();
-            return false;
+            METRICA_INSERIR.erro();
+            LOG.erro("Erro geral ao inserir veiculo: {}", e.getMessage(), e);
+            return null;
         }
     }
 
-    // Método para atualizar um veiculo (também com validação de matrícula)
-    public boolean atualizarVeiculo(Veiculo veiculo) {
-        String sql = "UPDATE gsa_db.veiculo SET marca = ?, modelo = ?, matricula = ?, id_estado = ?, preco = ?, id_cidade = ?, id_responsavel = ?, id_comprador = ?, data_venda = ? WHERE id = ?";
+    /**
+     * Atualiza um veículo, escrevendo todas as colunas (também com validação de matrícula).
+     *
+     * @param veiculo O veículo com os novos dados.
+     * @return O próprio veículo gravado (a linha a atualizar na listagem), ou null se falhar.
+     */
+    public Veiculo atualizarVeiculo(Veiculo veiculo) {
+        return atualizarVeiculo(veiculo, null);
+    }
 
-        try (Connection connection = ConexaoBD.getConnection();
+    /**
+     * Atualiza um veículo escrevendo só as colunas que mudaram em relação ao estado anterior, com um
+     * UPDATE montado (e guardado) para essa combinação de colunas. Sem alterações não vai à base de dados.
+     *
+     * @param veiculo  O veículo com os novos dados.
+     * @param anterior Cópia do veículo antes da edição, ou null para escrever todas as colunas.
+     * @return O próprio veículo gravado (a linha a atualizar na listagem), ou null se falhar.
+     */
+    public Veiculo atualizarVeiculo(Veiculo veiculo, Veiculo anterior) {
+        int colunas = anterior == null || veiculo == null ? TODAS_AS_COLUNAS : colunasAlteradas(anterior, veiculo);
+        if (colunas == 0) {
+            LOG.debug("Veiculo ID {} sem alterações: UPDATE não enviado.", veiculo.getId());
+            return veiculo;
+        }
+        String sql = CONSULTAS_UPDATE.sql(colunas);
+
+        try (MetricaMetodo.Medicao medicao = METRICA_ATUALIZAR.medir();
+             Connection connection = ConexaoBD.getConnection();
              PreparedStatement stmt = connection.prepareStatement(sql)) {
 
             // Validações básicas antes de atualizar
             if (veiculo == null) {
-                System.err.println("Erro: Veiculo não pode ser nulo");
-                return false;
+                LOG.aviso("Veiculo não pode ser nulo");
+                return null;
             }
 
             if (veiculo.getMarca() == null || veiculo.getMarca().trim().isEmpty()) {
-                System.err.println("Erro: Marca é obrigatória");
-                return false;
+                LOG.aviso("Marca é obrigatória");
+                return null;
             }
 
             if (veiculo.getModelo() == null || veiculo.getModelo().trim().isEmpty()) {
-                System.err.println("Erro: Modelo é obrigatório");
-                return false;
+                LOG.aviso("Modelo é obrigatório");
+                return null;
             }
 
             // --- INÍCIO DAS EDIÇÕES AQUI (atualizarVeiculo - Validação por país) ---
             // Validar matrícula antes de atualizar (agora por país da cidade)
             if (veiculo.getMatricula() == null || veiculo.getMatricula().trim().isEmpty()) {
-                System.err.println("Erro: Matrícula é obrigatória para atualização.");
-                return false;
+                LOG.aviso("Matrícula é obrigatória para atualização.");
+                return null;
             }
             if (!MatriculaValidator.isMatriculaValidaPorPais(veiculo.getMatricula(), veiculo.getCidade())) {
-                System.err.println("Erro ao atualizar: Formato de matrícula inválido para o país da cidade selecionada.");
-                System.err.println(MatriculaValidator.getMensagemFormatos(veiculo.getCidade())); // Mensagem específica do país
-                System.err.println("\nMatrícula fornecida: " + veiculo.getMatricula());
-                System.err.println("País identificado (pela matrícula): " + MatriculaValidator.identificarPais(veiculo.getMatricula()));
-                System.err.println("Cidade do veículo: " + (veiculo.getCidade() != null ? veiculo.getCidade().getDescricao() : "NULA"));
-                return false;
+                LOG.aviso("Erro ao atualizar: formato de matrícula inválido para o país da cidade selecionada. Matrícula fornecida: {}, "
+                                + "país identificado (pela matrícula): {}, cidade do veículo: {}. {}",
+                        veiculo.getMatricula(), MatriculaValidator.identificarPais(veiculo.getMatricula()),
+                        veiculo.getCidade() != null ? veiculo.getCidade().getDescricao() : "NULA",
+                        MatriculaValidator.getMensagemFormatos(veiculo.getCidade())); // Mensagem específica do país
+                return null;
             }
             // --- FIM DAS EDIÇÕES AQUI (atualizarVeiculo - Validação por país) ---
 
             if (veiculo.getEstado() == null) {
-                System.err.println("Erro: Estado é obrigatório");
-                return false;
+                LOG.aviso("Estado é obrigatório");
+                return null;
             }
 
             if (veiculo.getCidade() == null) {
-                System.err.println("Erro: Cidade é obrigatória");
-                return false;
+                LOG.aviso("Cidade é obrigatória");
+                return null;
             }
 
-            stmt.setString(1, veiculo.getMarca().trim());
-            stmt.setString(2, veiculo.getModelo().trim());
-            stmt.setString(3, MatriculaValidator.formatarMatricula(veiculo.getMatricula()));
-            stmt.setInt(4, veiculo.getEstado().getId());
-            stmt.setDouble(5, veiculo.getPreco());
-            stmt.setInt(6, veiculo.getCidade().getId());
+            int indiceId = preencherColunasAlteradas(stmt, veiculo, colunas);
+            stmt.setInt(indiceId, veiculo.getId());
 
-            if (veiculo.getResponsavel() != null && veiculo.getResponsavel().getId() > 0) {
-                stmt.setInt(7, veiculo.getResponsavel().getId());
-            } else {
-                stmt.setNull(7, Types.INTEGER);
+            // Log com informações da matrícula
+            String paisMatricula = MatriculaValidator.identificarPais(veiculo.getMatricula());
+            if (LOG.isAtivo(Log.Nivel.DEBUG)) {
+                LOG.debug("Atualizando veiculo ID: {}, nova matrícula: {} ({})", veiculo.getId(),
+                        MatriculaValidator.formatarMatricula(veiculo.getMatricula()), paisMatricula);
             }
 
-            if (veiculo.getComprador() != null && veiculo.getComprador().getId() > 0) {
-                stmt.setInt(8, veiculo.getComprador().getId());
+            int rowsAffected = stmt.executeUpdate();
+            medicao.linhas(rowsAffected);
+
+            if (rowsAffected > 0) {
+                LOG.info("Veiculo ID {} atualizado com sucesso!", veiculo.getId());
+                return veiculo;
             } else {
-                stmt.setNull(8, Types.INTEGER);
+                LOG.aviso("Nenhuma linha foi afetada na atualização");
+                return null;
             }
 
-            if (veiculo.getDataVenda() != null) {
-                stmt.setDate(9, new java.sql.Date(veiculo.getDataVenda().getTime()));
-            } else {
-                stmt.setNull(9, Types.DATE);
+        } catch (SQLException e) {
+            METRICA_ATUALIZAR.erro();
+            // Se for erro de matrícula duplicada, mostrar informação específica
+            if (e.getErrorCode() == 1062 && e.getMessage().contains("matricula")) {
+                LOG.aviso("ATENÇÃO: Já existe um veículo com a matrícula: {}. {}", veiculo.getMatricula(),
+                        MatriculaValidator.getInfoMatricula(veiculo.getMatricula()));
             }
 
-            stmt.setInt(10, veiculo.getId());
+            LOG.erro("Erro SQL ao atualizar veiculo: {}", e.getMessage(), e);
+            return null;
+        } catch (Exception e) {
+            METRICA_ATUALIZAR.erro();
+            LOG.erro("Erro geral ao atualizar veiculo: {}", e.getMessage(), e);
+            return null;
+        }
+    }
 
-            // Log com informações da matrícula
-            String paisMatricula = MatriculaValidator.identificarPais(veiculo.getMatricula());
-            System.out.println("Atualizando veiculo ID: " + veiculo.getId());
-            System.out.println("Nova matrícula: " + MatriculaValidator.formatarMatricula(veiculo.getMatricula()) + " (" + paisMatricula + ")");
+    /**
+     * Insere vários veículos com batching JDBC, em lotes com uma transação cada.
+     * Usa o tamanho de lote por omissão (TAMANHO_LOTE_PADRAO).
+     *
+     * @param veiculos Os veículos a inserir; os inseridos com sucesso recebem o ID gerado.
+     * @return O resultado de cada linha, pela ordem da coleção.
+     */
+    public ResultadoLote inserirVeiculos(Collection<Veiculo> veiculos) {
+        return inserirVeiculos(veiculos, TAMANHO_LOTE_PADRAO);
+    }
 
-            int rowsAffected = stmt.executeUpdate();
+    /**
+     * Insere vários veículos com batching JDBC, em lotes com uma transação cada.
+     * Uma linha rejeitada (validação, matrícula duplicada) não aborta o lote: o lote é repetido
+     * linha a linha para identificar as rejeitadas e gravar as restantes.
+     *
+     * @param veiculos    Os veículos a inserir; os inseridos com sucesso recebem o ID gerado.
+     * @param tamanhoLote Número de linhas por executeBatch/commit.
+     * @return O resultado de cada linha, pela ordem da coleção.
+     */
+    public ResultadoLote inserirVeiculos(Collection<Veiculo> veiculos, int tamanhoLote) {
+        return gravarEmLote(veiculos, tamanhoLote, false);
+    }
 
-            if (rowsAffected > 0) {
-                System.out.println("Veiculo atualizado com sucesso!");
-                return true;
+    /**
+     * Atualiza vários veículos (pelo ID) com batching JDBC, usando o tamanho de lote por omissão.
+     *
+     * @param veiculos Os veículos a atualizar.
+     * @return O resultado de cada linha, pela ordem da coleção.
+     */
+    public ResultadoLote atualizarVeiculos(Collection<Veiculo> veiculos) {
+        return atualizarVeiculos(veiculos, TAMANHO_LOTE_PADRAO);
+    }
+
+    /**
+     * Atualiza vários veículos (pelo ID) com batching JDBC, em lotes com uma transação cada.
+     *
+     * @param veiculos    Os veículos a atualizar.
+     * @param tamanhoLote Número de linhas por executeBatch/commit.
+     * @return O resultado de cada linha, pela ordem da coleção.
+     */
+    public ResultadoLote atualizarVeiculos(Collection<Veiculo> veiculos, int tamanhoLote) {
+        return gravarEmLote(veiculos, tamanhoLote, true);
+    }
+
+    private ResultadoLote gravarEmLote(Collection<Veiculo> veiculos, int tamanhoLote, boolean atualizar) {
+        if (tamanhoLote <= 0) {
+            throw new IllegalArgumentException("O tamanho do lote deve ser positivo: " + tamanhoLote);
+        }
+        MetricaMetodo metrica = atualizar ? METRICA_ATUALIZAR_LOTE : METRICA_INSERIR_LOTE;
+        long inicioNanos = System.nanoTime();
+        long inicio = System.currentTimeMillis();
+        ResultadoLote.Linha[] resultados = new ResultadoLote.Linha[veiculos.size()];
+
+        // Validação em memória: as linhas inválidas nunca chegam à base de dados
+        List<Veiculo> lote = new ArrayList<>(tamanhoLote);
+        List<Integer> indicesLote = new ArrayList<>(tamanhoLote);
+        List<Veiculo> validos = new ArrayList<>(veiculos.size());
+        List<Integer> indicesValidos = new ArrayList<>(veiculos.size());
+        int indice = 0;
+        for (Veiculo veiculo : veiculos) {
+            String erro = validarParaGravacao(veiculo, atualizar);
+            if (erro != null) {
+                resultados[indice] = new ResultadoLote.Linha(indice, veiculo, ResultadoLote.Estado.INVALIDO, erro);
             } else {
-                System.err.println("Nenhuma linha foi afetada na atualização");
-                return false;
+                validos.add(veiculo);
+                indicesValidos.add(indice);
             }
+            indice++;
+        }
 
+        String sql = atualizar ? SQL_UPDATE_VEICULO : SQL_INSERT_VEICULO;
+        Connection conexaoObtida = ConexaoBD.getConnection();
+        if (conexaoObtida == null) {
+            // O erro já foi registado pelo ConexaoBD: as linhas válidas ficam como "Não processado"
+            metrica.erro();
+            LOG.erro("Gravação em lote de veiculos sem conexão à base de dados: {} linhas não processadas", validos.size());
+        } else {
+            try (Connection connection = conexaoObtida;
+                 PreparedStatement ps = atualizar
+                         ? connection.prepareStatement(sql)
+                         : connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+                connection.setAutoCommit(false);
+                try {
+                    for (int i = 0; i < validos.size(); i++) {
+                        lote.add(validos.get(i));
+                        indicesLote.add(indicesValidos.get(i));
+                        if (lote.size() == tamanhoLote || i == validos.size() - 1) {
+                            gravarLote(connection, ps, lote, indicesLote, atualizar, resultados);
+                            lote.clear();
+                            indicesLote.clear();
+                        }
+                    }
+                } finally {
+                    connection.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                metrica.erro();
+                LOG.erro("Erro SQL na gravação em lote de veiculos: {}", e.getMessage(), e);
+            }
+        }
+
+        // Linhas que não chegaram a ser processadas (ex: falha ao obter a conexão)
+        List<ResultadoLote.Linha> linhas = new ArrayList<>(resultados.length);
+        int posicao = 0;
+        for (Veiculo veiculo : veiculos) {
+            ResultadoLote.Linha linha = resultados[posicao];
+            linhas.add(linha != null ? linha
+                    : new ResultadoLote.Linha(posicao, veiculo, ResultadoLote.Estado.ERRO, "Não processado"));
+            posicao++;
+        }
+
+        ResultadoLote resultado = new ResultadoLote(linhas, System.currentTimeMillis() - inicio);
+        metrica.registar(System.nanoTime() - inicioNanos, resultado.getGravados());
+        LOG.info("{} em lote concluída: {}", atualizar ? "Atualização" : "Inserção", resultado);
+        return resultado;
+    }
+
+    // Grava um lote numa transação; se o executeBatch falhar, repete-o linha a linha
+    private void gravarLote(Connection connection, PreparedStatement ps, List<Veiculo> lote, List<Integer> indices,
+                            boolean atualizar, ResultadoLote.Linha[] resultados) throws SQLException {
+        try {
+            for (Veiculo veiculo : lote) {
+                preencherParametros(ps, veiculo);
+                if (atualizar) {
+                    ps.setInt(11, veiculo.getId());
+                }
+                ps.addBatch();
+            }
+            int[] contagens = ps.executeBatch();
+            if (!atualizar) {
+                atribuirIdsGerados(ps, lote);
+            }
+            connection.commit();
+            for (int i = 0; i < lote.size(); i++) {
+                // SUCCESS_NO_INFO (-2) é devolvido pelo driver quando o lote é reescrito num só comando
+                boolean afetada = i >= contagens.length || contagens[i] != 0;
+                resultados[indices.get(i)] = new ResultadoLote.Linha(indices.get(i), lote.get(i),
+                        afetada ? ResultadoLote.Estado.GRAVADO : ResultadoLote.Estado.NAO_ENCONTRADO,
+                        afetada ? null : "Nenhum veiculo com ID " + lote.get(i).getId());
+            }
         } catch (SQLException e) {
-            System.err.println("Erro SQL ao atualizar veiculo: " + e.getMessage());
+            // Com rewriteBatchedStatements o lote inteiro falha numa só instrução:
+            // desfaz e repete linha a linha para saber quais foram rejeitadas
+            connection.rollback();
+            ps.clearBatch();
+            for (int i = 0; i < lote.size(); i++) {
+                resultados[indices.get(i)] = gravarLinha(connection, ps, lote.get(i), indices.get(i), atualizar);
+            }
+        }
+    }
 
-            // Se for erro de matrícula duplicada, mostrar informação específica
-            if (e.getErrorCode() == 1062 && e.getMessage().contains("matricula")) {
-                System.err.println("ATENÇÃO: Já existe um veículo com a matrícula: " + veiculo.getMatricula());
-                System.err.println(MatriculaValidator.getInfoMatricula(veiculo.getMatricula()));
+    private ResultadoLote.Linha gravarLinha(Connection connection, PreparedStatement ps, Veiculo veiculo,
+                                            int indice, boolean atualizar) throws SQLException {
+        try {
+            preencherParametros(ps, veiculo);
+            if (atualizar) {
+                ps.setInt(11, veiculo.getId());
+            }
+            int afetadas = ps.executeUpdate();
+            if (!atualizar) {
+                atribuirIdsGerados(ps, Collections.singletonList(veiculo));
             }
+            connection.commit();
+            if (afetadas == 0) {
+                return new ResultadoLote.Linha(indice, veiculo, ResultadoLote.Estado.NAO_ENCONTRADO,
+                        "Nenhum veiculo com ID " + veiculo.getId());
+            }
+            return new ResultadoLote.Linha(indice, veiculo, ResultadoLote.Estado.GRAVADO, null);
+        } catch (SQLException e) {
+            connection.rollback();
+            if (isMatriculaDuplicada(e)) {
+                return new ResultadoLote.Linha(indice, veiculo, ResultadoLote.Estado.DUPLICADO,
+                        "Já existe um veículo com a matrícula: " + MatriculaValidator.formatarMatricula(veiculo.getMatricula()));
+            }
+            return new ResultadoLote.Linha(indice, veiculo, ResultadoLote.Estado.ERRO, e.getMessage());
+        }
+    }
 
-            e.printStackTrace();
-            return false;
-        } catch (Exception e) {
-            System.err.println("Erro geral ao atualizar veiculo: " + e.getMessage());
-            e.printStackTrace();
-            return false;
+    private static void atribuirIdsGerados(PreparedStatement ps, List<Veiculo> veiculos) throws SQLException {
+        try (ResultSet chaves = ps.getGeneratedKeys()) {
+            for (Veiculo veiculo : veiculos) {
+                if (!chaves.next()) {
+                    break;
+                }
+                veiculo.setId(chaves.getInt(1));
+            }
+        }
+    }
+
+    // Erro 1062 do MySQL (chave duplicada) ou o SQLState equivalente noutras bases de dados
+    private static boolean isMatriculaDuplicada(SQLException e) {
+        return e.getErrorCode() == 1062 || "23505".equals(e.getSQLState());
+    }
+
+    // Mesmas regras de inserirVeiculo/atualizarVeiculo; devolve a mensagem de erro ou null se for válido
+    private static String validarParaGravacao(Veiculo veiculo, boolean atualizar) {
+        if (veiculo == null) {
+            return "Veiculo não pode ser nulo";
+        }
+        if (atualizar && veiculo.getId() <= 0) {
+            return "ID é obrigatório para atualização";
+        }
+        if (veiculo.getMarca() == null || veiculo.getMarca().trim().isEmpty()) {
+            return "Marca é obrigatória";
+        }
+        if (veiculo.getModelo() == null || veiculo.getModelo().trim().isEmpty()) {
+            return "Modelo é obrigatório";
+        }
+        if (ClassificadorMatricula.isVazia(veiculo.getMatricula())) {
+            return "Matrícula é obrigatória";
+        }
+        if (veiculo.getEstado() == null) {
+            return "Estado é obrigatório";
+        }
+        if (veiculo.getCidade() == null) {
+            return "Cidade é obrigatória";
+        }
+        if (!MatriculaValidator.isMatriculaValidaPorPais(veiculo.getMatricula(), veiculo.getCidade())) {
+            return "Formato de matrícula inválido para o país da cidade: " + veiculo.getMatricula()
+                    + " (" + MatriculaValidator.identificarPais(veiculo.getMatricula()) + ", cidade "
+                    + veiculo.getCidade().getDescricao() + ")";
+        }
+        return null;
+    }
+
+    // Parâmetros 1 a 10 comuns ao INSERT e ao UPDATE (no UPDATE o ID é o parâmetro 11)
+    private static void preencherParametros(PreparedStatement ps, Veiculo veiculo) throws SQLException {
+        ps.setString(1, veiculo.getMarca().trim());
+        ps.setString(2, veiculo.getModelo().trim());
+        ps.setString(3, MatriculaValidator.formatarMatricula(veiculo.getMatricula()));
+        ps.setInt(4, veiculo.getEstado().getId());
+        ps.setDouble(5, veiculo.getPreco());
+        ps.setInt(6, veiculo.getCidade().getId());
+
+        // Tratar id_responsavel que pode ser nulo
+        if (veiculo.getResponsavel() != null && veiculo.getResponsavel().getId() > 0) {
+            ps.setInt(7, veiculo.getResponsavel().getId());
+        } else {
+            ps.setNull(7, Types.INTEGER);
+        }
+
+        // Tratar id_comprador que pode ser nulo
+        if (veiculo.getComprador() != null && veiculo.getComprador().getId() > 0) {
+            ps.setInt(8, veiculo.getComprador().getId());
+        } else {
+            ps.setNull(8, Types.INTEGER);
         }
+
+        // Tratar data_venda que pode ser nulo
+        if (veiculo.getDataVenda() != null) {
+            ps.setDate(9, new java.sql.Date(veiculo.getDataVenda().getTime()));
+        } else {
+            ps.setNull(9, Types.DATE);
+        }
+
+        // País da matrícula persistido para as estatísticas e a listagem por país
+        ps.setString(10, codigoPaisMatricula(veiculo.getMatricula()));
+    }
+
+    /**
+     * Indica se a edição mudou alguma coluna gravada (ver atualizarVeiculo(Veiculo, Veiculo)).
+     */
+    public static boolean temAlteracoes(Veiculo anterior, Veiculo atual) {
+        return colunasAlteradas(anterior, atual) != 0;
+    }
+
+    // Máscara COLUNA_* das colunas cujo valor gravado mudaria (compara os valores tal como são escritos)
+    private static int colunasAlteradas(Veiculo anterior, Veiculo atual) {
+        int colunas = 0;
+        if (!Objects.equals(aparado(anterior.getMarca()), aparado(atual.getMarca()))) {
+            colunas |= COLUNA_MARCA;
+        }
+        if (!Objects.equals(aparado(anterior.getModelo()), aparado(atual.getModelo()))) {
+            colunas |= COLUNA_MODELO;
+        }
+        if (!Objects.equals(MatriculaValidator.formatarMatricula(anterior.getMatricula()),
+                MatriculaValidator.formatarMatricula(atual.getMatricula()))) {
+            colunas |= COLUNA_MATRICULA;
+        }
+        if (idEstado(anterior) != idEstado(atual)) {
+            colunas |= COLUNA_ESTADO;
+        }
+        if (Double.compare(anterior.getPreco(), atual.getPreco()) != 0) {
+            colunas |= COLUNA_PRECO;
+        }
+        if (idCidade(anterior) != idCidade(atual)) {
+            colunas |= COLUNA_CIDADE;
+        }
+        if (idResponsavel(anterior) != idResponsavel(atual)) {
+            colunas |= COLUNA_RESPONSAVEL;
+        }
+        if (idComprador(anterior) != idComprador(atual)) {
+            colunas |= COLUNA_COMPRADOR;
+        }
+        if (!Objects.equals(diaDeVenda(anterior), diaDeVenda(atual))) {
+            colunas |= COLUNA_DATA_VENDA;
+        }
+        return colunas;
+    }
+
+    // Parâmetros das colunas da máscara, pela ordem de CONSULTAS_UPDATE; devolve o índice do parâmetro do ID
+    private static int preencherColunasAlteradas(PreparedStatement ps, Veiculo veiculo, int colunas) throws SQLException {
+        int i = 1;
+        if ((colunas & COLUNA_MARCA) != 0) {
+            ps.setString(i++, veiculo.getMarca().trim());
+        }
+        if ((colunas & COLUNA_MODELO) != 0) {
+            ps.setString(i++, veiculo.getModelo().trim());
+        }
+        if ((colunas & COLUNA_MATRICULA) != 0) {
+            ps.setString(i++, MatriculaValidator.formatarMatricula(veiculo.getMatricula()));
+            ps.setString(i++, codigoPaisMatricula(veiculo.getMatricula()));
+        }
+        if ((colunas & COLUNA_ESTADO) != 0) {
+            ps.setInt(i++, veiculo.getEstado().getId());
+        }
+        if ((colunas & COLUNA_PRECO) != 0) {
+            ps.setDouble(i++, veiculo.getPreco());
+        }
+        if ((colunas & COLUNA_CIDADE) != 0) {
+            ps.setInt(i++, veiculo.getCidade().getId());
+        }
+        if ((colunas & COLUNA_RESPONSAVEL) != 0) {
+            definirIdOuNulo(ps, i++, idResponsavel(veiculo));
+        }
+        if ((colunas & COLUNA_COMPRADOR) != 0) {
+            definirIdOuNulo(ps, i++, idComprador(veiculo));
+        }
+        if ((colunas & COLUNA_DATA_VENDA) != 0) {
+            if (veiculo.getDataVenda() != null) {
+                ps.setDate(i++, new java.sql.Date(veiculo.getDataVenda().getTime()));
+            } else {
+                ps.setNull(i++, Types.DATE);
+            }
+        }
+        return i;
+    }
+
+    private static void definirIdOuNulo(PreparedStatement ps, int indice, int id) throws SQLException {
+        if (id > 0) {
+            ps.setInt(indice, id);
+        } else {
+            ps.setNull(indice, Types.INTEGER);
+        }
+    }
+
+    private static String aparado(String texto) {
+        return texto == null ? null : texto.trim();
+    }
+
+    private static int idEstado(Veiculo veiculo) {
+        return veiculo.getEstado() != null ? veiculo.getEstado().getId() : 0;
+    }
+
+    private static int idCidade(Veiculo veiculo) {
+        return veiculo.getCidade() != null ? veiculo.getCidade().getId() : 0;
+    }
+
+    // Tal como em preencherParametros, um ID <= 0 é gravado como NULL
+    private static int idResponsavel(Veiculo veiculo) {
+        return veiculo.getResponsavel() != null ? Math.max(0, veiculo.getResponsavel().getId()) : 0;
+    }
+
+    private static int idComprador(Veiculo veiculo) {
+        return veiculo.getComprador() != null ? Math.max(0, veiculo.getComprador().getId()) : 0;
+    }
+
+    // data_venda é uma coluna DATE: as horas da data escolhida não contam como alteração
+    private static LocalDate diaDeVenda(Veiculo veiculo) {
+        return veiculo.getDataVenda() != null ? new java.sql.Date(veiculo.getDataVenda().getTime()).toLocalDate() : null;
     }
 
     public Veiculo buscarPorId(int id) {
         Veiculo veiculo = null;
-        String sql = "SELECT v.id, v.marca, v.modelo, v.matricula, v.preco, v.data_venda, " +
-                "e.id AS estado_id, e.descricao AS estado_descricao, " +
-                "u.id AS responsavel_id, u.nome AS responsavel_nome, " +
-                "c.id AS cidade_id, c.descricao AS cidade_descricao, " +
-                "comp.id AS comprador_id, comp.nome_completo AS comprador_nome " +
-                "FROM gsa_db.veiculo v " +
-                "JOIN gsa_db.estado e ON v.id_estado = e.id " +
-                "JOIN gsa_db.cidade c ON v.id_cidade = c.id " +
-                "LEFT JOIN gsa_db.utilizador u ON v.id_responsavel = u.id " +
-                "LEFT JOIN gsa_db.comprador comp ON v.id_comprador = comp.id " +
-                "WHERE v.id = ?";
-
-        try (Connection connection = ConexaoBD.getConnection();
+        String sql = SQL_SELECT_VEICULOS + "WHERE v.id = ?";
+
+        try (MetricaMetodo.Medicao medicao = METRICA_BUSCAR_POR_ID.medir();
+             Connection connection = ConexaoBD.getConnection();
              PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setInt(1, id);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    veiculo = new Veiculo();
-                    veiculo.setId(rs.getInt("id"));
-                    veiculo.setMarca(rs.getString("marca"));
-                    veiculo.setModelo(rs.getString("modelo"));
-                    veiculo.setMatricula(rs.getString("matricula"));
-                    veiculo.setPreco(rs.getDouble("preco"));
-                    veiculo.setDataVenda(rs.getDate("data_venda"));
-
-                    Estado estado = new Estado(rs.getInt("estado_id"), rs.getString("estado_descricao"));
-                    veiculo.setEstado(estado);
-
-                    Cidade cidade = new Cidade(rs.getInt("cidade_id"), rs.getString("cidade_descricao"));
-                    veiculo.setCidade(cidade);
-
-                    if (rs.getObject("responsavel_id") != null) {
-                        Utilizador responsavel = new Utilizador(rs.getInt("responsavel_id"), rs.getString("responsavel_nome"));
-                        veiculo.setResponsavel(responsavel);
-                    }
-
-                    if (rs.getObject("comprador_id") != null) {
-                        Comprador comprador = new Comprador(rs.getInt("comprador_id"), rs.getString("comprador_nome"));
-                        veiculo.setComprador(comprador);
-                    }
+                    veiculo = mapearVeiculo(rs);
+                    medicao.linhas(1);
                 }
             }
         } catch (SQLException e) {
-            System.err.println("Erro ao buscar veiculo por ID: " + e.getMessage());
-            e.printStackTrace();
+            METRICA_BUSCAR_POR_ID.erro();
+            LOG.erro("Erro ao buscar veiculo por ID: {}", e.getMessage(), e);
         }
         return veiculo;
     }
 
     public boolean removerVeiculoPorId(int id) {
         String sql = "DELETE FROM gsa_db.veiculo WHERE id = ?";
-        try (Connection connection = ConexaoBD.getConnection();
+        try (MetricaMetodo.Medicao medicao = METRICA_REMOVER.medir();
+             Connection connection = ConexaoBD.getConnection();
              PreparedStatement stmt = connection.prepareStatement(sql)) {
 
             stmt.setInt(1, id);
             int rowsAffected = stmt.executeUpdate();
+            medicao.linhas(rowsAffected);
 
             if (rowsAffected > 0) {
-                System.out.println("Veiculo removido com sucesso! ID: " + id);
+                LOG.info("Veiculo removido com sucesso! ID: {}", id);
                 return true;
             } else {
-                System.err.println("Nenhum veiculo encontrado com ID: " + id);
+                LOG.aviso("Nenhum veiculo encontrado com ID: {}", id);
                 return false;
             }
 
         } catch (SQLException e) {
-            System.err.println("Erro ao remover veiculo por ID: " + e.getMessage());
-            e.printStackTrace();
+            METRICA_REMOVER.erro();
+            LOG.erro("Erro ao remover veiculo por ID: {}", e.getMessage(), e);
             return false;
         }
     }
 
+    // Valor de pais_matricula para matrículas que não correspondem a nenhum formato
+    private static final String PAIS_MATRICULA_INVALIDA = "INVALIDA";
+    private static final int TAMANHO_LOTE_SINCRONIZACAO = 500;
+
+    // SELECT base partilhado pela listagem completa e pela listagem paginada
+    private static final String SQL_SELECT_VEICULOS =
+            "SELECT v.id, v.marca, v.modelo, v.matricula, v.preco, v.data_venda, " +
+            "e.id AS estado_id, e.descricao AS estado_descricao, " +
+            "u.id AS responsavel_id, u.nome AS responsavel_nome, " +
+            "c.id AS cidade_id, c.descricao AS cidade_descricao, " +
+            "comp.id AS comprador_id, comp.nome_completo AS comprador_nome " +
+            "FROM gsa_db.veiculo v " +
+            "JOIN gsa_db.estado e ON v.id_estado = e.id " +
+            "JOIN gsa_db.cidade c ON v.id_cidade = c.id " +
+            "LEFT JOIN gsa_db.utilizador u ON v.id_responsavel = u.id " +
+            "LEFT JOIN gsa_db.comprador comp ON v.id_comprador = comp.id ";
+
+    // Filtros opcionais das listagens: bit da máscara de cada condição em CONSULTAS_PAGINA/CONSULTAS_LISTA.
+    // A ordem dos bits é a ordem dos parâmetros. Cada campo de texto tem uma condição por modo de
+    // pesquisa (ver PesquisaTexto), das quais só uma é usada de cada vez.
+    private static final int FILTRO_MARCA_CURTO = 1;
+    private static final int FILTRO_MARCA_NGRAMA = 1 << 1;
+    private static final int FILTRO_MODELO_CURTO = 1 << 2;
+    private static final int FILTRO_MODELO_NGRAMA = 1 << 3;
+    private static final int FILTRO_MATRICULA_EXATA = 1 << 4;
+    private static final int FILTRO_MATRICULA_CURTO = 1 << 5;
+    private static final int FILTRO_MATRICULA_NGRAMA = 1 << 6;
+    private static final int FILTRO_PAIS = 1 << 7;
+    private static final int FILTRO_CURSOR = 1 << 8;
+    private static final String[] CONDICOES_FILTRO = {
+            "v.marca LIKE ?", PesquisaTexto.condicaoNgrama("v.marca"),
+            "v.modelo LIKE ?", PesquisaTexto.condicaoNgrama("v.modelo"),
+            "v.matricula_chave = ?", "v.matricula_chave LIKE ?", PesquisaTexto.condicaoNgrama("v.matricula_chave"),
+            "v.pais_matricula = ?", "v.id < ?"
+    };
+
+    // Variantes das listagens, cada uma montada uma vez (o LIMIT pede uma linha a mais, ver buscarPagina)
+    private static final RegistoSql CONSULTAS_LISTA =
+            new RegistoSql(SQL_SELECT_VEICULOS, " ORDER BY v.id DESC", CONDICOES_FILTRO);
+    private static final RegistoSql CONSULTAS_PAGINA =
+            new RegistoSql(SQL_SELECT_VEICULOS, " ORDER BY v.id DESC LIMIT ?", CONDICOES_FILTRO);
+
     // Método para buscar veiculos com filtros (marca, modelo, matricula)
+    // Carrega todos os resultados; para listagens no ecrã usar filtrarVeiculosPaginado.
     public List<Veiculo> filtrarVeiculos(String marca, String modelo, String matricula) {
         List<Veiculo> veiculos = new ArrayList<>();
-        StringBuilder sqlBuilder = new StringBuilder();
-        sqlBuilder.append("SELECT v.id, v.marca, v.modelo, v.matricula, v.preco, v.data_venda, ")
-                .append("e.id AS estado_id, e.descricao AS estado_descricao, ")
-                .append("u.id AS responsavel_id, u.nome AS responsavel_nome, ")
-                .append("c.id AS cidade_id, c.descricao AS cidade_descricao, ")
-                .append("comp.id AS comprador_id, comp.nome_completo AS comprador_nome ")
-                .append("FROM gsa_db.veiculo v ")
-                .append("JOIN gsa_db.estado e ON v.id_estado = e.id ")
-                .append("JOIN gsa_db.cidade c ON v.id_cidade = c.id ")
-                .append("LEFT JOIN gsa_db.utilizador u ON v.id_responsavel = u.id ")
-                .append("LEFT JOIN gsa_db.comprador comp ON v.id_comprador = comp.id ");
-
-        List<String> conditions = new ArrayList<>();
-        List<Object> parameters = new ArrayList<>();
+        List<Object> parameters = new ArrayList<>(3);
+        int filtros = construirFiltros(marca, modelo, matricula, parameters);
 
-        if (marca != null && !marca.trim().isEmpty()) {
-            conditions.add("v.marca LIKE ?");
-            parameters.add("%" + marca.trim() + "%");
-        }
-        if (modelo != null && !modelo.trim().isEmpty()) {
-            conditions.add("v.modelo LIKE ?");
-            parameters.add("%" + modelo.trim() + "%");
+        try (MetricaMetodo.Medicao medicao = METRICA_FILTRAR.medir();
+             Connection connection = ConexaoBD.getConnection();
+             PreparedStatement ps = connection.prepareStatement(CONSULTAS_LISTA.sql(filtros))) {
+            for (int i = 0; i < parameters.size(); i++) {
+                ps.setObject(i + 1, parameters.get(i));
+            }
+
+            // Permite que um pedido substituído aborte esta query (Statement.cancel)
+            ContextoTarefa.registarStatement(ps);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    veiculos.add(mapearVeiculo(rs));
+                }
+            } finally {
+                ContextoTarefa.libertarStatement(ps);
+                medicao.linhas(veiculos.size());
+            }
+        } catch (SQLException e) {
+            if (ContextoTarefa.isAtualCancelada()) {
+                LOG.debug("Pesquisa de veiculos cancelada (substituída por um novo pedido).");
+                return veiculos;
+            }
+            METRICA_FILTRAR.erro();
+            LOG.erro("Erro ao buscar veiculos com filtros: {}", e.getMessage(), e);
         }
-        if (matricula != null && !matricula.trim().isEmpty()) {
-            conditions.add("v.matricula LIKE ?");
-            parameters.add("%" + matricula.trim().toUpperCase() + "%");
+        return veiculos;
+    }
+
+    /**
+     * Busca uma página de veículos (ordenados por ID decrescente) usando paginação keyset.
+     * Em vez de OFFSET, usa "v.id < aposId", pelo que o custo de cada página é constante
+     * independentemente da profundidade do scroll.
+     *
+     * @param marca         Filtro por marca (opcional).
+     * @param modelo        Filtro por modelo (opcional).
+     * @param matricula     Filtro por matrícula (opcional).
+     * @param aposId        Cursor: ID do último veículo da página anterior, ou null para a primeira página.
+     * @param tamanhoPagina Número máximo de veículos a devolver.
+     * @return A página de veículos, com o cursor seguinte e a indicação se existem mais resultados.
+     */
+    public Pagina<Veiculo> filtrarVeiculosPaginado(String marca, String modelo, String matricula,
+                                                   Integer aposId, int tamanhoPagina) {
+        if (tamanhoPagina <= 0) {
+            throw new IllegalArgumentException("O tamanho da página deve ser positivo: " + tamanhoPagina);
         }
 
-        if (!conditions.isEmpty()) {
-            sqlBuilder.append(" WHERE ").append(String.join(" AND ", conditions));
+        List<Object> parameters = new ArrayList<>(5);
+        int filtros = construirFiltros(marca, modelo, matricula, parameters);
+        return buscarPagina(filtros, parameters, aposId, tamanhoPagina, METRICA_FILTRAR_PAGINADO);
+    }
+
+    // Executa a variante de CONSULTAS_PAGINA com os filtros dados, em páginas keyset por ID decrescente
+    private Pagina<Veiculo> buscarPagina(int filtros, List<Object> parameters,
+                                         Integer aposId, int tamanhoPagina, MetricaMetodo metrica) {
+        if (aposId != null) {
+            filtros |= FILTRO_CURSOR;
+            parameters.add(aposId);
         }
 
-        sqlBuilder.append(" ORDER BY v.id DESC");
+        // Pede-se uma linha a mais para saber se existe página seguinte sem um COUNT(*)
+        parameters.add(tamanhoPagina + 1);
+
+        List<Veiculo> veiculos = new ArrayList<>(tamanhoPagina);
+        boolean temMais = false;
 
-        try (Connection connection = ConexaoBD.getConnection();
-             PreparedStatement ps = connection.prepareStatement(sqlBuilder.toString())) {
+        try (MetricaMetodo.Medicao medicao = metrica.medir();
+             Connection connection = ConexaoBD.getConnection();
+             PreparedStatement ps = connection.prepareStatement(CONSULTAS_PAGINA.sql(filtros))) {
             for (int i = 0; i < parameters.size(); i++) {
                 ps.setObject(i + 1, parameters.get(i));
             }
 
+            // Permite que um pedido substituído aborte esta query (Statement.cancel)
+            ContextoTarefa.registarStatement(ps);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    Veiculo veiculo = new Veiculo();
-                    veiculo.setId(rs.getInt("id"));
-                    veiculo.setMarca(rs.getString("marca"));
-                    veiculo.setModelo(rs.getString("modelo"));
-                    veiculo.setMatricula(rs.getString("matricula"));
-                    veiculo.setPreco(rs.getDouble("preco"));
-                    veiculo.setDataVenda(rs.getDate("data_venda"));
-
-                    Estado estado = new Estado(rs.getInt("estado_id"), rs.getString("estado_descricao"));
-                    veiculo.setEstado(estado);
-
-                    Cidade cidade = new Cidade(rs.getInt("cidade_id"), rs.getString("cidade_descricao"));
-                    veiculo.setCidade(cidade);
-
-                    if (rs.getObject("responsavel_id") != null) {
-                        Utilizador responsavel = new Utilizador(rs.getInt("responsavel_id"), rs.getString("responsavel_nome"));
-                        veiculo.setResponsavel(responsavel);
-                    }
-
-                    if (rs.getObject("comprador_id") != null) {
-                        Comprador comprador = new Comprador(rs.getInt("comprador_id"), rs.getString("comprador_nome"));
-                        veiculo.setComprador(comprador);
+                    if (veiculos.size() == tamanhoPagina) {
+                        temMais = true;
+                        break;
                     }
-
-                    veiculos.add(veiculo);
+                    veiculos.add(mapearVeiculo(rs));
                 }
+            } finally {
+                ContextoTarefa.libertarStatement(ps);
+                medicao.linhas(veiculos.size());
             }
         } catch (SQLException e) {
-            System.err.println("Erro ao buscar veiculos com filtros: " + e.getMessage());
-            e.printStackTrace();
+            if (ContextoTarefa.isAtualCancelada()) {
+                LOG.debug("Pesquisa paginada de veiculos cancelada (substituída por um novo pedido).");
+                return new Pagina<>(veiculos, null, false);
+            }
+            metrica.erro();
+            LOG.erro("Erro ao buscar página de veiculos: {}", e.getMessage(), e);
         }
-        return veiculos;
+
+        Integer ultimoId = veiculos.isEmpty() ? null : veiculos.get(veiculos.size() - 1).getId();
+        return new Pagina<>(veiculos, ultimoId, temMais);
+    }
+
+    // Página sem filtros (equivalente paginado de buscarTodos)
+    public Pagina<Veiculo> buscarTodosPaginado(Integer aposId, int tamanhoPagina) {
+        return filtrarVeiculosPaginado(null, null, null, aposId, tamanhoPagina);
+    }
+
+    // Acrescenta os parâmetros dos filtros preenchidos e devolve a máscara FILTRO_* correspondente.
+    // Cada filtro usa o predicado mais barato que dá o resultado de "contém" (ver PesquisaTexto): igualdade
+    // na chave para uma matrícula completa, FULLTEXT ngram a partir de dois carateres e LIKE '%x%' para um só,
+    // que não tem índice que o sirva mas devolve as mesmas linhas que o filtro local da tabela.
+    private int construirFiltros(String marca, String modelo, String matricula, List<Object> parameters) {
+        int filtros = 0;
+
+        if (marca != null && !marca.trim().isEmpty()) {
+            filtros |= filtroTexto(marca.trim(), FILTRO_MARCA_CURTO, FILTRO_MARCA_NGRAMA, parameters);
+        }
+        if (modelo != null && !modelo.trim().isEmpty()) {
+            filtros |= filtroTexto(modelo.trim(), FILTRO_MODELO_CURTO, FILTRO_MODELO_NGRAMA, parameters);
+        }
+        if (matricula != null) {
+            String chave = PesquisaTexto.chaveMatricula(matricula);
+            if (!chave.isEmpty()) {
+                PesquisaTexto.Modo modo = PesquisaTexto.modoMatricula(matricula, chave);
+                filtros |= modo == PesquisaTexto.Modo.EXATO ? FILTRO_MATRICULA_EXATA
+                        : modo == PesquisaTexto.Modo.CURTO ? FILTRO_MATRICULA_CURTO : FILTRO_MATRICULA_NGRAMA;
+                parameters.add(PesquisaTexto.parametro(modo, chave));
+            }
+        }
+        return filtros;
+    }
+
+    private static int filtroTexto(String texto, int filtroCurto, int filtroNgrama, List<Object> parameters) {
+        PesquisaTexto.Modo modo = PesquisaTexto.modoTexto(texto);
+        parameters.add(PesquisaTexto.parametro(modo, texto));
+        return modo == PesquisaTexto.Modo.CURTO ? filtroCurto : filtroNgrama;
+    }
+
+    // Converte a linha atual do ResultSet (colunas de SQL_SELECT_VEICULOS) num Veiculo
+    private Veiculo mapearVeiculo(ResultSet rs) throws SQLException {
+        Veiculo veiculo = new Veiculo();
+        veiculo.setId(rs.getInt("id"));
+        veiculo.setMarca(rs.getString("marca"));
+        veiculo.setModelo(rs.getString("modelo"));
+        veiculo.setMatricula(rs.getString("matricula"));
+        veiculo.setPreco(rs.getDouble("preco"));
+        veiculo.setDataVenda(rs.getDate("data_venda"));
+
+        Estado estado = new Estado(rs.getInt("estado_id"), rs.getString("estado_descricao"));
+        veiculo.setEstado(estado);
+
+        Cidade cidade = new Cidade(rs.getInt("cidade_id"), rs.getString("cidade_descricao"));
+        veiculo.setCidade(cidade);
+
+        if (rs.getObject("responsavel_id") != null) {
+            Utilizador responsavel = new Utilizador(rs.getInt("responsavel_id"), rs.getString("responsavel_nome"));
+            veiculo.setResponsavel(responsavel);
+        }
+
+        if (rs.getObject("comprador_id") != null) {
+            Comprador comprador = new Comprador(rs.getInt("comprador_id"), rs.getString("comprador_nome"));
+            veiculo.setComprador(comprador);
+        }
+        return veiculo;
     }
 
     /**
@@ -648,12 +1150,12 @@ public class VeiculoDAO {
      * @param matricula A matrícula a testar
      */
     public static void testarMatricula(String matricula) {
-        System.out.println("=== TESTE DE MATRÍCULA ===");
+        LOG.info("=== TESTE DE MATRÍCULA ===");
         // --- INÍCIO DAS EDIÇÕES AQUI (testarMatricula) ---
         // Não temos o objeto Cidade aqui, então usamos o getInfoMatricula sem cidade.
-        System.out.println(MatriculaValidator.getInfoMatricula(matricula));
+        LOG.info("{}", MatriculaValidator.getInfoMatricula(matricula));
         // --- FIM DAS EDIÇÕES AQUI (testarMatricula) ---
-        System.out.println("==========================\n");
+        LOG.info("==========================");
     }
 
     /**
@@ -661,67 +1163,159 @@ public class VeiculoDAO {
      * @param matriculas Array de matrículas para validar
      */
     public static void validarMatriculas(String... matriculas) {
-        System.out.println("=== VALIDAÇÃO DE MÚLTIPLAS MATRÍCULAS ===");
+        LOG.info("=== VALIDAÇÃO DE MÚLTIPLAS MATRÍCULAS ===");
         for (String matricula : matriculas) {
             boolean valida = MatriculaValidator.isMatriculaValida(matricula);
             String pais = MatriculaValidator.identificarPais(matricula);
-            System.out.printf("%-15s | %-8s | %s%n", matricula, valida ? "VÁLIDA" : "INVÁLIDA", pais);
+            LOG.info("{}", String.format("%-15s | %-8s | %s", matricula, valida ? "VÁLIDA" : "INVÁLIDA", pais));
         }
-        System.out.println("==========================================\n");
+        LOG.info("==========================================");
     }
 
     /**
      * Método para buscar veículos por país da matrícula
+     * Filtra na base de dados pela coluna indexada pais_matricula.
      * @param pais O país a filtrar (PORTUGAL, FRANÇA, ESPANHA)
      * @return Lista de veículos do país especificado
      */
     public List<Veiculo> buscarPorPaisMatricula(String pais) {
-        List<Veiculo> todosVeiculos = buscarTodos();
         List<Veiculo> veiculosPais = new ArrayList<>();
+        PaisMatricula paisMatricula = PaisMatricula.porNome(pais);
+        if (paisMatricula == null) {
+            LOG.aviso("País de matrícula desconhecido: {}", pais);
+            return veiculosPais;
+        }
 
-        for (Veiculo veiculo : todosVeiculos) {
-            String paisMatricula = MatriculaValidator.identificarPais(veiculo.getMatricula());
-            if (paisMatricula.equalsIgnoreCase(pais)) {
-                veiculosPais.add(veiculo);
+        String sql = SQL_SELECT_VEICULOS + "WHERE v.pais_matricula = ? ORDER BY v.id DESC";
+
+        try (MetricaMetodo.Medicao medicao = METRICA_POR_PAIS.medir();
+             Connection connection = ConexaoBD.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, paisMatricula.name());
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    veiculosPais.add(mapearVeiculo(rs));
+                }
             }
+            medicao.linhas(veiculosPais.size());
+        } catch (SQLException e) {
+            METRICA_POR_PAIS.erro();
+            LOG.erro("Erro ao buscar veiculos por país da matrícula: {}", e.getMessage(), e);
         }
 
-        System.out.println("Encontrados " + veiculosPais.size() + " veículos com matrículas de " + pais);
+        LOG.info("Encontrados {} veículos com matrículas de {}", veiculosPais.size(), pais);
         return veiculosPais;
     }
 
+    /**
+     * Busca uma página de veículos com matrícula do país indicado (paginação keyset, ID decrescente).
+     * @param pais          O país da matrícula.
+     * @param aposId        Cursor: ID do último veículo da página anterior, ou null para a primeira página.
+     * @param tamanhoPagina Número máximo de veículos a devolver.
+     * @return A página de veículos do país.
+     */
+    public Pagina<Veiculo> buscarPorPaisMatriculaPaginado(PaisMatricula pais, Integer aposId, int tamanhoPagina) {
+        if (tamanhoPagina <= 0) {
+            throw new IllegalArgumentException("O tamanho da página deve ser positivo: " + tamanhoPagina);
+        }
+        List<Object> parameters = new ArrayList<>(3);
+        parameters.add(pais.name());
+        return buscarPagina(FILTRO_PAIS, parameters, aposId, tamanhoPagina, METRICA_POR_PAIS_PAGINADO);
+    }
+
     /**
      * Método para obter estatísticas de matrículas por país
+     * A contagem é feita na base de dados (GROUP BY sobre a coluna indexada pais_matricula).
+     * @return As contagens por país, ou null em caso de erro.
      */
-    public void obterEstatisticasMatriculas() {
-        List<Veiculo> todosVeiculos = buscarTodos();
-        int portugal = 0, franca = 0, espanha = 0, invalidas = 0;
-
-        System.out.println("=== ESTATÍSTICAS DE MATRÍCULAS ===");
-        for (Veiculo veiculo : todosVeiculos) {
-            String pais = MatriculaValidator.identificarPais(veiculo.getMatricula());
-            switch (pais) {
-                case "PORTUGAL":
-                    portugal++;
-                    break;
-                case "FRANÇA":
-                    franca++;
-                    break;
-                case "ESPANHA":
-                    espanha++;
-                    break;
-                default:
-                    invalidas++;
-                    System.out.println("Matrícula inválida encontrada: " + veiculo.getMatricula() + " (ID: " + veiculo.getId() + ")");
+    public EstatisticasMatriculas obterEstatisticasMatriculas() {
+        String sql = "SELECT pais_matricula, COUNT(*) AS total FROM gsa_db.veiculo GROUP BY pais_matricula";
+        Map<PaisMatricula, Long> porPais = new EnumMap<>(PaisMatricula.class);
+        long invalidas = 0;
+        long porClassificar = 0;
+
+        try (MetricaMetodo.Medicao medicao = METRICA_ESTATISTICAS.medir();
+             Connection connection = ConexaoBD.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            int grupos = 0;
+            while (rs.next()) {
+                grupos++;
+                String codigo = rs.getString("pais_matricula");
+                long total = rs.getLong("total");
+                if (codigo == null) {
+                    porClassificar += total;
+                } else if (PAIS_MATRICULA_INVALIDA.equals(codigo)) {
+                    invalidas += total;
+                } else {
+                    PaisMatricula pais = PaisMatricula.porNome(codigo);
+                    if (pais != null) {
+                        porPais.merge(pais, total, Long::sum);
+                    } else {
+                        invalidas += total;
+                    }
+                }
+            }
+            medicao.linhas(grupos);
+        } catch (SQLException e) {
+            METRICA_ESTATISTICAS.erro();
+            LOG.erro("Erro ao obter estatísticas de matrículas: {}", e.getMessage(), e);
+            return null;
+        }
+        return new EstatisticasMatriculas(porPais, invalidas, porClassificar);
+    }
+
+    /**
+     * Preenche a coluna pais_matricula dos veículos que ainda não a têm (linhas anteriores à coluna).
+     * Lê e atualiza em lotes; quando já está tudo classificado custa apenas uma consulta ao índice.
+     * @return O número de veículos classificados.
+     */
+    public int sincronizarPaisMatricula() {
+        String sqlSelect = "SELECT id, matricula FROM gsa_db.veiculo WHERE pais_matricula IS NULL AND id > ? ORDER BY id LIMIT ?";
+        String sqlUpdate = "UPDATE gsa_db.veiculo SET pais_matricula = ? WHERE id = ?";
+        int classificados = 0;
+        int ultimoId = 0;
+
+        try (MetricaMetodo.Medicao medicao = METRICA_SINCRONIZAR.medir();
+             Connection connection = ConexaoBD.getConnection();
+             PreparedStatement select = connection.prepareStatement(sqlSelect);
+             PreparedStatement update = connection.prepareStatement(sqlUpdate)) {
+
+            while (true) {
+                select.setInt(1, ultimoId);
+                select.setInt(2, TAMANHO_LOTE_SINCRONIZACAO);
+                int lidos = 0;
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        ultimoId = rs.getInt("id");
+                        update.setString(1, codigoPaisMatricula(rs.getString("matricula")));
+                        update.setInt(2, ultimoId);
+                        update.addBatch();
+                        lidos++;
+                    }
+                }
+                if (lidos == 0) {
                     break;
+                }
+                update.executeBatch();
+                classificados += lidos;
+                medicao.linhas(classificados);
             }
+        } catch (SQLException e) {
+            METRICA_SINCRONIZAR.erro();
+            LOG.erro("Erro ao sincronizar o país das matrículas: {}", e.getMessage(), e);
+        }
+
+        if (classificados > 0) {
+            LOG.info("País da matrícula calculado para {} veículos.", classificados);
         }
+        return classificados;
+    }
 
-        System.out.println("Total de veículos: " + todosVeiculos.size());
-        System.out.println("Portugal: " + portugal);
-        System.out.println("França: " + franca);
-        System.out.println("Espanha: " + espanha);
-        System.out.println("Inválidas: " + invalidas);
-        System.out.println("==================================\n");
+    // Valor guardado em pais_matricula: nome da constante PaisMatricula, ou INVALIDA
+    private static String codigoPaisMatricula(String matricula) {
+        PaisMatricula pais = ClassificadorMatricula.classificar(matricula).getPais();
+        return pais != null ? pais.name() : PAIS_MATRICULA_INVALIDA;
     }
-}
\ No newline at end of file
+}
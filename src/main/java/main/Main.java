@@ -1,6 +1,9 @@
 package main;
 
-import controller.LoginController;
+import controller.Navegador;
+import service.Arranque;
+
+import javax.swing.SwingUtilities;
 
 // Declaração da classe principal da aplicação
 public class Main {
@@ -8,8 +11,12 @@ public class Main {
     // Método principal (main), ponto de entrada da aplicação Java
     // É o primeiro método a ser executado quando se corre o programa
     public static void main(String[] args) {
-        // Cria uma nova instância do LoginController
-        // Esta ação irá abrir automaticamente a janela de login da aplicação
-        new LoginController();
+        // Aquece em paralelo, em segundo plano, o pool de conexões, as caches de referência,
+        // o validador de matrículas e a primeira página de veículos enquanto o login é mostrado;
+        // no fim calcula o país das matrículas de veículos antigos que ainda não o tenham
+        Arranque.getInstance().iniciar();
+
+        // Mostra a janela de login no EDT; a partir daqui a navegação entre ecrãs é feita pelo Navegador
+        SwingUtilities.invokeLater(() -> Navegador.getInstance().mostrarLogin());
     }
 }
@@ -0,0 +1,38 @@
+package model;
+
+/**
+ * Formatos de matrícula reconhecidos pela aplicação, com o respetivo país.
+ */
+public enum FormatoMatricula {
+
+    PT_ATUAL(PaisMatricula.PORTUGAL, "AA-00-AA"),
+    PT_ANTIGO(PaisMatricula.PORTUGAL, "00-AA-00"),
+    PT_MUITO_ANTIGO(PaisMatricula.PORTUGAL, "AA-0000"),
+    FR_ATUAL(PaisMatricula.FRANCA, "AA-000-AA"),
+    FR_ANTIGO(PaisMatricula.FRANCA, "0000 AAA 00"),
+    ES_ATUAL(PaisMatricula.ESPANHA, "0000 AAA"),
+    ES_ANTIGO(PaisMatricula.ESPANHA, "A 0000 AA"),
+    INVALIDA(null, null);
+
+    private final PaisMatricula pais;
+    private final String padrao;
+
+    FormatoMatricula(PaisMatricula pais, String padrao) {
+        this.pais = pais;
+        this.padrao = padrao;
+    }
+
+    // País do formato, ou null para INVALIDA
+    public PaisMatricula getPais() {
+        return pais;
+    }
+
+    // Padrão de exemplo do formato (ex: "AA-00-AA"), ou null para INVALIDA
+    public String getPadrao() {
+        return padrao;
+    }
+
+    public boolean isValida() {
+        return this != INVALIDA;
+    }
+}
@@ -0,0 +1,44 @@
+package model;
+
+/**
+ * País de origem de uma matrícula, identificado pelo seu formato.
+ */
+public enum PaisMatricula {
+
+    PORTUGAL("PORTUGAL"),
+    FRANCA("FRANÇA"),
+    ESPANHA("ESPANHA");
+
+    private final String nome;
+
+    PaisMatricula(String nome) {
+        this.nome = nome;
+    }
+
+    // Nome usado nas mensagens e estatísticas (ex: "FRANÇA")
+    public String getNome() {
+        return nome;
+    }
+
+    /**
+     * Obtém o país pelo nome (ex: "FRANÇA") ou pelo nome da constante (ex: "FRANCA"), sem distinguir maiúsculas.
+     * @return O país correspondente, ou null se não for reconhecido.
+     */
+    public static PaisMatricula porNome(String nome) {
+        if (nome == null) {
+            return null;
+        }
+        String procurado = nome.trim();
+        for (PaisMatricula pais : values()) {
+            if (pais.nome.equalsIgnoreCase(procurado) || pais.name().equalsIgnoreCase(procurado)) {
+                return pais;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return nome;
+    }
+}
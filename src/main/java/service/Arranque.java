@@ -0,0 +1,186 @@
+package service;
+
+import dao.CidadeDAO;
+import dao.EstadoDAO;
+import dao.PerfilDAO;
+import dao.VeiculoDAO;
+import util.ClassificadorMatricula;
+import util.ConexaoBD;
+import util.Log;
+import util.Metricas;
+import util.PalavraPasse;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Classe singleton que coordena o arranque da aplicação. O Main mostra o login de imediato e,
+ * enquanto o utilizador escreve as credenciais, iniciar() aquece em paralelo o que o primeiro login
+ * e a primeira listagem pagariam a frio:
+ *
+ * - o pool de conexões (driver, ligação e autenticação no MySQL);
+ * - as tabelas de referência em cache (estados, cidades, perfis);
+ * - o MatriculaValidator/ClassificadorMatricula (chamadas repetidas até o JIT os compilar);
+ * - o mapeamento de veículos (a primeira página da listagem, que também aquece a base de dados).
+ *
+ * No fim, e só então, calibra o BCrypt (sozinho, para a medição não ser inflacionada pelas outras fases)
+ * e calcula o país das matrículas dos veículos antigos (escritas na base de dados).
+ *
+ * Cada fase é cronometrada e os marcos (login visível, primeira listagem mostrada) são medidos desde o
+ * início da JVM. Tudo vai para o log e para o ficheiro de métricas (gsa_arranque_milissegundos), para
+ * comparar o arranque de versão para versão.
+ */
+public final class Arranque {
+
+    private static final Log LOG = Log.de(Arranque.class);
+
+    private static final int NUMERO_THREADS = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    private static final int TAMANHO_PAGINA_AQUECIMENTO = 200; // O mesmo da primeira página da listagem
+    private static final int REPETICOES_VALIDADOR = 5_000;     // Suficiente para o JIT compilar o classificador
+    private static final String[] MATRICULAS_AQUECIMENTO = {
+            "AA-12-BB", "12-AB-34", "AB-1234", "AB-123-CD", "1234 ABC 75", "1234 BCD", "1234-BCD",
+            "M 1234 AB", "m-1234-ab", " ab-12-cd ", "INVALIDA", ""
+    };
+
+    /**
+     * Marcos do arranque, registados uma única vez (os seguintes são ignorados).
+     */
+    public enum Marco {
+        LOGIN_VISIVEL("login_visivel", "tempo até interativo"),
+        PRIMEIRA_LISTAGEM("primeira_listagem", "tempo até à primeira listagem");
+
+        private final String etapa;
+        private final String descricao;
+
+        Marco(String etapa, String descricao) {
+            this.etapa = etapa;
+            this.descricao = descricao;
+        }
+    }
+
+    private static final Arranque instance = new Arranque();
+
+    private final AtomicLongArray marcos = new AtomicLongArray(Marco.values().length); // Milissegundos desde o main; 0 = por registar
+    // Do início da JVM até ao main: obtido em segundo plano (o JMX custaria dezenas de ms antes do login)
+    private final CompletableFuture<Long> jvmAteMain = new CompletableFuture<>();
+    private volatile long inicioNanos;
+
+    private Arranque() {
+    }
+
+    public static Arranque getInstance() {
+        return instance;
+    }
+
+    /**
+     * Começa o aquecimento em segundo plano. Deve ser a primeira coisa do main (não bloqueia).
+     */
+    public void iniciar() {
+        inicioNanos = System.nanoTime();
+        long inicioMainMs = System.currentTimeMillis();
+
+        AtomicInteger contador = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(NUMERO_THREADS, r -> {
+            Thread t = new Thread(r, "gsa-arranque-" + contador.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        executor.execute(() -> {
+            long jvm = Math.max(0, inicioMainMs - ManagementFactory.getRuntimeMXBean().getStartTime());
+            registar("jvm_ate_main", jvm);
+            jvmAteMain.complete(jvm);
+        });
+
+        List<CompletableFuture<Void>> fases = new ArrayList<>();
+        fases.add(fase("pool", ConexaoBD::aquecerPool, executor));
+        fases.add(fase("estados", () -> new EstadoDAO().buscarTodos(), executor));
+        fases.add(fase("cidades", () -> new CidadeDAO().buscarTodos(), executor));
+        fases.add(fase("perfis", () -> new PerfilDAO().listarTodos(), executor));
+        fases.add(fase("validador", Arranque::aquecerValidador, executor));
+        fases.add(fase("mapeamento_veiculos", () -> new VeiculoDAO()
+                .filtrarVeiculosPaginado(null, null, null, null, TAMANHO_PAGINA_AQUECIMENTO), executor));
+
+        // A calibração e as escritas de manutenção só depois do aquecimento, para não competirem com ele
+        // pelo CPU e pelas conexões
+        CompletableFuture.allOf(fases.toArray(new CompletableFuture<?>[0]))
+                .thenRunAsync(() -> {
+                    long total = decorridoMs();
+                    registar("aquecimento", total);
+                    LOG.info("Aquecimento do arranque concluído em {} ms", total);
+                    executarFase("bcrypt", PalavraPasse::calibrar);
+                    new VeiculoDAO().sincronizarPaisMatricula();
+                }, executor)
+                .whenComplete((r, e) -> executor.shutdown());
+    }
+
+    /**
+     * Regista um marco do arranque (só a primeira vez conta). Pode ser chamado de qualquer thread.
+     */
+    public void marcar(Marco marco) {
+        if (inicioNanos == 0) {
+            return; // iniciar() não foi chamado (ex: benchmarks)
+        }
+        long ms = Math.max(1, decorridoMs());
+        if (marcos.compareAndSet(marco.ordinal(), 0, ms)) {
+            jvmAteMain.thenAccept(jvm -> {
+                registar(marco.etapa, jvm + ms);
+                LOG.info("Arranque: {} = {} ms desde o início da JVM ({} ms desde o main)", marco.descricao, jvm + ms, ms);
+            });
+        }
+    }
+
+    // --- Métodos auxiliares ---
+
+    private CompletableFuture<Void> fase(String nome, Runnable tarefa, ExecutorService executor) {
+        return CompletableFuture.runAsync(() -> executarFase(nome, tarefa), executor);
+    }
+
+    private static void executarFase(String nome, Runnable tarefa) {
+        long inicio = System.nanoTime();
+        try {
+            tarefa.run();
+        } catch (RuntimeException e) {
+            // Uma fase falhada não impede o arranque: o trabalho é feito a frio quando for preciso
+            LOG.aviso("Fase de arranque '{}' falhou: {}", nome, e.getMessage(), e);
+            return;
+        }
+        long duracao = (System.nanoTime() - inicio) / 1_000_000;
+        registar("aquecimento_" + nome, duracao);
+        LOG.debug("Fase de arranque '{}' concluída em {} ms", nome, duracao);
+    }
+
+    private static void aquecerValidador() {
+        int validas = 0;
+        for (int i = 0; i < REPETICOES_VALIDADOR; i++) {
+            for (String matricula : MATRICULAS_AQUECIMENTO) {
+                if (VeiculoDAO.MatriculaValidator.isMatriculaValida(matricula)) {
+                    validas++;
+                }
+                ClassificadorMatricula.chavePesquisa(matricula);
+            }
+        }
+        for (String matricula : MATRICULAS_AQUECIMENTO) {
+            VeiculoDAO.MatriculaValidator.formatarMatricula(matricula);
+            VeiculoDAO.MatriculaValidator.identificarPais(matricula);
+        }
+        if (validas == 0) {
+            // Nunca acontece; impede o JIT de descartar o ciclo por não ter efeito
+            LOG.aviso("Nenhuma matrícula de aquecimento reconhecida");
+        }
+    }
+
+    private long decorridoMs() {
+        return (System.nanoTime() - inicioNanos) / 1_000_000;
+    }
+
+    private static void registar(String etapa, long milissegundos) {
+        Metricas.getInstance().registarArranque(etapa, milissegundos);
+    }
+}
@@ -0,0 +1,82 @@
+package service;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Contexto de uma tarefa em segundo plano lançada pelo ExecutorTarefas.
+ * Permite aos DAOs registar o Statement em execução para que uma tarefa substituída
+ * (ex: novo clique em "Filtrar") possa abortar a query no servidor com Statement.cancel().
+ */
+public final class ContextoTarefa {
+
+    // Contexto da tarefa que está a correr na thread atual (null fora do ExecutorTarefas)
+    private static final ThreadLocal<ContextoTarefa> ATUAL = new ThreadLocal<>();
+
+    private volatile boolean cancelada;
+    private volatile Statement statementAtivo;
+
+    ContextoTarefa() {
+    }
+
+    /**
+     * Regista o Statement que a thread atual vai executar. Sem efeito fora de uma tarefa.
+     * Se a tarefa já tiver sido cancelada, o Statement é cancelado de imediato.
+     */
+    public static void registarStatement(Statement statement) {
+        ContextoTarefa contexto = ATUAL.get();
+        if (contexto == null) {
+            return;
+        }
+        contexto.statementAtivo = statement;
+        if (contexto.cancelada) {
+            cancelarSilenciosamente(statement);
+        }
+    }
+
+    /**
+     * Remove o registo do Statement depois de executado. Chamar num bloco finally.
+     */
+    public static void libertarStatement(Statement statement) {
+        ContextoTarefa contexto = ATUAL.get();
+        if (contexto != null && contexto.statementAtivo == statement) {
+            contexto.statementAtivo = null;
+        }
+    }
+
+    /**
+     * Indica se a tarefa da thread atual foi cancelada (false fora de uma tarefa).
+     */
+    public static boolean isAtualCancelada() {
+        ContextoTarefa contexto = ATUAL.get();
+        return contexto != null && contexto.cancelada;
+    }
+
+    public boolean isCancelada() {
+        return cancelada;
+    }
+
+    void cancelar() {
+        cancelada = true;
+        Statement statement = statementAtivo;
+        if (statement != null) {
+            cancelarSilenciosamente(statement);
+        }
+    }
+
+    void associarThreadAtual() {
+        ATUAL.set(this);
+    }
+
+    void desassociarThreadAtual() {
+        ATUAL.remove();
+    }
+
+    private static void cancelarSilenciosamente(Statement statement) {
+        try {
+            statement.cancel();
+        } catch (SQLException e) {
+            // O Statement pode já ter terminado ou sido fechado; nada a fazer
+        }
+    }
+}
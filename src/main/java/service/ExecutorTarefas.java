@@ -0,0 +1,207 @@
+package service;
+
+import util.Log;
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Classe singleton que executa chamadas bloqueantes (JDBC) fora do Event Dispatch Thread
+ * e entrega os resultados de volta ao EDT.
+ *
+ * As tarefas podem ser agrupadas por canal (ex: "listar-veiculos"):
+ * - um pedido com a mesma chave de um pedido ainda em curso no canal é juntado a esse pedido;
+ * - um pedido com chave diferente substitui o anterior, que é cancelado (Statement.cancel)
+ *   e cujo resultado é descartado.
+ */
+public final class ExecutorTarefas {
+
+    private static final Log LOG = Log.de(ExecutorTarefas.class);
+
+    /**
+     * Trabalho a executar em segundo plano.
+     */
+    @FunctionalInterface
+    public interface Tarefa<T> {
+        T executar(ContextoTarefa contexto) throws Exception;
+    }
+
+    private static final int NUMERO_THREADS = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    private static final int CAPACIDADE_FILA = 64;
+
+    private static final ExecutorTarefas instance = new ExecutorTarefas();
+
+    private final ThreadPoolExecutor executor;
+    private final Map<String, Execucao<?>> execucoesPorCanal = new HashMap<>();
+
+    private ExecutorTarefas() {
+        AtomicInteger contador = new AtomicInteger();
+        executor = new ThreadPoolExecutor(NUMERO_THREADS, NUMERO_THREADS, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(CAPACIDADE_FILA), r -> {
+            Thread t = new Thread(r, "gsa-tarefa-" + contador.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    public static ExecutorTarefas getInstance() {
+        return instance;
+    }
+
+    /**
+     * Executa uma tarefa sem canal (nunca é juntada nem substituída).
+     */
+    public <T> void executar(Tarefa<T> tarefa, Consumer<T> aoConcluir, Consumer<Exception> aoFalhar) {
+        executar(null, null, tarefa, aoConcluir, aoFalhar, null);
+    }
+
+    /**
+     * Executa uma tarefa em segundo plano.
+     *
+     * @param canal           Canal da tarefa (null para não juntar nem substituir).
+     * @param chave           Identidade do pedido dentro do canal (ex: os filtros); pedidos iguais são juntados.
+     * @param tarefa          Trabalho bloqueante a executar fora do EDT.
+     * @param aoConcluir      Chamado no EDT com o resultado (não é chamado se a tarefa for substituída).
+     * @param aoFalhar        Chamado no EDT com a exceção lançada pela tarefa (pode ser null).
+     * @param indicadorOcupado Chamado no EDT com true ao iniciar e false ao terminar o último pedido do canal (pode ser null).
+     */
+    public <T> void executar(String canal, Object chave, Tarefa<T> tarefa,
+                             Consumer<T> aoConcluir, Consumer<Exception> aoFalhar,
+                             Consumer<Boolean> indicadorOcupado) {
+        Execucao<T> execucao;
+        synchronized (this) {
+            Execucao<?> emCurso = canal != null ? execucoesPorCanal.get(canal) : null;
+            if (emCurso != null && Objects.equals(emCurso.chave, chave)) {
+                // Pedido duplicado: junta-se ao que já está em curso
+                @SuppressWarnings("unchecked")
+                Execucao<T> mesma = (Execucao<T>) emCurso;
+                mesma.adicionarCallbacks(aoConcluir, aoFalhar);
+                return;
+            }
+            if (emCurso != null) {
+                emCurso.contexto.cancelar(); // Pedido substituído: aborta a query em curso
+            }
+            execucao = new Execucao<>(canal, chave, indicadorOcupado);
+            execucao.adicionarCallbacks(aoConcluir, aoFalhar);
+            if (canal != null) {
+                execucoesPorCanal.put(canal, execucao);
+            }
+        }
+
+        if (indicadorOcupado != null) {
+            noEdt(() -> indicadorOcupado.accept(true));
+        }
+
+        try {
+            executor.execute(() -> correr(execucao, tarefa));
+        } catch (RejectedExecutionException e) {
+            terminar(execucao, null, new Exception("Demasiados pedidos em curso. Tente novamente.", e));
+        }
+    }
+
+    /**
+     * Cancela o pedido em curso num canal, se existir (ex: ao fechar a janela).
+     */
+    public void cancelar(String canal) {
+        Execucao<?> emCurso;
+        synchronized (this) {
+            emCurso = execucoesPorCanal.remove(canal);
+        }
+        if (emCurso != null) {
+            emCurso.contexto.cancelar();
+            if (emCurso.indicadorOcupado != null) {
+                noEdt(() -> emCurso.indicadorOcupado.accept(false));
+            }
+        }
+    }
+
+    private <T> void correr(Execucao<T> execucao, Tarefa<T> tarefa) {
+        if (execucao.contexto.isCancelada()) {
+            return; // Substituída enquanto esperava na fila
+        }
+        execucao.contexto.associarThreadAtual();
+        try {
+            T resultado = tarefa.executar(execucao.contexto);
+            terminar(execucao, resultado, null);
+        } catch (Exception e) {
+            terminar(execucao, null, e);
+        } finally {
+            execucao.contexto.desassociarThreadAtual();
+        }
+    }
+
+    private <T> void terminar(Execucao<T> execucao, T resultado, Exception erro) {
+        boolean eraAtual;
+        List<Consumer<T>> sucesso;
+        List<Consumer<Exception>> falha;
+        synchronized (this) {
+            eraAtual = execucao.canal == null || execucoesPorCanal.get(execucao.canal) == execucao;
+            if (execucao.canal != null && eraAtual) {
+                execucoesPorCanal.remove(execucao.canal);
+            }
+            sucesso = new ArrayList<>(execucao.aoConcluir);
+            falha = new ArrayList<>(execucao.aoFalhar);
+        }
+        if (!eraAtual || execucao.contexto.isCancelada()) {
+            return; // Resultado de um pedido substituído: descartado
+        }
+
+        noEdt(() -> {
+            if (execucao.indicadorOcupado != null) {
+                execucao.indicadorOcupado.accept(false);
+            }
+            if (erro == null) {
+                sucesso.forEach(c -> c.accept(resultado));
+            } else if (falha.isEmpty()) {
+                LOG.erro("Erro não tratado numa tarefa: {}", erro.getMessage(), erro);
+            } else {
+                falha.forEach(c -> c.accept(erro));
+            }
+        });
+    }
+
+    private static void noEdt(Runnable acao) {
+        if (SwingUtilities.isEventDispatchThread()) {
+            acao.run();
+        } else {
+            SwingUtilities.invokeLater(acao);
+        }
+    }
+
+    /**
+     * Pedido em curso e respetivos callbacks (vários, se foram juntados pedidos duplicados).
+     */
+    private static final class Execucao<T> {
+        private final String canal;
+        private final Object chave;
+        private final Consumer<Boolean> indicadorOcupado;
+        private final ContextoTarefa contexto = new ContextoTarefa();
+        private final List<Consumer<T>> aoConcluir = new ArrayList<>();
+        private final List<Consumer<Exception>> aoFalhar = new ArrayList<>();
+
+        private Execucao(String canal, Object chave, Consumer<Boolean> indicadorOcupado) {
+            this.canal = canal;
+            this.chave = chave;
+            this.indicadorOcupado = indicadorOcupado;
+        }
+
+        private void adicionarCallbacks(Consumer<T> sucesso, Consumer<Exception> falha) {
+            if (sucesso != null) {
+                aoConcluir.add(sucesso);
+            }
+            if (falha != null) {
+                aoFalhar.add(falha);
+            }
+        }
+    }
+}
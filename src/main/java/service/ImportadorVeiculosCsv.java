@@ -0,0 +1,437 @@
+package service;
+
+import dao.CidadeDAO;
+import dao.EstadoDAO;
+import dao.ResultadoLote;
+import dao.VeiculoDAO;
+import dao.VeiculoDAO.MatriculaValidator;
+import model.Cidade;
+import model.Estado;
+import model.Veiculo;
+import util.Log;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Importa veículos de um ficheiro CSV (marca, modelo, matricula, estado, preco, cidade) em streaming.
+ *
+ * O ficheiro passa por um pipeline com filas limitadas, pelo que a memória usada não depende
+ * do tamanho do ficheiro:
+ * leitura (thread que chama importar) -> validação (várias threads) -> inserção em lote (uma thread).
+ * Quando a inserção fica para trás, as filas enchem e a leitura espera (backpressure).
+ *
+ * Estado e cidade são resolvidos por mapas em memória carregados uma vez no início.
+ * O cabeçalho é opcional; se existir, define a ordem das colunas. O separador é ',' ou ';'
+ * (detetado na primeira linha) e os campos podem vir entre aspas, sem quebras de linha.
+ */
+public class ImportadorVeiculosCsv {
+
+    private static final Log LOG = Log.de(ImportadorVeiculosCsv.class);
+
+    private static final String[] COLUNAS = {"marca", "modelo", "matricula", "estado", "preco", "cidade"};
+    private static final String BOM = "\uFEFF"; // Marca de ordem de bytes (UTF-8 com BOM)
+    private static final int MAXIMO_REJEICOES_EM_MEMORIA = 200;
+
+    // Marcadores de fim de fila
+    private static final LinhaCsv FIM_LEITURA = new LinhaCsv(-1, null);
+    private static final LinhaValida FIM_VALIDACAO = new LinhaValida(-1, null, null);
+
+    private final VeiculoDAO veiculoDAO;
+    private final int numeroValidadores;
+    private final int tamanhoLote;
+
+    public ImportadorVeiculosCsv() {
+        this(new VeiculoDAO(), Math.max(1, Runtime.getRuntime().availableProcessors() - 1), VeiculoDAO.TAMANHO_LOTE_PADRAO);
+    }
+
+    /**
+     * @param veiculoDAO        DAO usado para as inserções em lote.
+     * @param numeroValidadores Número de threads de validação.
+     * @param tamanhoLote       Linhas por inserção em lote (e por transação).
+     */
+    public ImportadorVeiculosCsv(VeiculoDAO veiculoDAO, int numeroValidadores, int tamanhoLote) {
+        if (numeroValidadores <= 0 || tamanhoLote <= 0) {
+            throw new IllegalArgumentException("O número de validadores e o tamanho do lote devem ser positivos.");
+        }
+        this.veiculoDAO = veiculoDAO;
+        this.numeroValidadores = numeroValidadores;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    /**
+     * Importa um ficheiro CSV (UTF-8) e escreve as linhas rejeitadas num relatório CSV.
+     *
+     * @param ficheiro           O ficheiro a importar.
+     * @param relatorioRejeicoes Ficheiro onde escrever as rejeições (linha;motivo;conteúdo), ou null.
+     */
+    public RelatorioImportacao importar(Path ficheiro, Path relatorioRejeicoes) throws IOException {
+        try (Reader reader = Files.newBufferedReader(ficheiro, StandardCharsets.UTF_8);
+             Writer rejeicoes = relatorioRejeicoes != null
+                     ? Files.newBufferedWriter(relatorioRejeicoes, StandardCharsets.UTF_8)
+                     : Writer.nullWriter()) {
+            return importar(reader, rejeicoes);
+        }
+    }
+
+    /**
+     * Importa veículos a partir de um Reader com conteúdo CSV.
+     * Se for chamado numa tarefa do ExecutorTarefas, pára de ler quando a tarefa é cancelada.
+     *
+     * @param reader    O conteúdo CSV.
+     * @param rejeicoes Destino do relatório de rejeições (linha;motivo;conteúdo).
+     */
+    public RelatorioImportacao importar(Reader reader, Writer rejeicoes) throws IOException {
+        long inicio = System.currentTimeMillis();
+        Importacao importacao = new Importacao(rejeicoes);
+
+        AtomicInteger contador = new AtomicInteger();
+        ExecutorService threads = Executors.newFixedThreadPool(numeroValidadores + 1, r -> {
+            Thread t = new Thread(r, "gsa-importacao-" + contador.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        boolean cancelada = false;
+        try {
+            List<Future<?>> etapas = new ArrayList<>();
+            for (int i = 0; i < numeroValidadores; i++) {
+                etapas.add(threads.submit(importacao::validar));
+            }
+            etapas.add(threads.submit(importacao::inserir));
+
+            try {
+                cancelada = importacao.ler(new BufferedReader(reader));
+            } finally {
+                // Termina os validadores mesmo que a leitura falhe
+                for (int i = 0; i < numeroValidadores; i++) {
+                    importacao.entrada.put(FIM_LEITURA);
+                }
+                for (Future<?> etapa : etapas) {
+                    etapa.get();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Importação interrompida.", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Erro no pipeline de importação: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            threads.shutdownNow();
+            rejeicoes.flush();
+        }
+
+        RelatorioImportacao relatorio = new RelatorioImportacao(importacao.linhasLidas.get(), importacao.inseridas.get(),
+                importacao.rejeitadas.get(), System.currentTimeMillis() - inicio, cancelada, importacao.primeirasRejeicoes);
+        LOG.info("{}", relatorio);
+        return relatorio;
+    }
+
+    /**
+     * Estado partilhado de uma importação (filas, mapas de referência, contadores).
+     */
+    private final class Importacao {
+        private final BlockingQueue<LinhaCsv> entrada = new ArrayBlockingQueue<>(tamanhoLote * 2);
+        private final BlockingQueue<LinhaValida> saida = new ArrayBlockingQueue<>(tamanhoLote * 2);
+
+        private final Map<String, Estado> estados = new HashMap<>();
+        private final Map<String, Cidade> cidades = new HashMap<>();
+        // Definidos pela leitura antes de a primeira linha entrar na fila (a fila garante a visibilidade)
+        private int[] indiceColunas = {0, 1, 2, 3, 4, 5};
+        private char separador = ',';
+
+        private final AtomicLong linhasLidas = new AtomicLong();
+        private final AtomicLong inseridas = new AtomicLong();
+        private final AtomicLong rejeitadas = new AtomicLong();
+        private final List<RelatorioImportacao.Rejeicao> primeirasRejeicoes = new ArrayList<>();
+        private final Writer rejeicoes;
+
+        private Importacao(Writer rejeicoes) {
+            this.rejeicoes = rejeicoes;
+            // Uma leitura de cada tabela de referência para toda a importação
+            for (Estado estado : new EstadoDAO().buscarTodos()) {
+                estados.put(normalizar(estado.getDescricao()), estado);
+            }
+            for (Cidade cidade : new CidadeDAO().buscarTodos()) {
+                cidades.put(normalizar(cidade.getDescricao()), cidade);
+            }
+        }
+
+        // Etapa 1: lê o ficheiro linha a linha; devolve true se a tarefa foi cancelada
+        private boolean ler(BufferedReader reader) throws IOException, InterruptedException {
+            String linha;
+            long numero = 0;
+            boolean primeira = true;
+            while ((linha = reader.readLine()) != null) {
+                numero++;
+                if (ContextoTarefa.isAtualCancelada()) {
+                    return true;
+                }
+                if (numero == 1 && linha.startsWith(BOM)) {
+                    linha = linha.substring(1); // Ficheiros guardados pelo Excel ("CSV UTF-8") começam com BOM
+                }
+                if (linha.trim().isEmpty()) {
+                    continue;
+                }
+                if (primeira) {
+                    primeira = false;
+                    separador = linha.indexOf(';') >= 0 ? ';' : ',';
+                    if (lerCabecalho(linha)) {
+                        continue;
+                    }
+                }
+                linhasLidas.incrementAndGet();
+                entrada.put(new LinhaCsv(numero, linha)); // Bloqueia se os validadores estiverem atrasados
+            }
+            return false;
+        }
+
+        // Se a linha for um cabeçalho, usa-o para saber a posição de cada coluna
+        private boolean lerCabecalho(String linha) throws IOException {
+            List<String> campos = dividirLinha(linha, separador);
+            int[] indices = new int[COLUNAS.length];
+            for (int c = 0; c < COLUNAS.length; c++) {
+                indices[c] = -1;
+                for (int i = 0; i < campos.size(); i++) {
+                    if (removerAcentos(normalizar(campos.get(i))).equals(COLUNAS[c])) {
+                        indices[c] = i;
+                    }
+                }
+            }
+            if (indices[2] < 0) {
+                return false; // Sem coluna "matricula": é uma linha de dados
+            }
+            for (int c = 0; c < COLUNAS.length; c++) {
+                if (indices[c] < 0) {
+                    throw new IOException("Coluna obrigatória em falta no cabeçalho: " + COLUNAS[c]);
+                }
+            }
+            indiceColunas = indices;
+            return true;
+        }
+
+        // Etapa 2: converte e valida as linhas (várias threads em paralelo)
+        private void validar() {
+            try {
+                while (true) {
+                    LinhaCsv linha = entrada.take();
+                    if (linha == FIM_LEITURA) {
+                        break;
+                    }
+                    try {
+                        String erro = converter(linha);
+                        if (erro != null) {
+                            rejeitar(linha.numero, linha.texto, erro);
+                        }
+                    } catch (RuntimeException e) {
+                        rejeitar(linha.numero, linha.texto, "Erro inesperado: " + e.getMessage());
+                    }
+                }
+                saida.put(FIM_VALIDACAO);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        // Devolve a mensagem de erro, ou null se a linha foi enviada para inserção
+        private String converter(LinhaCsv linha) throws InterruptedException {
+            List<String> campos = dividirLinha(linha.texto, separador);
+            int maiorIndice = 0;
+            for (int indice : indiceColunas) {
+                maiorIndice = Math.max(maiorIndice, indice);
+            }
+            if (campos.size() <= maiorIndice) {
+                return "Número de colunas insuficiente (" + campos.size() + ")";
+            }
+
+            String marca = campos.get(indiceColunas[0]).trim();
+            String modelo = campos.get(indiceColunas[1]).trim();
+            String matricula = campos.get(indiceColunas[2]).trim();
+            if (marca.isEmpty() || modelo.isEmpty() || matricula.isEmpty()) {
+                return "Marca, modelo e matrícula são obrigatórios";
+            }
+
+            Estado estado = estados.get(normalizar(campos.get(indiceColunas[3])));
+            if (estado == null) {
+                return "Estado desconhecido: " + campos.get(indiceColunas[3]).trim();
+            }
+            Cidade cidade = cidades.get(normalizar(campos.get(indiceColunas[5])));
+            if (cidade == null) {
+                return "Cidade desconhecida: " + campos.get(indiceColunas[5]).trim();
+            }
+
+            double preco;
+            try {
+                String textoPreco = campos.get(indiceColunas[4]).trim();
+                preco = Double.parseDouble(textoPreco.indexOf('.') < 0 ? textoPreco.replace(',', '.') : textoPreco);
+            } catch (NumberFormatException e) {
+                return "Preço inválido: " + campos.get(indiceColunas[4]).trim();
+            }
+            if (preco < 0) {
+                return "Preço negativo: " + preco;
+            }
+
+            if (!MatriculaValidator.isMatriculaValidaPorPais(matricula, cidade)) {
+                return "Matrícula inválida para " + cidade.getDescricao() + ": " + matricula
+                        + " (" + MatriculaValidator.identificarPais(matricula) + ")";
+            }
+
+            saida.put(new LinhaValida(linha.numero, linha.texto,
+                    new Veiculo(marca, modelo, matricula, estado, preco, cidade))); // Bloqueia se a inserção estiver atrasada
+            return null;
+        }
+
+        // Etapa 3: junta as linhas válidas em lotes e insere-os (uma thread, uma conexão de cada vez)
+        private void inserir() {
+            List<LinhaValida> lote = new ArrayList<>(tamanhoLote);
+            int validadoresAtivos = numeroValidadores;
+            try {
+                while (validadoresAtivos > 0) {
+                    LinhaValida linha = saida.take();
+                    if (linha == FIM_VALIDACAO) {
+                        validadoresAtivos--;
+                        continue;
+                    }
+                    lote.add(linha);
+                    if (lote.size() == tamanhoLote) {
+                        inserirLote(lote);
+                        lote.clear();
+                    }
+                }
+                if (!lote.isEmpty()) {
+                    inserirLote(lote);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void inserirLote(List<LinhaValida> lote) {
+            List<Veiculo> veiculos = new ArrayList<>(lote.size());
+            for (LinhaValida linha : lote) {
+                veiculos.add(linha.veiculo);
+            }
+            ResultadoLote resultado;
+            try {
+                resultado = veiculoDAO.inserirVeiculos(veiculos, tamanhoLote);
+            } catch (RuntimeException e) {
+                // Esta thread não pode morrer: os validadores ficariam bloqueados na fila de saída
+                for (LinhaValida linha : lote) {
+                    rejeitar(linha.numero, linha.texto, "Erro ao inserir: " + e.getMessage());
+                }
+                return;
+            }
+            for (ResultadoLote.Linha linha : resultado.getLinhas()) {
+                if (linha.isGravado()) {
+                    inseridas.incrementAndGet();
+                } else {
+                    LinhaValida origem = lote.get(linha.getIndice());
+                    rejeitar(origem.numero, origem.texto, linha.getEstado() + ": " + linha.getMensagem());
+                }
+            }
+        }
+
+        private void rejeitar(long numeroLinha, String conteudo, String motivo) {
+            rejeitadas.incrementAndGet();
+            synchronized (this) {
+                if (primeirasRejeicoes.size() < MAXIMO_REJEICOES_EM_MEMORIA) {
+                    primeirasRejeicoes.add(new RelatorioImportacao.Rejeicao(numeroLinha, conteudo, motivo));
+                }
+                try {
+                    rejeicoes.write(numeroLinha + ";" + citar(motivo) + ";" + citar(conteudo) + System.lineSeparator());
+                } catch (IOException e) {
+                    LOG.aviso("Erro ao escrever o relatório de rejeições: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    // --- Métodos auxiliares ---
+
+    // Divide uma linha CSV, respeitando campos entre aspas ("" dentro de aspas é uma aspa literal)
+    static List<String> dividirLinha(String linha, char separador) {
+        List<String> campos = new ArrayList<>(COLUNAS.length);
+        StringBuilder campo = new StringBuilder();
+        boolean entreAspas = false;
+        for (int i = 0; i < linha.length(); i++) {
+            char c = linha.charAt(i);
+            if (entreAspas) {
+                if (c == '"') {
+                    if (i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                        campo.append('"');
+                        i++;
+                    } else {
+                        entreAspas = false;
+                    }
+                } else {
+                    campo.append(c);
+                }
+            } else if (c == '"') {
+                entreAspas = true;
+            } else if (c == separador) {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+
+    private static String citar(String texto) {
+        return "\"" + (texto == null ? "" : texto.replace("\"", "\"\"")) + "\"";
+    }
+
+    private static String normalizar(String texto) {
+        return texto == null ? "" : texto.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // "matrícula" -> "matricula", "preço" -> "preco" (nomes das colunas do cabeçalho)
+    private static String removerAcentos(String texto) {
+        return Normalizer.normalize(texto, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+    }
+
+    // Linha lida do ficheiro
+    private static final class LinhaCsv {
+        private final long numero;
+        private final String texto;
+
+        private LinhaCsv(long numero, String texto) {
+            this.numero = numero;
+            this.texto = texto;
+        }
+    }
+
+    // Linha validada, pronta a inserir
+    private static final class LinhaValida {
+        private final long numero;
+        private final String texto;
+        private final Veiculo veiculo;
+
+        private LinhaValida(long numero, String texto, Veiculo veiculo) {
+            this.numero = numero;
+            this.texto = texto;
+            this.veiculo = veiculo;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package service;
+
+import model.Veiculo;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Classe singleton que avisa as listagens abertas de cada veículo gravado (inserido, atualizado ou removido),
+ * para que apliquem a alteração só à linha afetada em vez de recarregarem todos os veículos.
+ * Os avisos são feitos pelos controladores, no EDT, depois de o DAO confirmar a gravação.
+ */
+public final class NotificadorVeiculos {
+
+    /**
+     * Recebe as alterações aos veículos (sempre no EDT).
+     */
+    public interface Ouvinte {
+        void veiculoInserido(Veiculo veiculo);
+
+        void veiculoAtualizado(Veiculo veiculo);
+
+        void veiculoRemovido(int id);
+    }
+
+    private static final NotificadorVeiculos instance = new NotificadorVeiculos();
+
+    private final List<Ouvinte> ouvintes = new CopyOnWriteArrayList<>();
+
+    private NotificadorVeiculos() {
+    }
+
+    public static NotificadorVeiculos getInstance() {
+        return instance;
+    }
+
+    public void registar(Ouvinte ouvinte) {
+        ouvintes.add(ouvinte);
+    }
+
+    public void remover(Ouvinte ouvinte) {
+        ouvintes.remove(ouvinte);
+    }
+
+    public void notificarInserido(Veiculo veiculo) {
+        for (Ouvinte ouvinte : ouvintes) {
+            ouvinte.veiculoInserido(veiculo);
+        }
+    }
+
+    public void notificarAtualizado(Veiculo veiculo) {
+        for (Ouvinte ouvinte : ouvintes) {
+            ouvinte.veiculoAtualizado(veiculo);
+        }
+    }
+
+    public void notificarRemovido(int id) {
+        for (Ouvinte ouvinte : ouvintes) {
+            ouvinte.veiculoRemovido(id);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package service;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado de uma importação de veículos a partir de CSV.
+ * Guarda apenas as primeiras rejeições; a lista completa é escrita no relatório de rejeições.
+ */
+public class RelatorioImportacao {
+
+    /**
+     * Linha do CSV que não foi importada.
+     */
+    public static class Rejeicao {
+        private final long numeroLinha;
+        private final String conteudo;
+        private final String motivo;
+
+        public Rejeicao(long numeroLinha, String conteudo, String motivo) {
+            this.numeroLinha = numeroLinha;
+            this.conteudo = conteudo;
+            this.motivo = motivo;
+        }
+
+        public long getNumeroLinha() { return numeroLinha; }
+        public String getConteudo() { return conteudo; }
+        public String getMotivo() { return motivo; }
+
+        @Override
+        public String toString() {
+            return "Linha " + numeroLinha + ": " + motivo;
+        }
+    }
+
+    private final long linhasLidas;
+    private final long inseridas;
+    private final long rejeitadas;
+    private final long duracaoMs;
+    private final boolean cancelada;
+    private final List<Rejeicao> primeirasRejeicoes;
+
+    public RelatorioImportacao(long linhasLidas, long inseridas, long rejeitadas, long duracaoMs,
+                               boolean cancelada, List<Rejeicao> primeirasRejeicoes) {
+        this.linhasLidas = linhasLidas;
+        this.inseridas = inseridas;
+        this.rejeitadas = rejeitadas;
+        this.duracaoMs = duracaoMs;
+        this.cancelada = cancelada;
+        this.primeirasRejeicoes = Collections.unmodifiableList(primeirasRejeicoes);
+    }
+
+    // Linhas de dados lidas do ficheiro (sem o cabeçalho e linhas em branco)
+    public long getLinhasLidas() { return linhasLidas; }
+    public long getInseridas() { return inseridas; }
+    public long getRejeitadas() { return rejeitadas; }
+    public long getDuracaoMs() { return duracaoMs; }
+    public boolean isCancelada() { return cancelada; }
+    public List<Rejeicao> getPrimeirasRejeicoes() { return primeirasRejeicoes; }
+
+    // Débito da importação completa (leitura, validação e inserção)
+    public double getLinhasPorSegundo() {
+        return duracaoMs == 0 ? linhasLidas * 1000.0 : linhasLidas * 1000.0 / duracaoMs;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Importação[lidas=%d, inseridas=%d, rejeitadas=%d, %d ms, %.0f linhas/s%s]",
+                linhasLidas, inseridas, rejeitadas, duracaoMs, getLinhasPorSegundo(), cancelada ? ", cancelada" : "");
+    }
+}
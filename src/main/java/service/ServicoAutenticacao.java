@@ -0,0 +1,141 @@
+package service;
+
+import dao.PerfilDAO;
+import dao.UtilizadorDAO;
+import model.Utilizador;
+import util.Log;
+import util.PalavraPasse;
+
+import javax.swing.SwingUtilities;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Classe singleton que executa as autenticações (consulta + BCrypt) num executor próprio e limitado,
+ * separado do ExecutorTarefas, para que uma rajada de tentativas de login não ocupe todos os núcleos
+ * nem atrase as listagens.
+ *
+ * Limites:
+ * - global: no máximo NUMERO_THREADS verificações BCrypt em simultâneo e CAPACIDADE_FILA à espera;
+ * - por conta: uma tentativa em curso por email; as restantes são recusadas de imediato.
+ *
+ * Depois de um login bem-sucedido, se o hash guardado tiver um custo diferente do calibrado
+ * (ver PalavraPasse), é recalculado em segundo plano com a palavra-passe acabada de verificar.
+ */
+public final class ServicoAutenticacao {
+
+    private static final Log LOG = Log.de(ServicoAutenticacao.class);
+
+    private static final int NUMERO_THREADS = Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() / 2));
+    private static final int CAPACIDADE_FILA = 8;
+    private static final int MAXIMO_POR_CONTA = 1;
+
+    private static final ServicoAutenticacao instance = new ServicoAutenticacao();
+
+    private final ThreadPoolExecutor executor;
+    private final ConcurrentHashMap<String, Integer> tentativasPorConta = new ConcurrentHashMap<>();
+    private final PerfilDAO perfilDAO = new PerfilDAO();
+    private final UtilizadorDAO utilizadorDAO = new UtilizadorDAO();
+
+    private ServicoAutenticacao() {
+        AtomicInteger contador = new AtomicInteger();
+        executor = new ThreadPoolExecutor(NUMERO_THREADS, NUMERO_THREADS, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(CAPACIDADE_FILA), r -> {
+            Thread t = new Thread(r, "gsa-autenticacao-" + contador.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    public static ServicoAutenticacao getInstance() {
+        return instance;
+    }
+
+    /**
+     * Verifica as credenciais fora do EDT. Em caso de sucesso o utilizador fica na UserSession.
+     *
+     * @param email      Email do utilizador.
+     * @param senha      Palavra-passe em texto simples.
+     * @param aoConcluir Chamado no EDT com o utilizador autenticado, ou null se as credenciais forem inválidas.
+     * @param aoFalhar   Chamado no EDT se a tentativa for recusada pelos limites ou falhar.
+     */
+    public void autenticar(String email, String senha, Consumer<Utilizador> aoConcluir, Consumer<Exception> aoFalhar) {
+        String conta = email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+        if (!reservarConta(conta)) {
+            noEdt(() -> aoFalhar.accept(new Exception("Já existe uma tentativa de login em curso para esta conta.")));
+            return;
+        }
+
+        try {
+            executor.execute(() -> {
+                Utilizador utilizador;
+                try {
+                    utilizador = perfilDAO.buscarPorCredenciais(email, senha);
+                } catch (RuntimeException e) {
+                    noEdt(() -> aoFalhar.accept(e));
+                    return;
+                } finally {
+                    libertarConta(conta);
+                }
+                noEdt(() -> aoConcluir.accept(utilizador));
+                if (utilizador != null) {
+                    agendarRecalculo(utilizador, senha);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            libertarConta(conta);
+            noEdt(() -> aoFalhar.accept(new Exception("Demasiadas tentativas de login em curso. Tente novamente.", e)));
+        }
+    }
+
+    // Recalcula o hash com o custo calibrado, sem atrasar a resposta ao login
+    private void agendarRecalculo(Utilizador utilizador, String senha) {
+        String hashAtual = utilizador.getPalavraChave();
+        if (!PalavraPasse.precisaRecalcular(hashAtual)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                String hashNovo = PalavraPasse.gerarHash(senha);
+                if (utilizadorDAO.atualizarHashPalavraPasse(utilizador.getId(), hashAtual, hashNovo)) {
+                    LOG.info("Hash de {} recalculado de custo {} para {}.", utilizador.getUtilizador(),
+                            PalavraPasse.custoDe(hashAtual), PalavraPasse.custoDe(hashNovo));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Executor ocupado: o hash é recalculado num próximo login
+        }
+    }
+
+    private boolean reservarConta(String conta) {
+        boolean[] reservada = {false};
+        tentativasPorConta.compute(conta, (chave, emCurso) -> {
+            int atual = emCurso == null ? 0 : emCurso;
+            if (atual >= MAXIMO_POR_CONTA) {
+                return emCurso;
+            }
+            reservada[0] = true;
+            return atual + 1;
+        });
+        return reservada[0];
+    }
+
+    private void libertarConta(String conta) {
+        tentativasPorConta.computeIfPresent(conta, (chave, emCurso) -> emCurso <= 1 ? null : emCurso - 1);
+    }
+
+    private static void noEdt(Runnable acao) {
+        if (SwingUtilities.isEventDispatchThread()) {
+            acao.run();
+        } else {
+            SwingUtilities.invokeLater(acao);
+        }
+    }
+}
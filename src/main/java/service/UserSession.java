@@ -2,12 +2,15 @@ package service;
 
 import model.Utilizador;
 import model.Perfil;
+import util.Log;
 
 /**
  * Classe singleton para gerir a sessão do utilizador logado na aplicação.
  * Armazena o objeto Utilizador e o seu Perfil.
  */
 public class UserSession {
+
+    private static final Log LOG = Log.de(UserSession.class);
     private static UserSession instance;
     private Utilizador utilizador;
     private Perfil perfil;
@@ -38,7 +41,8 @@ public class UserSession {
     public void setLoggedInUser(Utilizador utilizador, Perfil perfil) {
         this.utilizador = utilizador;
         this.perfil = perfil;
-        System.out.println("UserSession: Utilizador logado: " + (utilizador != null ? utilizador.getUtilizador() : "N/A") + ", Perfil: " + (perfil != null ? perfil.getDescricao() : "N/A"));
+        LOG.info("Utilizador logado: {}, Perfil: {}", utilizador != null ? utilizador.getUtilizador() : "N/A",
+                perfil != null ? perfil.getDescricao() : "N/A");
     }
 
     /**
@@ -48,7 +52,7 @@ public class UserSession {
     public void cleanUserSession() { // MÉTODO ADICIONADO/CORRIGIDO
         this.utilizador = null;
         this.perfil = null;
-        System.out.println("UserSession: Sessão do utilizador limpa (cleanUserSession).");
+        LOG.info("Sessão do utilizador limpa (cleanUserSession).");
     }
 
     /**
@@ -58,7 +62,7 @@ public class UserSession {
      */
     public void logout() {
         this.cleanUserSession(); // Chama o método cleanUserSession para limpar a sessão
-        System.out.println("UserSession: Sessão do utilizador limpa (logout).");
+        LOG.info("Sessão do utilizador limpa (logout).");
     }
 
     /**
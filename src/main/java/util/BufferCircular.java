@@ -0,0 +1,77 @@
+package util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fila circular limitada, sem locks, para vários produtores e um único consumidor (usada pelo Log).
+ * Cada posição tem um número de sequência: o produtor reserva uma posição com um CAS na cauda e
+ * publica o elemento avançando a sequência dessa posição; o consumidor só lê posições publicadas.
+ * Com a fila cheia, oferecer devolve false em vez de esperar (quem regista nunca fica bloqueado).
+ *
+ * @param <T> Tipo dos elementos.
+ */
+final class BufferCircular<T> {
+
+    private final int mascara;
+    private final Object[] elementos;
+    private final AtomicLongArray sequencias;
+    private final AtomicLong cauda = new AtomicLong(); // Próxima posição a reservar (produtores)
+    private long cabeca;                               // Próxima posição a ler (só o consumidor)
+
+    /**
+     * @param capacidade Número de posições (arredondado para a potência de 2 seguinte).
+     */
+    BufferCircular(int capacidade) {
+        int tamanho = Integer.highestOneBit(Math.max(2, capacidade - 1)) << 1;
+        this.mascara = tamanho - 1;
+        this.elementos = new Object[tamanho];
+        this.sequencias = new AtomicLongArray(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            sequencias.set(i, i);
+        }
+    }
+
+    /**
+     * Acrescenta um elemento; pode ser chamado por qualquer thread.
+     *
+     * @return false se a fila estiver cheia (o elemento não é guardado).
+     */
+    boolean oferecer(T elemento) {
+        long posicao = cauda.get();
+        while (true) {
+            int indice = (int) (posicao & mascara);
+            long diferenca = sequencias.get(indice) - posicao;
+            if (diferenca == 0) {
+                if (cauda.compareAndSet(posicao, posicao + 1)) {
+                    elementos[indice] = elemento;
+                    sequencias.lazySet(indice, posicao + 1); // Publica: visível ao consumidor a partir daqui
+                    return true;
+                }
+                posicao = cauda.get();
+            } else if (diferenca < 0) {
+                return false; // A posição ainda tem um elemento por ler: cheia
+            } else {
+                posicao = cauda.get(); // Outro produtor reservou esta posição
+            }
+        }
+    }
+
+    /**
+     * Retira o elemento seguinte; só pode ser chamado pela thread consumidora.
+     *
+     * @return O elemento, ou null se a fila estiver vazia.
+     */
+    @SuppressWarnings("unchecked")
+    T retirar() {
+        int indice = (int) (cabeca & mascara);
+        if (sequencias.get(indice) != cabeca + 1) {
+            return null; // Vazia, ou o produtor ainda não publicou
+        }
+        T elemento = (T) elementos[indice];
+        elementos[indice] = null;
+        sequencias.lazySet(indice, cabeca + elementos.length); // Livre para a próxima volta
+        cabeca++;
+        return elemento;
+    }
+}
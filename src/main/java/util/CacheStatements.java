@@ -0,0 +1,221 @@
+package util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache LRU de PreparedStatements de uma conexão física do pool.
+ * Os DAOs continuam a chamar prepareStatement(sql) e close() em try-with-resources: o proxy devolvido
+ * não fecha o statement, apenas limpa os parâmetros e devolve-o à cache, pelo que o mesmo SQL
+ * (ex: as variantes pré-compiladas do VeiculoDAO) só é preparado no servidor uma vez por conexão.
+ *
+ * Se o mesmo SQL já estiver em uso nesta conexão, é preparado um statement avulso, fechado no close().
+ * Os contadores são partilhados por todas as conexões do pool.
+ */
+final class CacheStatements {
+
+    /**
+     * Contadores partilhados pelas caches de todas as conexões do pool.
+     */
+    static final class Contadores {
+        final AtomicLong reutilizados = new AtomicLong();
+        final AtomicLong preparados = new AtomicLong();
+        final AtomicLong despejados = new AtomicLong();
+    }
+
+    private final int capacidade;
+    private final Contadores contadores;
+    private final LinkedHashMap<String, Entrada> entradas = new LinkedHashMap<>(16, 0.75f, true); // Ordem de acesso
+
+    CacheStatements(int capacidade, Contadores contadores) {
+        this.capacidade = capacidade;
+        this.contadores = contadores;
+    }
+
+    /**
+     * Obtém um statement para o SQL dado, da cache ou preparado agora.
+     *
+     * @param real           Conexão física.
+     * @param logica         Proxy da conexão emprestada (devolvido por getConnection() do statement).
+     * @param sql            SQL do statement.
+     * @param chavesGeradas  Statement.RETURN_GENERATED_KEYS ou Statement.NO_GENERATED_KEYS.
+     * @param aoFalharLigacao Chamado se o statement lançar um erro de conexão.
+     */
+    synchronized PreparedStatement obter(Connection real, Connection logica, String sql, int chavesGeradas,
+                                         Runnable aoFalharLigacao) throws SQLException {
+        String chave = chavesGeradas == Statement.RETURN_GENERATED_KEYS ? "K:" + sql : sql;
+        Entrada entrada = entradas.get(chave);
+        if (entrada != null && !entrada.emUso) {
+            contadores.reutilizados.incrementAndGet();
+        } else {
+            PreparedStatement ps = real.prepareStatement(sql, chavesGeradas);
+            contadores.preparados.incrementAndGet();
+            if (entrada != null || capacidade <= 0) {
+                // Já em uso nesta conexão (ou cache desligada): statement avulso
+                entrada = new Entrada(ps);
+                entrada.removida = true;
+            } else {
+                entrada = new Entrada(ps);
+                entradas.put(chave, entrada);
+                despejarExcedentes();
+            }
+        }
+        entrada.emUso = true;
+        return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                new Emprestimo(this, entrada, logica, aoFalharLigacao));
+    }
+
+    /**
+     * Fecha todos os statements (ao descartar a conexão física, ver PoolConexoes.descartar).
+     */
+    synchronized void fecharTodos() {
+        for (Entrada entrada : entradas.values()) {
+            entrada.removida = true; // Se ainda estiver emprestado, a devolução já não o põe na cache
+            fecharSilenciosamente(entrada.real);
+        }
+        entradas.clear();
+    }
+
+    private synchronized void devolver(Entrada entrada) {
+        entrada.emUso = false;
+        if (entrada.removida) {
+            fecharSilenciosamente(entrada.real);
+            return;
+        }
+        try {
+            // Um ResultSet que o DAO não fechou ficaria aberto enquanto o statement estivesse na cache
+            ResultSet aberto = entrada.real.getResultSet();
+            if (aberto != null) {
+                aberto.close();
+            }
+            entrada.real.clearParameters();
+            entrada.real.clearBatch();
+            entrada.real.clearWarnings();
+        } catch (SQLException e) {
+            // Statement inutilizável: sai da cache
+            entradas.values().remove(entrada);
+            fecharSilenciosamente(entrada.real);
+        }
+    }
+
+    // Remove os menos usados recentemente acima da capacidade; os que estão em uso fecham na devolução
+    private void despejarExcedentes() {
+        List<Entrada> aFechar = new ArrayList<>();
+        Iterator<Map.Entry<String, Entrada>> it = entradas.entrySet().iterator();
+        while (entradas.size() > capacidade && it.hasNext()) {
+            Entrada entrada = it.next().getValue();
+            it.remove();
+            contadores.despejados.incrementAndGet();
+            if (entrada.emUso) {
+                entrada.removida = true;
+            } else {
+                aFechar.add(entrada);
+            }
+        }
+        aFechar.forEach(e -> fecharSilenciosamente(e.real));
+    }
+
+    private static void fecharSilenciosamente(Statement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ignored) {
+            // A conexão já estava partida; nada a fazer
+        }
+    }
+
+    private static final class Entrada {
+        private final PreparedStatement real;
+        private boolean emUso;
+        private boolean removida; // Fora da cache: fechar de verdade na devolução
+
+        private Entrada(PreparedStatement real) {
+            this.real = real;
+        }
+    }
+
+    /**
+     * Handler do proxy devolvido aos DAOs: close() devolve o statement à cache.
+     * close() e cancel() são serializados pelo próprio empréstimo: um cancel() vindo de outra thread
+     * (ContextoTarefa) só chega ao statement enquanto este empréstimo não foi fechado, e nunca depois de o
+     * statement ter voltado à cache (onde outro empréstimo da mesma conexão o poderia estar a usar).
+     */
+    private static final class Emprestimo implements InvocationHandler {
+        private final CacheStatements cache;
+        private final Entrada entrada;
+        private final Connection logica;
+        private final Runnable aoFalharLigacao;
+        private boolean fechado; // Protegido pelo monitor do empréstimo
+
+        private Emprestimo(CacheStatements cache, Entrada entrada, Connection logica, Runnable aoFalharLigacao) {
+            this.cache = cache;
+            this.entrada = entrada;
+            this.logica = logica;
+            this.aoFalharLigacao = aoFalharLigacao;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    synchronized (this) {
+                        if (!fechado) {
+                            fechado = true;
+                            cache.devolver(entrada);
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return isFechado() || entrada.real.isClosed();
+                case "getConnection":
+                    return logica;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CacheStatements$Emprestimo[" + entrada.real + "]";
+                case "cancel":
+                    // Pode ser chamado por outra thread (ContextoTarefa) depois de o DAO o ter fechado
+                    synchronized (this) {
+                        if (!fechado) {
+                            entrada.real.cancel();
+                        }
+                    }
+                    return null;
+                default:
+                    // Sem o monitor: a execução tem de poder ser cancelada enquanto corre
+                    if (isFechado()) {
+                        throw new SQLException("O statement já foi fechado.");
+                    }
+                    try {
+                        return method.invoke(entrada.real, args);
+                    } catch (InvocationTargetException e) {
+                        Throwable causa = e.getCause();
+                        if (causa instanceof SQLException && PoolConexoes.isFalhaLigacao((SQLException) causa)) {
+                            aoFalharLigacao.run();
+                        }
+                        throw causa;
+                    }
+            }
+        }
+
+        private synchronized boolean isFechado() {
+            return fechado;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package util;
+
+import model.FormatoMatricula;
+
+/**
+ * Classificador de matrículas numa única passagem e sem alocações.
+ *
+ * Substitui a cadeia de até sete Pattern.matcher().matches() do MatriculaValidator:
+ * a matrícula é percorrida uma vez, partida em grupos de letras/dígitos e separadores,
+ * e a forma resultante é comparada com os formatos conhecidos.
+ * É equivalente a aplicar as regexes a matricula.trim().toUpperCase(): os espaços nas pontas
+ * são ignorados pelos índices, as minúsculas ASCII são tratadas como maiúsculas e qualquer
+ * carácter não-ASCII (raro) é resolvido pelo caminho lento com toUpperCase().
+ */
+public final class ClassificadorMatricula {
+
+    // Tipos de grupo
+    private static final int LETRAS = 1;
+    private static final int DIGITOS = 2;
+
+    // Tipos de separador
+    private static final int HIFEN = 1;        // '-'
+    private static final int ESPACO = 2;       // ' '
+    private static final int OUTRO_ESPACO = 3; // '\t', '\n', '\u000B', '\f', '\r' (restantes \s das regexes)
+
+    // Limites de comprimento (após trim) de todos os formatos: "1 A 12" a "1234 ABC 12"
+    private static final int COMPRIMENTO_MINIMO = 6;
+    private static final int COMPRIMENTO_MAXIMO = 11;
+
+    private ClassificadorMatricula() {
+    }
+
+    /**
+     * Identifica o formato (e país) de uma matrícula.
+     *
+     * @param matricula A matrícula a classificar (pode ter espaços nas pontas e minúsculas).
+     * @return O formato reconhecido, ou FormatoMatricula.INVALIDA.
+     */
+    public static FormatoMatricula classificar(String matricula) {
+        if (matricula == null) {
+            return FormatoMatricula.INVALIDA;
+        }
+        return classificar(matricula, true);
+    }
+
+    /**
+     * Chave de pesquisa da matrícula: só letras e dígitos ASCII, em maiúsculas ("ab-12-cd" -> "AB12CD").
+     * Corresponde à coluna gerada veiculo.matricula_chave e é usada pelas pesquisas "contém".
+     *
+     * @return A chave, ou uma String vazia se a matrícula não tiver letras nem dígitos.
+     */
+    public static String chavePesquisa(String matricula) {
+        StringBuilder chave = new StringBuilder(matricula.length());
+        for (int i = 0; i < matricula.length(); i++) {
+            char c = matricula.charAt(i);
+            if (c >= 'a' && c <= 'z') {
+                chave.append((char) (c - 'a' + 'A'));
+            } else if ((c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')) {
+                chave.append(c);
+            }
+        }
+        return chave.toString();
+    }
+
+    /**
+     * Indica se a matrícula é nula ou só tem espaços (mesma semântica de trim().isEmpty(), sem alocar).
+     */
+    public static boolean isVazia(String matricula) {
+        if (matricula == null) {
+            return true;
+        }
+        for (int i = 0; i < matricula.length(); i++) {
+            if (matricula.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static FormatoMatricula classificar(String s, boolean permitirNaoAscii) {
+        int inicio = 0;
+        int fim = s.length();
+        while (inicio < fim && s.charAt(inicio) <= ' ') {
+            inicio++;
+        }
+        while (fim > inicio && s.charAt(fim - 1) <= ' ') {
+            fim--;
+        }
+
+        // Até três grupos (tipo e comprimento) e dois separadores
+        int tipo0 = 0, comp0 = 0, tipo1 = 0, comp1 = 0, tipo2 = 0, comp2 = 0;
+        int sep0 = 0, sep1 = 0;
+        int grupos = 0;
+        int tipoAtual = 0;
+        int compAtual = 0;
+
+        for (int i = inicio; i < fim; i++) {
+            char c = s.charAt(i);
+            if (c >= 0x80) {
+                // toUpperCase() pode transformar alguns caracteres não-ASCII em letras A-Z
+                return permitirNaoAscii ? classificarNaoAscii(s) : FormatoMatricula.INVALIDA;
+            }
+            int tipo;
+            int separador = 0;
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z')) {
+                tipo = LETRAS;
+            } else if (c >= '0' && c <= '9') {
+                tipo = DIGITOS;
+            } else if (c == '-') {
+                tipo = 0;
+                separador = HIFEN;
+            } else if (c == ' ') {
+                tipo = 0;
+                separador = ESPACO;
+            } else if (c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r') {
+                tipo = 0;
+                separador = OUTRO_ESPACO;
+            } else {
+                return FormatoMatricula.INVALIDA;
+            }
+
+            if (separador != 0) {
+                // Separador no início, separadores seguidos ou mais de dois grupos
+                if (compAtual == 0 || grupos == 2) {
+                    return FormatoMatricula.INVALIDA;
+                }
+                if (grupos == 0) {
+                    tipo0 = tipoAtual;
+                    comp0 = compAtual;
+                    sep0 = separador;
+                } else {
+                    tipo1 = tipoAtual;
+                    comp1 = compAtual;
+                    sep1 = separador;
+                }
+                grupos++;
+                tipoAtual = 0;
+                compAtual = 0;
+            } else {
+                // Letras e dígitos colados (ex: "AB12") nunca formam um formato válido
+                if (tipoAtual != 0 && tipoAtual != tipo) {
+                    return FormatoMatricula.INVALIDA;
+                }
+                tipoAtual = tipo;
+                compAtual++;
+            }
+        }
+
+        int comprimento = fim - inicio;
+        if (compAtual == 0 || comprimento < COMPRIMENTO_MINIMO || comprimento > COMPRIMENTO_MAXIMO) {
+            return FormatoMatricula.INVALIDA; // Vazia, a terminar num separador ou fora dos limites
+        }
+
+        if (grupos == 1) {
+            tipo1 = tipoAtual;
+            comp1 = compAtual;
+            // AA-0000
+            if (sep0 == HIFEN && tipo0 == LETRAS && comp0 == 2 && tipo1 == DIGITOS && comp1 == 4) {
+                return FormatoMatricula.PT_MUITO_ANTIGO;
+            }
+            // 0000 AAA ou 0000-AAA
+            if ((sep0 == HIFEN || sep0 == ESPACO) && tipo0 == DIGITOS && comp0 == 4 && tipo1 == LETRAS && comp1 == 3) {
+                return FormatoMatricula.ES_ATUAL;
+            }
+            return FormatoMatricula.INVALIDA;
+        }
+
+        if (grupos == 2) {
+            tipo2 = tipoAtual;
+            comp2 = compAtual;
+            if (sep0 == HIFEN && sep1 == HIFEN) {
+                // AA-00-AA
+                if (tipo0 == LETRAS && comp0 == 2 && tipo1 == DIGITOS && comp1 == 2 && tipo2 == LETRAS && comp2 == 2) {
+                    return FormatoMatricula.PT_ATUAL;
+                }
+                // 00-AA-00
+                if (tipo0 == DIGITOS && comp0 == 2 && tipo1 == LETRAS && comp1 == 2 && tipo2 == DIGITOS && comp2 == 2) {
+                    return FormatoMatricula.PT_ANTIGO;
+                }
+                // AA-000-AA
+                if (tipo0 == LETRAS && comp0 == 2 && tipo1 == DIGITOS && comp1 == 3 && tipo2 == LETRAS && comp2 == 2) {
+                    return FormatoMatricula.FR_ATUAL;
+                }
+            }
+            // 0000 AAA 00 (separadores \s)
+            if (sep0 >= ESPACO && sep1 >= ESPACO
+                    && tipo0 == DIGITOS && comp0 <= 4 && tipo1 == LETRAS && comp1 <= 3 && tipo2 == DIGITOS && comp2 == 2) {
+                return FormatoMatricula.FR_ANTIGO;
+            }
+            // A 0000 AA ou A-0000-AA
+            if (sep0 <= ESPACO && sep1 <= ESPACO
+                    && tipo0 == LETRAS && comp0 <= 2 && tipo1 == DIGITOS && comp1 == 4 && tipo2 == LETRAS && comp2 <= 2) {
+                return FormatoMatricula.ES_ANTIGO;
+            }
+        }
+        return FormatoMatricula.INVALIDA;
+    }
+
+    // Caminho lento para entradas com caracteres não-ASCII: aplica trim().toUpperCase() como antes
+    private static FormatoMatricula classificarNaoAscii(String s) {
+        return classificar(s.trim().toUpperCase(), false);
+    }
+}
@@ -1,38 +1,88 @@
 package util;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 public class ConexaoBD {
 
+    private static final Log LOG = Log.de(ConexaoBD.class);
+
     // URL da base de dados
-    private static final String URL = "jdbc:mysql://localhost:3306/gsa_db";
+    // rewriteBatchedStatements: o driver junta cada executeBatch de INSERT num único INSERT multi-linha
+    // useServerPrepStmts: os PreparedStatements são preparados no servidor (parse uma vez por conexão,
+    // reaproveitado pela cache de statements do pool)
+    private static final String URL = "jdbc:mysql://localhost:3306/gsa_db?rewriteBatchedStatements=true&useServerPrepStmts=true";
     private static final String USER = "****";  // Usuário do banco de dados
     private static final String PASSWORD = "****";  // Senha do banco de dados
 
+    // Propriedades de sistema que substituem os valores acima (ex: base de dados em memória dos benchmarks)
+    public static final String PROPRIEDADE_URL = "gsa.db.url";
+    public static final String PROPRIEDADE_USER = "gsa.db.user";
+    public static final String PROPRIEDADE_PASSWORD = "gsa.db.password";
+    // "false" em bases sem índices FULLTEXT ngram: a pesquisa "contém" do VeiculoDAO passa a usar LIKE
+    public static final String PROPRIEDADE_FULLTEXT = "gsa.db.fulltext";
+
+    // Configuração do pool de conexões
+    private static final int POOL_MINIMO = 2;                      // Conexões pré-criadas no arranque
+    private static final int POOL_MAXIMO = 10;                     // Limite de conexões simultâneas
+    private static final long TIMEOUT_EMPRESTIMO_MS = 5_000;       // Espera máxima por uma conexão livre
+    private static final long TEMPO_MAXIMO_OCIOSO_MS = 5 * 60_000; // Conexões ociosas acima do mínimo são fechadas
+    private static final long TEMPO_MAXIMO_VIDA_MS = 30 * 60_000;  // Renovação periódica (abaixo do wait_timeout do MySQL)
+    private static final long LIMITE_FUGA_MS = 60_000;             // Empréstimos mais longos são reportados como fuga
+    private static final int TAMANHO_CACHE_STATEMENTS = 64;        // PreparedStatements guardados por conexão
+
+    // Propriedade de sistema para ajustar o limite de fuga (0 desliga a deteção)
+    public static final String PROPRIEDADE_LIMITE_FUGA_MS = "gsa.db.limiteFugaMs";
+
+    // Inicialização preguiçosa e thread-safe do pool (holder idiom)
+    private static final class PoolHolder {
+        private static final PoolConexoes POOL = criarPool();
+    }
+
+    private static PoolConexoes criarPool() {
+        String url = System.getProperty(PROPRIEDADE_URL, URL);
+        if (url.startsWith("jdbc:mysql:")) {
+            try {
+                // Registrar o driver do MySQL uma única vez
+                Class.forName("com.mysql.cj.jdbc.Driver");
+            } catch (ClassNotFoundException e) {
+                // Imprimir erro se o driver não for encontrado
+                LOG.erro("Driver do MySQL não encontrado.", e);
+            }
+        }
+        PoolConexoes pool = new PoolConexoes(url, System.getProperty(PROPRIEDADE_USER, USER),
+                System.getProperty(PROPRIEDADE_PASSWORD, PASSWORD), POOL_MINIMO, POOL_MAXIMO,
+                TIMEOUT_EMPRESTIMO_MS, TEMPO_MAXIMO_OCIOSO_MS, TEMPO_MAXIMO_VIDA_MS,
+                Long.getLong(PROPRIEDADE_LIMITE_FUGA_MS, LIMITE_FUGA_MS), TAMANHO_CACHE_STATEMENTS);
+        Runtime.getRuntime().addShutdownHook(new Thread(pool::encerrar, "gsa-pool-encerramento"));
+        LOG.info("Pool de conexões criado (mínimo={}, máximo={}).", POOL_MINIMO, POOL_MAXIMO);
+        return pool;
+    }
+
     // Método para obter a conexão com a base de dados
+    // A conexão vem do pool: fechá-la (try-with-resources) devolve-a ao pool.
     public static Connection getConnection() {
         try {
-            // Registrar o driver do MySQL (não necessário para versões mais recentes do JDBC)
-            Class.forName("com.mysql.cj.jdbc.Driver");
-
-            // Tentar obter a conexão com o banco
-            Connection conn = DriverManager.getConnection(URL, USER, PASSWORD);
-
-            // Imprimir sucesso se a conexão for bem-sucedida
-            System.out.println("Conexão bem-sucedida com a base de dados!");
-            return conn;
-        } catch (ClassNotFoundException e) {
-            // Imprimir erro se o driver não for encontrado
-            System.out.println("Erro: Driver do MySQL não encontrado.");
-            e.printStackTrace();
+            return PoolHolder.POOL.obter();
         } catch (SQLException e) {
             // Imprimir erro se a conexão falhar
-            System.out.println("Erro ao conectar com a base de dados.");
-            e.printStackTrace();
+            LOG.erro("Erro ao conectar com a base de dados.", e);
         }
 
         return null;
     }
+
+    /**
+     * Pré-cria as conexões mínimas do pool. Deve ser chamado no arranque, fora do EDT.
+     */
+    public static void aquecerPool() {
+        PoolHolder.POOL.aquecer();
+    }
+
+    /**
+     * Obtém as estatísticas atuais do pool (ativas, ociosas, tempos de espera).
+     */
+    public static EstatisticasPool getEstatisticasPool() {
+        return PoolHolder.POOL.getEstatisticas();
+    }
 }
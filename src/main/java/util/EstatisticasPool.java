@@ -0,0 +1,95 @@
+package util;
+
+/**
+ * Fotografia imutável do estado do pool de conexões.
+ */
+public class EstatisticasPool {
+
+    private final int ativas;
+    private final int ociosas;
+    private final int total;
+    private final int maximo;
+    private final long emprestimos;
+    private final long esperas;
+    private final double tempoMedioEsperaMs;
+    private final double tempoMaximoEsperaMs;
+    private final long timeouts;
+    private final long criadas;
+    private final long descartadas;
+    private final long partidas;
+    private final long religacoes;
+    private final int vigiadas;
+    private final long fugas;
+    private final long statementsReutilizados;
+    private final long statementsPreparados;
+    private final long statementsDespejados;
+
+    public EstatisticasPool(int ativas, int ociosas, int total, int maximo, long emprestimos, long esperas,
+                            double tempoMedioEsperaMs, double tempoMaximoEsperaMs,
+                            long timeouts, long criadas, long descartadas,
+                            long partidas, long religacoes, int vigiadas, long fugas,
+                            long statementsReutilizados, long statementsPreparados, long statementsDespejados) {
+        this.ativas = ativas;
+        this.ociosas = ociosas;
+        this.total = total;
+        this.maximo = maximo;
+        this.emprestimos = emprestimos;
+        this.esperas = esperas;
+        this.tempoMedioEsperaMs = tempoMedioEsperaMs;
+        this.tempoMaximoEsperaMs = tempoMaximoEsperaMs;
+        this.timeouts = timeouts;
+        this.criadas = criadas;
+        this.descartadas = descartadas;
+        this.partidas = partidas;
+        this.religacoes = religacoes;
+        this.vigiadas = vigiadas;
+        this.fugas = fugas;
+        this.statementsReutilizados = statementsReutilizados;
+        this.statementsPreparados = statementsPreparados;
+        this.statementsDespejados = statementsDespejados;
+    }
+
+    // Getters
+    public int getAtivas() { return ativas; }
+    public int getOciosas() { return ociosas; }
+    public int getTotal() { return total; }
+    public int getMaximo() { return maximo; }
+    public long getEmprestimos() { return emprestimos; }
+    public long getEsperas() { return esperas; }
+    public double getTempoMedioEsperaMs() { return tempoMedioEsperaMs; }
+    public double getTempoMaximoEsperaMs() { return tempoMaximoEsperaMs; }
+    public long getTimeouts() { return timeouts; }
+    public long getCriadas() { return criadas; }
+    public long getDescartadas() { return descartadas; }
+    // Conexões descartadas por estarem partidas (socket caído, servidor reiniciado)
+    public long getPartidas() { return partidas; }
+    // Conexões criadas com sucesso depois de pelo menos uma tentativa falhada
+    public long getReligacoes() { return religacoes; }
+    // Empréstimos em curso vigiados pelo detetor de fugas
+    public int getVigiadas() { return vigiadas; }
+    // Empréstimos que ultrapassaram o limite de fuga
+    public long getFugas() { return fugas; }
+    // PreparedStatements servidos pela cache das conexões (sem novo parse no servidor)
+    public long getStatementsReutilizados() { return statementsReutilizados; }
+    // PreparedStatements preparados de raiz
+    public long getStatementsPreparados() { return statementsPreparados; }
+    // PreparedStatements retirados da cache por falta de espaço
+    public long getStatementsDespejados() { return statementsDespejados; }
+
+    // Fração dos prepareStatement servidos pela cache (0 a 1)
+    public double getTaxaAcertoStatements() {
+        long pedidos = statementsReutilizados + statementsPreparados;
+        return pedidos == 0 ? 0.0 : statementsReutilizados / (double) pedidos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Pool[ativas=%d, ociosas=%d, total=%d/%d, empréstimos=%d, esperas=%d, " +
+                        "espera média=%.2f ms, espera máx=%.2f ms, timeouts=%d, criadas=%d, descartadas=%d, " +
+                        "partidas=%d, religações=%d, fugas=%d, statements reutilizados=%d/%d (%.1f%%), despejados=%d]",
+                ativas, ociosas, total, maximo, emprestimos, esperas,
+                tempoMedioEsperaMs, tempoMaximoEsperaMs, timeouts, criadas, descartadas,
+                partidas, religacoes, fugas, statementsReutilizados, statementsReutilizados + statementsPreparados,
+                getTaxaAcertoStatements() * 100, statementsDespejados);
+    }
+}
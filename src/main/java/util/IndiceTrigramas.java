@@ -0,0 +1,327 @@
+package util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Índice invertido de trigramas, em memória, sobre um campo de texto das linhas carregadas
+ * (ex: a marca de cada veículo da tabela). Responde a pesquisas "contém" sem percorrer todas as linhas:
+ * os trigramas da consulta dão listas de linhas (ordenadas, em int[]), que são intersetadas começando
+ * pela mais curta; as candidatas que sobram são confirmadas com indexOf sobre o texto normalizado.
+ *
+ * As linhas são acrescentadas por ordem crescente (0, 1, 2, ...), pelo que as listas ficam ordenadas
+ * sem custo. Uma linha já indexada pode ser alterada (substituir) ou retirada (remover) sem renumerar as
+ * restantes: só as listas dos trigramas do texto antigo e do novo são tocadas (pesquisa binária + arraycopy).
+ * Consultas com menos de três carateres não têm trigramas e são resolvidas por varrimento.
+ * Não é thread-safe: é usado apenas no EDT, pelo modelo da tabela.
+ */
+public final class IndiceTrigramas {
+
+    /**
+     * Forma como os textos (e as consultas) são normalizados antes de indexar.
+     */
+    public enum Normalizacao {
+        TEXTO,      // Minúsculas e sem acentos ("Citroën" -> "citroen"), como a collation da base de dados
+        MATRICULA   // Só letras e dígitos, em maiúsculas ("AB-12-CD" -> "AB12CD"), ver ClassificadorMatricula
+    }
+
+    private static final int CAPACIDADE_INICIAL = 256;
+    private static final int CAPACIDADE_INICIAL_LISTA = 4;
+
+    // Letras latinas acentuadas (U+00C0 a U+00FF) sem acento, em minúsculas
+    private static final String SEM_ACENTO =
+            "aaaaaaaceeeeiiiidnooooo×ouuuuytß" +
+            "aaaaaaaceeeeiiiidnooooo÷ouuuuyty";
+
+    private final Normalizacao normalizacao;
+    private final Map<Long, ListaLinhas> listas = new HashMap<>();
+    // Textos repetidos (marcas, modelos) são normalizados e partidos em trigramas uma única vez
+    private final Map<String, String> normalizados = new HashMap<>();
+    private final Map<String, ListaLinhas[]> listasPorTexto = new HashMap<>();
+    private String[] textos = new String[CAPACIDADE_INICIAL]; // Texto normalizado de cada linha
+    private int linhas;
+
+    public IndiceTrigramas(Normalizacao normalizacao) {
+        this.normalizacao = normalizacao;
+    }
+
+    /**
+     * Indexa o texto da linha seguinte (a linha tem de ser igual ao número de linhas já indexadas).
+     */
+    public void adicionar(int linha, String texto) {
+        if (linha != linhas) {
+            throw new IllegalArgumentException("As linhas têm de ser indexadas por ordem: esperada " + linhas + ", recebida " + linha);
+        }
+        String normalizado = texto == null ? "" : normalizarTexto(texto);
+        if (linhas == textos.length) {
+            textos = Arrays.copyOf(textos, linhas + (linhas >> 1));
+        }
+        textos[linhas++] = normalizado;
+
+        ListaLinhas[] doTexto = normalizacao == Normalizacao.TEXTO ? listasPorTexto.get(normalizado) : null;
+        if (doTexto == null) {
+            doTexto = new ListaLinhas[Math.max(0, normalizado.length() - 2)];
+            for (int i = 0; i < doTexto.length; i++) {
+                Long trigrama = trigrama(normalizado, i);
+                ListaLinhas lista = listas.get(trigrama);
+                if (lista == null) {
+                    lista = new ListaLinhas();
+                    listas.put(trigrama, lista);
+                }
+                doTexto[i] = lista;
+            }
+            if (normalizacao == Normalizacao.TEXTO) {
+                listasPorTexto.put(normalizado, doTexto);
+            }
+        }
+        for (ListaLinhas lista : doTexto) {
+            lista.adicionar(linha);
+        }
+    }
+
+    /**
+     * Passa a indexar outro texto numa linha já indexada (ex: depois de editar o veículo).
+     */
+    public void substituir(int linha, String texto) {
+        verificarIndexada(linha);
+        String normalizado = texto == null ? "" : normalizarTexto(texto);
+        String anterior = textos[linha];
+        if (normalizado.equals(anterior)) {
+            return;
+        }
+        retirarTrigramas(linha, anterior);
+        textos[linha] = normalizado;
+        for (int i = 0; i + 2 < normalizado.length(); i++) {
+            Long trigrama = trigrama(normalizado, i);
+            ListaLinhas lista = listas.get(trigrama);
+            if (lista == null) {
+                lista = new ListaLinhas();
+                listas.put(trigrama, lista);
+            }
+            lista.inserir(linha);
+        }
+    }
+
+    /**
+     * Retira uma linha do índice; as pesquisas deixam de a devolver. O número da linha não é reutilizado.
+     */
+    public void remover(int linha) {
+        verificarIndexada(linha);
+        retirarTrigramas(linha, textos[linha]);
+        textos[linha] = ""; // Não contém nenhuma consulta (as consultas nunca são vazias)
+    }
+
+    public void limpar() {
+        listas.clear();
+        normalizados.clear();
+        listasPorTexto.clear();
+        Arrays.fill(textos, 0, linhas, null);
+        linhas = 0;
+    }
+
+    public int getLinhas() {
+        return linhas;
+    }
+
+    /**
+     * Normaliza uma consulta da mesma forma que os textos indexados.
+     */
+    public String normalizar(String consulta) {
+        return normalizacao == Normalizacao.MATRICULA
+                ? ClassificadorMatricula.chavePesquisa(consulta)
+                : normalizarSemCache(consulta.trim());
+    }
+
+    /**
+     * Linhas cujo texto contém a consulta (já normalizada, não vazia), por ordem crescente.
+     *
+     * @param consulta    Consulta normalizada (ver normalizar).
+     * @param candidatas  Linhas a considerar, ordenadas (ex: o resultado de outro filtro), ou null para todas.
+     * @param nCandidatas Número de posições válidas em candidatas.
+     * @return Array com exatamente as linhas encontradas.
+     */
+    public int[] pesquisar(String consulta, int[] candidatas, int nCandidatas) {
+        int[] resultado;
+        int n;
+        if (consulta.length() < 3) {
+            // Sem trigramas: varrimento das candidatas (ou de todas as linhas)
+            resultado = new int[candidatas != null ? nCandidatas : linhas];
+            n = 0;
+            int total = candidatas != null ? nCandidatas : linhas;
+            for (int k = 0; k < total; k++) {
+                int linha = candidatas != null ? candidatas[k] : k;
+                if (textos[linha].contains(consulta)) {
+                    resultado[n++] = linha;
+                }
+            }
+            return Arrays.copyOf(resultado, n);
+        }
+
+        // Listas dos trigramas da consulta, da mais curta para a mais longa
+        int numeroTrigramas = consulta.length() - 2;
+        ListaLinhas[] usadas = new ListaLinhas[numeroTrigramas];
+        for (int i = 0; i < numeroTrigramas; i++) {
+            ListaLinhas lista = listas.get(trigrama(consulta, i));
+            if (lista == null) {
+                return new int[0]; // Um trigrama que não existe em nenhuma linha
+            }
+            usadas[i] = lista;
+        }
+        Arrays.sort(usadas, (a, b) -> Integer.compare(a.tamanho, b.tamanho));
+
+        // Começa pela lista mais curta (ou pelas candidatas, se forem menos) e vai reduzindo
+        int primeira;
+        if (candidatas != null && nCandidatas < usadas[0].tamanho) {
+            resultado = Arrays.copyOf(candidatas, nCandidatas);
+            n = nCandidatas;
+            primeira = 0;
+        } else {
+            resultado = Arrays.copyOf(usadas[0].linhas, usadas[0].tamanho);
+            n = usadas[0].tamanho;
+            primeira = 1;
+            if (candidatas != null) {
+                n = intersetar(resultado, n, candidatas, nCandidatas);
+            }
+        }
+        for (int i = primeira; i < usadas.length && n > 0; i++) {
+            n = intersetar(resultado, n, usadas[i].linhas, usadas[i].tamanho);
+        }
+
+        // Os trigramas podem existir na linha sem estarem seguidos: confirmar o "contém"
+        int confirmadas = 0;
+        for (int k = 0; k < n; k++) {
+            if (numeroTrigramas == 1 || textos[resultado[k]].contains(consulta)) {
+                resultado[confirmadas++] = resultado[k];
+            }
+        }
+        return Arrays.copyOf(resultado, confirmadas);
+    }
+
+    /**
+     * Interseção de duas listas ordenadas; o resultado fica no início de a.
+     * Quando b é muito maior do que a, avança em b por saltos exponenciais em vez de linha a linha.
+     *
+     * @return O número de elementos da interseção.
+     */
+    static int intersetar(int[] a, int na, int[] b, int nb) {
+        int n = 0;
+        int j = 0;
+        boolean galopar = nb > na * 8;
+        for (int i = 0; i < na && j < nb; i++) {
+            int valor = a[i];
+            if (galopar) {
+                int passo = 1;
+                while (j + passo < nb && b[j + passo] < valor) {
+                    j += passo;
+                    passo <<= 1;
+                }
+                int encontrado = Arrays.binarySearch(b, j, Math.min(j + passo + 1, nb), valor);
+                if (encontrado >= 0) {
+                    a[n++] = valor;
+                    j = encontrado + 1;
+                } else {
+                    j = -encontrado - 1;
+                }
+                continue;
+            }
+            while (j < nb && b[j] < valor) {
+                j++;
+            }
+            if (j < nb && b[j] == valor) {
+                a[n++] = valor;
+                j++;
+            }
+        }
+        return n;
+    }
+
+    private void verificarIndexada(int linha) {
+        if (linha < 0 || linha >= linhas) {
+            throw new IndexOutOfBoundsException("Linha não indexada: " + linha);
+        }
+    }
+
+    private void retirarTrigramas(int linha, String texto) {
+        for (int i = 0; i + 2 < texto.length(); i++) {
+            ListaLinhas lista = listas.get(trigrama(texto, i));
+            if (lista != null) {
+                lista.remover(linha); // Trigramas repetidos no mesmo texto: a segunda vez não encontra nada
+            }
+        }
+    }
+
+    private String normalizarTexto(String texto) {
+        if (normalizacao == Normalizacao.MATRICULA) {
+            return ClassificadorMatricula.chavePesquisa(texto); // Única por veículo: sem cache
+        }
+        String normalizado = normalizados.get(texto);
+        if (normalizado == null) {
+            normalizado = normalizarSemCache(texto);
+            normalizados.put(texto, normalizado);
+        }
+        return normalizado;
+    }
+
+    private static String normalizarSemCache(String texto) {
+        char[] carateres = new char[texto.length()];
+        for (int i = 0; i < carateres.length; i++) {
+            char c = texto.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                c = (char) (c - 'A' + 'a');
+            } else if (c >= 'À' && c <= 'ÿ') {
+                c = SEM_ACENTO.charAt(c - 'À');
+            } else if (c > 0x7F) {
+                c = Character.toLowerCase(c);
+            }
+            carateres[i] = c;
+        }
+        return new String(carateres);
+    }
+
+    private static Long trigrama(String texto, int inicio) {
+        return ((long) texto.charAt(inicio) << 32) | ((long) texto.charAt(inicio + 1) << 16) | texto.charAt(inicio + 2);
+    }
+
+    /**
+     * Lista crescente das linhas que contêm um trigrama.
+     */
+    private static final class ListaLinhas {
+        private int[] linhas = new int[CAPACIDADE_INICIAL_LISTA];
+        private int tamanho;
+
+        private void adicionar(int linha) {
+            if (tamanho > 0 && linhas[tamanho - 1] == linha) {
+                return; // O mesmo trigrama repetido na mesma linha
+            }
+            if (tamanho == linhas.length) {
+                linhas = Arrays.copyOf(linhas, tamanho * 2);
+            }
+            linhas[tamanho++] = linha;
+        }
+
+        // Insere fora do fim, mantendo a lista crescente
+        private void inserir(int linha) {
+            int posicao = Arrays.binarySearch(linhas, 0, tamanho, linha);
+            if (posicao >= 0) {
+                return;
+            }
+            posicao = -posicao - 1;
+            if (tamanho == linhas.length) {
+                linhas = Arrays.copyOf(linhas, tamanho * 2);
+            }
+            System.arraycopy(linhas, posicao, linhas, posicao + 1, tamanho - posicao);
+            linhas[posicao] = linha;
+            tamanho++;
+        }
+
+        private void remover(int linha) {
+            int posicao = Arrays.binarySearch(linhas, 0, tamanho, linha);
+            if (posicao < 0) {
+                return;
+            }
+            System.arraycopy(linhas, posicao + 1, linhas, posicao, tamanho - posicao - 1);
+            tamanho--;
+        }
+    }
+}
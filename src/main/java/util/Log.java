@@ -0,0 +1,414 @@
+package util;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Registo (log) assíncrono da aplicação, em substituição dos System.out/err espalhados pelos DAOs e controladores.
+ *
+ * Quem regista (muitas vezes o EDT) só verifica o nível e coloca o evento (modelo, argumentos, thread, hora)
+ * num BufferCircular sem locks; a mensagem é montada e escrita por uma thread própria, que escreve num
+ * ficheiro com rotação por tamanho e, opcionalmente, na consola. Abaixo do nível configurado a chamada
+ * termina na comparação do nível, sem montar nada. Com o buffer cheio os eventos são descartados e contados
+ * (o registo nunca bloqueia quem o chama).
+ *
+ * As mensagens usam "{}" para os argumentos, formatados só na thread de escrita:
+ * <pre>
+ * private static final Log LOG = Log.de(VeiculoDAO.class);
+ * LOG.info("Veiculo inserido com sucesso! ID: {}", veiculo.getId());
+ * LOG.erro("Erro SQL ao inserir veiculo: {}", e.getMessage(), e); // Uma exceção no fim sai com o stack trace
+ * </pre>
+ * Os argumentos são formatados mais tarde: devem ser valores (números, texto), não objetos que mudam entretanto.
+ *
+ * Propriedades de sistema: gsa.log.nivel (DEBUG, INFO, AVISO, ERRO), gsa.log.ficheiro (vazio desliga o
+ * ficheiro), gsa.log.tamanhoMaximo (bytes por ficheiro), gsa.log.ficheiros (ficheiros guardados na rotação)
+ * e gsa.log.consola (true/false).
+ */
+public final class Log {
+
+    /**
+     * Níveis de registo, do mais detalhado para o mais grave.
+     */
+    public enum Nivel { DEBUG, INFO, AVISO, ERRO }
+
+    public static final String PROPRIEDADE_NIVEL = "gsa.log.nivel";
+    public static final String PROPRIEDADE_FICHEIRO = "gsa.log.ficheiro";
+    public static final String PROPRIEDADE_TAMANHO_MAXIMO = "gsa.log.tamanhoMaximo";
+    public static final String PROPRIEDADE_FICHEIROS = "gsa.log.ficheiros";
+    public static final String PROPRIEDADE_CONSOLA = "gsa.log.consola";
+
+    private static final String FICHEIRO_PADRAO =
+            Paths.get(System.getProperty("user.home"), ".gsa", "logs", "gsa.log").toString();
+    private static final long TAMANHO_MAXIMO_PADRAO = 5L * 1024 * 1024; // 5 MB por ficheiro
+    private static final int FICHEIROS_PADRAO = 5;                      // gsa.log e gsa.log.1 a gsa.log.4
+    private static final int CAPACIDADE_BUFFER = 8192;
+    private static final long PAUSA_ESCRITOR_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final DateTimeFormatter FORMATO_HORA =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    private static final BufferCircular<Evento> BUFFER = new BufferCircular<>(CAPACIDADE_BUFFER);
+    private static final AtomicLong DESCARTADOS = new AtomicLong();
+    private static final String[] NOMES_NIVEIS = {"DEBUG", "INFO ", "AVISO", "ERRO "}; // Alinhados a 5 carateres
+    private static final Thread THREAD_ESCRITOR;
+    private static volatile int nivelMinimo = nivelConfigurado().ordinal();
+
+    static {
+        Escritor escritor = new Escritor();
+        THREAD_ESCRITOR = new Thread(escritor, "gsa-log");
+        THREAD_ESCRITOR.setDaemon(true);
+        THREAD_ESCRITOR.start();
+        // Ao terminar: esvazia o buffer e fecha o ficheiro
+        Runtime.getRuntime().addShutdownHook(new Thread(escritor::terminar, "gsa-log-encerramento"));
+    }
+
+    private final String nome;
+
+    private Log(String nome) {
+        this.nome = nome;
+    }
+
+    /**
+     * Obtém o registo de uma classe (guardar num campo static final).
+     */
+    public static Log de(Class<?> classe) {
+        return new Log(classe.getSimpleName());
+    }
+
+    /**
+     * Muda o nível mínimo em tempo de execução (ex: DEBUG para diagnosticar uma loja).
+     */
+    public static void setNivel(Nivel nivel) {
+        nivelMinimo = nivel.ordinal();
+    }
+
+    public static Nivel getNivel() {
+        return Nivel.values()[nivelMinimo];
+    }
+
+    /**
+     * Eventos descartados por o buffer estar cheio, desde o arranque.
+     */
+    public static long getDescartados() {
+        return DESCARTADOS.get();
+    }
+
+    public boolean isAtivo(Nivel nivel) {
+        return nivel.ordinal() >= nivelMinimo;
+    }
+
+    public void debug(String mensagem) {
+        registar(Nivel.DEBUG, mensagem, null);
+    }
+
+    public void debug(String modelo, Object argumento) {
+        if (Nivel.DEBUG.ordinal() >= nivelMinimo) {
+            registar(Nivel.DEBUG, modelo, new Object[]{argumento});
+        }
+    }
+
+    public void debug(String modelo, Object argumento1, Object argumento2) {
+        if (Nivel.DEBUG.ordinal() >= nivelMinimo) {
+            registar(Nivel.DEBUG, modelo, new Object[]{argumento1, argumento2});
+        }
+    }
+
+    public void debug(String modelo, Object... argumentos) {
+        registar(Nivel.DEBUG, modelo, argumentos);
+    }
+
+    public void info(String mensagem) {
+        registar(Nivel.INFO, mensagem, null);
+    }
+
+    public void info(String modelo, Object argumento) {
+        if (Nivel.INFO.ordinal() >= nivelMinimo) {
+            registar(Nivel.INFO, modelo, new Object[]{argumento});
+        }
+    }
+
+    public void info(String modelo, Object argumento1, Object argumento2) {
+        if (Nivel.INFO.ordinal() >= nivelMinimo) {
+            registar(Nivel.INFO, modelo, new Object[]{argumento1, argumento2});
+        }
+    }
+
+    public void info(String modelo, Object... argumentos) {
+        registar(Nivel.INFO, modelo, argumentos);
+    }
+
+    public void aviso(String mensagem) {
+        registar(Nivel.AVISO, mensagem, null);
+    }
+
+    public void aviso(String modelo, Object argumento) {
+        if (Nivel.AVISO.ordinal() >= nivelMinimo) {
+            registar(Nivel.AVISO, modelo, new Object[]{argumento});
+        }
+    }
+
+    public void aviso(String modelo, Object argumento1, Object argumento2) {
+        if (Nivel.AVISO.ordinal() >= nivelMinimo) {
+            registar(Nivel.AVISO, modelo, new Object[]{argumento1, argumento2});
+        }
+    }
+
+    public void aviso(String modelo, Object... argumentos) {
+        registar(Nivel.AVISO, modelo, argumentos);
+    }
+
+    public void erro(String mensagem) {
+        registar(Nivel.ERRO, mensagem, null);
+    }
+
+    public void erro(String modelo, Object argumento) {
+        if (Nivel.ERRO.ordinal() >= nivelMinimo) {
+            registar(Nivel.ERRO, modelo, new Object[]{argumento});
+        }
+    }
+
+    public void erro(String modelo, Object argumento1, Object argumento2) {
+        if (Nivel.ERRO.ordinal() >= nivelMinimo) {
+            registar(Nivel.ERRO, modelo, new Object[]{argumento1, argumento2});
+        }
+    }
+
+    public void erro(String modelo, Object... argumentos) {
+        registar(Nivel.ERRO, modelo, argumentos);
+    }
+
+    // --- Métodos auxiliares ---
+
+    private void registar(Nivel nivel, String modelo, Object[] argumentos) {
+        if (nivel.ordinal() < nivelMinimo) {
+            return;
+        }
+        Evento evento = new Evento(nivel, System.currentTimeMillis(), Thread.currentThread().getName(),
+                nome, modelo, argumentos);
+        if (!BUFFER.oferecer(evento)) {
+            DESCARTADOS.incrementAndGet();
+            LockSupport.unpark(THREAD_ESCRITOR); // Acorda o escritor já, em vez de esperar pelo fim da pausa
+        }
+    }
+
+    private static Nivel nivelConfigurado() {
+        String valor = System.getProperty(PROPRIEDADE_NIVEL, Nivel.INFO.name()).trim().toUpperCase(Locale.ROOT);
+        try {
+            return Nivel.valueOf(valor);
+        } catch (IllegalArgumentException e) {
+            return Nivel.INFO;
+        }
+    }
+
+    /**
+     * Pedido de registo, tal como foi feito (a mensagem só é montada na thread de escrita).
+     */
+    private static final class Evento {
+        private final Nivel nivel;
+        private final long hora;
+        private final String thread;
+        private final String origem;
+        private final String modelo;
+        private final Object[] argumentos;
+
+        private Evento(Nivel nivel, long hora, String thread, String origem, String modelo, Object[] argumentos) {
+            this.nivel = nivel;
+            this.hora = hora;
+            this.thread = thread;
+            this.origem = origem;
+            this.modelo = modelo;
+            this.argumentos = argumentos;
+        }
+
+        // Substitui cada "{}" pelo argumento seguinte; uma exceção que sobre no fim é escrita com o stack trace
+        private void formatar(StringBuilder sb) {
+            sb.append(FORMATO_HORA.format(Instant.ofEpochMilli(hora))).append(' ')
+                    .append(NOMES_NIVEIS[nivel.ordinal()]).append(" [").append(thread).append("] ")
+                    .append(origem).append(" - ");
+            int usados = 0;
+            int n = argumentos != null ? argumentos.length : 0;
+            String texto = String.valueOf(modelo);
+            int inicio = 0;
+            while (usados < n) {
+                int marca = texto.indexOf("{}", inicio);
+                if (marca < 0) {
+                    break;
+                }
+                sb.append(texto, inicio, marca).append(argumentos[usados++]);
+                inicio = marca + 2;
+            }
+            sb.append(texto, inicio, texto.length()).append(System.lineSeparator());
+            if (usados < n && argumentos[n - 1] instanceof Throwable) {
+                StringWriter pilha = new StringWriter();
+                ((Throwable) argumentos[n - 1]).printStackTrace(new PrintWriter(pilha));
+                sb.append(pilha);
+            }
+        }
+    }
+
+    /**
+     * Thread de escrita: esvazia o buffer para o ficheiro (com rotação) e para a consola.
+     */
+    private static final class Escritor implements Runnable {
+        private final Path ficheiro;
+        private final long tamanhoMaximo;
+        private final int ficheiros;
+        private final boolean consola;
+        private final StringBuilder linha = new StringBuilder(256);
+        private Writer saida;
+        private long escritos;
+        private long descartadosReportados;
+        private volatile boolean aTerminar;
+
+        private Escritor() {
+            String caminho = System.getProperty(PROPRIEDADE_FICHEIRO, FICHEIRO_PADRAO).trim();
+            this.ficheiro = caminho.isEmpty() ? null : Paths.get(caminho);
+            this.tamanhoMaximo = Math.max(64 * 1024, Long.getLong(PROPRIEDADE_TAMANHO_MAXIMO, TAMANHO_MAXIMO_PADRAO));
+            this.ficheiros = Math.max(1, Integer.getInteger(PROPRIEDADE_FICHEIROS, FICHEIROS_PADRAO));
+            this.consola = Boolean.parseBoolean(System.getProperty(PROPRIEDADE_CONSOLA, "true"));
+        }
+
+        @Override
+        public void run() {
+            while (!aTerminar) {
+                if (!esvaziar()) {
+                    LockSupport.parkNanos(PAUSA_ESCRITOR_NANOS);
+                }
+            }
+        }
+
+        // Chamado pelo shutdown hook: escreve o que falta e fecha o ficheiro
+        private synchronized void terminar() {
+            aTerminar = true;
+            esvaziar();
+            fecharFicheiro();
+        }
+
+        /**
+         * Escreve todos os eventos pendentes.
+         *
+         * @return false se não havia nenhum.
+         */
+        private synchronized boolean esvaziar() {
+            boolean escreveu = false;
+            Evento evento;
+            while ((evento = BUFFER.retirar()) != null) {
+                escreveu = true;
+                linha.setLength(0);
+                try {
+                    evento.formatar(linha);
+                } catch (RuntimeException e) {
+                    linha.append("(mensagem inválida: ").append(e).append(')').append(System.lineSeparator());
+                }
+                escrever(linha.toString(), evento.nivel);
+            }
+            long descartados = DESCARTADOS.get();
+            if (descartados != descartadosReportados) {
+                escrever("Log: " + (descartados - descartadosReportados)
+                        + " mensagens descartadas (buffer cheio)" + System.lineSeparator(), Nivel.AVISO);
+                descartadosReportados = descartados;
+                escreveu = true;
+            }
+            if (escreveu) {
+                try {
+                    if (saida != null) {
+                        saida.flush();
+                    }
+                } catch (IOException e) {
+                    falhaFicheiro(e);
+                }
+                if (consola) {
+                    System.out.flush();
+                    System.err.flush();
+                }
+            }
+            return escreveu;
+        }
+
+        private void escrever(String texto, Nivel nivel) {
+            if (consola) {
+                // Os únicos System.out/err da aplicação: aqui já fora do caminho de quem regista
+                (nivel.ordinal() >= Nivel.AVISO.ordinal() ? System.err : System.out).print(texto);
+            }
+            if (ficheiro == null) {
+                return;
+            }
+            try {
+                if (saida == null) {
+                    abrirFicheiro();
+                } else if (escritos >= tamanhoMaximo) {
+                    rodar();
+                }
+                saida.write(texto);
+                escritos += texto.length(); // Aproximado: carateres, não bytes
+            } catch (IOException e) {
+                falhaFicheiro(e);
+            }
+        }
+
+        private void abrirFicheiro() throws IOException {
+            Path pasta = ficheiro.toAbsolutePath().getParent();
+            if (pasta != null) {
+                Files.createDirectories(pasta);
+            }
+            escritos = Files.exists(ficheiro) ? Files.size(ficheiro) : 0;
+            saida = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(ficheiro,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND), StandardCharsets.UTF_8), 16 * 1024);
+        }
+
+        // gsa.log -> gsa.log.1 -> gsa.log.2 ...; o mais antigo é apagado
+        private void rodar() throws IOException {
+            fecharFicheiro();
+            Files.deleteIfExists(rodado(ficheiros - 1));
+            for (int i = ficheiros - 2; i >= 1; i--) {
+                Path origem = rodado(i);
+                if (Files.exists(origem)) {
+                    Files.move(origem, rodado(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            if (ficheiros > 1) {
+                Files.move(ficheiro, rodado(1), StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                Files.deleteIfExists(ficheiro);
+            }
+            abrirFicheiro();
+        }
+
+        private Path rodado(int indice) {
+            return ficheiro.resolveSibling(ficheiro.getFileName() + "." + indice);
+        }
+
+        private void fecharFicheiro() {
+            if (saida != null) {
+                try {
+                    saida.close();
+                } catch (IOException e) {
+                    // Já não há onde registar
+                }
+                saida = null;
+            }
+        }
+
+        private void falhaFicheiro(IOException e) {
+            // Sem ficheiro, o registo continua na consola; tenta reabrir na próxima escrita
+            System.err.println("Log: Erro ao escrever no ficheiro " + ficheiro + ": " + e.getMessage());
+            fecharFicheiro();
+        }
+    }
+}
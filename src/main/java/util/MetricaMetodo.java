@@ -0,0 +1,224 @@
+package util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas de um método de DAO: chamadas, erros, linhas e histograma de latência.
+ * Obtida (uma vez, num campo static final) com Metricas.metodo("VeiculoDAO.filtrarVeiculos").
+ *
+ * O registo não usa locks: os contadores são LongAdder (uma célula por thread em contenção, somadas
+ * só na leitura) e o histograma tem intervalos fixos, pelo que registar uma chamada é um nanoTime,
+ * uma procura num array de 16 limites e três incrementos. A latência máxima só é escrita quando sobe.
+ *
+ * Utilização típica, como primeiro recurso do try-with-resources (fecha depois da conexão):
+ * <pre>
+ * try (MetricaMetodo.Medicao medicao = METRICA.medir();
+ *      Connection connection = ConexaoBD.getConnection(); ...) {
+ *     ...
+ *     medicao.linhas(lista.size());
+ * } catch (SQLException e) {
+ *     METRICA.erro();
+ *     ...
+ * }
+ * </pre>
+ */
+public final class MetricaMetodo implements MetricaMetodoMXBean {
+
+    // Limites superiores dos intervalos, em microssegundos (de 0,1 ms a 10 s; acima disso, o último intervalo)
+    private static final long[] LIMITES_US = {
+            100, 250, 500, 1_000, 2_500, 5_000, 10_000, 25_000, 50_000,
+            100_000, 250_000, 500_000, 1_000_000, 2_500_000, 5_000_000, 10_000_000
+    };
+    private static final long[] LIMITES_NANOS = new long[LIMITES_US.length];
+
+    static {
+        for (int i = 0; i < LIMITES_US.length; i++) {
+            LIMITES_NANOS[i] = LIMITES_US[i] * 1_000;
+        }
+    }
+
+    private final String nome;
+    private final LongAdder[] intervalos = new LongAdder[LIMITES_US.length + 1]; // A soma é o número de chamadas
+    private final LongAdder erros = new LongAdder();
+    private final LongAdder linhas = new LongAdder();
+    private final LongAdder latenciaTotalNanos = new LongAdder();
+    private final AtomicLong latenciaMaximaNanos = new AtomicLong();
+
+    MetricaMetodo(String nome) {
+        this.nome = nome;
+        for (int i = 0; i < intervalos.length; i++) {
+            intervalos[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Começa a medir uma chamada; a chamada é registada quando a medição é fechada.
+     */
+    public Medicao medir() {
+        return new Medicao(this, System.nanoTime());
+    }
+
+    /**
+     * Regista uma chamada já medida.
+     *
+     * @param nanos  Duração da chamada.
+     * @param linhas Linhas devolvidas ou afetadas.
+     */
+    public void registar(long nanos, long linhas) {
+        intervalos[intervalo(nanos)].increment();
+        latenciaTotalNanos.add(nanos);
+        if (linhas != 0) {
+            this.linhas.add(linhas);
+        }
+        long maxima = latenciaMaximaNanos.get();
+        while (nanos > maxima && !latenciaMaximaNanos.compareAndSet(maxima, nanos)) {
+            maxima = latenciaMaximaNanos.get();
+        }
+    }
+
+    /**
+     * Conta uma chamada que terminou com exceção (a latência é registada pela medição, como nas restantes).
+     */
+    public void erro() {
+        erros.increment();
+    }
+
+    @Override
+    public String getNome() {
+        return nome;
+    }
+
+    @Override
+    public long getChamadas() {
+        long total = 0;
+        for (LongAdder intervalo : intervalos) {
+            total += intervalo.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public long getErros() {
+        return erros.sum();
+    }
+
+    @Override
+    public long getLinhas() {
+        return linhas.sum();
+    }
+
+    @Override
+    public double getLatenciaMediaMs() {
+        long chamadas = getChamadas();
+        return chamadas == 0 ? 0.0 : latenciaTotalNanos.sum() / 1_000_000.0 / chamadas;
+    }
+
+    @Override
+    public double getLatenciaMaximaMs() {
+        return latenciaMaximaNanos.get() / 1_000_000.0;
+    }
+
+    @Override
+    public double getLatenciaP50Ms() {
+        return percentilMs(getHistograma(), 0.50);
+    }
+
+    @Override
+    public double getLatenciaP95Ms() {
+        return percentilMs(getHistograma(), 0.95);
+    }
+
+    @Override
+    public double getLatenciaP99Ms() {
+        return percentilMs(getHistograma(), 0.99);
+    }
+
+    @Override
+    public double[] getLimitesHistogramaMs() {
+        double[] limites = new double[LIMITES_US.length];
+        for (int i = 0; i < limites.length; i++) {
+            limites[i] = LIMITES_US[i] / 1_000.0;
+        }
+        return limites;
+    }
+
+    @Override
+    public long[] getHistograma() {
+        long[] contagens = new long[intervalos.length];
+        for (int i = 0; i < contagens.length; i++) {
+            contagens[i] = intervalos[i].sum();
+        }
+        return contagens;
+    }
+
+    /**
+     * Soma das latências de todas as chamadas, em segundos (para o ficheiro de métricas).
+     */
+    double getLatenciaTotalSegundos() {
+        return latenciaTotalNanos.sum() / 1_000_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        long[] histograma = getHistograma();
+        return String.format("Metrica[%s: chamadas=%d, erros=%d, linhas=%d, média=%.2f ms, p95=%.2f ms, máx=%.2f ms]",
+                nome, getChamadas(), getErros(), getLinhas(), getLatenciaMediaMs(),
+                percentilMs(histograma, 0.95), getLatenciaMaximaMs());
+    }
+
+    // --- Métodos auxiliares ---
+
+    private static int intervalo(long nanos) {
+        int i = 0;
+        while (i < LIMITES_NANOS.length && nanos > LIMITES_NANOS[i]) {
+            i++;
+        }
+        return i;
+    }
+
+    private double percentilMs(long[] histograma, double fracao) {
+        long total = 0;
+        for (long contagem : histograma) {
+            total += contagem;
+        }
+        if (total == 0) {
+            return 0.0;
+        }
+        long alvo = (long) Math.ceil(total * fracao);
+        long acumulado = 0;
+        for (int i = 0; i < LIMITES_US.length; i++) {
+            acumulado += histograma[i];
+            if (acumulado >= alvo) {
+                return LIMITES_US[i] / 1_000.0;
+            }
+        }
+        return getLatenciaMaximaMs(); // Cai no último intervalo, que não tem limite
+    }
+
+    /**
+     * Medição de uma chamada em curso; fechá-la regista a duração e as linhas indicadas.
+     */
+    public static final class Medicao implements AutoCloseable {
+        private final MetricaMetodo metrica;
+        private final long inicio;
+        private long linhas;
+
+        private Medicao(MetricaMetodo metrica, long inicio) {
+            this.metrica = metrica;
+            this.inicio = inicio;
+        }
+
+        /**
+         * Define as linhas devolvidas ou afetadas por esta chamada.
+         */
+        public void linhas(long linhas) {
+            this.linhas = linhas;
+        }
+
+        @Override
+        public void close() {
+            metrica.registar(System.nanoTime() - inicio, linhas);
+        }
+    }
+}
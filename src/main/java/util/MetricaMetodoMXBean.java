@@ -0,0 +1,35 @@
+package util;
+
+/**
+ * Interface JMX (MXBean) das métricas de um método de DAO, visível em JConsole/VisualVM
+ * no domínio "gsa", tipo "Metricas". Os tempos são em milissegundos.
+ */
+public interface MetricaMetodoMXBean {
+
+    String getNome();
+
+    long getChamadas();
+
+    // Chamadas que terminaram com exceção (SQLException ou outra)
+    long getErros();
+
+    // Linhas devolvidas ou afetadas, somadas sobre todas as chamadas
+    long getLinhas();
+
+    double getLatenciaMediaMs();
+
+    double getLatenciaMaximaMs();
+
+    // Percentis estimados pelo histograma (limite superior do intervalo onde caem)
+    double getLatenciaP50Ms();
+
+    double getLatenciaP95Ms();
+
+    double getLatenciaP99Ms();
+
+    // Limites superiores dos intervalos do histograma (o último intervalo não tem limite)
+    double[] getLimitesHistogramaMs();
+
+    // Chamadas em cada intervalo do histograma (mais uma posição do que os limites)
+    long[] getHistograma();
+}
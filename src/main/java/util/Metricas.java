@@ -0,0 +1,219 @@
+package util;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Classe singleton com o registo das métricas dos DAOs (uma MetricaMetodo por método, pelo nome
+ * "Classe.metodo"). Cada métrica é exportada de duas formas:
+ *
+ * - como MXBean JMX (gsa:type=Metricas,name=VeiculoDAO.filtrarVeiculos), para JConsole/VisualVM;
+ * - num ficheiro de texto no formato de exposição do Prometheus, reescrito periodicamente por uma
+ *   thread própria (e uma última vez ao terminar), que pode ser recolhido nas máquinas das lojas
+ *   (ex: pelo textfile collector do node_exporter). O ficheiro é escrito num temporário e movido,
+ *   pelo que quem o lê nunca apanha uma escrita a meio.
+ *
+ * O ficheiro leva também os tempos do último arranque (ver service.Arranque), para acompanhar a sua
+ * evolução de versão para versão.
+ *
+ * Propriedades de sistema: gsa.metricas.ficheiro (caminho; vazio desliga o ficheiro) e
+ * gsa.metricas.periodoMs (intervalo entre escritas).
+ */
+public final class Metricas {
+
+    private static final Log LOG = Log.de(Metricas.class);
+
+    public static final String PROPRIEDADE_FICHEIRO = "gsa.metricas.ficheiro";
+    public static final String PROPRIEDADE_PERIODO_MS = "gsa.metricas.periodoMs";
+
+    private static final String FICHEIRO_PADRAO =
+            Paths.get(System.getProperty("user.home"), ".gsa", "metricas.prom").toString();
+    private static final long PERIODO_PADRAO_MS = 60_000;
+    private static final String DOMINIO_JMX = "gsa";
+
+    private static final Metricas instance = new Metricas();
+
+    // Ordenado pelo nome: o ficheiro sai sempre pela mesma ordem
+    private final Map<String, MetricaMetodo> metricas = new ConcurrentSkipListMap<>();
+    private final Map<String, Long> arranque = new ConcurrentSkipListMap<>(); // Etapa -> milissegundos
+    private final Path ficheiro;
+
+    private Metricas() {
+        String caminho = System.getProperty(PROPRIEDADE_FICHEIRO, FICHEIRO_PADRAO).trim();
+        this.ficheiro = caminho.isEmpty() ? null : Paths.get(caminho);
+        if (ficheiro != null) {
+            long periodo = Math.max(1_000, Long.getLong(PROPRIEDADE_PERIODO_MS, PERIODO_PADRAO_MS));
+            ScheduledExecutorService escritor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "gsa-metricas");
+                t.setDaemon(true);
+                return t;
+            });
+            escritor.scheduleWithFixedDelay(this::escreverFicheiro, periodo, periodo, TimeUnit.MILLISECONDS);
+            Runtime.getRuntime().addShutdownHook(new Thread(this::escreverFicheiro, "gsa-metricas-encerramento"));
+        }
+    }
+
+    public static Metricas getInstance() {
+        return instance;
+    }
+
+    /**
+     * Obtém (criando e registando no JMX na primeira vez) a métrica de um método.
+     *
+     * @param nome Nome do método, no formato "Classe.metodo".
+     */
+    public static MetricaMetodo metodo(String nome) {
+        return instance.obter(nome);
+    }
+
+    /**
+     * Todas as métricas registadas, ordenadas pelo nome.
+     */
+    public List<MetricaMetodo> getMetricas() {
+        return new ArrayList<>(metricas.values());
+    }
+
+    /**
+     * Guarda a duração de uma etapa do arranque (substitui o valor anterior da mesma etapa).
+     *
+     * @param etapa         Nome da etapa (ex: "login_visivel").
+     * @param milissegundos Duração em milissegundos.
+     */
+    public void registarArranque(String etapa, long milissegundos) {
+        arranque.put(etapa, milissegundos);
+    }
+
+    public Path getFicheiro() {
+        return ficheiro;
+    }
+
+    /**
+     * Fotografia de todas as métricas, no formato de exposição de texto do Prometheus.
+     */
+    public String instantaneo() {
+        StringBuilder sb = new StringBuilder(4096);
+        List<MetricaMetodo> todas = getMetricas();
+
+        sb.append("# HELP gsa_dao_chamadas_total Chamadas a cada método de DAO.\n");
+        sb.append("# TYPE gsa_dao_chamadas_total counter\n");
+        for (MetricaMetodo m : todas) {
+            linha(sb, "gsa_dao_chamadas_total", m, null, m.getChamadas());
+        }
+        sb.append("# HELP gsa_dao_erros_total Chamadas que terminaram com exceção.\n");
+        sb.append("# TYPE gsa_dao_erros_total counter\n");
+        for (MetricaMetodo m : todas) {
+            linha(sb, "gsa_dao_erros_total", m, null, m.getErros());
+        }
+        sb.append("# HELP gsa_dao_linhas_total Linhas devolvidas ou afetadas.\n");
+        sb.append("# TYPE gsa_dao_linhas_total counter\n");
+        for (MetricaMetodo m : todas) {
+            linha(sb, "gsa_dao_linhas_total", m, null, m.getLinhas());
+        }
+        sb.append("# HELP gsa_dao_latencia_segundos Latência de cada método de DAO.\n");
+        sb.append("# TYPE gsa_dao_latencia_segundos histogram\n");
+        for (MetricaMetodo m : todas) {
+            long[] histograma = m.getHistograma();
+            double[] limites = m.getLimitesHistogramaMs();
+            long acumulado = 0;
+            for (int i = 0; i < histograma.length; i++) {
+                acumulado += histograma[i];
+                String le = i < limites.length ? formatar(limites[i] / 1_000.0) : "+Inf";
+                linha(sb, "gsa_dao_latencia_segundos_bucket", m, le, acumulado);
+            }
+            sb.append("gsa_dao_latencia_segundos_sum{metodo=\"").append(m.getNome()).append("\"} ")
+                    .append(formatar(m.getLatenciaTotalSegundos())).append('\n');
+            // A contagem é a soma do próprio histograma: fica coerente com os intervalos
+            linha(sb, "gsa_dao_latencia_segundos_count", m, null, acumulado);
+        }
+        if (!arranque.isEmpty()) {
+            sb.append("# HELP gsa_arranque_milissegundos Etapas do arranque (marcos desde o início da JVM, fases pela sua duração).\n");
+            sb.append("# TYPE gsa_arranque_milissegundos gauge\n");
+            for (Map.Entry<String, Long> etapa : arranque.entrySet()) {
+                sb.append("gsa_arranque_milissegundos{etapa=\"").append(etapa.getKey()).append("\"} ")
+                        .append(etapa.getValue()).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Reescreve o ficheiro de métricas com a fotografia atual (se o ficheiro estiver ligado).
+     */
+    public void escreverFicheiro() {
+        if (ficheiro == null) {
+            return;
+        }
+        try {
+            Path pasta = ficheiro.toAbsolutePath().getParent();
+            if (pasta != null) {
+                Files.createDirectories(pasta);
+            }
+            Path temporario = ficheiro.resolveSibling(ficheiro.getFileName() + ".tmp");
+            Files.write(temporario, instantaneo().getBytes(StandardCharsets.UTF_8));
+            try {
+                Files.move(temporario, ficheiro, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporario, ficheiro, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            LOG.aviso("Erro ao escrever o ficheiro de métricas {}: {}", ficheiro, e.getMessage());
+        }
+    }
+
+    // --- Métodos auxiliares ---
+
+    private MetricaMetodo obter(String nome) {
+        MetricaMetodo existente = metricas.get(nome);
+        if (existente != null) {
+            return existente;
+        }
+        MetricaMetodo nova = new MetricaMetodo(nome);
+        existente = metricas.putIfAbsent(nome, nova);
+        if (existente != null) {
+            return existente;
+        }
+        registarJmx(nova);
+        return nova;
+    }
+
+    private static void registarJmx(MetricaMetodo metrica) {
+        try {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            servidor.registerMBean(metrica, new ObjectName(DOMINIO_JMX + ":type=Metricas,name=" + ObjectName.quote(metrica.getNome())));
+        } catch (InstanceAlreadyExistsException e) {
+            // Outra instância da aplicação na mesma JVM (ex: benchmarks): fica a primeira
+        } catch (JMException | RuntimeException e) {
+            LOG.aviso("Não foi possível registar {} no JMX: {}", metrica.getNome(), e.getMessage());
+        }
+    }
+
+    private static void linha(StringBuilder sb, String nomeMetrica, MetricaMetodo m, String le, long valor) {
+        sb.append(nomeMetrica).append("{metodo=\"").append(m.getNome()).append('"');
+        if (le != null) {
+            sb.append(",le=\"").append(le).append('"');
+        }
+        sb.append("} ").append(valor).append('\n');
+    }
+
+    private static String formatar(double valor) {
+        return String.format(Locale.ROOT, "%.6f", valor);
+    }
+}
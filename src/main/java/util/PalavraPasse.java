@@ -0,0 +1,140 @@
+package util;
+
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.util.Arrays;
+
+/**
+ * Geração e verificação de hashes BCrypt das palavras-passe dos utilizadores.
+ * O custo (log2 do número de rondas) é calibrado no arranque para que uma verificação
+ * demore aproximadamente o tempo alvo nesta máquina.
+ */
+public final class PalavraPasse {
+
+    private static final Log LOG = Log.de(PalavraPasse.class);
+
+    // Propriedade de sistema com o tempo alvo de uma verificação BCrypt, em milissegundos
+    public static final String PROPRIEDADE_ALVO_MS = "gsa.bcrypt.alvoMs";
+
+    private static final long ALVO_PADRAO_MS = 250;
+    private static final int CUSTO_MINIMO = 10;   // Abaixo disto o hash é demasiado barato para um ataque offline
+    private static final int CUSTO_MAXIMO = 16;
+    private static final int CUSTO_REFERENCIA = 8; // Custo medido para extrapolar os restantes
+    // Amostras por medição (usa-se a mediana: uma pausa do GC ou outra thread não decide o custo)
+    private static final int AMOSTRAS_REFERENCIA = 7;
+    private static final int AMOSTRAS_CONFIRMACAO = 3;
+
+    private static volatile int custo = CUSTO_MINIMO;
+    private static volatile boolean calibrado;
+
+    private PalavraPasse() {
+    }
+
+    /**
+     * Mede o BCrypt nesta máquina e escolhe o maior custo cuja verificação não ultrapassa o tempo alvo.
+     * Deve ser chamado no arranque, fora do EDT; até lá é usado o custo mínimo e nenhum hash é recalculado.
+     *
+     * @return O custo escolhido.
+     */
+    public static synchronized int calibrar() {
+        long alvoMs = Long.getLong(PROPRIEDADE_ALVO_MS, ALVO_PADRAO_MS);
+        BCrypt.hashpw("aquecimento", BCrypt.gensalt(CUSTO_REFERENCIA)); // Aquecimento do JIT
+
+        // Cada unidade de custo duplica o tempo: extrapola a partir do custo de referência
+        double referenciaMs = medianaMs(CUSTO_REFERENCIA, AMOSTRAS_REFERENCIA);
+        int escolhido = CUSTO_REFERENCIA;
+        double estimadoMs = referenciaMs;
+        while (escolhido < CUSTO_MAXIMO && estimadoMs * 2 <= alvoMs) {
+            escolhido++;
+            estimadoMs *= 2;
+        }
+        escolhido = Math.max(CUSTO_MINIMO, escolhido);
+
+        // Confirma com uma medição real (a extrapolação pode falhar com turbo/escalonamento)
+        double medidoMs = medianaMs(escolhido, AMOSTRAS_CONFIRMACAO);
+        if (medidoMs > alvoMs * 1.5 && escolhido > CUSTO_MINIMO) {
+            escolhido--;
+        }
+
+        custo = escolhido;
+        calibrado = true;
+        LOG.info("Custo BCrypt calibrado para {} ({} ms medidos, alvo {} ms).",
+                escolhido, String.format("%.1f", medidoMs), alvoMs);
+        return escolhido;
+    }
+
+    /**
+     * Custo usado nos novos hashes.
+     */
+    public static int getCusto() {
+        return custo;
+    }
+
+    /**
+     * Gera o hash BCrypt de uma palavra-passe com o custo atual.
+     */
+    public static String gerarHash(String palavraPasse) {
+        return BCrypt.hashpw(palavraPasse, BCrypt.gensalt(custo));
+    }
+
+    /**
+     * Verifica uma palavra-passe contra um hash guardado.
+     *
+     * @return true se corresponder; false se não corresponder ou se o hash for inválido.
+     */
+    public static boolean verificar(String palavraPasse, String hash) {
+        if (palavraPasse == null || hash == null) {
+            return false;
+        }
+        try {
+            return BCrypt.checkpw(palavraPasse, hash);
+        } catch (IllegalArgumentException e) {
+            LOG.aviso("Hash guardado inválido: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Custo com que um hash foi gerado ("$2a$10$..." tem custo 10), ou -1 se o formato não for reconhecido.
+     */
+    public static int custoDe(String hash) {
+        if (hash == null || hash.length() < 7 || hash.charAt(0) != '$' || hash.charAt(3) != '$' || hash.charAt(6) != '$') {
+            return -1;
+        }
+        char dezenas = hash.charAt(4);
+        char unidades = hash.charAt(5);
+        if (dezenas < '0' || dezenas > '9' || unidades < '0' || unidades > '9') {
+            return -1;
+        }
+        return (dezenas - '0') * 10 + (unidades - '0');
+    }
+
+    /**
+     * Indica se um hash deve ser recalculado com o custo atual: só se for mais barato do que o custo
+     * calibrado. Um hash mais caro nunca é baixado (uma calibração num arranque lento ou numa máquina
+     * mais fraca não pode enfraquecer os hashes guardados). Só depois de calibrar.
+     */
+    public static boolean precisaRecalcular(String hash) {
+        if (!calibrado) {
+            return false;
+        }
+        int atual = custoDe(hash);
+        return atual > 0 && atual < custo;
+    }
+
+    private static double medianaMs(int custoMedido, int amostras) {
+        double[] tempos = new double[amostras];
+        for (int i = 0; i < amostras; i++) {
+            tempos[i] = medirMs(custoMedido);
+        }
+        Arrays.sort(tempos);
+        return tempos[amostras / 2];
+    }
+
+    private static double medirMs(int custoMedido) {
+        String sal = BCrypt.gensalt(custoMedido);
+        long inicio = System.nanoTime();
+        BCrypt.hashpw("calibracao", sal);
+        return (System.nanoTime() - inicio) / 1_000_000.0;
+    }
+}
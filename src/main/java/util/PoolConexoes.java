@@ -0,0 +1,564 @@
+package util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pool de conexões JDBC limitado, usado internamente pela ConexaoBD.
+ * As conexões devolvidas aos DAOs são proxies: chamar close() devolve a conexão ao pool
+ * em vez de fechar o socket, pelo que os blocos try-with-resources existentes continuam válidos.
+ * <p>
+ * Conexões partidas (socket caído, servidor reiniciado) nunca voltam ao pool: são descartadas na
+ * devolução ou na validação do empréstimo, e a criação de uma nova é repetida com espera crescente
+ * até ao timeout do empréstimo. Conexões emprestadas há mais de limiteFugaMs são reportadas,
+ * com o stack trace do ponto onde foram obtidas.
+ * <p>
+ * Cada conexão física guarda os seus PreparedStatements numa cache LRU (CacheStatements), pelo que
+ * o mesmo SQL só é preparado uma vez por conexão enquanto esta viver.
+ */
+public class PoolConexoes {
+
+    private static final Log LOG = Log.de(PoolConexoes.class);
+
+    // Conexões usadas há menos tempo do que isto não são revalidadas no empréstimo
+    private static final long JANELA_SEM_VALIDACAO_MS = 500;
+    private static final int TIMEOUT_VALIDACAO_SEG = 2;
+    // Espera entre tentativas de religação quando o servidor não está acessível
+    private static final long ESPERA_RELIGACAO_INICIAL_MS = 100;
+    private static final long ESPERA_RELIGACAO_MAXIMA_MS = 2_000;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int tamanhoMinimo;
+    private final int tamanhoMaximo;
+    private final long timeoutEmprestimoMs;
+    private final long tempoMaximoOciosoMs;
+    private final long tempoMaximoVidaMs;
+    private final long limiteFugaMs;
+    private final int tamanhoCacheStatements;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition disponivel = lock.newCondition();
+    private final ArrayDeque<LigacaoFisica> ociosas = new ArrayDeque<>(); // LIFO: reutiliza as mais "quentes"
+    private int total;   // conexões físicas existentes (ou a ser criadas)
+    private int ativas;  // conexões emprestadas aos DAOs
+    private boolean encerrado;
+
+    private final ScheduledExecutorService manutencao;
+
+    // Empréstimos em curso, vigiados pelo detetor de fugas (vazio se a deteção estiver desligada)
+    private final Set<Emprestimo> emprestadas = ConcurrentHashMap.newKeySet();
+
+    // Estatísticas
+    private final AtomicLong emprestimos = new AtomicLong();
+    private final AtomicLong esperas = new AtomicLong();
+    private final AtomicLong esperaTotalNanos = new AtomicLong();
+    private final AtomicLong esperaMaximaNanos = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong criadas = new AtomicLong();
+    private final AtomicLong descartadas = new AtomicLong();
+    private final AtomicLong partidas = new AtomicLong();
+    private final AtomicLong religacoes = new AtomicLong();
+    private final AtomicLong fugas = new AtomicLong();
+    private final CacheStatements.Contadores contadoresStatements = new CacheStatements.Contadores();
+
+    public PoolConexoes(String url, String user, String password,
+                        int tamanhoMinimo, int tamanhoMaximo,
+                        long timeoutEmprestimoMs, long tempoMaximoOciosoMs, long tempoMaximoVidaMs,
+                        long limiteFugaMs, int tamanhoCacheStatements) {
+        if (tamanhoMaximo <= 0 || tamanhoMinimo < 0 || tamanhoMinimo > tamanhoMaximo) {
+            throw new IllegalArgumentException("Configuração de pool inválida: min=" + tamanhoMinimo + ", max=" + tamanhoMaximo);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.tamanhoMinimo = tamanhoMinimo;
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.timeoutEmprestimoMs = timeoutEmprestimoMs;
+        this.tempoMaximoOciosoMs = tempoMaximoOciosoMs;
+        this.tempoMaximoVidaMs = tempoMaximoVidaMs;
+        this.limiteFugaMs = limiteFugaMs;
+        this.tamanhoCacheStatements = tamanhoCacheStatements;
+
+        this.manutencao = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "gsa-pool-manutencao");
+            t.setDaemon(true);
+            return t;
+        });
+        long periodo = Math.max(1000, Math.min(tempoMaximoOciosoMs, tempoMaximoVidaMs) / 2);
+        manutencao.scheduleWithFixedDelay(this::executarManutencao, periodo, periodo, TimeUnit.MILLISECONDS);
+        if (limiteFugaMs > 0) {
+            long periodoFugas = Math.max(1000, limiteFugaMs / 2);
+            manutencao.scheduleWithFixedDelay(this::detetarFugas, periodoFugas, periodoFugas, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Cria conexões até atingir o tamanho mínimo, para que os primeiros pedidos não paguem o handshake.
+     */
+    public void aquecer() {
+        preencherAteMinimo();
+    }
+
+    /**
+     * Empresta uma conexão do pool, esperando no máximo timeoutEmprestimoMs.
+     *
+     * @return Uma conexão validada; close() devolve-a ao pool.
+     * @throws SQLException se o pool estiver encerrado, se o timeout expirar ou se a criação falhar.
+     */
+    public Connection obter() throws SQLException {
+        long inicio = System.nanoTime();
+        long prazo = inicio + TimeUnit.MILLISECONDS.toNanos(timeoutEmprestimoMs);
+        boolean esperou = false;
+
+        while (true) {
+            LigacaoFisica ligacao = null;
+            boolean criar = false;
+
+            lock.lock();
+            try {
+                while (true) {
+                    if (encerrado) {
+                        throw new SQLException("O pool de conexões foi encerrado.");
+                    }
+                    ligacao = ociosas.pollFirst();
+                    if (ligacao != null) {
+                        ativas++;
+                        break;
+                    }
+                    if (total < tamanhoMaximo) {
+                        total++;
+                        ativas++;
+                        criar = true;
+                        break;
+                    }
+                    long restante = prazo - System.nanoTime();
+                    if (restante <= 0) {
+                        timeouts.incrementAndGet();
+                        throw new SQLException("Timeout ao obter conexão do pool após " + timeoutEmprestimoMs +
+                                " ms (ativas=" + ativas + ", máximo=" + tamanhoMaximo + ").");
+                    }
+                    esperou = true;
+                    try {
+                        disponivel.awaitNanos(restante);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrompido à espera de uma conexão do pool.", e);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (criar) {
+                try {
+                    ligacao = criarLigacaoComRepeticao(prazo);
+                } catch (SQLException e) {
+                    libertarVaga(true);
+                    throw e;
+                }
+            } else if (!isUtilizavel(ligacao)) {
+                partidas.incrementAndGet();
+                descartar(ligacao);
+                libertarVaga(true);
+                continue;
+            }
+
+            registarEspera(System.nanoTime() - inicio, esperou);
+            emprestimos.incrementAndGet();
+            return emprestar(ligacao);
+        }
+    }
+
+    /**
+     * Devolve uma conexão ao pool. Chamado pelo proxy quando o DAO fecha a conexão.
+     */
+    void devolver(Emprestimo emprestimo) {
+        LigacaoFisica ligacao = emprestimo.ligacao;
+        emprestadas.remove(emprestimo);
+        if (emprestimo.reportada) {
+            LOG.aviso("Conexão reportada como fuga foi devolvida após {} ms (thread {}).",
+                    System.currentTimeMillis() - emprestimo.obtidaEm, emprestimo.thread);
+        }
+        if (ligacao.partida) {
+            partidas.incrementAndGet();
+        }
+        boolean reutilizar = !ligacao.partida && !ligacao.expirou(tempoMaximoVidaMs) && repor(ligacao);
+
+        lock.lock();
+        try {
+            ativas--;
+            if (reutilizar && !encerrado) {
+                ligacao.ultimoUso = System.currentTimeMillis();
+                ociosas.offerFirst(ligacao);
+            } else {
+                total--;
+                reutilizar = false;
+            }
+            disponivel.signal();
+        } finally {
+            lock.unlock();
+        }
+
+        if (!reutilizar) {
+            descartar(ligacao);
+        }
+    }
+
+    /**
+     * Fecha todas as conexões ociosas e impede novos empréstimos.
+     * As conexões ativas são fechadas quando forem devolvidas.
+     */
+    public void encerrar() {
+        List<LigacaoFisica> aFechar;
+        lock.lock();
+        try {
+            encerrado = true;
+            aFechar = new ArrayList<>(ociosas);
+            total -= ociosas.size();
+            ociosas.clear();
+            disponivel.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        manutencao.shutdownNow();
+        aFechar.forEach(this::descartar);
+    }
+
+    public EstatisticasPool getEstatisticas() {
+        int ativasAgora;
+        int ociosasAgora;
+        int totalAgora;
+        lock.lock();
+        try {
+            ativasAgora = ativas;
+            ociosasAgora = ociosas.size();
+            totalAgora = total;
+        } finally {
+            lock.unlock();
+        }
+        long n = esperas.get();
+        return new EstatisticasPool(ativasAgora, ociosasAgora, totalAgora, tamanhoMaximo,
+                emprestimos.get(), n,
+                n == 0 ? 0.0 : esperaTotalNanos.get() / (double) n / 1_000_000.0,
+                esperaMaximaNanos.get() / 1_000_000.0,
+                timeouts.get(), criadas.get(), descartadas.get(),
+                partidas.get(), religacoes.get(), emprestadas.size(), fugas.get(),
+                contadoresStatements.reutilizados.get(), contadoresStatements.preparados.get(),
+                contadoresStatements.despejados.get());
+    }
+
+    // --- Métodos auxiliares ---
+
+    private LigacaoFisica criarLigacao() throws SQLException {
+        Connection real = DriverManager.getConnection(url, user, password);
+        criadas.incrementAndGet();
+        return new LigacaoFisica(real, new CacheStatements(tamanhoCacheStatements, contadoresStatements));
+    }
+
+    // Cria uma conexão, repetindo com espera crescente enquanto o servidor estiver inacessível e o prazo o permitir
+    private LigacaoFisica criarLigacaoComRepeticao(long prazo) throws SQLException {
+        long espera = ESPERA_RELIGACAO_INICIAL_MS;
+        boolean repetiu = false;
+        while (true) {
+            try {
+                LigacaoFisica ligacao = criarLigacao();
+                if (repetiu) {
+                    religacoes.incrementAndGet();
+                }
+                return ligacao;
+            } catch (SQLException e) {
+                long restante = TimeUnit.NANOSECONDS.toMillis(prazo - System.nanoTime());
+                if (!isFalhaLigacao(e) || restante <= espera) {
+                    throw e;
+                }
+                LOG.aviso("Servidor inacessível ({}), nova tentativa em {} ms.", e.getMessage(), espera);
+                try {
+                    Thread.sleep(espera);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrompido ao tentar restabelecer a conexão.", ie);
+                }
+                repetiu = true;
+                espera = Math.min(espera * 2, ESPERA_RELIGACAO_MAXIMA_MS);
+            }
+        }
+    }
+
+    /**
+     * Indica se o erro significa que a conexão (ou o servidor) deixou de estar utilizável,
+     * por oposição a um erro do próprio comando SQL. SQLState da classe 08 = exceção de conexão.
+     */
+    static boolean isFalhaLigacao(SQLException e) {
+        if (e instanceof SQLNonTransientConnectionException
+                || e instanceof SQLTransientConnectionException
+                || e instanceof SQLRecoverableException) {
+            return true;
+        }
+        String estado = e.getSQLState();
+        return estado != null && estado.startsWith("08");
+    }
+
+    private Connection emprestar(LigacaoFisica ligacao) {
+        Emprestimo emprestimo = new Emprestimo(this, ligacao, limiteFugaMs > 0);
+        if (limiteFugaMs > 0) {
+            emprestadas.add(emprestimo);
+        }
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                emprestimo);
+    }
+
+    // Reporta (uma vez) cada conexão emprestada há mais de limiteFugaMs, com o ponto onde foi obtida
+    private void detetarFugas() {
+        long agora = System.currentTimeMillis();
+        for (Emprestimo emprestimo : emprestadas) {
+            if (!emprestimo.reportada && agora - emprestimo.obtidaEm > limiteFugaMs) {
+                emprestimo.reportada = true;
+                fugas.incrementAndGet();
+                // A origem (se registada) sai com o stack trace de onde a conexão foi obtida
+                LOG.aviso("Possível fuga de conexão: emprestada há {} ms à thread {} (limite {} ms).",
+                        agora - emprestimo.obtidaEm, emprestimo.thread, limiteFugaMs, emprestimo.origem);
+            }
+        }
+    }
+
+    private boolean isUtilizavel(LigacaoFisica ligacao) {
+        if (ligacao.expirou(tempoMaximoVidaMs)) {
+            return false;
+        }
+        if (System.currentTimeMillis() - ligacao.ultimoUso < JANELA_SEM_VALIDACAO_MS) {
+            return true;
+        }
+        try {
+            return ligacao.real.isValid(TIMEOUT_VALIDACAO_SEG);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    // Repõe o estado da conexão para o próximo utilizador; false se a conexão estiver inutilizável
+    private boolean repor(LigacaoFisica ligacao) {
+        try {
+            if (ligacao.real.isClosed()) {
+                return false;
+            }
+            if (!ligacao.real.getAutoCommit()) {
+                ligacao.real.rollback();
+                ligacao.real.setAutoCommit(true);
+            }
+            if (ligacao.real.isReadOnly()) {
+                ligacao.real.setReadOnly(false);
+            }
+            ligacao.real.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void libertarVaga(boolean eraAtiva) {
+        lock.lock();
+        try {
+            total--;
+            if (eraAtiva) {
+                ativas--;
+            }
+            disponivel.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void descartar(LigacaoFisica ligacao) {
+        descartadas.incrementAndGet();
+        ligacao.statements.fecharTodos();
+        try {
+            ligacao.real.close();
+        } catch (SQLException ignored) {
+            // A conexão já estava partida; nada a fazer
+        }
+    }
+
+    private void registarEspera(long nanos, boolean esperou) {
+        if (!esperou) {
+            return;
+        }
+        esperas.incrementAndGet();
+        esperaTotalNanos.addAndGet(nanos);
+        esperaMaximaNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private void executarManutencao() {
+        List<LigacaoFisica> aFechar = new ArrayList<>();
+        long agora = System.currentTimeMillis();
+        lock.lock();
+        try {
+            Iterator<LigacaoFisica> it = ociosas.descendingIterator(); // das mais antigas para as mais recentes
+            while (it.hasNext()) {
+                LigacaoFisica ligacao = it.next();
+                boolean ociosaDemais = agora - ligacao.ultimoUso > tempoMaximoOciosoMs && total > tamanhoMinimo;
+                if (ociosaDemais || ligacao.expirou(tempoMaximoVidaMs)) {
+                    it.remove();
+                    total--;
+                    aFechar.add(ligacao);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        aFechar.forEach(this::descartar);
+        preencherAteMinimo();
+    }
+
+    private void preencherAteMinimo() {
+        while (true) {
+            lock.lock();
+            try {
+                if (encerrado || total >= tamanhoMinimo) {
+                    return;
+                }
+                total++;
+            } finally {
+                lock.unlock();
+            }
+
+            LigacaoFisica ligacao;
+            try {
+                ligacao = criarLigacao();
+            } catch (SQLException e) {
+                libertarVaga(false);
+                LOG.aviso("Erro ao pré-criar conexão: {}", e.getMessage());
+                return;
+            }
+
+            lock.lock();
+            try {
+                ociosas.offerLast(ligacao);
+                disponivel.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Conexão física ao MySQL e respetivos tempos de vida.
+     */
+    static final class LigacaoFisica {
+        private final Connection real;
+        private final long criadaEm = System.currentTimeMillis();
+        private volatile long ultimoUso = criadaEm;
+        private final CacheStatements statements;
+        private volatile boolean partida; // Houve um erro de conexão: não pode voltar ao pool
+
+        private LigacaoFisica(Connection real, CacheStatements statements) {
+            this.real = real;
+            this.statements = statements;
+        }
+
+        private boolean expirou(long tempoMaximoVidaMs) {
+            return System.currentTimeMillis() - criadaEm > tempoMaximoVidaMs;
+        }
+    }
+
+    /**
+     * Handler do proxy devolvido aos DAOs: intercepta close()/isClosed(), serve prepareStatement(sql)
+     * a partir da cache de statements da conexão e delega o resto.
+     * Guarda também quando, por quem e onde a conexão foi obtida, para o detetor de fugas.
+     */
+    private static final class Emprestimo implements InvocationHandler {
+        private final PoolConexoes pool;
+        private final LigacaoFisica ligacao;
+        private final long obtidaEm = System.currentTimeMillis();
+        private final String thread = Thread.currentThread().getName();
+        private final Throwable origem;
+        private volatile boolean reportada;
+        private boolean fechada;
+
+        private Emprestimo(PoolConexoes pool, LigacaoFisica ligacao, boolean guardarOrigem) {
+            this.pool = pool;
+            this.ligacao = ligacao;
+            this.origem = guardarOrigem ? new Throwable("Conexão obtida aqui") : null;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!fechada) {
+                        fechada = true;
+                        pool.devolver(this);
+                    }
+                    return null;
+                case "isClosed":
+                    return fechada || ligacao.real.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PoolConexoes$Emprestimo[" + ligacao.real + "]";
+                case "prepareStatement":
+                    if (!fechada && isPrepararCacheavel(args)) {
+                        int chavesGeradas = args.length == 2 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS;
+                        try {
+                            return ligacao.statements.obter(ligacao.real, (Connection) proxy, (String) args[0],
+                                    chavesGeradas, () -> ligacao.partida = true);
+                        } catch (SQLException e) {
+                            if (isFalhaLigacao(e)) {
+                                ligacao.partida = true;
+                            }
+                            throw e;
+                        }
+                    }
+                    return delegar(method, args);
+                default:
+                    return delegar(method, args);
+            }
+        }
+
+        private Object delegar(Method method, Object[] args) throws Throwable {
+            if (fechada) {
+                throw new SQLException("A conexão já foi devolvida ao pool.");
+            }
+            try {
+                return method.invoke(ligacao.real, args);
+            } catch (InvocationTargetException e) {
+                Throwable causa = e.getCause();
+                if (causa instanceof SQLException && isFalhaLigacao((SQLException) causa)) {
+                    ligacao.partida = true;
+                }
+                throw causa;
+            }
+        }
+
+        // Só prepareStatement(String) e prepareStatement(String, int autoGeneratedKeys) passam pela cache
+        private static boolean isPrepararCacheavel(Object[] args) {
+            return args.length == 1 || (args.length == 2 && args[1] instanceof Integer);
+        }
+    }
+}
@@ -105,6 +105,20 @@ public class CriarNovoClienteView extends ThemedView {
         btnVoltar.addActionListener(listener);
     }
 
+    /**
+     * Repõe o formulário vazio (a janela é reutilizada entre visitas).
+     */
+    public void limparCampos() {
+        txtNomeCompleto.setText("");
+        txtTelefone.setText("");
+        txtEmail.setText("");
+    }
+
+    public void setCarregando(boolean carregando) {
+        btnCriarCliente.setEnabled(!carregando);
+        setCursor(carregando ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : Cursor.getDefaultCursor());
+    }
+
     public boolean validarCampos() {
         String nome = getNomeCompleto();
         String telefone = getTelefone();
@@ -28,8 +28,9 @@ public class EditarVeiculoView extends ThemedView {
     private JTextField txtPreco;
     private JComboBox<Estado> cmbEstado;
     private JComboBox<Cidade> cmbCidade;
-    private JComboBox<Utilizador> cmbResponsavel;
-    private JComboBox<Comprador> cmbComprador;
+    // Seletores com pesquisa: só a entidade selecionada é carregada ao abrir o ecrã
+    private SeletorPesquisa<Utilizador> seletorResponsavel;
+    private SeletorPesquisa<Comprador> seletorComprador;
 
     private JDatePickerImpl datePickerDataVenda;
     private UtilDateModel dateModel;
@@ -55,8 +56,10 @@ public class EditarVeiculoView extends ThemedView {
 
         cmbEstado = createStyledComboBox();
         cmbCidade = createStyledComboBox();
-        cmbResponsavel = createStyledComboBox();
-        cmbComprador = createStyledComboBox();
+        seletorResponsavel = new SeletorPesquisa<>(createStyledTextField(20));
+        seletorComprador = new SeletorPesquisa<>(createStyledTextField(20));
+        seletorComprador.setDescricaoNaLista(c -> c.getEmail() != null
+                ? c.getNomeCompleto() + " (" + c.getEmail() + ")" : c.getNomeCompleto());
 
         // Inicializar JDatePicker
         dateModel = new UtilDateModel();
@@ -155,7 +158,7 @@ public class EditarVeiculoView extends ThemedView {
         mainPanel.add(createStyledLabel("Responsável:"), gbc);
         gbc.gridx = 1;
         gbc.weightx = 1.0;
-        mainPanel.add(cmbResponsavel, gbc);
+        mainPanel.add(seletorResponsavel, gbc);
 
         gbc.gridx = 0;
         gbc.gridy++;
@@ -163,7 +166,7 @@ public class EditarVeiculoView extends ThemedView {
         mainPanel.add(createStyledLabel("Comprador:"), gbc);
         gbc.gridx = 1;
         gbc.weightx = 1.0;
-        mainPanel.add(cmbComprador, gbc);
+        mainPanel.add(seletorComprador, gbc);
 
         gbc.gridx = 0;
         gbc.gridy++;
@@ -186,9 +189,7 @@ public class EditarVeiculoView extends ThemedView {
         this.add(mainPanel);
     }
 
-    public void setVeiculoData(Veiculo veiculo, List<Estado> estados,
-                               List<Cidade> cidades, List<Utilizador> responsaveis,
-                               List<Comprador> compradores) {
+    public void setVeiculoData(Veiculo veiculo, List<Estado> estados, List<Cidade> cidades) {
         txtMarca.setText(veiculo.getMarca());
         txtModelo.setText(veiculo.getModelo());
         txtMatricula.setText(veiculo.getMatricula());
@@ -196,8 +197,8 @@ public class EditarVeiculoView extends ThemedView {
 
         popularComboBox(cmbEstado, estados, veiculo.getEstado());
         popularComboBox(cmbCidade, cidades, veiculo.getCidade());
-        popularComboBox(cmbResponsavel, responsaveis, veiculo.getResponsavel());
-        popularComboBox(cmbComprador, compradores, veiculo.getComprador());
+        seletorResponsavel.setSelecionado(veiculo.getResponsavel());
+        seletorComprador.setSelecionado(veiculo.getComprador());
 
         if (veiculo.getDataVenda() != null) {
             dateModel.setValue(veiculo.getDataVenda());
@@ -220,6 +221,20 @@ public class EditarVeiculoView extends ThemedView {
         }
     }
 
+    /**
+     * Define como são obtidas as sugestões do seletor de responsável.
+     */
+    public void configurarPesquisaResponsavel(SeletorPesquisa.Pesquisa<Utilizador> pesquisa) {
+        seletorResponsavel.setPesquisa(pesquisa);
+    }
+
+    /**
+     * Define como são obtidas as sugestões do seletor de comprador.
+     */
+    public void configurarPesquisaComprador(SeletorPesquisa.Pesquisa<Comprador> pesquisa) {
+        seletorComprador.setPesquisa(pesquisa);
+    }
+
     public void adicionarAcaoSalvar(ActionListener listener) {
         btnSalvar.addActionListener(listener);
     }
@@ -253,17 +268,23 @@ public class EditarVeiculoView extends ThemedView {
     }
 
     public Utilizador getSelectedResponsavel() {
-        return (Utilizador) cmbResponsavel.getSelectedItem();
+        return seletorResponsavel.getSelecionado();
     }
 
     public Comprador getSelectedComprador() {
-        return (Comprador) cmbComprador.getSelectedItem();
+        return seletorComprador.getSelecionado();
     }
 
     public Date getDataVendaDate() {
         return (Date) datePickerDataVenda.getModel().getValue();
     }
 
+    public void setCarregando(boolean carregando) {
+        btnSalvar.setEnabled(!carregando);
+        btnCancelar.setEnabled(!carregando);
+        setCursor(carregando ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : Cursor.getDefaultCursor());
+    }
+
     public void mostrarErro(String message) {
         showThemedMessage(this, message, "Erro de Validação", JOptionPane.ERROR_MESSAGE);
     }
@@ -275,4 +296,13 @@ public class EditarVeiculoView extends ThemedView {
     public void fecharJanela() {
         dispose();
     }
+
+    @Override
+    public void dispose() {
+        if (seletorResponsavel != null) {
+            seletorResponsavel.parar();
+            seletorComprador.parar();
+        }
+        super.dispose();
+    }
 }
\ No newline at end of file
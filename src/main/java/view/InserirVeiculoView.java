@@ -15,7 +15,7 @@ public class InserirVeiculoView extends ThemedView {
     private JComboBox<String> cmbEstado;
     private JTextField txtPreco;
     private JComboBox<String> cmbCidade;
-    private JComboBox<Utilizador> cmbResponsavel;
+    private SeletorPesquisa<Utilizador> seletorResponsavel;
     private JButton btnInserir;
     private JButton btnVoltar;
     private JButton btnThemeToggle;
@@ -35,7 +35,7 @@ public class InserirVeiculoView extends ThemedView {
         cmbEstado = createStyledComboBox();
         txtPreco = createStyledTextField(15);
         cmbCidade = createStyledComboBox();
-        cmbResponsavel = createStyledComboBox();
+        seletorResponsavel = new SeletorPesquisa<>(createStyledTextField(20));
         btnInserir = createStyledButton("Inserir Veículo");
         btnVoltar = createStyledButton("Voltar");
         btnThemeToggle = createThemeToggleButton();
@@ -108,7 +108,7 @@ public class InserirVeiculoView extends ThemedView {
         mainPanel.add(createStyledLabel("Responsável:"), gbc);
         gbc.gridx = 1;
         gbc.weightx = 1.0;
-        mainPanel.add(cmbResponsavel, gbc);
+        mainPanel.add(seletorResponsavel, gbc);
 
         gbc.gridx = 0;
         gbc.gridy++;
@@ -148,7 +148,7 @@ public class InserirVeiculoView extends ThemedView {
     }
 
     public Utilizador getResponsavelSelecionado() {
-        return (Utilizador) cmbResponsavel.getSelectedItem();
+        return seletorResponsavel.getSelecionado();
     }
 
     public void adicionarAcaoInserir(ActionListener listener) {
@@ -173,14 +173,48 @@ public class InserirVeiculoView extends ThemedView {
         }
     }
 
-    public void popularResponsaveis(List<Utilizador> responsaveis) {
-        cmbResponsavel.removeAllItems();
-        for (Utilizador responsavel : responsaveis) {
-            cmbResponsavel.addItem(responsavel);
+    /**
+     * Repõe o formulário vazio (a janela é reutilizada entre inserções).
+     */
+    public void limparCampos() {
+        txtMarca.setText("");
+        txtModelo.setText("");
+        txtMatricula.setText("");
+        txtPreco.setText("");
+        seletorResponsavel.parar();
+        seletorResponsavel.setSelecionado(null);
+        if (cmbEstado.getItemCount() > 0) {
+            cmbEstado.setSelectedIndex(0);
         }
+        if (cmbCidade.getItemCount() > 0) {
+            cmbCidade.setSelectedIndex(0);
+        }
+    }
+
+    /**
+     * Define como são obtidas as sugestões do seletor de responsável.
+     */
+    public void configurarPesquisaResponsavel(SeletorPesquisa.Pesquisa<Utilizador> pesquisa) {
+        seletorResponsavel.setPesquisa(pesquisa);
+    }
+
+    /**
+     * Desativa o botão de inserção e mostra o cursor de espera enquanto há trabalho em segundo plano.
+     */
+    public void setCarregando(boolean carregando) {
+        btnInserir.setEnabled(!carregando);
+        setCursor(carregando ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : Cursor.getDefaultCursor());
     }
 
     public void exibirMensagem(String message, String title, int messageType) {
         showThemedMessage(this, message, title, messageType);
     }
-}
\ No newline at end of file
+
+    @Override
+    public void dispose() {
+        if (seletorResponsavel != null) {
+            seletorResponsavel.parar();
+        }
+        super.dispose();
+    }
+}
@@ -3,7 +3,10 @@ package view;
 import view.theme.ThemedView;
 import model.Veiculo;
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.table.TableColumn;
+import javax.swing.table.TableColumnModel;
 import java.awt.*;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseAdapter;
@@ -12,8 +15,14 @@ import java.util.List;
 
 public class ListarVeiculoView extends ThemedView {
 
+    // Distância (em píxeis) ao fim da tabela a partir da qual se pede a página seguinte
+    private static final int MARGEM_FIM_SCROLL_PX = 100;
+    // Pausa na escrita a partir da qual o filtro local é aplicado (uma vez por rajada de teclas)
+    private static final int ATRASO_PESQUISA_MS = 150;
+
     private JTable veiculosTable;
-    private DefaultTableModel tableModel;
+    private JScrollPane scrollPane;
+    private VeiculoTableModel tableModel;
     private JTextField txtFiltroMarca;
     private JTextField txtFiltroModelo;
     private JTextField txtFiltroMatricula;
@@ -23,6 +32,8 @@ public class ListarVeiculoView extends ThemedView {
     private JButton btnEditar;
     private JButton btnRemover;
     private JButton btnThemeToggle;
+    private JProgressBar barraCarregamento;
+    private Timer temporizadorPesquisa;
 
     public ListarVeiculoView() {
         super("Lista de Veículos");
@@ -34,14 +45,10 @@ public class ListarVeiculoView extends ThemedView {
 
     @Override
     protected void initializeComponents() {
-        // CORRIGIDO: Removido "Ano" da tabela, para corresponder ao seu modelo Veiculo
-        tableModel = new DefaultTableModel(new Object[]{"ID", "Marca", "Modelo", "Matrícula", "Preço/Dia", "Responsável", "Estado"}, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        // Modelo colunar: evita um Vector por linha e um evento por veículo inserido
+        tableModel = new VeiculoTableModel();
         veiculosTable = createStyledTable(tableModel);
+        instalarOrdenacaoNoCabecalho();
 
         txtFiltroMarca = createStyledTextField(15);
         txtFiltroModelo = createStyledTextField(15);
@@ -53,6 +60,11 @@ public class ListarVeiculoView extends ThemedView {
         btnRemover = createStyledButton("Remover Veículo");
         btnThemeToggle = createThemeToggleButton();
 
+        // Indicador de carregamento (visível enquanto uma pesquisa corre em segundo plano)
+        barraCarregamento = new JProgressBar();
+        barraCarregamento.setIndeterminate(true);
+        barraCarregamento.setVisible(false);
+
         JPanel mainPanel = new JPanel(new BorderLayout(10, 10));
 
         JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 10));
@@ -64,6 +76,7 @@ public class ListarVeiculoView extends ThemedView {
         filterPanel.add(txtFiltroMatricula);
         filterPanel.add(btnFiltrar);
         filterPanel.add(btnLimparFiltro);
+        filterPanel.add(barraCarregamento);
         applyThemeToComponent(filterPanel); // Ensure theme is applied to sub-panels
 
         JPanel actionPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 10));
@@ -83,12 +96,58 @@ public class ListarVeiculoView extends ThemedView {
         applyThemeToComponent(headerPanel); // Ensure theme is applied to sub-panels
 
         mainPanel.add(headerPanel, BorderLayout.NORTH);
-        mainPanel.add(new JScrollPane(veiculosTable), BorderLayout.CENTER);
+        scrollPane = new JScrollPane(veiculosTable);
+        mainPanel.add(scrollPane, BorderLayout.CENTER);
         mainPanel.add(actionPanel, BorderLayout.SOUTH);
 
         this.add(mainPanel);
     }
 
+    // Ordenação local: um clique no cabeçalho ordena pela coluna (crescente, decrescente, sem ordenação),
+    // com Shift junta-a às colunas já escolhidas. É feita no modelo, sem ir à base de dados
+    private void instalarOrdenacaoNoCabecalho() {
+        veiculosTable.getTableHeader().setToolTipText("Clique para ordenar; Shift+clique para ordenar por várias colunas");
+        veiculosTable.getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int coluna = veiculosTable.columnAtPoint(e.getPoint());
+                if (coluna < 0 || !SwingUtilities.isLeftMouseButton(e)) {
+                    return;
+                }
+                int idSelecionado = getIdVeiculoSelecionado();
+                tableModel.alternarOrdenacao(veiculosTable.convertColumnIndexToModel(coluna), e.isShiftDown());
+                mostrarOrdenacaoNoCabecalho();
+
+                // O fireTableDataChanged da ordenação limpa a seleção: volta a selecionar o mesmo veículo
+                int linha = idSelecionado < 0 ? -1 : tableModel.getLinhaDoId(idSelecionado);
+                if (linha >= 0) {
+                    veiculosTable.setRowSelectionInterval(linha, linha);
+                    veiculosTable.scrollRectToVisible(veiculosTable.getCellRect(linha, 0, true));
+                }
+            }
+        });
+    }
+
+    // Acrescenta ao título de cada coluna ordenada o sentido (▲/▼) e, com várias colunas, a prioridade
+    private void mostrarOrdenacaoNoCabecalho() {
+        List<RowSorter.SortKey> chaves = tableModel.getChavesOrdenacao();
+        TableColumnModel colunas = veiculosTable.getColumnModel();
+        for (int i = 0; i < colunas.getColumnCount(); i++) {
+            TableColumn coluna = colunas.getColumn(i);
+            String titulo = tableModel.getColumnName(coluna.getModelIndex());
+            for (int k = 0; k < chaves.size(); k++) {
+                if (chaves.get(k).getColumn() == coluna.getModelIndex()) {
+                    titulo += chaves.get(k).getSortOrder() == SortOrder.ASCENDING ? " ▲" : " ▼";
+                    if (chaves.size() > 1) {
+                        titulo += k + 1;
+                    }
+                }
+            }
+            coluna.setHeaderValue(titulo);
+        }
+        veiculosTable.getTableHeader().repaint();
+    }
+
     public JTable getTabela() {
         return veiculosTable;
     }
@@ -125,6 +184,51 @@ public class ListarVeiculoView extends ThemedView {
         btnRemover.addActionListener(listener);
     }
 
+    /**
+     * Regista uma ação a executar quando o utilizador pára de escrever num dos campos de filtro
+     * (debounce de ATRASO_PESQUISA_MS). Usado para filtrar localmente as linhas já carregadas.
+     */
+    public void adicionarAcaoPesquisaInstantanea(Runnable acao) {
+        temporizadorPesquisa = new Timer(ATRASO_PESQUISA_MS, e -> acao.run());
+        temporizadorPesquisa.setRepeats(false);
+        DocumentListener reiniciar = new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                temporizadorPesquisa.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                temporizadorPesquisa.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                // Só atributos de estilo: o texto não mudou
+            }
+        };
+        txtFiltroMarca.getDocument().addDocumentListener(reiniciar);
+        txtFiltroModelo.getDocument().addDocumentListener(reiniciar);
+        txtFiltroMatricula.getDocument().addDocumentListener(reiniciar);
+    }
+
+    /**
+     * Regista uma ação a executar quando o utilizador faz scroll até perto do fim da tabela.
+     * Usado para pedir a página seguinte de veículos.
+     */
+    public void adicionarAcaoFimDaLista(Runnable acao) {
+        JScrollBar barra = scrollPane.getVerticalScrollBar();
+        barra.addAdjustmentListener(e -> {
+            if (e.getValueIsAdjusting()) {
+                return; // Espera que o utilizador largue a barra
+            }
+            int limite = barra.getMaximum() - barra.getVisibleAmount() - MARGEM_FIM_SCROLL_PX;
+            if (barra.getValue() >= limite) {
+                acao.run();
+            }
+        });
+    }
+
     public void setEditarButtonVisible(boolean visible) {
         if (btnEditar != null) {
             btnEditar.setVisible(visible);
@@ -137,21 +241,74 @@ public class ListarVeiculoView extends ThemedView {
         }
     }
 
+    /**
+     * Mostra ou esconde o indicador de carregamento.
+     */
+    public void setCarregando(boolean carregando) {
+        barraCarregamento.setVisible(carregando);
+        setCursor(carregando ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : Cursor.getDefaultCursor());
+    }
+
     public void limparTabela() {
-        tableModel.setRowCount(0);
+        tableModel.limpar();
     }
 
     public void adicionarVeiculoNaTabela(Veiculo veiculo) {
-        // CORRIGIDO: Removido veiculo.getAno()
-        tableModel.addRow(new Object[]{
-                veiculo.getId(),
-                veiculo.getMarca(),
-                veiculo.getModelo(),
-                veiculo.getMatricula(),
-                veiculo.getPreco(),
-                veiculo.getResponsavel() != null ? veiculo.getResponsavel().getNome() : "N/A",
-                veiculo.getEstado() != null ? veiculo.getEstado().getDescricao() : "N/A"
-        });
+        tableModel.acrescentar(veiculo);
+    }
+
+    /**
+     * Acrescenta uma página de veículos à tabela com um único evento de inserção.
+     */
+    public void adicionarVeiculosNaTabela(List<Veiculo> veiculos) {
+        tableModel.acrescentar(veiculos);
+    }
+
+    /**
+     * Substitui todo o conteúdo da tabela com um único fireTableDataChanged.
+     */
+    public void substituirVeiculosNaTabela(List<Veiculo> veiculos) {
+        tableModel.substituir(veiculos);
+    }
+
+    /**
+     * Mostra um veículo acabado de inserir no topo da tabela, ou na sua posição se a tabela estiver
+     * ordenada (ver VeiculoTableModel.inserirNoInicio).
+     */
+    public void inserirVeiculoNaTabela(Veiculo veiculo) {
+        tableModel.inserirNoInicio(veiculo);
+    }
+
+    /**
+     * Atualiza só a linha do veículo gravado; devolve false se não estiver carregado.
+     */
+    public boolean atualizarVeiculoNaTabela(Veiculo veiculo) {
+        return tableModel.atualizar(veiculo);
+    }
+
+    /**
+     * Retira só a linha do veículo removido; devolve false se não estiver carregado.
+     */
+    public boolean removerVeiculoDaTabela(int id) {
+        return tableModel.remover(id);
+    }
+
+    /**
+     * Filtra as linhas já carregadas na tabela, sem ir à base de dados (ver VeiculoTableModel.filtrar).
+     */
+    public void filtrarTabelaLocalmente(String marca, String modelo, String matricula) {
+        tableModel.filtrar(marca, modelo, matricula);
+    }
+
+    /**
+     * Obtém o ID do veículo na linha selecionada, ou -1 se nenhuma linha estiver selecionada.
+     */
+    public int getIdVeiculoSelecionado() {
+        int selectedRow = veiculosTable.getSelectedRow();
+        if (selectedRow < 0) {
+            return -1;
+        }
+        return tableModel.getIdNaLinha(veiculosTable.convertRowIndexToModel(selectedRow));
     }
 
     public void setFiltroMarcaField(String text) {
@@ -166,6 +323,14 @@ public class ListarVeiculoView extends ThemedView {
         txtFiltroMatricula.setText(text);
     }
 
+    @Override
+    public void dispose() {
+        if (temporizadorPesquisa != null) {
+            temporizadorPesquisa.stop();
+        }
+        super.dispose();
+    }
+
     public void mostrar() {
         SwingUtilities.invokeLater(() -> this.setVisible(true));
     }
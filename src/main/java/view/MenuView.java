@@ -8,6 +8,7 @@ import javax.swing.*;
 public class MenuView extends ThemedView {
 
     private JButton btnInserir;
+    private JButton btnImportar;
     private JButton btnListar;
     private JButton btnLogout;
     private JButton btnCriarCliente;
@@ -23,6 +24,7 @@ public class MenuView extends ThemedView {
     @Override
     protected void initializeComponents() {
         btnInserir = new JButton("Inserir Veículo");
+        btnImportar = new JButton("Importar Veículos (CSV)");
         btnListar = new JButton("Listar Veículos");
         btnLogout = new JButton("Logout");
         btnCriarCliente = new JButton("Criar Novo Cliente");
@@ -51,16 +53,20 @@ public class MenuView extends ThemedView {
         gbc.gridy = 0;
         menuCard.add(btnInserir, gbc);
 
-        // 2. Criar Novo Cliente
+        // 2. Importar Veículos (CSV)
         gbc.gridy = 1;
-        menuCard.add(btnCriarCliente, gbc);
+        menuCard.add(btnImportar, gbc);
 
-        // 3. Listar Veículos (agora antes do Logout)
+        // 3. Criar Novo Cliente
         gbc.gridy = 2;
-        menuCard.add(btnListar, gbc);
+        menuCard.add(btnCriarCliente, gbc);
 
-        // 4. Logout (agora no fim de tudo)
+        // 4. Listar Veículos (agora antes do Logout)
         gbc.gridy = 3;
+        menuCard.add(btnListar, gbc);
+
+        // 5. Logout (agora no fim de tudo)
+        gbc.gridy = 4;
         menuCard.add(btnLogout, gbc);
 
         // --- FIM DA ORDEM ATUALIZADA ---
@@ -73,6 +79,7 @@ public class MenuView extends ThemedView {
         // Configurar tamanhos preferidos dos botões para consistência
         Dimension buttonSize = new Dimension(200, 40);
         btnInserir.setPreferredSize(buttonSize);
+        btnImportar.setPreferredSize(buttonSize);
         btnListar.setPreferredSize(buttonSize);
         btnCriarCliente.setPreferredSize(buttonSize);
         btnLogout.setPreferredSize(buttonSize);
@@ -86,6 +93,10 @@ public class MenuView extends ThemedView {
         return btnInserir;
     }
 
+    public JButton getBtnImportar() {
+        return btnImportar;
+    }
+
     public JButton getBtnListar() {
         return btnListar;
     }
@@ -144,6 +155,12 @@ public class MenuView extends ThemedView {
         }
     }
 
+    public void setImportarButtonVisible(boolean visible) {
+        if (btnImportar != null) {
+            btnImportar.setVisible(visible);
+        }
+    }
+
     public void setListarButtonVisible(boolean visible) {
         if (btnListar != null) {
             btnListar.setVisible(visible);
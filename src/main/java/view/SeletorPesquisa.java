@@ -0,0 +1,274 @@
+package view;
+
+import javax.swing.AbstractListModel;
+import javax.swing.BorderFactory;
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.JPopupMenu;
+import javax.swing.JScrollPane;
+import javax.swing.JTextField;
+import javax.swing.ListSelectionModel;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.BorderLayout;
+import java.awt.Component;
+import java.awt.Dimension;
+import java.awt.event.FocusAdapter;
+import java.awt.event.FocusEvent;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Seletor com pesquisa para tabelas grandes (responsável, comprador), em vez de uma JComboBox com
+ * todas as linhas. Só a entidade selecionada está carregada; enquanto se escreve, as sugestões são
+ * pedidas à pesquisa configurada (uma vez por rajada de teclas) e mostradas numa lista por baixo do campo.
+ *
+ * Teclas: setas para escolher na lista, Enter para selecionar, Esc para fechar.
+ * Apagar o texto deixa o seletor sem seleção.
+ *
+ * @param <T> Tipo das entidades (o toString() é o texto mostrado no campo).
+ */
+public class SeletorPesquisa<T> extends JPanel {
+
+    /**
+     * Obtém as sugestões para o texto escrito, normalmente fora do EDT; mostrar tem de ser chamado no EDT.
+     */
+    @FunctionalInterface
+    public interface Pesquisa<T> {
+        void pesquisar(String texto, Consumer<List<T>> mostrar);
+    }
+
+    // Pausa na escrita a partir da qual se pesquisa
+    private static final int ATRASO_PESQUISA_MS = 200;
+    private static final int LINHAS_VISIVEIS = 8;
+
+    private final JTextField campo;
+    private final JList<T> lista = new JList<>();
+    private final JPopupMenu popup = new JPopupMenu();
+    private final Timer temporizador;
+    private Pesquisa<T> pesquisa;
+    private Function<T, String> descricaoNaLista = String::valueOf;
+    private T selecionado;
+    private boolean aEscrever; // Alterações ao texto feitas pelo próprio seletor (não disparam pesquisa)
+
+    /**
+     * @param campo Campo de texto já estilizado pela vista (ex: createStyledTextField).
+     */
+    public SeletorPesquisa(JTextField campo) {
+        super(new BorderLayout());
+        this.campo = campo;
+        add(campo, BorderLayout.CENTER);
+        campo.setToolTipText("Escreva para pesquisar");
+
+        lista.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        lista.setFocusable(false); // O foco fica sempre no campo
+        lista.setVisibleRowCount(LINHAS_VISIVEIS);
+        lista.setCellRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                                                          boolean isSelected, boolean cellHasFocus) {
+                JLabel label = (JLabel) super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+                @SuppressWarnings("unchecked")
+                T item = (T) value;
+                label.setText(descricaoNaLista.apply(item));
+                return label;
+            }
+        });
+        lista.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int indice = lista.locationToIndex(e.getPoint());
+                if (indice >= 0) {
+                    selecionar(lista.getModel().getElementAt(indice));
+                }
+            }
+        });
+
+        JScrollPane scroll = new JScrollPane(lista);
+        scroll.setBorder(BorderFactory.createEmptyBorder());
+        popup.setFocusable(false);
+        popup.add(scroll);
+
+        temporizador = new Timer(ATRASO_PESQUISA_MS, e -> pesquisar());
+        temporizador.setRepeats(false);
+
+        campo.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                textoAlterado();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                textoAlterado();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                // Só atributos de estilo: o texto não mudou
+            }
+        });
+        campo.addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                teclaPremida(e);
+            }
+        });
+        campo.addFocusListener(new FocusAdapter() {
+            @Override
+            public void focusLost(FocusEvent e) {
+                temporizador.stop();
+                popup.setVisible(false);
+                // Texto escrito sem escolher uma sugestão: volta a mostrar a seleção (ou nada)
+                escreverTexto(selecionado != null ? selecionado.toString() : "");
+            }
+        });
+    }
+
+    public void setPesquisa(Pesquisa<T> pesquisa) {
+        this.pesquisa = pesquisa;
+    }
+
+    /**
+     * Texto de cada sugestão na lista (por omissão o toString()), ex: nome e email do comprador.
+     */
+    public void setDescricaoNaLista(Function<T, String> descricaoNaLista) {
+        this.descricaoNaLista = descricaoNaLista;
+    }
+
+    public T getSelecionado() {
+        return selecionado;
+    }
+
+    /**
+     * Define a seleção sem pesquisar (ex: a entidade atual do veículo, já carregada).
+     */
+    public void setSelecionado(T item) {
+        selecionado = item;
+        escreverTexto(item != null ? item.toString() : "");
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        super.setEnabled(enabled);
+        campo.setEnabled(enabled);
+    }
+
+    /**
+     * Para a pesquisa pendente (ao fechar a janela).
+     */
+    public void parar() {
+        temporizador.stop();
+        popup.setVisible(false);
+    }
+
+    // --- Métodos auxiliares ---
+
+    private void textoAlterado() {
+        if (aEscrever) {
+            return;
+        }
+        selecionado = null; // O texto deixou de corresponder à seleção
+        temporizador.restart();
+    }
+
+    private void pesquisar() {
+        String texto = campo.getText().trim();
+        if (texto.isEmpty() || pesquisa == null) {
+            popup.setVisible(false);
+            return;
+        }
+        pesquisa.pesquisar(texto, resultados -> {
+            // Resposta a um texto que entretanto mudou: descartada
+            if (texto.equals(campo.getText().trim()) && campo.isFocusOwner()) {
+                mostrarSugestoes(resultados);
+            }
+        });
+    }
+
+    private void mostrarSugestoes(List<T> sugestoes) {
+        // Um único modelo novo (um evento) em vez de um addElement por sugestão
+        List<T> itens = sugestoes != null ? sugestoes : Collections.emptyList();
+        lista.setModel(new AbstractListModel<T>() {
+            @Override
+            public int getSize() {
+                return itens.size();
+            }
+
+            @Override
+            public T getElementAt(int index) {
+                return itens.get(index);
+            }
+        });
+        if (itens.isEmpty()) {
+            popup.setVisible(false);
+            return;
+        }
+        lista.setSelectedIndex(0);
+        lista.setBackground(campo.getBackground());
+        lista.setForeground(campo.getForeground());
+        lista.setFont(campo.getFont());
+        lista.setVisibleRowCount(Math.min(LINHAS_VISIVEIS, itens.size()));
+        popup.setPopupSize(new Dimension(campo.getWidth(), lista.getPreferredScrollableViewportSize().height + 4));
+        if (!popup.isVisible()) {
+            popup.show(campo, 0, campo.getHeight());
+        } else {
+            popup.pack();
+        }
+    }
+
+    private void teclaPremida(KeyEvent e) {
+        if (!popup.isVisible()) {
+            return;
+        }
+        int tamanho = lista.getModel().getSize();
+        switch (e.getKeyCode()) {
+            case KeyEvent.VK_DOWN:
+                lista.setSelectedIndex(Math.min(tamanho - 1, lista.getSelectedIndex() + 1));
+                lista.ensureIndexIsVisible(lista.getSelectedIndex());
+                e.consume();
+                break;
+            case KeyEvent.VK_UP:
+                lista.setSelectedIndex(Math.max(0, lista.getSelectedIndex() - 1));
+                lista.ensureIndexIsVisible(lista.getSelectedIndex());
+                e.consume();
+                break;
+            case KeyEvent.VK_ENTER:
+                if (lista.getSelectedValue() != null) {
+                    selecionar(lista.getSelectedValue());
+                }
+                e.consume();
+                break;
+            case KeyEvent.VK_ESCAPE:
+                popup.setVisible(false);
+                e.consume();
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void selecionar(T item) {
+        temporizador.stop();
+        popup.setVisible(false);
+        setSelecionado(item);
+    }
+
+    private void escreverTexto(String texto) {
+        aEscrever = true;
+        try {
+            campo.setText(texto);
+        } finally {
+            aEscrever = false;
+        }
+    }
+}
@@ -0,0 +1,1064 @@
+package view;
+
+import model.Veiculo;
+import util.IndiceTrigramas;
+
+import javax.swing.RowSorter;
+import javax.swing.SortOrder;
+import javax.swing.table.AbstractTableModel;
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Modelo de tabela para a listagem de veículos, guardado em colunas compactas.
+ * IDs e preços ficam em arrays primitivos e os textos repetidos (marca, modelo, estado,
+ * responsável) são partilhados através de um dicionário, pelo que não se cria um
+ * Object[] nem um Vector por linha. Os valores de cada célula só são construídos quando
+ * a JTable os pede (apenas para as linhas visíveis).
+ *
+ * Suporta também um filtro local "contém" sobre marca, modelo e matrícula das linhas já carregadas,
+ * servido por índices de trigramas: as linhas guardadas não mudam, apenas a lista das visíveis,
+ * e a JTable só é notificada das linhas que entraram ou saíram.
+ *
+ * Depois de uma gravação, o veículo inserido, alterado ou removido é aplicado só à sua linha
+ * (inserirNoInicio, atualizar, remover), com o evento fireTableRowsXxx correspondente, em vez de
+ * recarregar a listagem. As linhas guardadas nunca são renumeradas (os índices continuam válidos):
+ * a ordem da tabela passa a ser dada por uma lista das linhas guardadas (ordem), e uma linha removida
+ * sai dessa lista e dos índices.
+ *
+ * A ordenação local (ordenar, alternarOrdenacao) reordena só essa lista, em memória e sem ir à base de
+ * dados, por uma ou mais colunas. Cada coluna é reduzida a um int por linha (o próprio ID; a posição do
+ * preço entre os preços distintos; a posição do texto entre os textos distintos, comparados por
+ * CollationKeys em português, calculadas uma vez por texto). Cada chave é depois uma passagem de
+ * Arrays.parallelSort sobre longs (valor << 32 | posição atual), da última chave para a primeira: a
+ * posição nos bits baixos torna cada passagem estável, sem Comparator nem boxing por linha. O desempate
+ * final é o ID decrescente, a ordem da listagem. A ordenação escolhida mantém-se nas recargas, nas
+ * páginas seguintes e nas linhas inseridas ou alteradas depois de uma gravação.
+ */
+public class VeiculoTableModel extends AbstractTableModel {
+
+    public static final int COLUNA_ID = 0;
+    public static final int COLUNA_MARCA = 1;
+    public static final int COLUNA_MODELO = 2;
+    public static final int COLUNA_MATRICULA = 3;
+    public static final int COLUNA_PRECO = 4;
+    public static final int COLUNA_RESPONSAVEL = 5;
+    public static final int COLUNA_ESTADO = 6;
+
+    private static final String[] COLUNAS = {"ID", "Marca", "Modelo", "Matrícula", "Preço/Dia", "Responsável", "Estado"};
+    private static final String SEM_VALOR = "N/A";
+    private static final int CAPACIDADE_INICIAL = 256;
+    // Acima deste número de blocos de linhas inseridas/removidas, um único fireTableDataChanged é mais barato
+    private static final int MAXIMO_EVENTOS_DELTA = 32;
+
+    private int linhas;
+    private int[] ids = new int[CAPACIDADE_INICIAL];
+    private double[] precos = new double[CAPACIDADE_INICIAL];
+    private String[] marcas = new String[CAPACIDADE_INICIAL];
+    private String[] modelos = new String[CAPACIDADE_INICIAL];
+    private String[] matriculas = new String[CAPACIDADE_INICIAL];
+    private String[] responsaveis = new String[CAPACIDADE_INICIAL];
+    private String[] estados = new String[CAPACIDADE_INICIAL];
+
+    // Dicionário de textos repetidos: uma única instância por valor distinto
+    private final Map<String, String> dicionario = new HashMap<>();
+
+    // Filtro local: índices das linhas guardadas e linhas visíveis (por ordem crescente) quando há filtro
+    private final IndiceTrigramas indiceMarcas = new IndiceTrigramas(IndiceTrigramas.Normalizacao.TEXTO);
+    private final IndiceTrigramas indiceModelos = new IndiceTrigramas(IndiceTrigramas.Normalizacao.TEXTO);
+    private final IndiceTrigramas indiceMatriculas = new IndiceTrigramas(IndiceTrigramas.Normalizacao.MATRICULA);
+    private String filtroMarca = "";
+    private String filtroModelo = "";
+    private String filtroMatricula = "";
+    private int[] visiveis;     // null quando não há filtro (todas as linhas visíveis)
+    private int numeroVisiveis;
+
+    // Ordem da tabela sem filtro: null enquanto for 0..linhas-1 (sem inserções no topo nem remoções)
+    private int[] ordem;
+    private int numeroOrdem;
+    private int[] posicoes = new int[0]; // Posição de cada linha guardada em ordem (-1 = removida)
+    private boolean posicoesValidas;
+
+    // Ordenação local: as chaves escolhidas (vazia = ordem da listagem) e as usadas para ordenar, que
+    // acabam sempre no ID decrescente para que nunca haja empates
+    private static final RowSorter.SortKey ID_DECRESCENTE = new RowSorter.SortKey(COLUNA_ID, SortOrder.DESCENDING);
+    private List<RowSorter.SortKey> chavesOrdenacao = Collections.emptyList();
+    private List<RowSorter.SortKey> chavesEfetivas = Collections.singletonList(ID_DECRESCENTE);
+    private final Collator colacao = Collator.getInstance(Locale.forLanguageTag("pt-PT"));
+    private final Map<String, CollationKey> chavesColacao = new HashMap<>(); // Uma por texto distinto
+    // Valores ordenáveis de cada coluna, reutilizados entre ordenações até os dados mudarem
+    private final int[][] valoresEmCache = new int[COLUNAS.length][];
+
+    @Override
+    public int getRowCount() {
+        return visiveis == null ? numeroLinhasNaOrdem() : numeroVisiveis;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUNAS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUNAS[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int column) {
+        int row = linhaGuardada(rowIndex);
+        switch (column) {
+            case COLUNA_ID:
+                return ids[row];
+            case COLUNA_MARCA:
+                return marcas[row];
+            case COLUNA_MODELO:
+                return modelos[row];
+            case COLUNA_MATRICULA:
+                return matriculas[row];
+            case COLUNA_PRECO:
+                return precos[row];
+            case COLUNA_RESPONSAVEL:
+                return responsaveis[row];
+            case COLUNA_ESTADO:
+                return estados[row];
+            default:
+                throw new IndexOutOfBoundsException("Coluna inválida: " + column);
+        }
+    }
+
+    /**
+     * Obtém o ID do veículo de uma linha sem boxing.
+     */
+    public int getIdNaLinha(int row) {
+        return ids[linhaGuardada(row)];
+    }
+
+    /**
+     * Número de veículos carregados (com ou sem filtro local).
+     */
+    public int getTotalCarregado() {
+        return numeroLinhasNaOrdem();
+    }
+
+    /**
+     * Aplica o filtro local "contém" (sem acentos nem distinção de maiúsculas; na matrícula só contam
+     * letras e dígitos) às linhas carregadas. Campos vazios não filtram.
+     * Só as linhas que entram ou saem da lista visível são notificadas à JTable.
+     */
+    public void filtrar(String marca, String modelo, String matricula) {
+        String novaMarca = marca == null ? "" : indiceMarcas.normalizar(marca);
+        String novoModelo = modelo == null ? "" : indiceModelos.normalizar(modelo);
+        String novaMatricula = matricula == null ? "" : indiceMatriculas.normalizar(matricula);
+        if (novaMarca.equals(filtroMarca) && novoModelo.equals(filtroModelo) && novaMatricula.equals(filtroMatricula)) {
+            return;
+        }
+
+        // Se cada campo só ganhou carateres, o novo resultado está contido no atual: parte das visíveis
+        boolean restringe = visiveis != null && novaMarca.contains(filtroMarca)
+                && novoModelo.contains(filtroModelo) && novaMatricula.contains(filtroMatricula);
+        int[] candidatas = null;
+        if (restringe) {
+            // Os índices trabalham com linhas guardadas crescentes, não com a ordem da tabela
+            candidatas = ordem == null ? visiveis : Arrays.copyOf(visiveis, numeroVisiveis);
+            if (ordem != null) {
+                Arrays.sort(candidatas);
+            }
+        }
+        int nCandidatas = restringe ? numeroVisiveis : linhas;
+
+        filtroMarca = novaMarca;
+        filtroModelo = novoModelo;
+        filtroMatricula = novaMatricula;
+
+        if (!isFiltroAtivo()) {
+            aplicarVisiveis(null, linhas);
+            return;
+        }
+        int[] resultado = pesquisar(candidatas, nCandidatas, 0, linhas);
+        ordenarComoNaTabela(resultado);
+        aplicarVisiveis(resultado, resultado.length);
+    }
+
+    public boolean isFiltroAtivo() {
+        return !filtroMarca.isEmpty() || !filtroModelo.isEmpty() || !filtroMatricula.isEmpty();
+    }
+
+    /**
+     * Substitui todo o conteúdo da tabela, disparando um único evento.
+     */
+    public void substituir(List<Veiculo> veiculos) {
+        limparDados();
+        garantirCapacidade(veiculos.size());
+        for (Veiculo veiculo : veiculos) {
+            guardar(linhas++, veiculo);
+        }
+        if (isFiltroAtivo()) {
+            visiveis = pesquisar(null, linhas, 0, linhas);
+            numeroVisiveis = visiveis.length;
+        }
+        if (isOrdenado()) {
+            reordenar();
+        }
+        fireTableDataChanged();
+    }
+
+    /**
+     * Acrescenta várias linhas no fim da tabela, disparando um único evento.
+     */
+    public void acrescentar(List<Veiculo> veiculos) {
+        if (veiculos.isEmpty()) {
+            return;
+        }
+        int primeira = linhas;
+        garantirCapacidade(linhas + veiculos.size());
+        for (Veiculo veiculo : veiculos) {
+            guardar(linhas++, veiculo);
+        }
+        notificarAcrescentadas(primeira);
+    }
+
+    /**
+     * Acrescenta uma linha no fim da tabela.
+     */
+    public void acrescentar(Veiculo veiculo) {
+        garantirCapacidade(linhas + 1);
+        guardar(linhas, veiculo);
+        linhas++;
+        notificarAcrescentadas(linhas - 1);
+    }
+
+    /**
+     * Mostra no topo da tabela um veículo acabado de inserir (a listagem é por ID decrescente) ou, com a
+     * ordenação local ativa, na posição que lhe cabe. Com o filtro local ativo, só aparece se passar o filtro.
+     */
+    public void inserirNoInicio(Veiculo veiculo) {
+        materializarOrdem(numeroLinhasNaOrdem() + 1);
+        garantirCapacidade(linhas + 1);
+        int linha = linhas;
+        guardar(linha, veiculo);
+        linhas++;
+
+        int posicao = isOrdenado() ? posicaoOrdenada(linha) : 0;
+        inserirNaOrdem(posicao, linha);
+
+        if (visiveis == null) {
+            fireTableRowsInserted(posicao, posicao);
+        } else if (passaFiltro(linha)) {
+            int posicaoVisivel = posicaoEntreVisiveis(linha);
+            inserirVisivel(posicaoVisivel, linha);
+            fireTableRowsInserted(posicaoVisivel, posicaoVisivel);
+        }
+    }
+
+    /**
+     * Atualiza a linha do veículo (pelo ID) com os dados gravados. Se a alteração fizer a linha entrar
+     * ou sair do filtro local, ou mudar o seu lugar na ordenação local, é notificada como inserção e/ou remoção.
+     *
+     * @return false se o veículo não estiver carregado na tabela.
+     */
+    public boolean atualizar(Veiculo veiculo) {
+        int linha = linhaDoId(veiculo.getId());
+        if (linha < 0) {
+            return false;
+        }
+        int posicaoAntes = posicaoNaTabela(linha);
+
+        preencherColunas(linha, veiculo);
+        indiceMarcas.substituir(linha, marcas[linha]);
+        indiceModelos.substituir(linha, modelos[linha]);
+        indiceMatriculas.substituir(linha, matriculas[linha]);
+
+        boolean visivelDepois = visiveis == null || passaFiltro(linha);
+        if (isOrdenado() && !estaOrdenada(linha)) {
+            // Sai do lugar antigo (a JTable é notificada antes de a linha entrar no novo)
+            retirarDaOrdem(linha);
+            if (posicaoAntes >= 0) {
+                if (visiveis != null) {
+                    retirarVisivel(posicaoAntes);
+                }
+                fireTableRowsDeleted(posicaoAntes, posicaoAntes);
+            }
+            int posicaoNaOrdem = posicaoOrdenada(linha);
+            inserirNaOrdem(posicaoNaOrdem, linha);
+            if (visiveis == null) {
+                fireTableRowsInserted(posicaoNaOrdem, posicaoNaOrdem);
+            } else if (visivelDepois) {
+                int posicao = posicaoEntreVisiveis(linha);
+                inserirVisivel(posicao, linha);
+                fireTableRowsInserted(posicao, posicao);
+            }
+        } else if (posicaoAntes >= 0 && visivelDepois) {
+            fireTableRowsUpdated(posicaoAntes, posicaoAntes);
+        } else if (posicaoAntes >= 0) {
+            retirarVisivel(posicaoAntes);
+            fireTableRowsDeleted(posicaoAntes, posicaoAntes);
+        } else if (visivelDepois) {
+            // Entra no filtro: fica entre as visíveis pela posição que tem na ordem da tabela
+            int posicao = posicaoEntreVisiveis(linha);
+            inserirVisivel(posicao, linha);
+            fireTableRowsInserted(posicao, posicao);
+        }
+        return true;
+    }
+
+    /**
+     * Retira da tabela o veículo com o ID dado (depois de removido da base de dados).
+     *
+     * @return false se o veículo não estiver carregado na tabela.
+     */
+    public boolean remover(int id) {
+        int linha = linhaDoId(id);
+        if (linha < 0) {
+            return false;
+        }
+        int posicaoNaTabela = posicaoNaTabela(linha);
+
+        materializarOrdem(numeroLinhasNaOrdem());
+        retirarDaOrdem(linha);
+
+        indiceMarcas.remover(linha);
+        indiceModelos.remover(linha);
+        indiceMatriculas.remover(linha);
+        marcas[linha] = null;
+        modelos[linha] = null;
+        matriculas[linha] = null;
+        responsaveis[linha] = null;
+        estados[linha] = null;
+
+        if (posicaoNaTabela >= 0) {
+            if (visiveis != null) {
+                retirarVisivel(posicaoNaTabela);
+            }
+            fireTableRowsDeleted(posicaoNaTabela, posicaoNaTabela);
+        }
+        return true;
+    }
+
+    public void limpar() {
+        limparDados();
+        fireTableDataChanged();
+    }
+
+    /**
+     * Ordena as linhas carregadas pelas chaves dadas (a primeira é a principal), em memória. As colunas
+     * repetidas e as chaves sem ordem (SortOrder.UNSORTED) são ignoradas; uma lista vazia volta à ordem
+     * da listagem (ID decrescente). A ordenação mantém-se até ser mudada, mesmo quando a tabela é recarregada.
+     */
+    public void ordenar(List<? extends RowSorter.SortKey> chaves) {
+        List<RowSorter.SortKey> novas = new ArrayList<>(chaves.size());
+        boolean[] usadas = new boolean[COLUNAS.length];
+        for (RowSorter.SortKey chave : chaves) {
+            int coluna = chave.getColumn();
+            if (coluna < 0 || coluna >= COLUNAS.length) {
+                throw new IndexOutOfBoundsException("Coluna inválida: " + coluna);
+            }
+            if (chave.getSortOrder() == SortOrder.UNSORTED || usadas[coluna]) {
+                continue;
+            }
+            usadas[coluna] = true;
+            novas.add(chave);
+            if (coluna == COLUNA_ID) {
+                break; // O ID é único: as chaves seguintes nunca desempatariam
+            }
+        }
+        boolean estavaOrdenado = isOrdenado();
+        chavesOrdenacao = Collections.unmodifiableList(novas);
+        List<RowSorter.SortKey> efetivas = new ArrayList<>(novas);
+        if (!usadas[COLUNA_ID]) {
+            efetivas.add(ID_DECRESCENTE);
+        }
+        chavesEfetivas = efetivas;
+        if (!estavaOrdenado && novas.isEmpty()) {
+            return; // Já estava pela ordem da listagem
+        }
+        reordenar();
+        fireTableDataChanged();
+    }
+
+    /**
+     * Ordenação pelo cabeçalho: cada clique numa coluna passa-a de crescente a decrescente e a sem ordenação.
+     * Sem acrescentar, a coluna passa a ser a única chave; com acrescentar (Shift+clique), junta-se às chaves
+     * já escolhidas ou muda só a sua ordem.
+     */
+    public void alternarOrdenacao(int coluna, boolean acrescentar) {
+        int indice = -1;
+        for (int i = 0; i < chavesOrdenacao.size(); i++) {
+            if (chavesOrdenacao.get(i).getColumn() == coluna) {
+                indice = i;
+            }
+        }
+        SortOrder atual = indice >= 0 && (acrescentar || indice == 0) ? chavesOrdenacao.get(indice).getSortOrder() : null;
+        SortOrder seguinte = atual == null ? SortOrder.ASCENDING
+                : atual == SortOrder.ASCENDING ? SortOrder.DESCENDING : SortOrder.UNSORTED;
+
+        List<RowSorter.SortKey> novas = new ArrayList<>();
+        if (acrescentar) {
+            novas.addAll(chavesOrdenacao);
+            if (indice >= 0) {
+                novas.set(indice, new RowSorter.SortKey(coluna, seguinte)); // UNSORTED é retirada por ordenar
+            } else {
+                novas.add(new RowSorter.SortKey(coluna, seguinte));
+            }
+        } else {
+            novas.add(new RowSorter.SortKey(coluna, seguinte));
+        }
+        ordenar(novas);
+    }
+
+    /**
+     * Chaves da ordenação local, pela ordem de prioridade (vazia quando a tabela está pela ordem da listagem).
+     */
+    public List<RowSorter.SortKey> getChavesOrdenacao() {
+        return chavesOrdenacao;
+    }
+
+    public boolean isOrdenado() {
+        return !chavesOrdenacao.isEmpty();
+    }
+
+    /**
+     * Linha da tabela onde está o veículo com o ID dado, ou -1 se não estiver carregado ou estiver
+     * escondido pelo filtro (ex: para manter a seleção depois de ordenar).
+     */
+    public int getLinhaDoId(int id) {
+        int linha = linhaDoId(id);
+        return linha < 0 ? -1 : posicaoNaTabela(linha);
+    }
+
+    // --- Métodos auxiliares ---
+
+    // Linha guardada correspondente a uma linha da tabela
+    private int linhaGuardada(int row) {
+        if (visiveis != null) {
+            return visiveis[row];
+        }
+        return ordem == null ? row : ordem[row];
+    }
+
+    private int numeroLinhasNaOrdem() {
+        return ordem == null ? linhas : numeroOrdem;
+    }
+
+    // Passa a ordem implícita (0..linhas-1) para a lista explícita, com espaço para a capacidade dada
+    private void materializarOrdem(int capacidade) {
+        if (ordem == null) {
+            ordem = Arrays.copyOf(todas(), Math.max(capacidade, linhas));
+            numeroOrdem = linhas;
+            posicoesValidas = false;
+        } else if (capacidade > ordem.length) {
+            ordem = Arrays.copyOf(ordem, Math.max(capacidade, ordem.length + (ordem.length >> 1)));
+        }
+    }
+
+    private void inserirNaOrdem(int posicao, int linha) {
+        System.arraycopy(ordem, posicao, ordem, posicao + 1, numeroOrdem - posicao);
+        ordem[posicao] = linha;
+        numeroOrdem++;
+        posicoesValidas = false;
+    }
+
+    // Retira uma linha guardada da ordem (requer a ordem materializada)
+    private void retirarDaOrdem(int linha) {
+        garantirPosicoes();
+        int posicaoNaOrdem = posicoes[linha];
+        System.arraycopy(ordem, posicaoNaOrdem + 1, ordem, posicaoNaOrdem, numeroOrdem - posicaoNaOrdem - 1);
+        numeroOrdem--;
+        posicoesValidas = false;
+    }
+
+    // Recalcula as posições na ordem só quando são precisas depois de uma inserção/remoção (um ciclo sobre ints)
+    private void garantirPosicoes() {
+        if (ordem == null || posicoesValidas) {
+            return;
+        }
+        if (posicoes.length < linhas) {
+            posicoes = new int[Math.max(linhas, posicoes.length + (posicoes.length >> 1))];
+        }
+        Arrays.fill(posicoes, 0, linhas, -1);
+        for (int i = 0; i < numeroOrdem; i++) {
+            posicoes[ordem[i]] = i;
+        }
+        posicoesValidas = true;
+    }
+
+    // Chave de ordenação de uma linha guardada na tabela (requer garantirPosicoes)
+    private int chave(int linha) {
+        return ordem == null ? linha : posicoes[linha];
+    }
+
+    // Linha guardada do veículo com o ID dado, ou -1 (varrimento de um int[]: sem mapa nem boxing por linha)
+    private int linhaDoId(int id) {
+        if (ordem == null) {
+            for (int linha = 0; linha < linhas; linha++) {
+                if (ids[linha] == id) {
+                    return linha;
+                }
+            }
+            return -1;
+        }
+        for (int i = 0; i < numeroOrdem; i++) {
+            if (ids[ordem[i]] == id) {
+                return ordem[i];
+            }
+        }
+        return -1;
+    }
+
+    // Posição da linha guardada na tabela tal como é mostrada, ou -1 se estiver escondida pelo filtro
+    private int posicaoNaTabela(int linha) {
+        if (visiveis != null) {
+            for (int i = 0; i < numeroVisiveis; i++) {
+                if (visiveis[i] == linha) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        garantirPosicoes();
+        return chave(linha);
+    }
+
+    // Posição entre as visíveis onde a linha guardada deve ficar, pela posição que tem na ordem da tabela
+    // (as visíveis estão por essa ordem: pesquisa binária)
+    private int posicaoEntreVisiveis(int linha) {
+        garantirPosicoes();
+        int chave = chave(linha);
+        int inicio = 0;
+        int fim = numeroVisiveis;
+        while (inicio < fim) {
+            int meio = (inicio + fim) >>> 1;
+            if (chave(visiveis[meio]) < chave) {
+                inicio = meio + 1;
+            } else {
+                fim = meio;
+            }
+        }
+        return inicio;
+    }
+
+    private boolean passaFiltro(int linha) {
+        return pesquisar(null, 0, linha, linha + 1).length > 0;
+    }
+
+    private void inserirVisivel(int posicao, int linha) {
+        if (numeroVisiveis == visiveis.length) {
+            visiveis = Arrays.copyOf(visiveis, Math.max(4, numeroVisiveis + (numeroVisiveis >> 1)));
+        }
+        System.arraycopy(visiveis, posicao, visiveis, posicao + 1, numeroVisiveis - posicao);
+        visiveis[posicao] = linha;
+        numeroVisiveis++;
+    }
+
+    private void retirarVisivel(int posicao) {
+        System.arraycopy(visiveis, posicao + 1, visiveis, posicao, numeroVisiveis - posicao - 1);
+        numeroVisiveis--;
+    }
+
+    // Reordena linhas guardadas (crescentes, vindas dos índices) pela posição na tabela
+    private void ordenarComoNaTabela(int[] linhasGuardadas) {
+        if (ordem == null) {
+            return; // A ordem da tabela é a das linhas guardadas
+        }
+        garantirPosicoes();
+        long[] chaves = new long[linhasGuardadas.length];
+        for (int i = 0; i < chaves.length; i++) {
+            chaves[i] = ((long) posicoes[linhasGuardadas[i]] << 32) | linhasGuardadas[i];
+        }
+        Arrays.sort(chaves);
+        for (int i = 0; i < chaves.length; i++) {
+            linhasGuardadas[i] = (int) chaves[i];
+        }
+    }
+
+    // Linhas em [inicio, fim) que passam o filtro atual, partindo das candidatas (ou de todas, se null)
+    private int[] pesquisar(int[] candidatas, int nCandidatas, int inicio, int fim) {
+        int[] resultado = candidatas;
+        int n = nCandidatas;
+        if (resultado == null && (inicio > 0 || fim < linhas)) {
+            resultado = new int[fim - inicio];
+            for (int i = 0; i < resultado.length; i++) {
+                resultado[i] = inicio + i;
+            }
+            n = resultado.length;
+        }
+        // Primeiro a matrícula (mais seletiva), depois o modelo e a marca
+        if (!filtroMatricula.isEmpty()) {
+            resultado = indiceMatriculas.pesquisar(filtroMatricula, resultado, n);
+            n = resultado.length;
+        }
+        if (!filtroModelo.isEmpty()) {
+            resultado = indiceModelos.pesquisar(filtroModelo, resultado, n);
+            n = resultado.length;
+        }
+        if (!filtroMarca.isEmpty()) {
+            resultado = indiceMarcas.pesquisar(filtroMarca, resultado, n);
+        }
+        return resultado;
+    }
+
+    // Notifica as linhas guardadas a partir de primeira (acabadas de acrescentar) que são visíveis
+    private void notificarAcrescentadas(int primeira) {
+        if (isOrdenado()) {
+            // Com ordenação local as linhas novas ficam espalhadas pela tabela: entram na ordem e nas
+            // visíveis, que são reordenadas, e a tabela é redesenhada de uma vez
+            if (ordem == null) {
+                materializarOrdem(linhas);
+            } else {
+                materializarOrdem(numeroOrdem + linhas - primeira);
+                for (int linha = primeira; linha < linhas; linha++) {
+                    ordem[numeroOrdem++] = linha;
+                }
+            }
+            if (visiveis != null) {
+                int[] novas = pesquisar(null, 0, primeira, linhas);
+                visiveis = Arrays.copyOf(visiveis, numeroVisiveis + novas.length);
+                System.arraycopy(novas, 0, visiveis, numeroVisiveis, novas.length);
+                numeroVisiveis += novas.length;
+            }
+            reordenar();
+            fireTableDataChanged();
+            return;
+        }
+        int antesNaOrdem = numeroLinhasNaOrdem() - (ordem == null ? linhas - primeira : 0);
+        if (ordem != null) {
+            // As páginas seguintes ficam no fim da tabela, depois das linhas já mostradas
+            materializarOrdem(numeroOrdem + linhas - primeira);
+            for (int linha = primeira; linha < linhas; linha++) {
+                ordem[numeroOrdem++] = linha;
+            }
+            posicoesValidas = false;
+        }
+        if (visiveis == null) {
+            fireTableRowsInserted(antesNaOrdem, numeroLinhasNaOrdem() - 1);
+            return;
+        }
+        int[] novas = pesquisar(null, 0, primeira, linhas);
+        if (novas.length == 0) {
+            return;
+        }
+        int antes = numeroVisiveis;
+        if (antes + novas.length > visiveis.length) {
+            visiveis = Arrays.copyOf(visiveis, Math.max(antes + novas.length, visiveis.length + (visiveis.length >> 1)));
+        }
+        System.arraycopy(novas, 0, visiveis, antes, novas.length);
+        numeroVisiveis = antes + novas.length;
+        fireTableRowsInserted(antes, numeroVisiveis - 1);
+    }
+
+    /**
+     * Passa a mostrar as linhas guardadas dadas (pela ordem da tabela; null = todas) e notifica a JTable só
+     * das diferenças: percorre as duas listas do fim para o início, para que os índices das linhas abaixo
+     * do bloco tratado continuem válidos, e aplica cada bloco removido/inserido com o respetivo evento.
+     */
+    private void aplicarVisiveis(int[] novas, int nNovas) {
+        int[] antigas = visiveis;
+        int nAntigas = numeroVisiveis;
+        if (antigas == null) {
+            antigas = todasNaOrdem();
+            nAntigas = antigas.length;
+        }
+        if (novas == null) {
+            novas = todasNaOrdem();
+            nNovas = novas.length;
+        }
+        garantirPosicoes();
+
+        int[] contagem = contarDiferencas(antigas, nAntigas, novas, nNovas);
+        if (contagem[0] > MAXIMO_EVENTOS_DELTA) {
+            definirVisiveis(novas, nNovas);
+            fireTableDataChanged();
+            return;
+        }
+
+        int[] atual = Arrays.copyOf(antigas, nAntigas + contagem[1]);
+        visiveis = atual;
+        numeroVisiveis = nAntigas;
+        int i = nAntigas - 1;
+        int j = nNovas - 1;
+        while (i >= 0 || j >= 0) {
+            if (i >= 0 && j >= 0 && antigas[i] == novas[j]) {
+                i--;
+                j--;
+            } else if (j < 0 || (i >= 0 && chave(antigas[i]) > chave(novas[j]))) {
+                // Bloco de linhas que saem
+                int fim = i;
+                while (i >= 0 && (j < 0 || chave(antigas[i]) > chave(novas[j]))) {
+                    i--;
+                }
+                int inicio = i + 1;
+                System.arraycopy(atual, fim + 1, atual, inicio, numeroVisiveis - fim - 1);
+                numeroVisiveis -= fim - inicio + 1;
+                fireTableRowsDeleted(inicio, fim);
+            } else {
+                // Bloco de linhas que entram, todas na posição i + 1
+                int fim = j;
+                while (j >= 0 && (i < 0 || chave(novas[j]) > chave(antigas[i]))) {
+                    j--;
+                }
+                int quantidade = fim - j;
+                int posicao = i + 1;
+                System.arraycopy(atual, posicao, atual, posicao + quantidade, numeroVisiveis - posicao);
+                System.arraycopy(novas, j + 1, atual, posicao, quantidade);
+                numeroVisiveis += quantidade;
+                fireTableRowsInserted(posicao, posicao + quantidade - 1);
+            }
+        }
+        definirVisiveis(atual, numeroVisiveis);
+    }
+
+    // {blocos de diferenças, linhas inseridas} entre as duas listas, ambas pela ordem da tabela
+    private int[] contarDiferencas(int[] antigas, int nAntigas, int[] novas, int nNovas) {
+        int blocos = 0;
+        int inseridas = 0;
+        int ultimo = 0; // 0 = igual, 1 = remoção, 2 = inserção
+        int i = 0;
+        int j = 0;
+        while (i < nAntigas || j < nNovas) {
+            int tipo;
+            if (i < nAntigas && j < nNovas && antigas[i] == novas[j]) {
+                tipo = 0;
+                i++;
+                j++;
+            } else if (j >= nNovas || (i < nAntigas && chave(antigas[i]) < chave(novas[j]))) {
+                tipo = 1;
+                i++;
+            } else {
+                tipo = 2;
+                j++;
+                inseridas++;
+            }
+            if (tipo != 0 && tipo != ultimo) {
+                blocos++;
+            }
+            ultimo = tipo;
+        }
+        return new int[]{blocos, inseridas};
+    }
+
+    // Sem filtro volta-se ao modo sem indireção (visiveis = null)
+    private void definirVisiveis(int[] novas, int nNovas) {
+        if (isFiltroAtivo()) {
+            visiveis = novas;
+            numeroVisiveis = nNovas;
+        } else {
+            visiveis = null;
+            numeroVisiveis = 0;
+        }
+    }
+
+    private int[] todas() {
+        int[] todas = new int[linhas];
+        for (int i = 0; i < linhas; i++) {
+            todas[i] = i;
+        }
+        return todas;
+    }
+
+    // Linhas guardadas sem filtro, pela ordem da tabela
+    private int[] todasNaOrdem() {
+        return ordem == null ? todas() : Arrays.copyOf(ordem, numeroOrdem);
+    }
+
+    // --- Ordenação local ---
+
+    // Reordena a ordem da tabela (e as visíveis, se houver filtro) pelas chaves efetivas: uma passagem
+    // estável por chave, da menos para a mais importante
+    private void reordenar() {
+        materializarOrdem(numeroLinhasNaOrdem());
+        int n = numeroOrdem;
+        long[] pares = new long[n];
+        int[] reordenada = new int[n];
+        int ultima = chavesEfetivas.size() - 1;
+        if (chavesEfetivas.get(ultima) == ID_DECRESCENTE && isPorIdDecrescente()) {
+            ultima--; // Desempate já feito: a ordem da listagem é por ID decrescente
+        }
+        for (int k = ultima; k >= 0; k--) {
+            RowSorter.SortKey chave = chavesEfetivas.get(k);
+            int[] valores = valoresOrdenaveis(chave.getColumn());
+            boolean decrescente = chave.getSortOrder() == SortOrder.DESCENDING;
+            for (int i = 0; i < n; i++) {
+                int valor = valores[ordem[i]];
+                pares[i] = ((long) (decrescente ? ~valor : valor) << 32) | i;
+            }
+            Arrays.parallelSort(pares); // Em paralelo só acima de alguns milhares de linhas
+            for (int i = 0; i < n; i++) {
+                reordenada[i] = ordem[(int) pares[i]];
+            }
+            System.arraycopy(reordenada, 0, ordem, 0, n);
+        }
+        posicoesValidas = false;
+        if (visiveis != null) {
+            int[] novas = Arrays.copyOf(visiveis, numeroVisiveis);
+            ordenarComoNaTabela(novas);
+            visiveis = novas;
+        }
+    }
+
+    private boolean isPorIdDecrescente() {
+        for (int i = 1; i < numeroOrdem; i++) {
+            if (ids[ordem[i - 1]] < ids[ordem[i]]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Um int por linha guardada cuja ordem é a da coluna (só válido para as linhas na ordem). As linhas
+    // removidas depois do cálculo não o invalidam; as inseridas ou alteradas sim (ver preencherColunas)
+    private int[] valoresOrdenaveis(int coluna) {
+        if (coluna == COLUNA_ID) {
+            return ids;
+        }
+        int[] valores = valoresEmCache[coluna];
+        if (valores == null) {
+            valores = calcularValoresOrdenaveis(coluna);
+            valoresEmCache[coluna] = valores;
+        }
+        return valores;
+    }
+
+    private int[] calcularValoresOrdenaveis(int coluna) {
+        switch (coluna) {
+            case COLUNA_ID:
+                return ids;
+            case COLUNA_PRECO:
+                return posicoesDosPrecos();
+            case COLUNA_MATRICULA:
+                return posicoesDasMatriculas();
+            case COLUNA_MARCA:
+                return posicoesDosTextos(marcas);
+            case COLUNA_MODELO:
+                return posicoesDosTextos(modelos);
+            case COLUNA_RESPONSAVEL:
+                return posicoesDosTextos(responsaveis);
+            case COLUNA_ESTADO:
+                return posicoesDosTextos(estados);
+            default:
+                throw new IndexOutOfBoundsException("Coluna inválida: " + coluna);
+        }
+    }
+
+    // Posição do preço de cada linha entre os preços distintos (ordem de Double.compare)
+    private int[] posicoesDosPrecos() {
+        double[] distintos = new double[numeroOrdem];
+        for (int i = 0; i < numeroOrdem; i++) {
+            distintos[i] = precos[ordem[i]];
+        }
+        Arrays.parallelSort(distintos);
+        int nDistintos = 0;
+        for (int i = 0; i < distintos.length; i++) {
+            if (nDistintos == 0 || Double.compare(distintos[i], distintos[nDistintos - 1]) != 0) {
+                distintos[nDistintos++] = distintos[i];
+            }
+        }
+        int[] valores = new int[linhas];
+        for (int i = 0; i < numeroOrdem; i++) {
+            int linha = ordem[i];
+            valores[linha] = Arrays.binarySearch(distintos, 0, nDistintos, precos[linha]);
+        }
+        return valores;
+    }
+
+    // As matrículas não têm acentos e são únicas por veículo: ordem natural das Strings, sem CollationKeys
+    private int[] posicoesDasMatriculas() {
+        String[] distintas = new String[numeroOrdem];
+        int n = 0;
+        for (int i = 0; i < numeroOrdem; i++) {
+            String matricula = matriculas[ordem[i]];
+            if (matricula != null) {
+                distintas[n++] = matricula;
+            }
+        }
+        Arrays.parallelSort(distintas, 0, n);
+        int nDistintas = 0;
+        for (int i = 0; i < n; i++) {
+            if (nDistintas == 0 || !distintas[i].equals(distintas[nDistintas - 1])) {
+                distintas[nDistintas++] = distintas[i];
+            }
+        }
+        int[] valores = new int[linhas];
+        for (int i = 0; i < numeroOrdem; i++) {
+            int linha = ordem[i];
+            String matricula = matriculas[linha];
+            valores[linha] = matricula == null ? -1 : Arrays.binarySearch(distintas, 0, nDistintas, matricula);
+        }
+        return valores;
+    }
+
+    // Posição do texto de cada linha entre os textos distintos da coluna, pela collation portuguesa.
+    // Os textos repetidos vêm do dicionário, pelo que só há uma CollationKey por valor distinto
+    private int[] posicoesDosTextos(String[] coluna) {
+        Map<String, Integer> posicaoDoTexto = new HashMap<>();
+        for (int i = 0; i < numeroOrdem; i++) {
+            String texto = coluna[ordem[i]];
+            if (texto != null) {
+                posicaoDoTexto.putIfAbsent(texto, 0);
+            }
+        }
+        CollationKey[] chaves = new CollationKey[posicaoDoTexto.size()];
+        int n = 0;
+        for (String texto : posicaoDoTexto.keySet()) {
+            chaves[n++] = chaveColacao(texto);
+        }
+        Arrays.sort(chaves);
+        int posicao = -1;
+        for (int i = 0; i < chaves.length; i++) {
+            if (i == 0 || chaves[i].compareTo(chaves[i - 1]) != 0) {
+                posicao++; // Textos iguais para a collation ficam com a mesma posição
+            }
+            posicaoDoTexto.put(chaves[i].getSourceString(), posicao);
+        }
+        int[] valores = new int[linhas];
+        for (int i = 0; i < numeroOrdem; i++) {
+            int linha = ordem[i];
+            String texto = coluna[linha];
+            valores[linha] = texto == null ? -1 : posicaoDoTexto.get(texto); // Sem valor: antes de todos
+        }
+        return valores;
+    }
+
+    private CollationKey chaveColacao(String texto) {
+        CollationKey chave = chavesColacao.get(texto);
+        if (chave == null) {
+            chave = colacao.getCollationKey(texto);
+            chavesColacao.put(texto, chave);
+        }
+        return chave;
+    }
+
+    // Compara duas linhas guardadas pelas chaves efetivas, com o mesmo resultado que reordenar
+    private int comparar(int linhaA, int linhaB) {
+        for (RowSorter.SortKey chave : chavesEfetivas) {
+            int resultado = compararColuna(chave.getColumn(), linhaA, linhaB);
+            if (resultado != 0) {
+                return chave.getSortOrder() == SortOrder.DESCENDING ? -resultado : resultado;
+            }
+        }
+        return 0;
+    }
+
+    private int compararColuna(int coluna, int linhaA, int linhaB) {
+        switch (coluna) {
+            case COLUNA_ID:
+                return Integer.compare(ids[linhaA], ids[linhaB]);
+            case COLUNA_PRECO:
+                return Double.compare(precos[linhaA], precos[linhaB]);
+            case COLUNA_MATRICULA:
+                return compararTextos(matriculas[linhaA], matriculas[linhaB], false);
+            case COLUNA_MARCA:
+                return compararTextos(marcas[linhaA], marcas[linhaB], true);
+            case COLUNA_MODELO:
+                return compararTextos(modelos[linhaA], modelos[linhaB], true);
+            case COLUNA_RESPONSAVEL:
+                return compararTextos(responsaveis[linhaA], responsaveis[linhaB], true);
+            case COLUNA_ESTADO:
+                return compararTextos(estados[linhaA], estados[linhaB], true);
+            default:
+                throw new IndexOutOfBoundsException("Coluna inválida: " + coluna);
+        }
+    }
+
+    private int compararTextos(String a, String b, boolean comColacao) {
+        if (a == null || b == null) {
+            return a == null ? (b == null ? 0 : -1) : 1;
+        }
+        return comColacao ? chaveColacao(a).compareTo(chaveColacao(b)) : a.compareTo(b);
+    }
+
+    // Posição na ordem (ordenada) onde uma linha guardada que ainda não está na ordem deve entrar
+    private int posicaoOrdenada(int linha) {
+        int inicio = 0;
+        int fim = numeroOrdem;
+        while (inicio < fim) {
+            int meio = (inicio + fim) >>> 1;
+            if (comparar(ordem[meio], linha) <= 0) {
+                inicio = meio + 1;
+            } else {
+                fim = meio;
+            }
+        }
+        return inicio;
+    }
+
+    // Se a linha (já na ordem) continua entre as suas vizinhas depois de alterada
+    private boolean estaOrdenada(int linha) {
+        garantirPosicoes();
+        int posicao = posicoes[linha];
+        return (posicao == 0 || comparar(ordem[posicao - 1], linha) <= 0)
+                && (posicao == numeroOrdem - 1 || comparar(linha, ordem[posicao + 1]) <= 0);
+    }
+
+    private void guardar(int row, Veiculo veiculo) {
+        preencherColunas(row, veiculo);
+        indiceMarcas.adicionar(row, marcas[row]);
+        indiceModelos.adicionar(row, modelos[row]);
+        indiceMatriculas.adicionar(row, matriculas[row]);
+    }
+
+    private void preencherColunas(int row, Veiculo veiculo) {
+        Arrays.fill(valoresEmCache, null);
+        ids[row] = veiculo.getId();
+        precos[row] = veiculo.getPreco();
+        marcas[row] = partilhar(veiculo.getMarca());
+        modelos[row] = partilhar(veiculo.getModelo());
+        matriculas[row] = veiculo.getMatricula(); // Única por veículo: não vale a pena partilhar
+        responsaveis[row] = veiculo.getResponsavel() != null ? partilhar(veiculo.getResponsavel().getNome()) : SEM_VALOR;
+        estados[row] = veiculo.getEstado() != null ? partilhar(veiculo.getEstado().getDescricao()) : SEM_VALOR;
+    }
+
+    private String partilhar(String valor) {
+        if (valor == null) {
+            return null;
+        }
+        String existente = dicionario.putIfAbsent(valor, valor);
+        return existente != null ? existente : valor;
+    }
+
+    private void limparDados() {
+        // Liberta as referências para o GC sem reduzir a capacidade dos arrays
+        Arrays.fill(marcas, 0, linhas, null);
+        Arrays.fill(modelos, 0, linhas, null);
+        Arrays.fill(matriculas, 0, linhas, null);
+        Arrays.fill(responsaveis, 0, linhas, null);
+        Arrays.fill(estados, 0, linhas, null);
+        linhas = 0;
+        dicionario.clear();
+        chavesColacao.clear();
+        Arrays.fill(valoresEmCache, null);
+        indiceMarcas.limpar();
+        indiceModelos.limpar();
+        indiceMatriculas.limpar();
+        visiveis = null;
+        numeroVisiveis = 0;
+        ordem = null;
+        numeroOrdem = 0;
+        posicoesValidas = false;
+    }
+
+    private void garantirCapacidade(int necessario) {
+        if (necessario <= ids.length) {
+            return;
+        }
+        int novaCapacidade = Math.max(necessario, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, novaCapacidade);
+        precos = Arrays.copyOf(precos, novaCapacidade);
+        marcas = Arrays.copyOf(marcas, novaCapacidade);
+        modelos = Arrays.copyOf(modelos, novaCapacidade);
+        matriculas = Arrays.copyOf(matriculas, novaCapacidade);
+        responsaveis = Arrays.copyOf(responsaveis, novaCapacidade);
+        estados = Arrays.copyOf(estados, novaCapacidade);
+    }
+}
@@ -5,7 +5,62 @@ import javax.swing.border.Border;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
 
-public class DarkTheme implements Theme {
+// Paleta imutável: cores, fontes e bordas são criadas uma única vez e partilhadas por todas as janelas
+public final class DarkTheme implements Theme {
+
+    private static final DarkTheme instance = new DarkTheme();
+
+    // Cores Primárias
+    private static final Color BACKGROUND = new Color(45, 45, 45);       // Dark background
+    private static final Color FOREGROUND = new Color(60, 63, 65);       // Slightly lighter for components
+    private static final Color BORDER = new Color(70, 70, 70);           // Dark border for general elements
+    private static final Color CARD_BACKGROUND = new Color(50, 50, 50);  // Slightly lighter than background for cards
+
+    // Cores de Destaque/Acento
+    private static final Color ACCENT = new Color(0, 120, 215);           // Blue accent
+    private static final Color ACCENT_BACKGROUND = new Color(0, 84, 153); // Darker blue for button background
+    private static final Color BUTTON_HOVER = ACCENT_BACKGROUND.brighter();  // Lighter on hover
+    private static final Color BUTTON_PRESSED = ACCENT_BACKGROUND.darker();  // Darker on press
+    private static final Color SELECTION = ACCENT.darker();                  // Selected table rows
+
+    // Cores de Texto
+    private static final Color TEXT = new Color(220, 220, 220);          // Light text
+    private static final Color TEXT_ACCENT = new Color(180, 180, 180);   // Slightly darker light text
+
+    // Cores de Mensagens
+    private static final Color SUCCESS = new Color(46, 204, 113);
+    private static final Color ERROR = new Color(231, 76, 60);
+    private static final Color WARNING = new Color(241, 196, 15);
+    private static final Color INFO = new Color(52, 152, 219);
+
+    // Fontes
+    private static final Font MAIN_FONT = new Font("Segoe UI", Font.PLAIN, 14);
+    private static final Font TITLE_FONT = new Font("Segoe UI", Font.BOLD, 24);
+    private static final Font SUBTITLE_FONT = new Font("Segoe UI", Font.BOLD, 16);
+    private static final Font BUTTON_FONT = new Font("Segoe UI", Font.BOLD, 14);
+
+    // Bordas Padrão (as bordas do Swing não guardam estado e podem ser partilhadas entre componentes)
+    private static final Border DEFAULT_BORDER = BorderFactory.createLineBorder(BORDER, 1);
+    private static final Border ACCENT_BORDER = BorderFactory.createCompoundBorder(
+            BorderFactory.createLineBorder(ACCENT, 2),
+            new EmptyBorder(10, 20, 10, 20)
+    );
+    private static final Border FIELD_BORDER = BorderFactory.createCompoundBorder(
+            BorderFactory.createLineBorder(BORDER, 1),
+            new EmptyBorder(5, 10, 5, 10)
+    );
+    private static final Border CARD_BORDER = BorderFactory.createCompoundBorder(
+            BorderFactory.createLineBorder(BORDER, 1),
+            new EmptyBorder(10, 10, 10, 10)
+    );
+
+    private DarkTheme() {
+    }
+
+    public static DarkTheme getInstance() {
+        return instance;
+    }
+
     @Override
     public String getName() {
         return "Dark";
@@ -14,59 +69,64 @@ public class DarkTheme implements Theme {
     // Cores Primárias
     @Override
     public Color getBackgroundColor() {
-        return new Color(45, 45, 45); // Dark background
+        return BACKGROUND;
     }
 
     @Override
     public Color getForegroundColor() {
-        return new Color(60, 63, 65); // Slightly lighter for components
+        return FOREGROUND;
     }
 
     @Override
     public Color getBorderColor() {
-        return new Color(70, 70, 70); // Dark border for general elements
+        return BORDER;
     }
 
     @Override
     public Color getCardBackgroundColor() {
-        return new Color(50, 50, 50); // Slightly lighter than background for cards
+        return CARD_BACKGROUND;
     }
 
     // Cores de Destaque/Acento
     @Override
     public Color getAccentColor() {
-        return new Color(0, 120, 215); // Blue accent
+        return ACCENT;
     }
 
     @Override
     public Color getAccentBackgroundColor() {
-        return new Color(0, 84, 153); // Darker blue for button background
+        return ACCENT_BACKGROUND;
     }
 
     @Override
     public Color getAccentBorderColor() {
-        return getAccentColor(); // Accent color for button borders
+        return ACCENT; // Accent color for button borders
     }
 
     @Override
     public Color getButtonHoverColor() {
-        return getAccentBackgroundColor().brighter(); // Lighter on hover
+        return BUTTON_HOVER;
     }
 
     @Override
     public Color getButtonPressedColor() {
-        return getAccentBackgroundColor().darker(); // Darker on press
+        return BUTTON_PRESSED;
+    }
+
+    @Override
+    public Color getSelectionColor() {
+        return SELECTION;
     }
 
     // Cores de Texto
     @Override
     public Color getTextColor() {
-        return new Color(220, 220, 220); // Light text
+        return TEXT;
     }
 
     @Override
     public Color getTextAccentColor() {
-        return new Color(180, 180, 180); // Slightly darker light text
+        return TEXT_ACCENT;
     }
 
     @Override
@@ -77,72 +137,63 @@ public class DarkTheme implements Theme {
     // Cores de Mensagens
     @Override
     public Color getSuccessColor() {
-        return new Color(46, 204, 113);
+        return SUCCESS;
     }
 
     @Override
     public Color getErrorColor() {
-        return new Color(231, 76, 60);
+        return ERROR;
     }
 
     @Override
     public Color getWarningColor() {
-        return new Color(241, 196, 15);
+        return WARNING;
     }
 
     @Override
     public Color getInfoColor() {
-        return new Color(52, 152, 219);
+        return INFO;
     }
 
     // Fontes
     @Override
     public Font getMainFont() {
-        return new Font("Segoe UI", Font.PLAIN, 14);
+        return MAIN_FONT;
     }
 
     @Override
     public Font getTitleFont() {
-        return new Font("Segoe UI", Font.BOLD, 24);
+        return TITLE_FONT;
     }
 
     @Override
     public Font getSubtitleFont() {
-        return new Font("Segoe UI", Font.BOLD, 16);
+        return SUBTITLE_FONT;
     }
 
     @Override
     public Font getButtonFont() {
-        return new Font("Segoe UI", Font.BOLD, 14);
+        return BUTTON_FONT;
     }
 
     // Bordas Padrão
     @Override
     public Border getDefaultBorder() {
-        return BorderFactory.createLineBorder(getBorderColor(), 1);
+        return DEFAULT_BORDER;
     }
 
     @Override
     public Border getAccentBorder() {
-        return BorderFactory.createCompoundBorder(
-                BorderFactory.createLineBorder(getAccentBorderColor(), 2),
-                new EmptyBorder(10, 20, 10, 20)
-        );
+        return ACCENT_BORDER;
     }
 
     @Override
     public Border getFieldBorder() {
-        return BorderFactory.createCompoundBorder(
-                BorderFactory.createLineBorder(getBorderColor(), 1),
-                new EmptyBorder(5, 10, 5, 10)
-        );
+        return FIELD_BORDER;
     }
 
     @Override
     public Border getCardBorder() {
-        return BorderFactory.createCompoundBorder(
-                BorderFactory.createLineBorder(getBorderColor(), 1),
-                new EmptyBorder(10, 10, 10, 10)
-        );
+        return CARD_BORDER;
     }
-}
\ No newline at end of file
+}
@@ -5,7 +5,62 @@ import javax.swing.border.Border;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
 
-public class LightTheme implements Theme {
+// Paleta imutável: cores, fontes e bordas são criadas uma única vez e partilhadas por todas as janelas
+public final class LightTheme implements Theme {
+
+    private static final LightTheme instance = new LightTheme();
+
+    // Cores Primárias
+    private static final Color BACKGROUND = new Color(240, 240, 240);    // Fundo claro
+    private static final Color FOREGROUND = new Color(255, 255, 255);    // Branco para componentes
+    private static final Color BORDER = new Color(180, 180, 180);        // Borda clara para elementos gerais
+    private static final Color CARD_BACKGROUND = new Color(230, 230, 230);  // Ligeiramente mais escuro que o fundo para cartões
+
+    // Cores de Destaque/Acento
+    private static final Color ACCENT = new Color(30, 144, 255);          // Azul Dodger para acento
+    private static final Color ACCENT_BACKGROUND = new Color(65, 105, 225); // Azul Royal para fundo de botão
+    private static final Color BUTTON_HOVER = ACCENT_BACKGROUND.brighter();  // Mais claro no hover
+    private static final Color BUTTON_PRESSED = ACCENT_BACKGROUND.darker();  // Mais escuro ao pressionar
+    private static final Color SELECTION = ACCENT.darker();                  // Linhas selecionadas das tabelas
+
+    // Cores de Texto
+    private static final Color TEXT = new Color(50, 50, 50);             // Texto escuro
+    private static final Color TEXT_ACCENT = new Color(100, 100, 100);   // Texto escuro ligeiramente mais claro
+
+    // Cores de Mensagens
+    private static final Color SUCCESS = new Color(39, 174, 96);
+    private static final Color ERROR = new Color(192, 57, 43);
+    private static final Color WARNING = new Color(243, 156, 18);
+    private static final Color INFO = new Color(41, 128, 185);
+
+    // Fontes
+    private static final Font MAIN_FONT = new Font("Segoe UI", Font.PLAIN, 14);
+    private static final Font TITLE_FONT = new Font("Segoe UI", Font.BOLD, 24);
+    private static final Font SUBTITLE_FONT = new Font("Segoe UI", Font.BOLD, 16);
+    private static final Font BUTTON_FONT = new Font("Segoe UI", Font.BOLD, 14);
+
+    // Bordas Padrão (as bordas do Swing não guardam estado e podem ser partilhadas entre componentes)
+    private static final Border DEFAULT_BORDER = BorderFactory.createLineBorder(BORDER, 1);
+    private static final Border ACCENT_BORDER = BorderFactory.createCompoundBorder(
+            BorderFactory.createLineBorder(ACCENT, 2),
+            new EmptyBorder(10, 20, 10, 20)
+    );
+    private static final Border FIELD_BORDER = BorderFactory.createCompoundBorder(
+            BorderFactory.createLineBorder(BORDER, 1),
+            new EmptyBorder(5, 10, 5, 10)
+    );
+    private static final Border CARD_BORDER = BorderFactory.createCompoundBorder(
+            BorderFactory.createLineBorder(BORDER, 1),
+            new EmptyBorder(10, 10, 10, 10)
+    );
+
+    private LightTheme() {
+    }
+
+    public static LightTheme getInstance() {
+        return instance;
+    }
+
     @Override
     public String getName() {
         return "Light";
@@ -14,59 +69,64 @@ public class LightTheme implements Theme {
     // Cores Primárias
     @Override
     public Color getBackgroundColor() {
-        return new Color(240, 240, 240); // Fundo claro
+        return BACKGROUND;
     }
 
     @Override
     public Color getForegroundColor() {
-        return new Color(255, 255, 255); // Branco para componentes
+        return FOREGROUND;
     }
 
     @Override
     public Color getBorderColor() {
-        return new Color(180, 180, 180); // Borda clara para elementos gerais
+        return BORDER;
     }
 
     @Override
     public Color getCardBackgroundColor() {
-        return new Color(230, 230, 230); // Ligeiramente mais escuro que o fundo para cartões
+        return CARD_BACKGROUND;
     }
 
     // Cores de Destaque/Acento
     @Override
     public Color getAccentColor() {
-        return new Color(30, 144, 255); // Azul Dodger para acento
+        return ACCENT;
     }
 
     @Override
     public Color getAccentBackgroundColor() {
-        return new Color(65, 105, 225); // Azul Royal para fundo de botão
+        return ACCENT_BACKGROUND;
     }
 
     @Override
     public Color getAccentBorderColor() {
-        return getAccentColor(); // Cor de acento para bordas de botão
+        return ACCENT; // Cor de acento para bordas de botão
     }
 
     @Override
     public Color getButtonHoverColor() {
-        return getAccentBackgroundColor().brighter(); // Mais claro no hover
+        return BUTTON_HOVER;
     }
 
     @Override
     public Color getButtonPressedColor() {
-        return getAccentBackgroundColor().darker(); // Mais escuro ao pressionar
+        return BUTTON_PRESSED;
+    }
+
+    @Override
+    public Color getSelectionColor() {
+        return SELECTION;
     }
 
     // Cores de Texto
     @Override
     public Color getTextColor() {
-        return new Color(50, 50, 50); // Texto escuro
+        return TEXT;
     }
 
     @Override
     public Color getTextAccentColor() {
-        return new Color(100, 100, 100); // Texto escuro ligeiramente mais claro
+        return TEXT_ACCENT;
     }
 
     @Override
@@ -77,72 +137,63 @@ public class LightTheme implements Theme {
     // Cores de Mensagens
     @Override
     public Color getSuccessColor() {
-        return new Color(39, 174, 96);
+        return SUCCESS;
     }
 
     @Override
     public Color getErrorColor() {
-        return new Color(192, 57, 43);
+        return ERROR;
     }
 
     @Override
     public Color getWarningColor() {
-        return new Color(243, 156, 18);
+        return WARNING;
     }
 
     @Override
     public Color getInfoColor() {
-        return new Color(41, 128, 185);
+        return INFO;
     }
 
     // Fontes
     @Override
     public Font getMainFont() {
-        return new Font("Segoe UI", Font.PLAIN, 14);
+        return MAIN_FONT;
     }
 
     @Override
     public Font getTitleFont() {
-        return new Font("Segoe UI", Font.BOLD, 24);
+        return TITLE_FONT;
     }
 
     @Override
     public Font getSubtitleFont() {
-        return new Font("Segoe UI", Font.BOLD, 16);
+        return SUBTITLE_FONT;
     }
 
     @Override
     public Font getButtonFont() {
-        return new Font("Segoe UI", Font.BOLD, 14);
+        return BUTTON_FONT;
     }
 
     // Bordas Padrão
     @Override
     public Border getDefaultBorder() {
-        return BorderFactory.createLineBorder(getBorderColor(), 1);
+        return DEFAULT_BORDER;
     }
 
     @Override
     public Border getAccentBorder() {
-        return BorderFactory.createCompoundBorder(
-                BorderFactory.createLineBorder(getAccentBorderColor(), 2),
-                new EmptyBorder(10, 20, 10, 20)
-        );
+        return ACCENT_BORDER;
     }
 
     @Override
     public Border getFieldBorder() {
-        return BorderFactory.createCompoundBorder(
-                BorderFactory.createLineBorder(getBorderColor(), 1),
-                new EmptyBorder(5, 10, 5, 10)
-        );
+        return FIELD_BORDER;
     }
 
     @Override
     public Border getCardBorder() {
-        return BorderFactory.createCompoundBorder(
-                BorderFactory.createLineBorder(getBorderColor(), 1),
-                new EmptyBorder(10, 10, 10, 10)
-        );
+        return CARD_BORDER;
     }
-}
\ No newline at end of file
+}
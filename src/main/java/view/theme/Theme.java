@@ -3,6 +3,8 @@ package view.theme; // Certifica-te que este package está correto
 import javax.swing.border.Border;
 import java.awt.*;
 
+// As implementações devolvem sempre as mesmas instâncias (paleta pré-calculada): os getters são chamados
+// pelos renderers a cada célula desenhada e não devem alocar
 public interface Theme {
     String getName();
 
@@ -18,6 +20,7 @@ public interface Theme {
     Color getAccentBorderColor();
     Color getButtonHoverColor(); // Novo: para efeito hover do botão
     Color getButtonPressedColor(); // Novo: para efeito pressed do botão
+    Color getSelectionColor(); // Linhas selecionadas das tabelas
 
     // Cores de Texto
     Color getTextColor();
@@ -3,19 +3,97 @@ package view.theme;
 import javax.swing.*;
 import javax.swing.border.Border;
 import javax.swing.border.EmptyBorder;
+import javax.swing.plaf.BorderUIResource;
+import javax.swing.plaf.ColorUIResource;
+import javax.swing.plaf.FontUIResource;
 import javax.swing.table.DefaultTableCellRenderer;
-import javax.swing.table.DefaultTableModel; // Importação adicionada
+import javax.swing.table.TableModel;
 import javax.swing.table.JTableHeader;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.awt.event.MouseListener;
 import java.util.prefs.Preferences;
 
+// O tema ativo é um só para toda a aplicação (lido das Preferences uma vez). Mudá-lo instala os
+// defaults do UIManager (diálogos, popups e componentes novos já nascem tematizados) e volta a aplicar
+// o tema só às janelas visíveis; as escondidas (ver controller.Navegador) atualizam-se ao serem mostradas.
 public abstract class ThemedView extends JFrame {
 
     protected Theme currentTheme;
     private static final String THEME_PREF_KEY = "appTheme";
-    private final Preferences prefs = Preferences.userNodeForPackage(ThemedView.class);
+    private static final Preferences prefs = Preferences.userNodeForPackage(ThemedView.class);
+    private static Theme activeTheme; // Só acedido na EDT; null até à primeira janela
+
+    private static final Border MENU_ITEM_BORDER = BorderFactory.createEmptyBorder(5, 10, 5, 10); // Preenchimento
+    private static final Cursor HAND_CURSOR = Cursor.getPredefinedCursor(Cursor.HAND_CURSOR);
+
+    // Efeitos de hover partilhados por todos os botões e itens de menu: cada componente recebe o mesmo
+    // listener uma única vez (ver installOnce), por muitas vezes que o tema seja aplicado
+    private static final MouseListener BUTTON_HOVER = new MouseAdapter() {
+        @Override
+        public void mouseEntered(MouseEvent e) {
+            e.getComponent().setBackground(activeTheme.getButtonHoverColor());
+        }
+
+        @Override
+        public void mouseExited(MouseEvent e) {
+            e.getComponent().setBackground(activeTheme.getAccentBackgroundColor());
+        }
+
+        @Override
+        public void mousePressed(MouseEvent e) {
+            e.getComponent().setBackground(activeTheme.getButtonPressedColor());
+        }
+
+        @Override
+        public void mouseReleased(MouseEvent e) {
+            e.getComponent().setBackground(activeTheme.getButtonHoverColor());
+        }
+    };
+
+    private static final MouseListener MENU_ITEM_HOVER = new MouseAdapter() {
+        @Override
+        public void mouseEntered(MouseEvent e) {
+            e.getComponent().setBackground(activeTheme.getAccentBackgroundColor());
+            e.getComponent().setForeground(activeTheme.getButtonTextColor());
+        }
+
+        @Override
+        public void mouseExited(MouseEvent e) {
+            e.getComponent().setBackground(activeTheme.getForegroundColor());
+            e.getComponent().setForeground(activeTheme.getTextColor());
+        }
+    };
+
+    private JButton themeToggleButton; // Botão criado por createThemeToggleButton, se existir
+
+    // Renderers criados uma vez por janela e reutilizados em todas as aplicações do tema; leem o
+    // currentTheme a cada célula, pelo que mudar de tema não obriga a substituí-los
+    private final DefaultListCellRenderer comboBoxRenderer = new DefaultListCellRenderer() {
+        @Override
+        public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                                                      boolean isSelected, boolean cellHasFocus) {
+            super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+            setBackground(isSelected ? currentTheme.getAccentBackgroundColor() : currentTheme.getForegroundColor());
+            setForeground(isSelected ? currentTheme.getButtonTextColor() : currentTheme.getTextColor());
+            return this;
+        }
+    };
+
+    private final DefaultTableCellRenderer tableRenderer = new DefaultTableCellRenderer() {
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected, boolean hasFocus, int row, int column) {
+            Component c = super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+            if (!isSelected) {
+                c.setBackground(row % 2 == 0 ? currentTheme.getForegroundColor() : currentTheme.getBackgroundColor());
+            } else {
+                c.setBackground(currentTheme.getSelectionColor());
+            }
+            c.setForeground(currentTheme.getTextColor());
+            return c;
+        }
+    };
 
     // Construtor para JFrame
     public ThemedView(String title) {
@@ -46,34 +124,128 @@ public abstract class ThemedView extends JFrame {
     // Método abstrato a ser implementado pelas subclasses para inicialização de componentes
     protected abstract void initializeComponents();
 
-    // Método para carregar a preferência de tema
+    // Método para carregar a preferência de tema (só a primeira janela lê as Preferences)
     private void loadThemePreference() {
-        String themeName = prefs.get(THEME_PREF_KEY, "Dark"); // Padrão: Tema Escuro
-        if ("Light".equals(themeName)) {
-            currentTheme = new LightTheme();
-        } else {
-            currentTheme = new DarkTheme();
+        if (activeTheme == null) {
+            String themeName = prefs.get(THEME_PREF_KEY, "Dark"); // Padrão: Tema Escuro
+            activateTheme("Light".equals(themeName) ? LightTheme.getInstance() : DarkTheme.getInstance());
         }
+        currentTheme = activeTheme;
     }
 
     // Método para salvar a preferência de tema
-    private void saveThemePreference(String themeName) {
+    private static void saveThemePreference(String themeName) {
         prefs.put(THEME_PREF_KEY, themeName);
     }
 
-    // Método para alternar o tema
+    // Método para alternar o tema: muda o tema da aplicação e atualiza as janelas visíveis
     protected void switchTheme() {
-        if (currentTheme instanceof DarkTheme) {
-            currentTheme = new LightTheme();
-        } else {
-            currentTheme = new DarkTheme();
+        activateTheme(currentTheme == DarkTheme.getInstance() ? LightTheme.getInstance() : DarkTheme.getInstance());
+        saveThemePreference(activeTheme.getName());
+        sincronizarTema();
+        for (Window window : Window.getWindows()) {
+            if (window != this && window instanceof ThemedView && window.isShowing()) {
+                ((ThemedView) window).sincronizarTema();
+            }
+        }
+    }
+
+    // Janelas reutilizadas (ver controller.Navegador): aplica o tema ativo se tiver sido mudado
+    // noutra janela enquanto esta estava escondida
+    public void sincronizarTema() {
+        if (currentTheme == activeTheme) {
+            return;
+        }
+        currentTheme = activeTheme;
+        applyTheme();
+        if (themeToggleButton != null) {
+            themeToggleButton.setText("Tema: " + currentTheme.getName());
         }
-        saveThemePreference(currentTheme.getName());
-        applyTheme(); // Aplica o novo tema a todos os componentes
         revalidate(); // Recalcula o layout
         repaint();    // Redesenha os componentes
     }
 
+    @Override
+    public void setVisible(boolean visible) {
+        if (visible) {
+            sincronizarTema(); // Seja qual for o caminho por onde a janela volta a ser mostrada
+        }
+        super.setVisible(visible);
+    }
+
+    // Torna o tema ativo e instala-o nos defaults do UIManager. As cores e fontes vão como UIResource,
+    // para que o que cada janela define explicitamente continue a ter prioridade
+    private static void activateTheme(Theme theme) {
+        activeTheme = theme;
+        ColorUIResource background = new ColorUIResource(theme.getBackgroundColor());
+        ColorUIResource field = new ColorUIResource(theme.getForegroundColor());
+        ColorUIResource text = new ColorUIResource(theme.getTextColor());
+        ColorUIResource accent = new ColorUIResource(theme.getAccentBackgroundColor());
+        ColorUIResource buttonText = new ColorUIResource(theme.getButtonTextColor());
+        ColorUIResource selection = new ColorUIResource(theme.getSelectionColor());
+        FontUIResource mainFont = new FontUIResource(theme.getMainFont());
+        FontUIResource buttonFont = new FontUIResource(theme.getButtonFont());
+
+        UIManager.put("Panel.background", background);
+        UIManager.put("OptionPane.background", background);
+        UIManager.put("OptionPane.messageForeground", text);
+        UIManager.put("OptionPane.messageFont", mainFont);
+        UIManager.put("OptionPane.buttonFont", buttonFont);
+        UIManager.put("Label.foreground", text);
+        UIManager.put("Label.font", mainFont);
+        for (String prefix : new String[]{"TextField", "PasswordField", "TextArea"}) {
+            UIManager.put(prefix + ".background", field);
+            UIManager.put(prefix + ".foreground", text);
+            UIManager.put(prefix + ".caretForeground", text);
+            UIManager.put(prefix + ".font", mainFont);
+        }
+        UIManager.put("ComboBox.background", field);
+        UIManager.put("ComboBox.foreground", text);
+        UIManager.put("ComboBox.selectionBackground", accent);
+        UIManager.put("ComboBox.selectionForeground", buttonText);
+        UIManager.put("ComboBox.font", mainFont);
+        UIManager.put("List.background", field);
+        UIManager.put("List.foreground", text);
+        UIManager.put("List.selectionBackground", accent);
+        UIManager.put("List.selectionForeground", buttonText);
+        UIManager.put("List.font", mainFont);
+        UIManager.put("Table.background", field);
+        UIManager.put("Table.foreground", text);
+        UIManager.put("Table.selectionBackground", selection);
+        UIManager.put("Table.selectionForeground", text);
+        UIManager.put("Table.gridColor", new ColorUIResource(theme.getBorderColor()));
+        UIManager.put("Table.font", mainFont);
+        UIManager.put("TableHeader.background", accent);
+        UIManager.put("TableHeader.foreground", buttonText);
+        UIManager.put("TableHeader.font", buttonFont);
+        UIManager.put("ScrollPane.background", background);
+        UIManager.put("ScrollPane.border", new BorderUIResource(theme.getDefaultBorder()));
+        UIManager.put("Viewport.background", field);
+        for (String prefix : new String[]{"CheckBox", "RadioButton"}) {
+            UIManager.put(prefix + ".background", background);
+            UIManager.put(prefix + ".foreground", text);
+            UIManager.put(prefix + ".font", mainFont);
+        }
+        UIManager.put("MenuBar.background", background);
+        UIManager.put("Menu.background", background);
+        UIManager.put("Menu.foreground", text);
+        UIManager.put("Menu.font", mainFont);
+        UIManager.put("MenuItem.background", field);
+        UIManager.put("MenuItem.foreground", text);
+        UIManager.put("MenuItem.font", mainFont);
+        UIManager.put("PopupMenu.background", field);
+    }
+
+    // Adiciona um listener partilhado a um componente, se ainda não o tiver
+    private static void installOnce(Component component, MouseListener listener) {
+        for (MouseListener existing : component.getMouseListeners()) {
+            if (existing == listener) {
+                return;
+            }
+        }
+        component.addMouseListener(listener);
+    }
+
     // Aplica o tema a todos os componentes recursivamente
     protected void applyTheme() {
         applyThemeToComponent(this.getContentPane());
@@ -141,30 +313,10 @@ public abstract class ThemedView extends JFrame {
         button.setFocusPainted(false);
         button.setFont(currentTheme.getButtonFont());
         button.setBorder(currentTheme.getAccentBorder());
-        button.setCursor(new Cursor(Cursor.HAND_CURSOR));
-
-        // Adiciona efeitos de hover
-        button.addMouseListener(new MouseAdapter() {
-            @Override
-            public void mouseEntered(MouseEvent e) {
-                button.setBackground(currentTheme.getButtonHoverColor());
-            }
-
-            @Override
-            public void mouseExited(MouseEvent e) {
-                button.setBackground(currentTheme.getAccentBackgroundColor());
-            }
+        button.setCursor(HAND_CURSOR);
 
-            @Override
-            public void mousePressed(MouseEvent e) {
-                button.setBackground(currentTheme.getButtonPressedColor());
-            }
-
-            @Override
-            public void mouseReleased(MouseEvent e) {
-                button.setBackground(currentTheme.getButtonHoverColor());
-            }
-        });
+        // Adiciona efeitos de hover (uma só vez por botão)
+        installOnce(button, BUTTON_HOVER);
     }
 
     protected void applyThemeToTextField(JTextField textField) {
@@ -190,23 +342,21 @@ public abstract class ThemedView extends JFrame {
         comboBox.setBorder(currentTheme.getFieldBorder());
 
         // Renderer personalizado para os itens da ComboBox
-        comboBox.setRenderer(new DefaultListCellRenderer() {
-            @Override
-            public Component getListCellRendererComponent(JList<?> list, Object value, int index,
-                                                          boolean isSelected, boolean cellHasFocus) {
-                super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
-                setBackground(isSelected ? currentTheme.getAccentBackgroundColor() : currentTheme.getForegroundColor());
-                setForeground(isSelected ? currentTheme.getButtonTextColor() : currentTheme.getTextColor());
-                return this;
-            }
-        });
+        if (comboBox.getRenderer() != comboBoxRenderer) {
+            setComboBoxRenderer(comboBox);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void setComboBoxRenderer(JComboBox<?> comboBox) {
+        ((JComboBox<Object>) comboBox).setRenderer(comboBoxRenderer);
     }
 
     protected void applyThemeToTable(JTable table) {
         table.setFont(currentTheme.getMainFont());
         table.setBackground(currentTheme.getForegroundColor());
         table.setForeground(currentTheme.getTextColor());
-        table.setSelectionBackground(currentTheme.getAccentColor().darker());
+        table.setSelectionBackground(currentTheme.getSelectionColor());
         table.setSelectionForeground(currentTheme.getTextColor());
         table.setGridColor(currentTheme.getBorderColor());
         table.setRowHeight(25); // Altura padrão da linha
@@ -216,29 +366,18 @@ public abstract class ThemedView extends JFrame {
         header.setBackground(currentTheme.getAccentBackgroundColor());
         header.setForeground(currentTheme.getButtonTextColor());
         header.setFont(currentTheme.getButtonFont());
-        header.setBorder(BorderFactory.createLineBorder(currentTheme.getBorderColor()));
+        header.setBorder(currentTheme.getDefaultBorder());
 
         // Renderer personalizado para células da tabela (cores alternadas ou estilização específica)
-        table.setDefaultRenderer(Object.class, new DefaultTableCellRenderer() {
-            @Override
-            public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected, boolean hasFocus, int row, int column) {
-                Component c = super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
-                if (!isSelected) {
-                    c.setBackground(row % 2 == 0 ? currentTheme.getForegroundColor() : currentTheme.getBackgroundColor());
-                    c.setForeground(currentTheme.getTextColor());
-                } else {
-                    c.setBackground(currentTheme.getAccentColor().darker());
-                    c.setForeground(currentTheme.getTextColor());
-                }
-                return c;
-            }
-        });
+        if (table.getDefaultRenderer(Object.class) != tableRenderer) {
+            table.setDefaultRenderer(Object.class, tableRenderer);
+        }
     }
 
     protected void applyThemeToScrollPane(JScrollPane scrollPane) {
         scrollPane.setBackground(currentTheme.getBackgroundColor());
         scrollPane.getViewport().setBackground(currentTheme.getForegroundColor());
-        scrollPane.setBorder(BorderFactory.createLineBorder(currentTheme.getBorderColor(), 1));
+        scrollPane.setBorder(currentTheme.getDefaultBorder());
     }
 
     protected void applyThemeToCheckBox(JCheckBox checkBox) {
@@ -264,7 +403,7 @@ public abstract class ThemedView extends JFrame {
     protected void applyThemeToMenuBar(JMenuBar menuBar) {
         menuBar.setBackground(currentTheme.getBackgroundColor());
         menuBar.setForeground(currentTheme.getTextColor());
-        menuBar.setBorder(BorderFactory.createLineBorder(currentTheme.getBorderColor()));
+        menuBar.setBorder(currentTheme.getDefaultBorder());
 
         for (Component menuComponent : menuBar.getComponents()) {
             if (menuComponent instanceof JMenu) {
@@ -291,21 +430,9 @@ public abstract class ThemedView extends JFrame {
         menuItem.setBackground(currentTheme.getForegroundColor());
         menuItem.setForeground(currentTheme.getTextColor());
         menuItem.setFont(currentTheme.getMainFont());
-        menuItem.setBorder(BorderFactory.createEmptyBorder(5, 10, 5, 10)); // Preenchimento
-
-        menuItem.addMouseListener(new MouseAdapter() {
-            @Override
-            public void mouseEntered(MouseEvent e) {
-                menuItem.setBackground(currentTheme.getAccentBackgroundColor());
-                menuItem.setForeground(currentTheme.getButtonTextColor());
-            }
+        menuItem.setBorder(MENU_ITEM_BORDER);
 
-            @Override
-            public void mouseExited(MouseEvent e) {
-                menuItem.setBackground(currentTheme.getForegroundColor());
-                menuItem.setForeground(currentTheme.getTextColor());
-            }
-        });
+        installOnce(menuItem, MENU_ITEM_HOVER);
     }
 
     // --- Métodos de Fábrica para Componentes Temáticos ---
@@ -357,7 +484,7 @@ public abstract class ThemedView extends JFrame {
     }
 
     // NOVO MÉTODO DE FÁBRICA PARA JTable
-    protected JTable createStyledTable(DefaultTableModel model) {
+    protected JTable createStyledTable(TableModel model) {
         JTable table = new JTable(model);
         // Aplica o estilo da tabela através do método existente
         applyThemeToTable(table);
@@ -389,7 +516,8 @@ public abstract class ThemedView extends JFrame {
                 BorderFactory.createLineBorder(currentTheme.getAccentBorderColor(), 1),
                 new EmptyBorder(5, 10, 5, 10)
         ));
-        toggleButton.setCursor(new Cursor(Cursor.HAND_CURSOR));
+        toggleButton.setCursor(HAND_CURSOR);
+        themeToggleButton = toggleButton;
 
         toggleButton.addActionListener(e -> {
             switchTheme();
@@ -397,27 +525,7 @@ public abstract class ThemedView extends JFrame {
         });
 
         // Adiciona efeitos de hover para o botão de alternar tema
-        toggleButton.addMouseListener(new MouseAdapter() {
-            @Override
-            public void mouseEntered(MouseEvent e) {
-                toggleButton.setBackground(currentTheme.getButtonHoverColor());
-            }
-
-            @Override
-            public void mouseExited(MouseEvent e) {
-                toggleButton.setBackground(currentTheme.getAccentBackgroundColor());
-            }
-
-            @Override
-            public void mousePressed(MouseEvent e) {
-                toggleButton.setBackground(currentTheme.getButtonPressedColor());
-            }
-
-            @Override
-            public void mouseReleased(MouseEvent e) {
-                toggleButton.setBackground(currentTheme.getButtonHoverColor());
-            }
-        });
+        installOnce(toggleButton, BUTTON_HOVER);
 
         return toggleButton;
     }
@@ -441,18 +549,7 @@ public abstract class ThemedView extends JFrame {
             panel.add(iconLabel, BorderLayout.WEST);
         }
 
-        // Estilos para JOptionPane e botões (temporariamente aplicados)
-        UIManager.put("OptionPane.background", currentTheme.getBackgroundColor());
-        UIManager.put("Panel.background", currentTheme.getBackgroundColor());
-        UIManager.put("OptionPane.messageForeground", currentTheme.getTextColor());
-        UIManager.put("OptionPane.buttonFont", currentTheme.getButtonFont());
-        UIManager.put("OptionPane.messageFont", currentTheme.getMainFont());
-
-        UIManager.put("Button.background", currentTheme.getAccentBackgroundColor());
-        UIManager.put("Button.foreground", currentTheme.getButtonTextColor());
-        UIManager.put("Button.border", currentTheme.getAccentBorder());
-        UIManager.put("Button.focusPainted", false);
-
+        // O fundo e as fontes do JOptionPane vêm dos defaults do UIManager, já com o tema ativo (ver activateTheme)
         JOptionPane pane = new JOptionPane(panel, messageType, JOptionPane.DEFAULT_OPTION, null, new Object[]{"OK"});
         JDialog dialog = pane.createDialog(parentComponent, title);
         dialog.setBackground(currentTheme.getBackgroundColor()); // Garante que o fundo do diálogo seja tematizado
@@ -471,17 +568,6 @@ public abstract class ThemedView extends JFrame {
 
         dialog.setVisible(true);
         dialog.dispose();
-
-        // Reseta as propriedades do UIManager para evitar vazamento de estilos
-        UIManager.put("OptionPane.background", null);
-        UIManager.put("Panel.background", null);
-        UIManager.put("OptionPane.messageForeground", null);
-        UIManager.put("OptionPane.buttonFont", null);
-        UIManager.put("OptionPane.messageFont", null);
-        UIManager.put("Button.background", null);
-        UIManager.put("Button.foreground", null);
-        UIManager.put("Button.border", null);
-        UIManager.put("Button.focusPainted", null);
     }
 
     protected int showThemedConfirmDialog(Component parentComponent, String message, String title, int optionType, int messageType) {
@@ -500,17 +586,7 @@ public abstract class ThemedView extends JFrame {
             panel.add(iconLabel, BorderLayout.WEST);
         }
 
-        UIManager.put("OptionPane.background", currentTheme.getBackgroundColor());
-        UIManager.put("Panel.background", currentTheme.getBackgroundColor());
-        UIManager.put("OptionPane.messageForeground", currentTheme.getTextColor());
-        UIManager.put("OptionPane.buttonFont", currentTheme.getButtonFont());
-        UIManager.put("OptionPane.messageFont", currentTheme.getMainFont());
-
-        UIManager.put("Button.background", currentTheme.getAccentBackgroundColor());
-        UIManager.put("Button.foreground", currentTheme.getButtonTextColor());
-        UIManager.put("Button.border", currentTheme.getAccentBorder());
-        UIManager.put("Button.focusPainted", false);
-
+        // O fundo e as fontes do JOptionPane vêm dos defaults do UIManager, já com o tema ativo (ver activateTheme)
         JOptionPane pane = new JOptionPane(panel, messageType, optionType);
         JDialog dialog = pane.createDialog(parentComponent, title);
         dialog.setBackground(currentTheme.getBackgroundColor());
@@ -530,17 +606,6 @@ public abstract class ThemedView extends JFrame {
         dialog.setVisible(true);
         dialog.dispose();
 
-        // Reseta as propriedades do UIManager
-        UIManager.put("OptionPane.background", null);
-        UIManager.put("Panel.background", null);
-        UIManager.put("OptionPane.messageForeground", null);
-        UIManager.put("OptionPane.buttonFont", null);
-        UIManager.put("OptionPane.messageFont", null);
-        UIManager.put("Button.background", null);
-        UIManager.put("Button.foreground", null);
-        UIManager.put("Button.border", null);
-        UIManager.put("Button.focusPainted", null);
-
         Object selectedValue = pane.getValue();
         if (selectedValue instanceof Integer) {
             return (int) selectedValue;
@@ -0,0 +1,9 @@
+-- Coluna persistida com o país da matrícula de cada veículo (PORTUGAL, FRANCA, ESPANHA ou INVALIDA).
+-- É preenchida pelo VeiculoDAO em cada INSERT/UPDATE; as linhas antigas ficam a NULL até
+-- VeiculoDAO.sincronizarPaisMatricula() as classificar (corre no arranque da aplicação).
+-- O índice (pais_matricula, id) serve o GROUP BY das estatísticas e a listagem por país
+-- ordenada por ID decrescente (paginação keyset).
+
+ALTER TABLE gsa_db.veiculo ADD COLUMN pais_matricula VARCHAR(10) NULL;
+
+CREATE INDEX idx_veiculo_pais_matricula ON gsa_db.veiculo (pais_matricula, id);
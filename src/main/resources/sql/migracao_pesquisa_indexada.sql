@@ -0,0 +1,29 @@
+-- Índices para os filtros de texto da listagem de veículos (VeiculoDAO.filtrarVeiculos*),
+-- que deixam de usar LIKE '%x%' (sempre uma leitura completa da tabela):
+-- - matricula_chave: matrícula só com letras e dígitos, em maiúsculas ("AB-12-CD" -> "AB12CD"),
+--   coluna gerada para não precisar de ser mantida pela aplicação; serve a pesquisa exata;
+-- - índices FULLTEXT com o parser ngram (n-gramas de 2 carateres, ngram_token_size=2) em marca, modelo
+--   e matricula_chave, para a pesquisa "contém" com MATCH ... AGAINST;
+-- - índices normais em marca e modelo (igualdade e ordenação; um filtro de uma só letra continua a ser
+--   LIKE '%x%', para dar o mesmo resultado "contém" que o filtro local).
+-- Requer MySQL 5.7.6 ou superior (parser ngram).
+
+-- O parser ngram ignora os n-gramas que contêm uma stopword (ex: "a", "de"), o que tornaria
+-- invisíveis muitas marcas e matrículas. As stopwords são desligadas só nesta sessão, que é a que cria
+-- os índices. A migração não mexe em variáveis globais do servidor: para que futuras reconstruções
+-- (ex: OPTIMIZE TABLE, ALTER TABLE ... FORCE) também as ignorem, o DBA deve acrescentar ao my.cnf,
+-- na secção [mysqld]:
+--     innodb_ft_enable_stopword = OFF
+SET SESSION innodb_ft_enable_stopword = OFF;
+
+ALTER TABLE gsa_db.veiculo
+    ADD COLUMN matricula_chave VARCHAR(20)
+        GENERATED ALWAYS AS (UPPER(REPLACE(REPLACE(matricula, '-', ''), ' ', ''))) STORED;
+
+CREATE INDEX idx_veiculo_matricula_chave ON gsa_db.veiculo (matricula_chave);
+CREATE INDEX idx_veiculo_marca ON gsa_db.veiculo (marca);
+CREATE INDEX idx_veiculo_modelo ON gsa_db.veiculo (modelo);
+
+CREATE FULLTEXT INDEX ft_veiculo_marca ON gsa_db.veiculo (marca) WITH PARSER ngram;
+CREATE FULLTEXT INDEX ft_veiculo_modelo ON gsa_db.veiculo (modelo) WITH PARSER ngram;
+CREATE FULLTEXT INDEX ft_veiculo_matricula_chave ON gsa_db.veiculo (matricula_chave) WITH PARSER ngram;
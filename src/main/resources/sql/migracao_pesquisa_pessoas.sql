@@ -0,0 +1,7 @@
+-- Índices para os seletores com pesquisa de responsável e comprador (UtilizadorDAO.pesquisarParaSelecao,
+-- CompradorDAO.pesquisarPorPrefixo), que substituem as JComboBox com todos os utilizadores e compradores.
+-- As pesquisas são por prefixo (LIKE 'x%'), pelo que um índice normal na coluna chega.
+-- comprador.email já é UNIQUE (e portanto já tem índice): a pesquisa por email usa-o sem alterações.
+
+CREATE INDEX idx_utilizador_nome ON gsa_db.utilizador (nome);
+CREATE INDEX idx_comprador_nome_completo ON gsa_db.comprador (nome_completo);